@@ -15,6 +15,10 @@
  */
 package com.palantir.atlasdb.transaction.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 import com.palantir.exception.NotInitializedException;
 
 public interface TransactionManager extends AutoCloseable {
@@ -65,6 +69,39 @@ public interface TransactionManager extends AutoCloseable {
      */
     <T, E extends Exception> T runTaskWithRetry(TransactionTask<T, E> task) throws E;
 
+    /**
+     * Submits a blocking call of {@link #runTaskWithRetry(TransactionTask)} to the given executor, and returns a
+     * future that completes with the task's result once the transaction has committed. If the task or the commit
+     * fails, the future completes exceptionally with the same exception that
+     * {@link #runTaskWithRetry(TransactionTask)} would have thrown. If the executor rejects the task, the future
+     * completes exceptionally with the {@link RejectedExecutionException}.
+     * <p>
+     * This is not a non-blocking implementation: only the calling thread is freed. The whole transaction, including
+     * its retries, still blocks an executor thread from start to commit.
+     *
+     * @param task task to run
+     * @param executor executor on which to run the task
+     *
+     * @return future for the value returned by task
+     */
+    default <T, E extends Exception> CompletableFuture<T> runTaskWithRetryAsync(
+            TransactionTask<T, E> task,
+            Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(runTaskWithRetry(task));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * {@link #runTaskWithRetry(TransactionTask)} should be preferred over
      * {@link #runTaskThrowOnConflict(TransactionTask)}.
@@ -48,4 +48,17 @@ public interface TransactionService {
      */
     void putUnlessExists(long startTimestamp, long commitTimestamp)
             throws KeyAlreadyExistsException;
+
+    /**
+     * Equivalent to calling {@link #putUnlessExists(long, long)} for each entry, but implementations may write all
+     * entries in a single request. This operation is not atomic across start timestamps.
+     * @throws KeyAlreadyExistsException If any value was already set. Other values in the map may or may not
+     * have been written; {@link #get(Iterable)} should be called to check which were.
+     * @throws RuntimeException If a runtime exception is thrown, this operation may or may
+     * not have ran for each entry.
+     */
+    default void putUnlessExists(Map<Long, Long> startTimestampToCommitTimestamp)
+            throws KeyAlreadyExistsException {
+        startTimestampToCommitTimestamp.forEach(this::putUnlessExists);
+    }
 }
@@ -55,6 +55,16 @@ public abstract class CassandraKeyValueServiceConfig implements KeyValueServiceC
         return 30;
     }
 
+    /**
+     * If true, requests fanned out across hosts run on a work-stealing pool that adds threads while requests are
+     * blocked, rather than on a fixed pool of {@link #poolSize()} threads per host. Concurrency is then bounded by
+     * the connection pools rather than by the executor.
+     */
+    @Value.Default
+    public boolean useWorkStealingExecutor() {
+        return false;
+    }
+
     /**
      * The cap at which the connection pool is able to grow over the {@link #poolSize()}
      * given high request load. When load is depressed, the pool will shrink back to its
@@ -243,6 +253,22 @@ public abstract class CassandraKeyValueServiceConfig implements KeyValueServiceC
 
     public abstract Optional<CassandraJmxCompactionConfig> jmx();
 
+    /**
+     * If true, requests for a key are sent to whichever of its live replicas has been answering fastest, avoiding
+     * replicas much slower than the rest, rather than to a replica chosen at random.
+     */
+    @Value.Default
+    public boolean latencyAwareReplicaSelection() {
+        return false;
+    }
+
+    /**
+     * If set, a read that has not completed after this percentile (between 0 and 100, e.g. 99) of its host's recent
+     * response times is also sent to another replica of the keys being read. Whichever of the two reads succeeds first
+     * is used, and the other is left to finish in the background.
+     */
+    public abstract Optional<Double> speculativeRetryPercentile();
+
     @Override
     public final String type() {
         return TYPE;
@@ -269,5 +295,7 @@ public abstract class CassandraKeyValueServiceConfig implements KeyValueServiceC
         double evictionCheckProportion = proportionConnectionsToCheckPerEvictionRun();
         Preconditions.checkArgument(evictionCheckProportion > 0.01 && evictionCheckProportion <= 1,
                 "'proportionConnectionsToCheckPerEvictionRun' must be between 0.01 and 1");
+        speculativeRetryPercentile().ifPresent(percentile -> Preconditions.checkArgument(
+                percentile > 0 && percentile < 100, "'speculativeRetryPercentile' must be between 0 and 100"));
     }
 }
@@ -33,6 +33,18 @@ public interface CassandraClientPool {
             InetSocketAddress specifiedHost,
             FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     <V, K extends Exception> V runWithRetry(FunctionCheckedException<CassandraClient, V, K> fn) throws K;
+
+    /**
+     * Like {@link #runWithRetryOnHost(InetSocketAddress, FunctionCheckedException)}, but if speculative retry is
+     * configured and the host is slow to answer, the function is also run on another replica of all the given keys.
+     * The function runs on the given host in the calling thread, and that result is returned if it succeeds;
+     * otherwise the result from the other replica is returned. The function may therefore run more than once, and
+     * must not have side effects.
+     */
+    <V, K extends Exception> V runWithSpeculativeRetryOnHost(
+            InetSocketAddress specifiedHost,
+            Iterable<byte[]> keys,
+            FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     InetSocketAddress getAddressForHost(String host) throws UnknownHostException;
     InetSocketAddress getRandomHostForKey(byte[] key);
     Map<InetSocketAddress, CassandraClientPoolingContainer> getCurrentPools();
@@ -28,12 +28,20 @@ import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -143,6 +151,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
 
     @VisibleForTesting
     static final int MAX_TRIES_TOTAL = 6;
+    private static final int MAX_CONCURRENT_SPECULATIVE_RETRIES = 16;
     @VisibleForTesting
     volatile RangeMap<LightweightOppToken, List<InetSocketAddress>> tokenMap = ImmutableRangeMap.of();
 
@@ -158,6 +167,11 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     private final RequestMetrics aggregateMetrics = new RequestMetrics(null);
     private final Map<InetSocketAddress, RequestMetrics> metricsByHost = new HashMap<>();
     private final InitializingWrapper wrapper = new InitializingWrapper();
+    private final HostLatencyTracker latencyTracker = new HostLatencyTracker();
+    private final ScheduledExecutorService speculativeRetryExecutor;
+    private final ExecutorService readAttemptExecutor;
+    private final Meter speculativeRetries = metricsManager.registerOrGetMeter(
+            CassandraClientPool.class, "speculativeRetries");
 
     private List<InetSocketAddress> cassandraHosts;
     private ScheduledFuture<?> refreshPoolFuture;
@@ -195,6 +209,16 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
                 .setDaemon(true)
                 .setNameFormat("CassandraClientPoolRefresh-%d")
                 .build()));
+        this.speculativeRetryExecutor = Tracers.wrap(PTExecutors.newScheduledThreadPool(
+                MAX_CONCURRENT_SPECULATIVE_RETRIES,
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("CassandraClientPoolSpeculativeRetry-%d")
+                        .build()));
+        this.readAttemptExecutor = Tracers.wrap(PTExecutors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("CassandraClientPoolReadAttempt-%d")
+                .build()));
     }
 
     private void tryInitialize() {
@@ -231,6 +255,8 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     @Override
     public void shutdown() {
         refreshDaemon.shutdown();
+        speculativeRetryExecutor.shutdownNow();
+        readAttemptExecutor.shutdown();
         currentPools.forEach((address, cassandraClientPoolingContainer) ->
                 cassandraClientPoolingContainer.shutdownPooling());
         metricsManager.deregisterMetrics();
@@ -314,6 +340,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
     @VisibleForTesting
     void removePool(InetSocketAddress removedServerAddress) {
         blacklist.remove(removedServerAddress);
+        latencyTracker.removeHost(removedServerAddress);
         try {
             currentPools.get(removedServerAddress).shutdownPooling();
         } catch (Exception e) {
@@ -428,11 +455,54 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
             log.trace("Current ring view is: {}.",
                     SafeArg.of("tokenMap", CassandraLogHelper.tokenMap(tokenMap)));
             return getRandomGoodHost().getHost();
+        } else if (config.latencyAwareReplicaSelection()) {
+            List<InetSocketAddress> pooledOwnerHosts = liveOwnerHosts.stream()
+                    .filter(currentPools::containsKey)
+                    .collect(Collectors.toList());
+            if (pooledOwnerHosts.isEmpty()) {
+                log.debug("None of the live hosts that own the given range have a connection pool yet."
+                        + " We will choose a random host instead.");
+                return getRandomGoodHost().getHost();
+            }
+            return latencyTracker.selectReplica(pooledOwnerHosts);
         } else {
             return getRandomHostByActiveConnections(Maps.filterKeys(currentPools, liveOwnerHosts::contains));
         }
     }
 
+    /**
+     * Picks a live replica other than the given host that owns all of the given keys.
+     */
+    private Optional<InetSocketAddress> getAlternativeReplicaForKeys(InetSocketAddress host, Iterable<byte[]> keys) {
+        RangeMap<LightweightOppToken, List<InetSocketAddress>> currentTokenMap = tokenMap;
+        Set<InetSocketAddress> commonReplicas = null;
+        for (byte[] key : keys) {
+            List<InetSocketAddress> hostsForKey = currentTokenMap.get(new LightweightOppToken(key));
+            if (hostsForKey == null) {
+                return Optional.empty();
+            }
+            if (commonReplicas == null) {
+                commonReplicas = Sets.newHashSet(hostsForKey);
+            } else {
+                commonReplicas.retainAll(hostsForKey);
+            }
+            if (commonReplicas.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+        if (commonReplicas == null) {
+            return Optional.empty();
+        }
+
+        commonReplicas.remove(host);
+        commonReplicas.removeAll(blacklist.getBlacklistedHosts().keySet());
+        commonReplicas.retainAll(currentPools.keySet());
+        if (commonReplicas.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(latencyTracker.selectReplica(ImmutableList.copyOf(commonReplicas)));
+    }
+
     private static InetSocketAddress getRandomHostByActiveConnections(
             Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
         return WeightedHosts.create(pools).getRandomHost();
@@ -631,6 +701,110 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         }
     }
 
+    @Override
+    public <V, K extends Exception> V runWithSpeculativeRetryOnHost(
+            InetSocketAddress specifiedHost,
+            Iterable<byte[]> keys,
+            FunctionCheckedException<CassandraClient, V, K> fn) throws K {
+        OptionalLong thresholdNanos = config.speculativeRetryPercentile()
+                .map(percentile -> latencyTracker.getLatencyPercentileNanos(specifiedHost, percentile))
+                .orElse(OptionalLong.empty());
+        if (!thresholdNanos.isPresent()) {
+            return runWithRetryOnHost(specifiedHost, fn);
+        }
+        Optional<InetSocketAddress> alternativeHost = getAlternativeReplicaForKeys(specifiedHost, keys);
+        if (!alternativeHost.isPresent()) {
+            return runWithRetryOnHost(specifiedHost, fn);
+        }
+
+        FirstSuccessfulAttempt<V> result = new FirstSuccessfulAttempt<>();
+        ScheduledFuture<?> speculativeAttempt = speculativeRetryExecutor.schedule(
+                () -> result.run(() -> runSpeculativeAttempt(
+                        specifiedHost, alternativeHost.get(), thresholdNanos.getAsLong(), fn)),
+                thresholdNanos.getAsLong(),
+                TimeUnit.NANOSECONDS);
+        try {
+            readAttemptExecutor.execute(() -> {
+                result.run(() -> runWithRetryOnHost(specifiedHost, fn));
+                // Never interrupt an attempt, as that would break the Thrift connection it is using.
+                if (speculativeAttempt.cancel(false)) {
+                    result.skipped();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            speculativeAttempt.cancel(false);
+            throw e;
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw CassandraClientPoolImpl.<K>rethrow(e.getCause());
+        }
+    }
+
+    private <V, K extends Exception> V runSpeculativeAttempt(
+            InetSocketAddress specifiedHost,
+            InetSocketAddress alternativeHost,
+            long thresholdNanos,
+            FunctionCheckedException<CassandraClient, V, K> fn) throws K {
+        speculativeRetries.mark();
+        log.debug("Speculatively retrying a query intended for host {} on {}, as it took longer than {}ns.",
+                SafeArg.of("host", CassandraLogHelper.host(specifiedHost)),
+                SafeArg.of("alternativeHost", CassandraLogHelper.host(alternativeHost)),
+                SafeArg.of("thresholdNanos", thresholdNanos));
+        return runWithRetryOnHost(alternativeHost, fn);
+    }
+
+    /**
+     * The result of the first of a read and its speculative retry to succeed, or the first failure if neither does.
+     * The attempt that loses keeps running, and its result is ignored.
+     */
+    private static final class FirstSuccessfulAttempt<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger remainingAttempts = new AtomicInteger(2);
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        void run(Callable<V> attempt) {
+            try {
+                result.complete(attempt.call());
+            } catch (Throwable t) {
+                firstFailure.compareAndSet(null, t);
+                finishAttempt();
+            }
+        }
+
+        /**
+         * Called instead of {@link #run} for an attempt that will never be made.
+         */
+        void skipped() {
+            finishAttempt();
+        }
+
+        V get() throws InterruptedException, ExecutionException {
+            return result.get();
+        }
+
+        private void finishAttempt() {
+            if (remainingAttempts.decrementAndGet() == 0) {
+                result.completeExceptionally(firstFailure.get());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K extends Exception> RuntimeException rethrow(Throwable throwable) throws K {
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        throw (K) throwable;
+    }
+
     @Override
     public <V, K extends Exception> V run(FunctionCheckedException<CassandraClient, V, K> fn) throws K {
         return runOnHost(getRandomGoodHost().getHost(), fn);
@@ -648,6 +822,7 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
             FunctionCheckedException<CassandraClient, V, K> fn) throws K {
 
         recordRequestOnHost(hostPool);
+        long startNanos = System.nanoTime();
         try {
             return hostPool.runWithPooledResource(fn);
         } catch (Exception e) {
@@ -656,9 +831,17 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
                 recordConnectionExceptionOnHost(hostPool);
             }
             throw e;
+        } finally {
+            // Failures and timeouts count too, or hosts that fail slowly would look fast.
+            latencyTracker.recordLatency(hostPool.getHost(), System.nanoTime() - startNanos);
         }
     }
 
+    @VisibleForTesting
+    HostLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
     private void recordRequestOnHost(CassandraClientPoolingContainer hostPool) {
         updateMetricOnAggregateAndHost(hostPool, RequestMetrics::markRequest);
     }
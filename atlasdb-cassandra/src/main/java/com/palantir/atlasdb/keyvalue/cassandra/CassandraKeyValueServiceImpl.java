@@ -274,8 +274,9 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                                        Optional<LeaderConfig> leaderConfig,
                                        boolean initializeAsync,
                                        QosClient qosClient) {
-        super(AbstractKeyValueService.createFixedThreadPool("Atlas Cassandra KVS",
-                configManager.getConfig().poolSize() * configManager.getConfig().servers().size()));
+        super(AbstractKeyValueService.createThreadPool("Atlas Cassandra KVS",
+                configManager.getConfig().poolSize() * configManager.getConfig().servers().size(),
+                configManager.getConfig().useWorkStealingExecutor()));
         this.log = log;
         this.configManager = configManager;
         this.clientPool = CassandraClientPoolImpl.create(configManager.getConfig(), initializeAsync, qosClient);
@@ -466,7 +467,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             int fetchBatchCount = configManager.getConfig().fetchBatchCount();
             for (final List<byte[]> batch : Lists.partition(rows, fetchBatchCount)) {
                 rowCount += batch.size();
-                result.putAll(clientPool.runWithRetryOnHost(host,
+                result.putAll(clientPool.runWithSpeculativeRetryOnHost(host, batch,
                         new FunctionCheckedException<CassandraClient, Map<Cell, Value>, Exception>() {
                             @Override
                             public Map<Cell, Value> apply(CassandraClient client) throws Exception {
@@ -654,42 +655,42 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                         SafeArg.of("stacktrace", CassandraKeyValueServices.getFilteredStackTrace("com.palantir")));
             }
             for (final List<Cell> partition : Lists.partition(ImmutableList.copyOf(columnCells), fetchBatchCount)) {
-                Callable<Void> multiGetCallable = () -> clientPool.runWithRetryOnHost(host,
-                        new FunctionCheckedException<CassandraClient, Void, Exception>() {
-                            @Override
-                            public Void apply(CassandraClient client) throws Exception {
-                                Range range = Range.singleColumn(col, startTs);
-                                Limit limit = loadAllTs ? Limit.NO_LIMIT : Limit.ONE;
-                                SlicePredicate predicate = SlicePredicates.create(range, limit);
-
-                                List<ByteBuffer> rowNames = Lists.newArrayListWithCapacity(partition.size());
-                                for (Cell c : partition) {
-                                    rowNames.add(ByteBuffer.wrap(c.getRowName()));
+                List<byte[]> rowNames = Lists.transform(partition, Cell::getRowName);
+                Callable<Void> multiGetCallable = () -> {
+                    // The visitor is only called once the query has completed, as with speculative retry the query
+                    // itself may run more than once.
+                    visitor.visit(clientPool.runWithSpeculativeRetryOnHost(host, rowNames,
+                            new FunctionCheckedException<CassandraClient, Map<ByteBuffer, List<ColumnOrSuperColumn>>,
+                                    Exception>() {
+                                @Override
+                                public Map<ByteBuffer, List<ColumnOrSuperColumn>> apply(CassandraClient client)
+                                        throws Exception {
+                                    Range range = Range.singleColumn(col, startTs);
+                                    Limit limit = loadAllTs ? Limit.NO_LIMIT : Limit.ONE;
+                                    SlicePredicate predicate = SlicePredicates.create(range, limit);
+
+                                    if (log.isTraceEnabled()) {
+                                        log.trace("Requesting {} cells from {} {}starting at timestamp {} on {}",
+                                                SafeArg.of("cells", partition.size()),
+                                                LoggingArgs.tableRef(tableRef),
+                                                SafeArg.of("timestampClause", loadAllTs ? "for all timestamps " : ""),
+                                                SafeArg.of("startTs", startTs),
+                                                SafeArg.of("host", CassandraLogHelper.host(host)));
+                                    }
+
+                                    return multigetInternal(kvsMethodName, client, tableRef, wrap(rowNames), predicate,
+                                            consistency);
                                 }
 
-                                if (log.isTraceEnabled()) {
-                                    log.trace("Requesting {} cells from {} {}starting at timestamp {} on {}",
-                                            SafeArg.of("cells", partition.size()),
-                                            LoggingArgs.tableRef(tableRef),
-                                            SafeArg.of("timestampClause", loadAllTs ? "for all timestamps " : ""),
-                                            SafeArg.of("startTs", startTs),
-                                            SafeArg.of("host", CassandraLogHelper.host(host)));
+                                @Override
+                                public String toString() {
+                                    return "multiget_slice(" + host + ", " + colFam + ", "
+                                            + partition.size() + " cells" + ")";
                                 }
 
-                                Map<ByteBuffer, List<ColumnOrSuperColumn>> results =
-                                        multigetInternal(kvsMethodName, client, tableRef, rowNames, predicate,
-                                                consistency);
-                                visitor.visit(results);
-                                return null;
-                            }
-
-                            @Override
-                            public String toString() {
-                                return "multiget_slice(" + host + ", " + colFam + ", "
-                                        + partition.size() + " cells" + ")";
-                            }
-
-                        });
+                            }));
+                    return null;
+                };
                 tasks.add(AnnotatedCallable.wrapWithThreadName(AnnotationType.PREPEND,
                         "Atlas loadWithTs " + partition.size() + " cells from " + tableRef + " on " + host,
                         multiGetCallable));
@@ -810,7 +811,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                                                              BatchColumnRangeSelection batchColumnRangeSelection,
                                                              long startTs) {
         try {
-            return clientPool.runWithRetryOnHost(host,
+            return clientPool.runWithSpeculativeRetryOnHost(host, rows,
                     new FunctionCheckedException<CassandraClient, RowColumnRangeExtractor.RowColumnRangeResult,
                             Exception>() {
                         @Override
@@ -2130,6 +2131,9 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
      * interleave.  However, concurrent writes to the same Cell will not both report success.
      * One of them will throw {@link KeyAlreadyExistsException}.
      * <p>
+     * Each cell is written with its own check-and-set, and the check-and-sets of different cells run in parallel.
+     * All of them are attempted even if some of the cells already exist; the exception lists every cell that did.
+     * <p>
      * Does not require all Cassandra nodes to be up and available, works as long as quorum is achieved.
      *
      * @param tableRef the name of the table to put values into.
@@ -2140,22 +2144,24 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     @Override
     public void putUnlessExists(final TableReference tableRef, final Map<Cell, byte[]> values)
             throws KeyAlreadyExistsException {
-        try {
-            clientPool.runWithRetry(client -> {
-                for (Entry<Cell, byte[]> e : values.entrySet()) {
-                    CheckAndSetRequest request = CheckAndSetRequest.newCell(tableRef, e.getKey(), e.getValue());
-                    CASResult casResult = executeCheckAndSet(client, request);
-                    if (!casResult.isSuccess()) {
-                        throw new KeyAlreadyExistsException(
-                                String.format("The row in table %s already exists.", tableRef.getQualifiedName()),
-                                ImmutableList.of(e.getKey()));
-                    }
-                }
-                clientPool.markWritesForTable(values, tableRef);
-                return null;
-            });
-        } catch (Exception e) {
-            throw QosAwareThrowables.unwrapAndThrowRateLimitExceededOrAtlasDbDependencyException(e);
+        List<Callable<Optional<Cell>>> tasks = Lists.newArrayListWithCapacity(values.size());
+        for (Entry<Cell, byte[]> e : values.entrySet()) {
+            tasks.add(() -> clientPool.runWithRetry(client -> {
+                CheckAndSetRequest request = CheckAndSetRequest.newCell(tableRef, e.getKey(), e.getValue());
+                CASResult casResult = executeCheckAndSet(client, request);
+                return casResult.isSuccess() ? Optional.<Cell>empty() : Optional.of(e.getKey());
+            }));
+        }
+
+        Set<Cell> existingCells = runAllTasksCancelOnFailure(tasks).stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toSet());
+        clientPool.markWritesForTable(Maps.filterKeys(values, cell -> !existingCells.contains(cell)), tableRef);
+        if (!existingCells.isEmpty()) {
+            throw new KeyAlreadyExistsException(
+                    String.format("The row in table %s already exists.", tableRef.getQualifiedName()),
+                    existingCells);
         }
     }
 
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Tracks the response times of Cassandra hosts, so that requests for a key can be sent to the replica that is likely
+ * to answer quickest.
+ * <p>
+ * Each host keeps an exponentially weighted moving average (EWMA) of its response times. While a host receives no
+ * requests its average decays towards zero, halving every {@link #IDLE_HALF_LIFE_NANOS}; a host that was avoided for
+ * being slow is therefore eventually probed again instead of being shunned forever. Each host also keeps a histogram
+ * of recent response times, from which speculative retry thresholds are read.
+ */
+final class HostLatencyTracker {
+    private static final double EWMA_WEIGHT = 0.2;
+    private static final long IDLE_HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * A replica is considered an outlier, and is not chosen, if its average exceeds the best replica's by this factor
+     * plus {@link #OUTLIER_SLACK_NANOS}. The slack stops noise between sub-millisecond averages from counting.
+     */
+    private static final double OUTLIER_FACTOR = 3.0;
+    private static final long OUTLIER_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @VisibleForTesting
+    static final int MIN_SAMPLES_FOR_THRESHOLD = 100;
+    private static final long THRESHOLD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongSupplier clock;
+    private final Map<InetSocketAddress, HostLatency> latencies = Maps.newConcurrentMap();
+
+    HostLatencyTracker() {
+        this(System::nanoTime);
+    }
+
+    @VisibleForTesting
+    HostLatencyTracker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    void recordLatency(InetSocketAddress host, long latencyNanos) {
+        latencies.computeIfAbsent(host, unused -> new HostLatency()).record(latencyNanos, clock.getAsLong());
+    }
+
+    void removeHost(InetSocketAddress host) {
+        latencies.remove(host);
+    }
+
+    /**
+     * The decayed average response time of the host in nanoseconds, or zero if it has not answered any requests.
+     */
+    double getAverageLatencyNanos(InetSocketAddress host) {
+        double average = getMeasuredAverageNanos(host);
+        return Double.isNaN(average) ? 0.0 : average;
+    }
+
+    private double getMeasuredAverageNanos(InetSocketAddress host) {
+        HostLatency latency = latencies.get(host);
+        return latency == null ? Double.NaN : latency.getAverage(clock.getAsLong());
+    }
+
+    /**
+     * Chooses one of the given replicas. Outliers are discarded, and the faster of two random remaining replicas is
+     * returned. Comparing just two random replicas, rather than always picking the fastest, keeps load spread across
+     * replicas with similar response times instead of piling it all onto one of them.
+     * <p>
+     * Replicas that have not answered any requests yet are never outliers and count as being as fast as the best
+     * measured replica, so that they get sampled; they do not affect which measured replicas are outliers.
+     */
+    InetSocketAddress selectReplica(List<InetSocketAddress> replicas) {
+        Preconditions.checkArgument(!replicas.isEmpty(), "Cannot select a replica from an empty list");
+        if (replicas.size() == 1) {
+            return replicas.get(0);
+        }
+
+        double[] averages = new double[replicas.size()];
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            averages[i] = getMeasuredAverageNanos(replicas.get(i));
+            if (!Double.isNaN(averages[i])) {
+                best = Math.min(best, averages[i]);
+            }
+        }
+        double outlierThreshold = best * OUTLIER_FACTOR + OUTLIER_SLACK_NANOS;
+        List<Integer> candidates = Lists.newArrayListWithCapacity(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            if (Double.isNaN(averages[i])) {
+                averages[i] = best;
+                candidates.add(i);
+            } else if (averages[i] <= outlierThreshold) {
+                candidates.add(i);
+            }
+        }
+
+        if (candidates.size() == 1) {
+            return replicas.get(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int firstIndex = random.nextInt(candidates.size());
+        int secondIndex = random.nextInt(candidates.size() - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
+        }
+        int first = candidates.get(firstIndex);
+        int second = candidates.get(secondIndex);
+        return replicas.get(averages[second] < averages[first] ? second : first);
+    }
+
+    /**
+     * The given percentile of the host's recent response times, in nanoseconds, or empty if too few requests have
+     * been made to the host to tell.
+     *
+     * @param percentile between 0 and 100, exclusive
+     */
+    OptionalLong getLatencyPercentileNanos(InetSocketAddress host, double percentile) {
+        HostLatency latency = latencies.get(host);
+        return latency == null ? OptionalLong.empty() : latency.getPercentile(percentile, clock.getAsLong());
+    }
+
+    private static final class HostLatency {
+        private final Histogram histogram = new Histogram(new ExponentiallyDecayingReservoir());
+
+        private double average = Double.NaN;
+        private long lastRecordedNanos;
+
+        private double cachedPercentile = Double.NaN;
+        private long cachedPercentileValue;
+        private long cachedPercentileComputedNanos;
+
+        synchronized void record(long latencyNanos, long nowNanos) {
+            histogram.update(latencyNanos);
+            if (Double.isNaN(average)) {
+                average = latencyNanos;
+            } else {
+                double current = getAverage(nowNanos);
+                average = current + EWMA_WEIGHT * (latencyNanos - current);
+            }
+            lastRecordedNanos = nowNanos;
+        }
+
+        synchronized double getAverage(long nowNanos) {
+            if (Double.isNaN(average)) {
+                return Double.NaN;
+            }
+            long idleNanos = Math.max(0, nowNanos - lastRecordedNanos);
+            return average * Math.pow(0.5, (double) idleNanos / IDLE_HALF_LIFE_NANOS);
+        }
+
+        synchronized OptionalLong getPercentile(double percentile, long nowNanos) {
+            if (histogram.getCount() < MIN_SAMPLES_FOR_THRESHOLD) {
+                return OptionalLong.empty();
+            }
+            if (percentile != cachedPercentile || nowNanos - cachedPercentileComputedNanos > THRESHOLD_REFRESH_NANOS) {
+                cachedPercentileValue = (long) histogram.getSnapshot().getValue(percentile / 100);
+                cachedPercentile = percentile;
+                cachedPercentileComputedNanos = nowNanos;
+            }
+            return OptionalLong.of(cachedPercentileValue);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.keyvalue.cassandra;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -31,6 +32,8 @@ import java.net.UnknownHostException;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cassandra.thrift.InvalidRequestException;
 import org.apache.cassandra.thrift.TimedOutException;
@@ -39,11 +42,15 @@ import org.apache.thrift.transport.TTransportException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableRangeMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
 import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.common.base.FunctionCheckedException;
@@ -60,6 +67,7 @@ public class CassandraClientPoolTest {
     private static final InetSocketAddress HOST_1 = new InetSocketAddress(HOSTNAME_1, DEFAULT_PORT);
     private static final InetSocketAddress HOST_2 = new InetSocketAddress(HOSTNAME_2, DEFAULT_PORT);
     private static final InetSocketAddress HOST_3 = new InetSocketAddress(HOSTNAME_3, DEFAULT_PORT);
+    private static final byte[] KEY = new byte[] {1};
     private MetricRegistry metricRegistry;
 
     @Before
@@ -253,6 +261,68 @@ public class CassandraClientPoolTest {
         verifyBlacklistMetric(1);
     }
 
+    @Test
+    public void recordsLatencyOfFailedRequests() {
+        CassandraClientPoolImpl cassandraClientPool = clientPoolWithServersInCurrentPool(ImmutableSet.of(HOST_1));
+        CassandraClientPoolingContainer container = cassandraClientPool.getCurrentPools().get(HOST_1);
+        setAnswerForHost(container, invocation -> {
+            Thread.sleep(10);
+            throw new SocketTimeoutException();
+        });
+
+        runNoopOnHostWithException(HOST_1, cassandraClientPool);
+
+        assertThat(cassandraClientPool.getLatencyTracker().getAverageLatencyNanos(HOST_1),
+                greaterThanOrEqualTo((double) TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void speculativeRetryDoesNotWaitForSlowOriginalRead() throws Exception {
+        CassandraClientPoolImpl cassandraClientPool = speculativelyRetryingClientPool();
+        CountDownLatch slowReadReleased = new CountDownLatch(1);
+        setAnswerForHost(cassandraClientPool.getCurrentPools().get(HOST_1), invocation -> {
+            slowReadReleased.await();
+            return HOST_1;
+        });
+        setAnswerForHost(cassandraClientPool.getCurrentPools().get(HOST_2), invocation -> HOST_2);
+
+        try {
+            assertThat(cassandraClientPool.runWithSpeculativeRetryOnHost(HOST_1, ImmutableList.of(KEY), read()),
+                    equalTo(HOST_2));
+        } finally {
+            slowReadReleased.countDown();
+        }
+    }
+
+    @Test
+    public void speculativeRetryUsesOriginalReadIfItFinishesFirst() throws Exception {
+        CassandraClientPoolImpl cassandraClientPool = speculativelyRetryingClientPool();
+        CountDownLatch slowReadReleased = new CountDownLatch(1);
+        setAnswerForHost(cassandraClientPool.getCurrentPools().get(HOST_1), invocation -> HOST_1);
+        setAnswerForHost(cassandraClientPool.getCurrentPools().get(HOST_2), invocation -> {
+            slowReadReleased.await();
+            return HOST_2;
+        });
+
+        try {
+            assertThat(cassandraClientPool.runWithSpeculativeRetryOnHost(HOST_1, ImmutableList.of(KEY), read()),
+                    equalTo(HOST_1));
+        } finally {
+            slowReadReleased.countDown();
+        }
+    }
+
+    private CassandraClientPoolImpl speculativelyRetryingClientPool() {
+        CassandraClientPoolImpl cassandraClientPool = clientPoolWithServersInCurrentPool(
+                ImmutableSet.of(HOST_1, HOST_2),
+                Optional.of(50.0));
+        cassandraClientPool.tokenMap = ImmutableRangeMap.of(Range.all(), ImmutableList.of(HOST_1, HOST_2));
+        for (int i = 0; i < HostLatencyTracker.MIN_SAMPLES_FOR_THRESHOLD; i++) {
+            cassandraClientPool.getLatencyTracker().recordLatency(HOST_1, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return cassandraClientPool;
+    }
+
     private void verifyNumberOfAttemptsOnHost(InetSocketAddress host,
             CassandraClientPool cassandraClientPool,
             int numAttempts) {
@@ -302,6 +372,11 @@ public class CassandraClientPoolTest {
         return clientPoolWith(ImmutableSet.of(), servers, Optional.empty());
     }
 
+    private CassandraClientPoolImpl clientPoolWithServersInCurrentPool(ImmutableSet<InetSocketAddress> servers,
+            Optional<Double> speculativeRetryPercentile) {
+        return clientPoolWith(ImmutableSet.of(), servers, Optional.empty(), speculativeRetryPercentile);
+    }
+
     private CassandraClientPoolImpl throwingClientPoolWithServersInCurrentPool(ImmutableSet<InetSocketAddress> servers,
             Exception exception) {
         return clientPoolWith(ImmutableSet.of(), servers, Optional.of(exception));
@@ -312,10 +387,20 @@ public class CassandraClientPoolTest {
             ImmutableSet<InetSocketAddress> servers,
             ImmutableSet<InetSocketAddress> serversInPool,
             Optional<Exception> failureMode) {
+        return clientPoolWith(servers, serversInPool, failureMode, Optional.empty());
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType") // Unpacking it seems less readable
+    private CassandraClientPoolImpl clientPoolWith(
+            ImmutableSet<InetSocketAddress> servers,
+            ImmutableSet<InetSocketAddress> serversInPool,
+            Optional<Exception> failureMode,
+            Optional<Double> speculativeRetryPercentile) {
         CassandraKeyValueServiceConfig config = mock(CassandraKeyValueServiceConfig.class);
         when(config.poolRefreshIntervalSeconds()).thenReturn(POOL_REFRESH_INTERVAL_SECONDS);
         when(config.timeBetweenConnectionEvictionRunsSeconds()).thenReturn(TIME_BETWEEN_EVICTION_RUNS_SECONDS);
         when(config.servers()).thenReturn(servers);
+        when(config.speculativeRetryPercentile()).thenReturn(speculativeRetryPercentile);
 
         CassandraClientPoolImpl cassandraClientPool =
                 CassandraClientPoolImpl.createImplForTest(config, CassandraClientPoolImpl.StartupChecks.DO_NOT_RUN);
@@ -345,6 +430,16 @@ public class CassandraClientPoolTest {
         }
     }
 
+    private void setAnswerForHost(CassandraClientPoolingContainer poolingContainer, Answer<?> answer) {
+        try {
+            when(poolingContainer.runWithPooledResource(
+                    Mockito.<FunctionCheckedException<CassandraClient, Object, Exception>>any()))
+                    .thenAnswer(answer);
+        } catch (Exception e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
     private void runNoopOnHost(InetSocketAddress host, CassandraClientPool pool) {
         pool.runOnHost(host, noOp());
     }
@@ -371,6 +466,12 @@ public class CassandraClientPoolTest {
         }
     }
 
+    private FunctionCheckedException<CassandraClient, Object, RuntimeException> read() {
+        return client -> {
+            throw new AssertionError("Reads are answered by the mocked pooling containers");
+        };
+    }
+
     private FunctionCheckedException<CassandraClient, Void, RuntimeException> noOp() {
         return new FunctionCheckedException<CassandraClient, Void, RuntimeException>() {
             @Override
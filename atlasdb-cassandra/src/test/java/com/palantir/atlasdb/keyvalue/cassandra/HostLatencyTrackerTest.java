@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+public class HostLatencyTrackerTest {
+    private static final InetSocketAddress HOST_1 = new InetSocketAddress("1.0.0.1", 9160);
+    private static final InetSocketAddress HOST_2 = new InetSocketAddress("1.0.0.2", 9160);
+    private static final InetSocketAddress HOST_3 = new InetSocketAddress("1.0.0.3", 9160);
+    private static final List<InetSocketAddress> REPLICAS = ImmutableList.of(HOST_1, HOST_2, HOST_3);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HostLatencyTracker tracker = new HostLatencyTracker(clock::get);
+
+    @Test
+    public void averageIsZeroForUnknownHosts() {
+        assertThat(tracker.getAverageLatencyNanos(HOST_1)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void averageMovesTowardsRecentLatencies() {
+        tracker.recordLatency(HOST_1, millis(10));
+        assertThat(tracker.getAverageLatencyNanos(HOST_1)).isEqualTo(millis(10));
+
+        tracker.recordLatency(HOST_1, millis(20));
+        assertThat(tracker.getAverageLatencyNanos(HOST_1)).isBetween((double) millis(10), (double) millis(20));
+    }
+
+    @Test
+    public void averageDecaysWhileHostIsIdle() {
+        tracker.recordLatency(HOST_1, millis(10));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(tracker.getAverageLatencyNanos(HOST_1)).isEqualTo(millis(5));
+    }
+
+    @Test
+    public void neverSelectsOutliers() {
+        tracker.recordLatency(HOST_1, millis(2));
+        tracker.recordLatency(HOST_2, millis(3));
+        tracker.recordLatency(HOST_3, millis(100));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(tracker.selectReplica(REPLICAS)).isNotEqualTo(HOST_3);
+        }
+    }
+
+    @Test
+    public void unmeasuredReplicasDoNotMakeMeasuredOnesOutliers() {
+        tracker.recordLatency(HOST_2, millis(2));
+        tracker.recordLatency(HOST_3, millis(3));
+
+        Set<InetSocketAddress> selected = Sets.newHashSet();
+        for (int i = 0; i < 1000; i++) {
+            selected.add(tracker.selectReplica(REPLICAS));
+        }
+        // HOST_3 is slower than both other replicas, so it never wins a comparison, but it is not an outlier either.
+        assertThat(selected).containsExactlyInAnyOrder(HOST_1, HOST_2);
+    }
+
+    @Test
+    public void unmeasuredReplicasAreAlwaysCandidates() {
+        tracker.recordLatency(HOST_1, millis(2));
+        tracker.recordLatency(HOST_2, millis(100));
+
+        Set<InetSocketAddress> selected = Sets.newHashSet();
+        for (int i = 0; i < 1000; i++) {
+            selected.add(tracker.selectReplica(REPLICAS));
+        }
+        assertThat(selected).containsExactlyInAnyOrder(HOST_1, HOST_3);
+    }
+
+    @Test
+    public void selectsOnlyReplicaWithoutOutlierCheck() {
+        tracker.recordLatency(HOST_3, millis(100));
+
+        assertThat(tracker.selectReplica(ImmutableList.of(HOST_3))).isEqualTo(HOST_3);
+    }
+
+    @Test
+    public void slowReplicaIsProbedAgainOnceItsAverageHasDecayed() {
+        tracker.recordLatency(HOST_1, millis(2));
+        tracker.recordLatency(HOST_2, millis(100));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        tracker.recordLatency(HOST_1, millis(2));
+
+        assertThat(tracker.selectReplica(ImmutableList.of(HOST_1, HOST_2))).isEqualTo(HOST_2);
+    }
+
+    @Test
+    public void noPercentileUntilEnoughSamples() {
+        for (int i = 1; i < HostLatencyTracker.MIN_SAMPLES_FOR_THRESHOLD; i++) {
+            tracker.recordLatency(HOST_1, millis(1));
+        }
+        assertThat(tracker.getLatencyPercentileNanos(HOST_1, 99).isPresent()).isFalse();
+
+        tracker.recordLatency(HOST_1, millis(1));
+        assertThat(tracker.getLatencyPercentileNanos(HOST_1, 99).getAsLong()).isEqualTo(millis(1));
+    }
+
+    @Test
+    public void forgetsRemovedHosts() {
+        tracker.recordLatency(HOST_1, millis(10));
+        tracker.removeHost(HOST_1);
+
+        assertThat(tracker.getAverageLatencyNanos(HOST_1)).isEqualTo(0.0);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
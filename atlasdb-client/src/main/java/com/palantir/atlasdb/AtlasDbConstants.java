@@ -113,11 +113,15 @@ public final class AtlasDbConstants {
     public static final int DEFAULT_SWEEP_DELETE_BATCH_HINT = 128;
     public static final int DEFAULT_SWEEP_CANDIDATE_BATCH_HINT = 128;
     public static final int DEFAULT_SWEEP_READ_LIMIT = 128;
+    public static final int DEFAULT_SWEEP_THREADS = 1;
 
     public static final int DEFAULT_STREAM_IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
 
     public static final long DEFAULT_TIMESTAMP_CACHE_SIZE = 1_000_000;
 
+    public static final boolean DEFAULT_ENABLE_TRANSACTION_SERVICE_BATCHING = false;
+    public static final boolean DEFAULT_ENABLE_GROUP_COMMIT = false;
+
     public static final int MAX_TABLE_PREFIX_LENGTH = 7;
     public static final int MAX_OVERFLOW_TABLE_PREFIX_LENGTH = 6;
 
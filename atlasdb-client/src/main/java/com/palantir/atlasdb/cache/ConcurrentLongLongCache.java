@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A bounded, concurrent map from primitive longs to primitive longs, intended for caches that need to hold tens of
+ * millions of entries without boxing or per-entry objects.
+ * <p>
+ * Entries live in flat {@code long[]} arrays organised as a set-associative table: each key hashes to a bucket of
+ * {@link #WAYS} slots, and once a bucket is full a CLOCK sweep over that bucket picks the entry to evict. This gives
+ * approximate-LRU behaviour with constant work per operation. Buckets are guarded by a fixed set of striped
+ * {@link StampedLock}s; reads are optimistic and do not allocate.
+ * <p>
+ * {@link Long#MIN_VALUE} is reserved to mark empty slots and is never cached.
+ */
+public final class ConcurrentLongLongCache {
+    static final int WAYS = 8;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int NUM_STRIPES = 64;
+
+    private final long maximumSize;
+    private final int numBuckets;
+    private final long[] keys;
+    private final long[] values;
+    private final byte[] referenced;
+    private final byte[] clockHands;
+    private final StampedLock[] stripes;
+
+    private final LongAdder size = new LongAdder();
+    private final Stats stats;
+
+    public ConcurrentLongLongCache(long maximumSize) {
+        this(maximumSize, new Stats());
+    }
+
+    private ConcurrentLongLongCache(long maximumSize, Stats stats) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+        }
+        long buckets = (maximumSize + WAYS - 1) / WAYS;
+        if (buckets * WAYS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maximumSize is too large: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.numBuckets = (int) buckets;
+        this.keys = new long[numBuckets * WAYS];
+        this.values = new long[numBuckets * WAYS];
+        this.referenced = new byte[numBuckets * WAYS];
+        this.clockHands = new byte[numBuckets];
+        this.stripes = new StampedLock[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.stats = stats;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Returns the value cached for the given key, or {@code defaultValue} if there is none.
+     */
+    public long get(long key, long defaultValue) {
+        if (numBuckets == 0 || key == EMPTY) {
+            stats.misses.increment();
+            return defaultValue;
+        }
+        int bucket = bucketOf(key);
+        int base = bucket * WAYS;
+        StampedLock lock = stripeFor(bucket);
+
+        int slot = -1;
+        long value = defaultValue;
+        long stamp = lock.tryOptimisticRead();
+        for (int i = base; i < base + WAYS; i++) {
+            if (keys[i] == key) {
+                slot = i;
+                value = values[i];
+                break;
+            }
+        }
+        if (!lock.validate(stamp)) {
+            slot = -1;
+            value = defaultValue;
+            stamp = lock.readLock();
+            try {
+                for (int i = base; i < base + WAYS; i++) {
+                    if (keys[i] == key) {
+                        slot = i;
+                        value = values[i];
+                        break;
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (slot < 0) {
+            stats.misses.increment();
+            return defaultValue;
+        }
+        // Racy by design: losing a reference bit only makes eviction slightly less accurate.
+        referenced[slot] = 1;
+        stats.hits.increment();
+        return value;
+    }
+
+    /**
+     * Associates the value with the key, evicting another entry in the same bucket if the bucket is full.
+     */
+    public void put(long key, long value) {
+        if (numBuckets == 0 || key == EMPTY) {
+            return;
+        }
+        int bucket = bucketOf(key);
+        int base = bucket * WAYS;
+        StampedLock lock = stripeFor(bucket);
+        long stamp = lock.writeLock();
+        try {
+            int free = -1;
+            for (int i = base; i < base + WAYS; i++) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    referenced[i] = 1;
+                    return;
+                }
+                if (free < 0 && keys[i] == EMPTY) {
+                    free = i;
+                }
+            }
+            if (free >= 0) {
+                keys[free] = key;
+                values[free] = value;
+                referenced[free] = 0;
+                size.increment();
+                return;
+            }
+            int victim = advanceClock(bucket, base);
+            keys[victim] = key;
+            values[victim] = value;
+            referenced[victim] = 0;
+            stats.evictions.increment();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all entries. Statistics are retained.
+     */
+    public void clear() {
+        long[] stamps = new long[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stamps[i] = stripes[i].writeLock();
+        }
+        try {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(referenced, (byte) 0);
+            Arrays.fill(clockHands, (byte) 0);
+            size.reset();
+        } finally {
+            for (int i = NUM_STRIPES - 1; i >= 0; i--) {
+                stripes[i].unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a new cache with the given maximum size, populated with the entries currently held by this cache.
+     * Hit, miss and eviction statistics are shared with this cache, so counters stay monotonic across resizes.
+     */
+    public ConcurrentLongLongCache withMaximumSize(long newMaximumSize) {
+        ConcurrentLongLongCache resized = new ConcurrentLongLongCache(newMaximumSize, stats);
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            int base = bucket * WAYS;
+            StampedLock lock = stripeFor(bucket);
+            long stamp = lock.readLock();
+            try {
+                for (int i = base; i < base + WAYS; i++) {
+                    if (keys[i] != EMPTY) {
+                        resized.put(keys[i], values[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return resized;
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public long estimatedSize() {
+        return size.sum();
+    }
+
+    public long hitCount() {
+        return stats.hits.sum();
+    }
+
+    public long missCount() {
+        return stats.misses.sum();
+    }
+
+    public long evictionCount() {
+        return stats.evictions.sum();
+    }
+
+    private int advanceClock(int bucket, int base) {
+        int hand = clockHands[bucket];
+        while (referenced[base + hand] != 0) {
+            referenced[base + hand] = 0;
+            hand = (hand + 1) % WAYS;
+        }
+        clockHands[bucket] = (byte) ((hand + 1) % WAYS);
+        return base + hand;
+    }
+
+    private int bucketOf(long key) {
+        // Start timestamps are handed out sequentially, so spread them before picking a bucket.
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) Long.remainderUnsigned(hash, numBuckets);
+    }
+
+    private StampedLock stripeFor(int bucket) {
+        return stripes[bucket & (NUM_STRIPES - 1)];
+    }
+
+    private static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+    }
+}
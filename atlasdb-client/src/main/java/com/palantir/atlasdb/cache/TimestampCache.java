@@ -15,44 +15,52 @@
  */
 package com.palantir.atlasdb.cache;
 
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
 
 /**
- * This class just here for readability and not directly leaking / tying us down to a Guava class in our API.
+ * Caches start to commit timestamp mappings for committed transactions in a primitive, bounded
+ * {@link ConcurrentLongLongCache}, so that lookups neither box nor create garbage.
+ * <p>
+ * The size supplier is re-read periodically on the write path, and the cache is resized live when it changes.
  */
 public class TimestampCache {
+    /**
+     * Returned by {@link #getCachedCommitTimestamp(long)} for transactions that are not in the cache. This is
+     * never a real commit timestamp, nor the failed commit timestamp that is cached for rolled back transactions.
+     */
+    public static final long NO_COMMIT_TIMESTAMP = Long.MIN_VALUE;
+    private static final long RESIZE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     private final Supplier<Long> size;
 
-    private volatile Cache<Long, Long> startToCommitTimestampCache;
+    private volatile ConcurrentLongLongCache startToCommitTimestampCache;
+    private volatile long nextResizeCheckNanos;
 
     @VisibleForTesting
-    static Cache<Long, Long> createCache(long size) {
-        return CacheBuilder.newBuilder()
-                .maximumSize(size)
-                .recordStats()
-                .build();
+    static ConcurrentLongLongCache createCache(long size) {
+        return new ConcurrentLongLongCache(size);
     }
 
     public TimestampCache(Supplier<Long> size) {
-        this.size = size;
-        startToCommitTimestampCache = createCache(size.get());
-        AtlasDbMetrics.registerCache(startToCommitTimestampCache,
-                MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
+        this(size, createCache(size.get()));
+        registerMetrics(MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
     }
 
     @VisibleForTesting
-    TimestampCache(Cache<Long, Long> cache) {
-        this.size = null;
+    TimestampCache(Supplier<Long> size, ConcurrentLongLongCache cache) {
+        this.size = size;
         this.startToCommitTimestampCache = cache;
+        this.nextResizeCheckNanos = System.nanoTime() + RESIZE_CHECK_INTERVAL_NANOS;
     }
 
     /**
@@ -62,8 +70,20 @@ public class TimestampCache {
      * @return commit timestamp for the specified transaction start timestamp if present in cache, otherwise null
      */
     @Nullable
-    public Long getCommitTimestampIfPresent(Long startTimestamp) {
-        return startToCommitTimestampCache.getIfPresent(startTimestamp);
+    public Long getCommitTimestampIfPresent(long startTimestamp) {
+        long commitTimestamp = getCachedCommitTimestamp(startTimestamp);
+        return commitTimestamp == NO_COMMIT_TIMESTAMP ? null : commitTimestamp;
+    }
+
+    /**
+     * Like {@link #getCommitTimestampIfPresent(long)}, but without boxing.
+     *
+     * @param startTimestamp transaction start timestamp
+     * @return commit timestamp for the specified transaction start timestamp if present in cache, otherwise
+     * {@link #NO_COMMIT_TIMESTAMP}
+     */
+    public long getCachedCommitTimestamp(long startTimestamp) {
+        return startToCommitTimestampCache.get(startTimestamp, NO_COMMIT_TIMESTAMP);
     }
 
     /**
@@ -73,7 +93,8 @@ public class TimestampCache {
      * @param startTimestamp transaction start timestamp
      * @param commitTimestamp transaction commit timestamp
      */
-    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+    public void putAlreadyCommittedTransaction(long startTimestamp, long commitTimestamp) {
+        maybeResize();
         startToCommitTimestampCache.put(startTimestamp, commitTimestamp);
     }
 
@@ -81,14 +102,58 @@ public class TimestampCache {
      * Clear all values from the cache.
      */
     public void clear() {
-        startToCommitTimestampCache.invalidateAll();
+        startToCommitTimestampCache.clear();
+    }
+
+    @VisibleForTesting
+    long getMaximumSize() {
+        return startToCommitTimestampCache.maximumSize();
+    }
+
+    @VisibleForTesting
+    void resizeIfNecessary() {
+        long newSize = size.get();
+        ConcurrentLongLongCache current = startToCommitTimestampCache;
+        if (newSize != current.maximumSize()) {
+            synchronized (this) {
+                if (startToCommitTimestampCache == current) {
+                    startToCommitTimestampCache = current.withMaximumSize(newSize);
+                }
+            }
+        }
+    }
+
+    private void maybeResize() {
+        long now = System.nanoTime();
+        if (now - nextResizeCheckNanos >= 0) {
+            nextResizeCheckNanos = now + RESIZE_CHECK_INTERVAL_NANOS;
+            resizeIfNecessary();
+        }
     }
 
-    // TODO(2565): create a background thread periodically polls the supplier to look for a change and
-    // resizes accordingly.
-    private void resize(long newSize) {
-        ConcurrentMap<Long, Long> existing = startToCommitTimestampCache.asMap();
-        startToCommitTimestampCache = createCache(newSize);
-        startToCommitTimestampCache.putAll(existing);
+    private void registerMetrics(String metricsPrefix) {
+        AtlasDbMetrics.registerGauges(metricsPrefix + ".cache", ImmutableMap.<String, Gauge<?>>builder()
+                .put("hit.count", () -> startToCommitTimestampCache.hitCount())
+                .put("miss.count", () -> startToCommitTimestampCache.missCount())
+                .put("request.count", () -> startToCommitTimestampCache.hitCount()
+                        + startToCommitTimestampCache.missCount())
+                .put("hit.ratio", new RatioGauge() {
+                    @Override
+                    protected Ratio getRatio() {
+                        ConcurrentLongLongCache cache = startToCommitTimestampCache;
+                        return Ratio.of(cache.hitCount(), cache.hitCount() + cache.missCount());
+                    }
+                })
+                .put("miss.ratio", new RatioGauge() {
+                    @Override
+                    protected Ratio getRatio() {
+                        ConcurrentLongLongCache cache = startToCommitTimestampCache;
+                        return Ratio.of(cache.missCount(), cache.hitCount() + cache.missCount());
+                    }
+                })
+                .put("eviction.count", () -> startToCommitTimestampCache.evictionCount())
+                .put("estimated.size", () -> startToCommitTimestampCache.estimatedSize())
+                .put("maximum.size", () -> startToCommitTimestampCache.maximumSize())
+                .build());
     }
 }
@@ -108,6 +108,22 @@ public abstract class AbstractKeyValueService implements KeyValueService {
         return Tracers.wrap(executor);
     }
 
+    /**
+     * Creates a thread pool for fanning out blocking requests to the underlying store.
+     *
+     * @param threadNamePrefix thread name prefix
+     * @param poolSize fixed thread pool size, or the target parallelism of a work-stealing pool
+     * @param workStealing if true, a work-stealing pool is created that adds threads while tasks are blocked, so that
+     *                     the number of concurrent requests is not capped by {@code poolSize}
+     * @return a new thread pool
+     */
+    protected static ExecutorService createThreadPool(String threadNamePrefix, int poolSize, boolean workStealing) {
+        if (workStealing) {
+            return Tracers.wrap(PTExecutors.newWorkStealingBlockingPool(poolSize, threadNamePrefix));
+        }
+        return createFixedThreadPool(threadNamePrefix, poolSize);
+    }
+
     @Override
     public boolean supportsCheckAndSet() {
         return true;
@@ -22,6 +22,8 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.palantir.atlasdb.cleaner.api.OnCleanupTask;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.stream.StreamChunkIndexCleanupTask;
 import com.palantir.atlasdb.table.description.TableDefinition;
 import com.palantir.atlasdb.table.description.ValueType;
 import com.palantir.atlasdb.table.description.render.Renderers;
@@ -37,6 +39,8 @@ public class StreamStoreDefinition {
     private final String longName;
     private final ValueType idType;
     private final boolean compressStream;
+    private final int readAheadBatches;
+    private final boolean deduplicateChunks;
 
     private int inMemoryThreshold;
 
@@ -46,13 +50,17 @@ public class StreamStoreDefinition {
             String longName,
             ValueType idType,
             int inMemoryThreshold,
-            boolean compressStream) {
+            boolean compressStream,
+            int readAheadBatches,
+            boolean deduplicateChunks) {
         this.streamStoreTables = streamStoreTables;
         this.shortName = shortName;
         this.longName = longName;
         this.idType = idType;
         this.inMemoryThreshold = inMemoryThreshold;
         this.compressStream = compressStream;
+        this.readAheadBatches = readAheadBatches;
+        this.deduplicateChunks = deduplicateChunks;
     }
 
     public Map<String, TableDefinition> getTables() {
@@ -61,7 +69,8 @@ public class StreamStoreDefinition {
 
     public StreamStoreRenderer getRenderer(String packageName, String name) {
         String renderedLongName = Renderers.CamelCase(longName);
-        return new StreamStoreRenderer(renderedLongName, idType, packageName, name, inMemoryThreshold, compressStream);
+        return new StreamStoreRenderer(renderedLongName, idType, packageName, name, inMemoryThreshold, compressStream,
+                readAheadBatches, deduplicateChunks);
     }
 
     public Multimap<String, Supplier<OnCleanupTask>> getCleanupTasks(
@@ -99,6 +108,15 @@ public class StreamStoreDefinition {
             }
         });
 
+        if (deduplicateChunks) {
+            TableReference chunkTable =
+                    TableReference.create(namespace, StreamTableType.CHUNK.getTableName(shortName));
+            TableReference chunkIndexTable =
+                    TableReference.create(namespace, StreamTableType.CHUNK_INDEX.getTableName(shortName));
+            cleanupTasks.put(StreamTableType.CHUNK_INDEX.getTableName(shortName),
+                    () -> new StreamChunkIndexCleanupTask(chunkTable, chunkIndexTable));
+        }
+
         return cleanupTasks;
     }
 }
@@ -32,6 +32,8 @@ public class StreamStoreDefinitionBuilder {
             Maps.newHashMapWithExpectedSize(StreamTableType.values().length);
     private int inMemoryThreshold = AtlasDbConstants.DEFAULT_STREAM_IN_MEMORY_THRESHOLD;
     private boolean compressStream;
+    private int readAheadBatches;
+    private boolean deduplicateChunks;
 
     public StreamStoreDefinitionBuilder(String shortName, String longName, ValueType valueType) {
         for (StreamTableType tableType : StreamTableType.values()) {
@@ -42,6 +44,8 @@ public class StreamStoreDefinitionBuilder {
         this.shortName = shortName;
         this.longName = longName;
         this.compressStream = false;
+        this.readAheadBatches = 0;
+        this.deduplicateChunks = false;
     }
 
     /**
@@ -97,13 +101,39 @@ public class StreamStoreDefinitionBuilder {
         return this;
     }
 
+    /**
+     * Streams loaded from the store keep this many further batches of blocks loading in the background while the
+     * current one is read, which lets large streams be read at close to the throughput of the key value service.
+     * A batch is as many blocks as fit in the in-memory threshold, and each batch is held in memory until it is read.
+     */
+    public StreamStoreDefinitionBuilder readAheadBatches(int batches) {
+        this.readAheadBatches = batches;
+        return this;
+    }
+
+    /**
+     * Splits streams into chunks at boundaries chosen from their content, and stores each distinct chunk once no
+     * matter how many streams contain it. Streams that share most of their content, such as successive versions of
+     * a document, then only store the chunks that differ. Chunks are kept in two additional tables and deleted once
+     * no stream refers to them. This cannot be combined with {@link #compressStreamInClient()}, and, as with the
+     * other options, cannot be changed for an existing StreamStore.
+     */
+    public StreamStoreDefinitionBuilder deduplicateChunks() {
+        this.deduplicateChunks = true;
+        return this;
+    }
+
     public StreamStoreDefinition build() {
         Map<String, TableDefinition> tablesToCreate = streamTables.entrySet().stream()
+                .filter(entry -> deduplicateChunks || !entry.getValue().isChunkTable())
                 .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().build()));
 
         Preconditions.checkArgument(valueType.getJavaClassName().equals("long"), "Stream ids must be a long");
         Preconditions.checkArgument(inMemoryThreshold <= StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD,
                 "inMemoryThreshold cannot be greater than %s", StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD);
+        Preconditions.checkArgument(readAheadBatches >= 0, "readAheadBatches cannot be negative");
+        Preconditions.checkArgument(!(deduplicateChunks && compressStream),
+                "Stream stores cannot both deduplicate chunks and compress streams in the client");
 
         return new StreamStoreDefinition(
                 tablesToCreate,
@@ -111,7 +141,9 @@ public class StreamStoreDefinitionBuilder {
                 longName,
                 valueType,
                 inMemoryThreshold,
-                compressStream);
+                compressStream,
+                readAheadBatches,
+                deduplicateChunks);
     }
 
 }
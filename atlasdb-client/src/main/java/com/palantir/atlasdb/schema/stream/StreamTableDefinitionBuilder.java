@@ -79,6 +79,10 @@ public class StreamTableDefinitionBuilder {
         return this;
     }
 
+    boolean isChunkTable() {
+        return streamTableType.isChunkTable();
+    }
+
     public TableDefinition build() {
         switch(streamTableType) {
 
@@ -166,6 +170,44 @@ public class StreamTableDefinitionBuilder {
                 ignoreHotspottingChecks();
             }};
 
+        case CHUNK:
+            return new TableDefinition() {{
+                javaTableName(streamTableType.getJavaClassName(prefix));
+                rowName();
+                    // The row is already a hash of the chunk, so there is nothing to gain from hashing it again.
+                    rowComponent("hash",            ValueType.SHA256HASH);
+                columns();
+                    column("value", "v",            ValueType.BLOB);
+                    column("length", "l",           ValueType.VAR_LONG);
+                // Streams reusing a chunk rewrite its length, so they conflict with a cleanup deleting the chunk.
+                conflictHandler(ConflictHandler.RETRY_ON_WRITE_WRITE);
+                maxValueSize(GenericStreamStore.BLOCK_SIZE_IN_BYTES);
+                cachePriority(CachePriority.COLD);
+                expirationStrategy(expirationStrategy);
+                if (appendHeavyAndReadLight) {
+                    appendHeavyAndReadLight();
+                }
+                ignoreHotspottingChecks();
+            }};
+
+        case CHUNK_INDEX:
+            return new TableDefinition() {{
+                javaTableName(streamTableType.getJavaClassName(prefix));
+                rowName();
+                    rowComponent("hash",            ValueType.SHA256HASH);
+                dynamicColumns();
+                    columnComponent("stream_id",    idType);
+                    value(ValueType.VAR_LONG);
+                conflictHandler(ConflictHandler.IGNORE_ALL);
+                maxValueSize(1);
+                explicitCompressionRequested();
+                expirationStrategy(expirationStrategy);
+                if (appendHeavyAndReadLight) {
+                    appendHeavyAndReadLight();
+                }
+                ignoreHotspottingChecks();
+            }};
+
         default:
             throw new IllegalStateException("Incorrectly supplied stream table type");
         }
@@ -23,7 +23,10 @@ public enum StreamTableType { // WARNING: do not change these without an upgrade
     METADATA("_stream_metadata", "StreamMetadata"),
     VALUE("_stream_value", "StreamValue"),
     HASH("_stream_hash_aidx", "StreamHashAidx"),
-    INDEX("_stream_idx", "StreamIdx");
+    INDEX("_stream_idx", "StreamIdx"),
+    // Only created for stream stores that deduplicate chunks, see StreamStoreDefinitionBuilder#deduplicateChunks.
+    CHUNK("_stream_chunk", "StreamChunk"),
+    CHUNK_INDEX("_stream_chunk_idx", "StreamChunkIdx");
 
     private final String tableSuffix;
     private final String javaSuffix;
@@ -41,6 +44,10 @@ public enum StreamTableType { // WARNING: do not change these without an upgrade
         return Renderers.CamelCase(prefix) + javaSuffix;
     }
 
+    public boolean isChunkTable() {
+        return this == CHUNK || this == CHUNK_INDEX;
+    }
+
     public static boolean isStreamStoreValueTable(TableReference tableReference) {
         return tableReference.getQualifiedName().endsWith(StreamTableType.VALUE.tableSuffix);
     }
@@ -22,9 +22,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
@@ -41,11 +44,22 @@ import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.BoundedTaskPipeline;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.remoting3.tracing.Tracers;
 import com.palantir.util.ByteArrayIOStream;
 
 public abstract class AbstractGenericStreamStore<T> implements GenericStreamStore<T> {
     protected static final Logger log = LoggerFactory.getLogger(AbstractGenericStreamStore.class);
 
+    static final int MAX_CONCURRENT_BATCHES_TO_FILE = 4;
+
+    private static final ExecutorService readAheadExecutor = Tracers.wrap(PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("stream-store-read-ahead", true /* daemon */)));
+    private static final ExecutorService fileWriteExecutor = Tracers.wrap(PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("stream-store-file-writer", true /* daemon */)));
+
     @CheckForNull protected final TransactionManager txnMgr;
 
     protected AbstractGenericStreamStore(TransactionManager txManager) {
@@ -106,7 +120,14 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         checkStreamStored(id, metadata);
         if (metadata.getLength() == 0) {
             return new ByteArrayInputStream(new byte[0]);
-        } else if (metadata.getLength() <= Math.min(getInMemoryThreshold(), BLOCK_SIZE_IN_BYTES)) {
+        } else {
+            return openStoredStream(transaction, id, metadata);
+        }
+    }
+
+    // This method is overridden in generated code. Changes to this method may have unintended consequences.
+    protected InputStream openStoredStream(Transaction transaction, T id, StreamMetadata metadata) {
+        if (metadata.getLength() <= Math.min(getInMemoryThreshold(), BLOCK_SIZE_IN_BYTES)) {
             ByteArrayIOStream ios = new ByteArrayIOStream(Ints.saturatedCast(metadata.getLength()));
             loadSingleBlockToOutputStream(transaction, id, 0, ios);
             return ios.getInputStream();
@@ -115,7 +136,7 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         }
     }
 
-    private InputStream makeStream(Transaction parent, T id, StreamMetadata metadata) {
+    protected final InputStream makeStream(Transaction parent, T id, StreamMetadata metadata) {
         long totalBlocks = getNumberOfBlocksFromMetadata(metadata);
         int blocksInMemory = getNumberOfBlocksThatFitInMemory();
 
@@ -139,7 +160,8 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         };
 
         try {
-            return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
+            return BlockConsumingInputStream.create(
+                    pageRefresher, totalBlocks, blocksInMemory, getNumberOfBatchesToReadAhead(), readAheadExecutor);
         } catch (IOException e) {
             throw Throwables.throwUncheckedException(e);
         }
@@ -151,6 +173,15 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         return Math.max(1, blocksInMemory);
     }
 
+    /**
+     * The number of batches of {@link #getNumberOfBlocksThatFitInMemory()} blocks that streams returned by this store
+     * load in the background ahead of the reader. Each batch holds its blocks in memory until it is read; zero
+     * disables read-ahead.
+     */
+    protected int getNumberOfBatchesToReadAhead() {
+        return 0;
+    }
+
     @Override
     public final File loadStreamAsFile(Transaction transaction, T id) {
         StreamMetadata metadata = getMetadata(transaction, id);
@@ -196,7 +227,8 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         }
     }
 
-    private void loadNBlocksToOutputStream(
+    // Generated code overrides this to load all blocks in a single call to the key value service.
+    protected void loadNBlocksToOutputStream(
             Transaction tx,
             T streamId,
             long firstBlock,
@@ -207,16 +239,53 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         }
     }
 
+    /**
+     * Writes the blocks of the stream straight to their offsets in the file, loading up to
+     * {@link #MAX_CONCURRENT_BATCHES_TO_FILE} batches at once. The batches split the blocks that fit in memory between
+     * them, so this holds no more of the stream in memory than reading it through {@link #loadStream} would.
+     */
     // This method is overridden in generated code. Changes to this method may have unintended consequences.
     protected void tryWriteStreamToFile(Transaction transaction, T id, StreamMetadata metadata, FileOutputStream fos)
             throws IOException {
-        long numBlocks = getNumberOfBlocksFromMetadata(metadata);
-        for (long i = 0; i < numBlocks; i++) {
-            loadSingleBlockToOutputStream(transaction, id, i, fos);
+        FileChannel channel = fos.getChannel();
+        long totalBlocks = getNumberOfBlocksFromMetadata(metadata);
+        int blocksPerBatch = Math.max(1, getNumberOfBlocksThatFitInMemory() / MAX_CONCURRENT_BATCHES_TO_FILE);
+
+        BoundedTaskPipeline<Void> batches = new BoundedTaskPipeline<>(
+                fileWriteExecutor, MAX_CONCURRENT_BATCHES_TO_FILE);
+        try {
+            for (long firstBlock = 0; firstBlock < totalBlocks && !batches.hasFailed(); firstBlock += blocksPerBatch) {
+                long batchStart = firstBlock;
+                long numBlocks = Math.min(blocksPerBatch, totalBlocks - firstBlock);
+                batches.submit(() -> loadBatchToFile(transaction, id, batchStart, numBlocks, channel));
+            }
+        } catch (RuntimeException | Error e) {
+            batches.awaitAllQuietly();
+            throw e;
+        }
+        batches.awaitAll();
+
+        if (channel.size() != metadata.getLength()) {
+            throw new IOException("Stream " + id + " should have " + metadata.getLength()
+                    + " bytes, but only " + channel.size() + " were loaded.");
         }
         fos.close();
     }
 
+    private void loadBatchToFile(Transaction parent, T id, long firstBlock, long numBlocks, FileChannel channel) {
+        // Blocks are full apart from the last, so the batch starts at the offset of its first block.
+        OutputStream destination = new FileChannelOutputStream(channel, firstBlock * BLOCK_SIZE_IN_BYTES);
+        if (parent.isUncommitted()) {
+            // Transactions can be read from concurrently, and the caller keeps this one open until we are done.
+            loadNBlocksToOutputStream(parent, id, firstBlock, numBlocks, destination);
+        } else {
+            txnMgr.runTaskReadOnly(txn -> {
+                loadNBlocksToOutputStream(txn, id, firstBlock, numBlocks, destination);
+                return null;
+            });
+        }
+    }
+
     protected abstract File createTempFile(T id) throws IOException;
 
     protected abstract void loadSingleBlockToOutputStream(Transaction tx, T streamId, long blockId, OutputStream os);
@@ -230,4 +299,31 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
     private StreamMetadata getOnlyStreamMetadata(Map<T, StreamMetadata> idToMetadata) {
         return Iterables.getOnlyElement(idToMetadata.values());
     }
+
+    /**
+     * Writes sequentially to a file channel from a given offset, without moving the position of the channel, so that
+     * several of these can write to different parts of the same file at once.
+     */
+    private static final class FileChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private long position;
+
+        FileChannelOutputStream(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, off, len);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
 }
@@ -19,7 +19,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 
@@ -27,6 +32,7 @@ import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.io.ByteStreams;
@@ -40,11 +46,39 @@ import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.TxTask;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.BoundedTaskPipeline;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.remoting3.tracing.Tracers;
 import com.palantir.util.Pair;
 import com.palantir.util.crypto.Sha256Hash;
 
+/**
+ * Stores streams as blocks of {@link #BLOCK_SIZE_IN_BYTES} bytes.
+ * <p>
+ * Streams stored outside a transaction write each block in its own transaction; up to
+ * {@link #MAX_CONCURRENT_BLOCK_WRITES} of those are in flight at once while the next blocks are read from the stream.
+ * Their buffers come from a small shared pool, since the block has been written to the key value service by the time
+ * its transaction commits. Blocks stored within a transaction are held by the transaction until it commits, so they
+ * are written one after another into fresh buffers; {@link #storeStreams} stores up to
+ * {@link #MAX_CONCURRENT_STREAMS} of its streams at once instead.
+ * <p>
+ * Stream stores that deduplicate chunks instead split streams into content-defined chunks, each stored once in the
+ * chunk table under its hash; block {@code i} of such a stream holds the hash of its {@code i}th chunk, and is
+ * written in the same transaction as the chunk and the chunk index entry that keeps the chunk alive.
+ */
 public abstract class AbstractPersistentStreamStore extends AbstractGenericStreamStore<Long>
         implements PersistentStreamStore {
+    static final int MAX_CONCURRENT_BLOCK_WRITES = 4;
+    static final int MAX_CONCURRENT_STREAMS = 4;
+    private static final int MAX_POOLED_BUFFERS = 2 * (MAX_CONCURRENT_BLOCK_WRITES + 1);
+    private static final int CHUNK_REFERENCES_PER_BATCH = 1000;
+
+    private static final ExecutorService writeExecutor = Tracers.wrap(PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("stream-store-writer", true /* daemon */)));
+    private static final Queue<byte[]> bufferPool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooledBuffers = new AtomicInteger();
+
     protected AbstractPersistentStreamStore(TransactionManager txManager) {
         super(txManager);
     }
@@ -124,8 +158,7 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
                 Functions.constant(getEmptyMetadata()));
         putMetadataAndHashIndexTask(tx, idsToEmptyMetadata);
 
-        Map<Long, StreamMetadata> idsToMetadata = Maps.transformEntries(streams,
-                (id, stream) -> storeBlocksAndGetFinalMetadata(tx, id, stream));
+        Map<Long, StreamMetadata> idsToMetadata = storeBlocksOfStreams(tx, streams);
         putMetadataAndHashIndexTask(tx, idsToMetadata);
 
         Map<Long, Sha256Hash> hashes = Maps.transformValues(idsToMetadata,
@@ -133,6 +166,34 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         return hashes;
     }
 
+    private Map<Long, StreamMetadata> storeBlocksOfStreams(Transaction tx, Map<Long, InputStream> streams) {
+        if (streams.size() == 1) {
+            Map.Entry<Long, InputStream> stream = Iterables.getOnlyElement(streams.entrySet());
+            StreamMetadata metadata = storeBlocksAndGetFinalMetadata(tx, stream.getKey(), stream.getValue());
+            return ImmutableMap.of(stream.getKey(), metadata);
+        }
+
+        BoundedTaskPipeline<StreamMetadata> pipeline = new BoundedTaskPipeline<>(writeExecutor, MAX_CONCURRENT_STREAMS);
+        List<Long> ids = Lists.newArrayListWithCapacity(streams.size());
+        try {
+            for (Map.Entry<Long, InputStream> stream : streams.entrySet()) {
+                pipeline.submit(() -> storeBlocksAndGetFinalMetadata(tx, stream.getKey(), stream.getValue()));
+                ids.add(stream.getKey());
+            }
+        } catch (RuntimeException | Error e) {
+            // Let every stream that started finish before returning, even if we failed to start the rest.
+            pipeline.awaitAllQuietly();
+            throw e;
+        }
+
+        List<StreamMetadata> metadata = pipeline.awaitAll();
+        ImmutableMap.Builder<Long, StreamMetadata> idsToMetadata = ImmutableMap.builder();
+        for (int i = 0; i < ids.size(); i++) {
+            idsToMetadata.put(ids.get(i), metadata.get(i));
+        }
+        return idsToMetadata.build();
+    }
+
     // This method is overridden in generated code. Changes to this method may have unintended consequences.
     protected StreamMetadata storeBlocksAndGetFinalMetadata(@Nullable Transaction tx, long id, InputStream stream) {
         MessageDigest digest = Sha256Hash.getMessageDigest();
@@ -148,11 +209,34 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
 
     protected final StreamMetadata storeBlocksAndGetHashlessMetadata(@Nullable Transaction tx, long id,
             InputStream stream) {
+        return storeAndGetHashlessMetadata(tx, id, stream, this::storeBlocksFromStream);
+    }
+
+    /**
+     * Stores the stream as content-defined chunks, for stores generated with chunk deduplication, which override
+     * {@link #storeBlocksAndGetFinalMetadata} to call this. Block {@code i} of the stream holds the hash of its
+     * {@code i}th chunk; the chunks themselves are kept by the store's {@link StreamChunkStore}.
+     */
+    protected final StreamMetadata storeChunksAndGetFinalMetadata(@Nullable Transaction tx, long id,
+            InputStream stream) {
+        MessageDigest digest = Sha256Hash.getMessageDigest();
+        try (InputStream hashingStream = new DigestInputStream(stream, digest)) {
+            StreamMetadata metadata = storeAndGetHashlessMetadata(tx, id, hashingStream, this::storeChunksFromStream);
+            return StreamMetadata.newBuilder(metadata)
+                    .setHash(ByteString.copyFrom(digest.digest()))
+                    .build();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private StreamMetadata storeAndGetHashlessMetadata(@Nullable Transaction tx, long id, InputStream stream,
+            StreamWriter writer) {
         CountingInputStream countingStream = new CountingInputStream(stream);
 
         // Try to store the bytes in the stream and get length
         try {
-            storeBlocksFromStream(tx, id, countingStream);
+            writer.write(tx, id, countingStream);
         } catch (IOException e) {
             long length = countingStream.getCount();
             StreamMetadata metadata = StreamMetadata.newBuilder()
@@ -173,7 +257,16 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
                 .build();
     }
 
+    private interface StreamWriter {
+        void write(@Nullable Transaction tx, long id, InputStream stream) throws IOException;
+    }
+
     private void storeBlocksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+        if (tx == null) {
+            storeBlocksFromStreamConcurrently(id, stream);
+            return;
+        }
+
         long blockNumber = 0;
 
         while (true) {
@@ -195,6 +288,151 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         }
     }
 
+    private void storeBlocksFromStreamConcurrently(long id, InputStream stream) throws IOException {
+        BoundedTaskPipeline<Void> writes = new BoundedTaskPipeline<>(writeExecutor, MAX_CONCURRENT_BLOCK_WRITES);
+        try {
+            long blockNumber = 0;
+            while (!writes.hasFailed()) {
+                byte[] buffer = acquireBuffer();
+                int length = ByteStreams.read(stream, buffer, 0, BLOCK_SIZE_IN_BYTES);
+                if (length == 0) {
+                    releaseBuffer(buffer);
+                    break;
+                }
+                // Store only relevant data if it only filled a partial block
+                byte[] bytesToStore = length < BLOCK_SIZE_IN_BYTES ? PtBytes.head(buffer, length) : buffer;
+                if (bytesToStore != buffer) {
+                    releaseBuffer(buffer);
+                }
+
+                long currentBlock = blockNumber;
+                writes.submit(() -> {
+                    try {
+                        storeBlockWithNonNullTransaction(null, id, currentBlock, bytesToStore);
+                    } finally {
+                        if (bytesToStore == buffer) {
+                            releaseBuffer(buffer);
+                        }
+                    }
+                });
+                if (length < BLOCK_SIZE_IN_BYTES) {
+                    // This is the last block.
+                    break;
+                }
+                blockNumber++;
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            writes.awaitAllQuietly();
+            throw e;
+        }
+        writes.awaitAll();
+    }
+
+    private static byte[] acquireBuffer() {
+        byte[] buffer = bufferPool.poll();
+        if (buffer == null) {
+            return new byte[BLOCK_SIZE_IN_BYTES];
+        }
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    private static void releaseBuffer(byte[] buffer) {
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            bufferPool.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    private void storeChunksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+        ContentDefinedChunker chunker = new ContentDefinedChunker(stream);
+        long chunkNumber = 0;
+        for (byte[] chunk = chunker.nextChunk(); chunk != null; chunk = chunker.nextChunk()) {
+            storeChunkWithNonNullTransaction(tx, id, chunkNumber, chunk);
+            chunkNumber++;
+        }
+    }
+
+    // Each chunk is stored in the same transaction as the block referring to it, and chunks are stored in order, so
+    // the blocks of a stream always form a prefix of its chunks, every one of which is stored.
+    private void storeChunkWithNonNullTransaction(@Nullable Transaction tx, long id, long chunkNumber, byte[] chunk) {
+        if (tx != null) {
+            storeChunk(tx, id, chunkNumber, chunk);
+        } else {
+            Preconditions.checkNotNull(txnMgr, "Transaction manager must not be null");
+            // Streams storing the same new chunk at the same time conflict on it, so retry.
+            txnMgr.runTaskWithRetry(
+                    (TransactionTask<Void, RuntimeException>) t1 -> {
+                        storeChunk(t1, id, chunkNumber, chunk);
+                        return null;
+                    });
+        }
+    }
+
+    private void storeChunk(Transaction tx, long id, long chunkNumber, byte[] chunk) {
+        Sha256Hash hash = getChunkStore(tx).storeChunk(tx, id, chunk);
+        storeBlock(tx, id, chunkNumber, hash.getBytes());
+    }
+
+    /**
+     * Returns a stream over the chunks of a stream stored by {@link #storeChunksAndGetFinalMetadata}.
+     */
+    protected final InputStream makeChunkedStream(Transaction parent, long id, StreamMetadata metadata) {
+        ChunkConsumingInputStream.ChunkGetter chunkGetter = (firstChunk, numChunks) -> {
+            if (parent.isUncommitted()) {
+                return loadChunks(parent, id, firstChunk, numChunks);
+            } else {
+                return txnMgr.runTaskReadOnly(txn -> loadChunks(txn, id, firstChunk, numChunks));
+            }
+        };
+        return new ChunkConsumingInputStream(chunkGetter, metadata.getLength(), getNumberOfBlocksThatFitInMemory());
+    }
+
+    private List<byte[]> loadChunks(Transaction tx, long id, long firstChunk, int numChunks) {
+        return getChunkStore(tx).loadChunks(tx, loadChunkHashes(tx, id, firstChunk, numChunks));
+    }
+
+    /**
+     * Removes the references of a stream stored by {@link #storeChunksAndGetFinalMetadata} to its chunks, and returns
+     * the number of blocks the stream has.
+     */
+    protected final long deleteChunkReferences(Transaction tx, long id) {
+        StreamChunkStore chunkStore = getChunkStore(tx);
+        long numChunks = 0;
+        while (true) {
+            List<Sha256Hash> hashes = loadChunkHashes(tx, id, numChunks, CHUNK_REFERENCES_PER_BATCH);
+            chunkStore.deleteReferences(tx, id, hashes);
+            numChunks += hashes.size();
+            if (hashes.size() < CHUNK_REFERENCES_PER_BATCH) {
+                return numChunks;
+            }
+        }
+    }
+
+    private List<Sha256Hash> loadChunkHashes(Transaction tx, long id, long firstChunk, int numChunks) {
+        Map<Long, byte[]> references = loadChunkReferences(tx, id, firstChunk, numChunks);
+        List<Sha256Hash> hashes = Lists.newArrayListWithCapacity(references.size());
+        for (long chunkNumber = firstChunk; chunkNumber < firstChunk + numChunks; chunkNumber++) {
+            byte[] reference = references.get(chunkNumber);
+            if (reference == null) {
+                break;
+            }
+            hashes.add(new Sha256Hash(reference));
+        }
+        return hashes;
+    }
+
+    // Overridden in generated code by stores that deduplicate chunks.
+    protected StreamChunkStore getChunkStore(Transaction tx) {
+        throw new UnsupportedOperationException("This stream store does not deduplicate chunks");
+    }
+
+    // Overridden in generated code by stores that deduplicate chunks. Returns the blocks that are stored, by number.
+    protected Map<Long, byte[]> loadChunkReferences(Transaction tx, long id, long firstChunk, int numChunks) {
+        throw new UnsupportedOperationException("This stream store does not deduplicate chunks");
+    }
+
     protected void storeBlockWithNonNullTransaction(@Nullable Transaction tx, final long id, final long blockNumber,
             final byte[] bytesToStore) {
         if (tx != null) {
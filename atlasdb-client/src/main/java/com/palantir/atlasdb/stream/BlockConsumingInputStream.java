@@ -18,17 +18,36 @@ package com.palantir.atlasdb.stream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
 
+/**
+ * An {@link InputStream} over a sequence of blocks, loaded {@code blocksInMemory} blocks at a time.
+ * <p>
+ * If created with a positive number of read-ahead batches, up to that many further batches are loaded on the given
+ * executor while the current one is being read, so that a consumer draining the stream does not wait for a round
+ * trip per batch. A batch that fails to load in the background is loaded again on the reading thread, which then
+ * sees the error if it persists.
+ */
 public final class BlockConsumingInputStream extends InputStream {
     private final BlockGetter blockGetter;
     private final long numBlocks;
     private final int blocksInMemory;
+    private final int readAheadBatches;
+    private final Executor executor;
+    private final Deque<PendingBatch> pendingBatches = new ArrayDeque<>();
 
     private long nextBlockToRead;
+    private long nextBlockToFetch;
 
     private byte[] buffer;
     private int positionInBuffer;
@@ -37,8 +56,23 @@ public final class BlockConsumingInputStream extends InputStream {
             BlockGetter blockGetter,
             long numBlocks,
             int blocksInMemory) throws IOException {
+        return create(blockGetter, numBlocks, blocksInMemory, 0, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Creates a stream that keeps up to {@code readAheadBatches} batches of {@code blocksInMemory} blocks loading on
+     * the given executor in addition to the batch being read.
+     */
+    public static BlockConsumingInputStream create(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            int readAheadBatches,
+            Executor executor) throws IOException {
         ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
-        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory);
+        Preconditions.checkArgument(readAheadBatches >= 0,
+                "Number of batches to read ahead must not be negative, but was %s", readAheadBatches);
+        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory, readAheadBatches, executor);
     }
 
     // we don't want to actually create a very large array in tests, as the external test VM would run out of memory.
@@ -57,11 +91,19 @@ public final class BlockConsumingInputStream extends InputStream {
                 expectedBufferSize);
     }
 
-    private BlockConsumingInputStream(BlockGetter blockGetter, long numBlocks, int blocksInMemory) {
+    private BlockConsumingInputStream(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            int readAheadBatches,
+            Executor executor) {
         this.blockGetter = blockGetter;
         this.numBlocks = numBlocks;
         this.blocksInMemory = blocksInMemory;
+        this.readAheadBatches = readAheadBatches;
+        this.executor = executor;
         this.nextBlockToRead = 0L;
+        this.nextBlockToFetch = 0L;
         this.positionInBuffer = 0;
         this.buffer = new byte[0];
     }
@@ -117,24 +159,99 @@ public final class BlockConsumingInputStream extends InputStream {
         return bytesRead;
     }
 
+    @Override
+    public void close() throws IOException {
+        for (PendingBatch batch : pendingBatches) {
+            batch.task.cancel(false);
+        }
+        pendingBatches.clear();
+    }
+
     private boolean refillBuffer() throws IOException {
+        if (readAheadBatches > 0) {
+            return refillBufferFromReadAhead();
+        }
+
         // since blocksInMemory is an int, the min is guaranteed to fit in an int
         int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
         if (numBlocksToGet <= 0) {
             return false;
         }
 
+        buffer = loadBlocks(nextBlockToRead, numBlocksToGet);
+        nextBlockToRead += numBlocksToGet;
+        positionInBuffer = 0;
+        return true;
+    }
+
+    private boolean refillBufferFromReadAhead() throws IOException {
+        if (pendingBatches.isEmpty() && !startNextBatch()) {
+            return false;
+        }
+        PendingBatch batch = pendingBatches.poll();
+        fillReadAheadWindow();
+
+        buffer = batch.get();
+        nextBlockToRead = batch.firstBlock + batch.numBlocks;
+        positionInBuffer = 0;
+        return true;
+    }
+
+    private void fillReadAheadWindow() {
+        while (pendingBatches.size() < readAheadBatches) {
+            if (!startNextBatch()) {
+                return;
+            }
+        }
+    }
+
+    private boolean startNextBatch() {
+        // since blocksInMemory is an int, the min is guaranteed to fit in an int
+        int numBlocksToGet = (int) Math.min(Math.max(0L, numBlocks - nextBlockToFetch), blocksInMemory);
+        if (numBlocksToGet <= 0) {
+            return false;
+        }
+        PendingBatch batch = new PendingBatch(nextBlockToFetch, numBlocksToGet);
+        nextBlockToFetch += numBlocksToGet;
+        pendingBatches.add(batch);
+        executor.execute(batch.task);
+        return true;
+    }
+
+    private byte[] loadBlocks(long firstBlock, int numBlocksToGet) throws IOException {
         int expectedLength = blockGetter.expectedBlockLength() * numBlocksToGet;
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(expectedLength)) {
-            blockGetter.get(nextBlockToRead, numBlocksToGet, outputStream);
-            nextBlockToRead += numBlocksToGet;
-            buffer = outputStream.toByteArray();
-            positionInBuffer = 0;
-            return true;
+            blockGetter.get(firstBlock, numBlocksToGet, outputStream);
+            return outputStream.toByteArray();
         }
     }
 
     private long blocksLeft() {
         return Math.max(0L, numBlocks - nextBlockToRead);
     }
+
+    private final class PendingBatch {
+        private final long firstBlock;
+        private final int numBlocks;
+        private final FutureTask<byte[]> task;
+
+        PendingBatch(long firstBlock, int numBlocks) {
+            this.firstBlock = firstBlock;
+            this.numBlocks = numBlocks;
+            this.task = new FutureTask<>(() -> loadBlocks(firstBlock, numBlocks));
+        }
+
+        byte[] get() throws IOException {
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for blocks to load");
+            } catch (ExecutionException e) {
+                // For example, the transaction the stream was opened in may have committed while the batch was
+                // loading; loading it again here picks the transaction to read with afresh.
+                return loadBlocks(firstBlock, numBlocks);
+            }
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An {@link InputStream} over the chunks of a stream stored by a stream store that deduplicates chunks, loaded
+ * {@code chunksInMemory} chunks at a time.
+ */
+final class ChunkConsumingInputStream extends InputStream {
+    interface ChunkGetter {
+        /**
+         * Returns up to {@code numChunks} consecutive chunks of the stream, starting at {@code firstChunk}. Fewer
+         * chunks are returned only if the stream has fewer chunks.
+         */
+        List<byte[]> get(long firstChunk, int numChunks);
+    }
+
+    private final ChunkGetter chunkGetter;
+    private final long length;
+    private final int chunksInMemory;
+
+    private long nextChunkToLoad;
+    private long position;
+    private Iterator<byte[]> chunks = Collections.emptyIterator();
+    private byte[] chunk = new byte[0];
+    private int positionInChunk;
+
+    ChunkConsumingInputStream(ChunkGetter chunkGetter, long length, int chunksInMemory) {
+        this.chunkGetter = chunkGetter;
+        this.length = length;
+        this.chunksInMemory = chunksInMemory;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunkAvailable()) {
+            return -1;
+        }
+        return chunk[positionInChunk++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureChunkAvailable()) {
+            return -1;
+        }
+        int bytesToCopy = Math.min(len, chunk.length - positionInChunk);
+        System.arraycopy(chunk, positionInChunk, bytes, off, bytesToCopy);
+        positionInChunk += bytesToCopy;
+        return bytesToCopy;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - positionInChunk;
+    }
+
+    private boolean ensureChunkAvailable() throws IOException {
+        while (positionInChunk == chunk.length) {
+            if (position == length) {
+                return false;
+            }
+            if (!chunks.hasNext()) {
+                List<byte[]> loaded = chunkGetter.get(nextChunkToLoad, chunksInMemory);
+                if (loaded.isEmpty()) {
+                    throw new EOFException("Stream ended after " + position + " of " + length + " bytes");
+                }
+                nextChunkToLoad += loaded.size();
+                chunks = loaded.iterator();
+            }
+            chunk = chunks.next();
+            positionInChunk = 0;
+            position += chunk.length;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.annotation.CheckForNull;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Splits a stream into chunks whose boundaries depend only on the bytes just before them, so that an insertion or
+ * deletion changes the chunks around it but not the ones further along the stream.
+ * <p>
+ * A boundary is placed after a byte whenever a gear hash over the preceding bytes has its top bits clear. Chunks are
+ * at least {@link #MIN_CHUNK_SIZE} and at most {@link #MAX_CHUNK_SIZE} bytes long, and average about 320KB. The gear
+ * table is derived from a fixed seed; changing it, or the masks, only stops new chunks from matching previously
+ * stored ones.
+ */
+final class ContentDefinedChunker {
+    static final int MIN_CHUNK_SIZE = 64 * 1024;
+    static final int MAX_CHUNK_SIZE = GenericStreamStore.BLOCK_SIZE_IN_BYTES;
+
+    private static final int BOUNDARY_BITS = 18;
+    private static final long BOUNDARY_MASK = -1L << (Long.SIZE - BOUNDARY_BITS);
+    private static final long GEAR_SEED = 0x5EED_C0DE_D0C5L;
+    private static final long[] GEAR = createGearTable();
+
+    private final InputStream stream;
+    private final byte[] buffer = new byte[MAX_CHUNK_SIZE];
+    private int buffered;
+
+    ContentDefinedChunker(InputStream stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Returns the next chunk of the stream, or null if the stream has been consumed.
+     */
+    @CheckForNull
+    byte[] nextChunk() throws IOException {
+        buffered += ByteStreams.read(stream, buffer, buffered, MAX_CHUNK_SIZE - buffered);
+        if (buffered == 0) {
+            return null;
+        }
+        int length = findBoundary();
+        byte[] chunk = Arrays.copyOf(buffer, length);
+        System.arraycopy(buffer, length, buffer, 0, buffered - length);
+        buffered -= length;
+        return chunk;
+    }
+
+    private int findBoundary() {
+        long hash = 0;
+        for (int i = MIN_CHUNK_SIZE; i < buffered; i++) {
+            hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+            if ((hash & BOUNDARY_MASK) == 0) {
+                return i + 1;
+            }
+        }
+        return buffered;
+    }
+
+    private static long[] createGearTable() {
+        Random random = new Random(GEAR_SEED);
+        long[] gear = new long[256];
+        for (int i = 0; i < gear.length; i++) {
+            gear[i] = random.nextLong();
+        }
+        return gear;
+    }
+}
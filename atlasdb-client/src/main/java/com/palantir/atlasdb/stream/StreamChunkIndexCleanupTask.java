@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.util.Set;
+import java.util.SortedMap;
+
+import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.cleaner.api.OnCleanupTask;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.Transaction;
+
+/**
+ * Deletes the chunks of a {@link StreamChunkStore} that are no longer referred to by any stream.
+ */
+public class StreamChunkIndexCleanupTask implements OnCleanupTask {
+    private final TableReference chunkTable;
+    private final TableReference chunkIndexTable;
+
+    public StreamChunkIndexCleanupTask(TableReference chunkTable, TableReference chunkIndexTable) {
+        this.chunkTable = chunkTable;
+        this.chunkIndexTable = chunkIndexTable;
+    }
+
+    @Override
+    public boolean cellsCleanedUp(Transaction t, Set<Cell> cells) {
+        Set<byte[]> rows = Sets.newTreeSet(UnsignedBytes.lexicographicalComparator());
+        for (Cell cell : cells) {
+            rows.add(cell.getRowName());
+        }
+        SortedMap<byte[], RowResult<byte[]>> rowsInDb = t.getRows(chunkIndexTable, rows, ColumnSelection.all());
+        Set<Cell> toDelete = Sets.newHashSet();
+        for (byte[] row : rows) {
+            RowResult<byte[]> references = rowsInDb.get(row);
+            if (references == null || references.getColumns().isEmpty()) {
+                toDelete.add(Cell.create(row, StreamChunkStore.VALUE_COLUMN));
+                toDelete.add(Cell.create(row, StreamChunkStore.LENGTH_COLUMN));
+            }
+        }
+        if (!toDelete.isEmpty()) {
+            t.delete(chunkTable, toDelete);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.util.crypto.Sha256Hash;
+
+/**
+ * The chunk tables of a stream store generated with
+ * {@link com.palantir.atlasdb.schema.stream.StreamStoreDefinitionBuilder#deduplicateChunks()}.
+ * <p>
+ * Each distinct chunk is stored once in the chunk table, keyed by its SHA-256 hash, and the chunk index table records
+ * which streams refer to it. A chunk is deleted by {@link StreamChunkIndexCleanupTask} once its last reference is.
+ */
+public final class StreamChunkStore {
+    static final byte[] VALUE_COLUMN = PtBytes.toCachedBytes("v");
+    static final byte[] LENGTH_COLUMN = PtBytes.toCachedBytes("l");
+
+    private static final byte[] REFERENCE_VALUE = EncodingUtils.encodeUnsignedVarLong(0L);
+
+    private final TableReference chunkTable;
+    private final TableReference chunkIndexTable;
+    private final LongFunction<byte[]> streamIdToColumnName;
+
+    /**
+     * @param streamIdToColumnName persists a stream id as a column name of the chunk index table
+     */
+    public StreamChunkStore(
+            TableReference chunkTable,
+            TableReference chunkIndexTable,
+            LongFunction<byte[]> streamIdToColumnName) {
+        this.chunkTable = chunkTable;
+        this.chunkIndexTable = chunkIndexTable;
+        this.streamIdToColumnName = streamIdToColumnName;
+    }
+
+    /**
+     * Stores the chunk unless it is already stored, records that the given stream refers to it, and returns its hash.
+     */
+    Sha256Hash storeChunk(Transaction t, long streamId, byte[] chunk) {
+        Sha256Hash hash = Sha256Hash.computeHash(chunk);
+        byte[] row = hash.getBytes();
+        Cell lengthCell = Cell.create(row, LENGTH_COLUMN);
+        byte[] length = EncodingUtils.encodeUnsignedVarLong(chunk.length);
+        if (t.get(chunkTable, ImmutableSet.of(lengthCell)).isEmpty()) {
+            t.put(chunkTable, ImmutableMap.of(Cell.create(row, VALUE_COLUMN), chunk, lengthCell, length));
+        } else {
+            // Rewrite the length of the existing chunk to ensure we get a conflict if someone cleans it up.
+            t.put(chunkTable, ImmutableMap.of(lengthCell, length));
+        }
+        Cell reference = Cell.create(row, streamIdToColumnName.apply(streamId));
+        t.put(chunkIndexTable, ImmutableMap.of(reference, REFERENCE_VALUE));
+        return hash;
+    }
+
+    /**
+     * Returns the chunks with the given hashes, in order.
+     */
+    List<byte[]> loadChunks(Transaction t, List<Sha256Hash> hashes) {
+        Set<Cell> cells = Sets.newHashSetWithExpectedSize(hashes.size());
+        for (Sha256Hash hash : hashes) {
+            cells.add(Cell.create(hash.getBytes(), VALUE_COLUMN));
+        }
+        Map<Cell, byte[]> values = t.get(chunkTable, cells);
+        List<byte[]> chunks = Lists.newArrayListWithCapacity(hashes.size());
+        for (Sha256Hash hash : hashes) {
+            byte[] chunk = values.get(Cell.create(hash.getBytes(), VALUE_COLUMN));
+            if (chunk == null) {
+                throw new IllegalStateException("Chunk " + hash + " of a stored stream is missing from " + chunkTable);
+            }
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Removes the references of the given stream to the chunks with the given hashes.
+     */
+    void deleteReferences(Transaction t, long streamId, Collection<Sha256Hash> hashes) {
+        byte[] column = streamIdToColumnName.apply(streamId);
+        Set<Cell> references = Sets.newHashSetWithExpectedSize(hashes.size());
+        for (Sha256Hash hash : hashes) {
+            references.add(Cell.create(hash.getBytes(), column));
+        }
+        t.delete(chunkIndexTable, references);
+    }
+}
@@ -65,6 +65,7 @@ import com.palantir.atlasdb.stream.BlockConsumingInputStream;
 import com.palantir.atlasdb.stream.BlockGetter;
 import com.palantir.atlasdb.stream.BlockLoader;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamChunkStore;
 import com.palantir.atlasdb.stream.StreamCleanedException;
 import com.palantir.atlasdb.table.description.ValueType;
 import com.palantir.atlasdb.transaction.api.Transaction;
@@ -92,14 +93,26 @@ public class StreamStoreRenderer {
     private final String schemaName;
     private final int inMemoryThreshold;
     private final boolean clientSideCompression;
+    private final int readAheadBatches;
+    private final boolean deduplicateChunks;
 
     public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, boolean clientSideCompression) {
+        this(name, streamIdType, packageName, schemaName, inMemoryThreshold, clientSideCompression, 0);
+    }
+
+    public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, boolean clientSideCompression, int readAheadBatches) {
+        this(name, streamIdType, packageName, schemaName, inMemoryThreshold, clientSideCompression, readAheadBatches, false);
+    }
+
+    public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, boolean clientSideCompression, int readAheadBatches, boolean deduplicateChunks) {
         this.name = name;
         this.streamIdType = streamIdType;
         this.packageName = packageName;
         this.schemaName = schemaName;
         this.inMemoryThreshold = inMemoryThreshold;
         this.clientSideCompression = clientSideCompression;
+        this.readAheadBatches = readAheadBatches;
+        this.deduplicateChunks = deduplicateChunks;
     }
 
     public String getPackageName() {
@@ -137,6 +150,10 @@ public class StreamStoreRenderer {
         final String StreamIdxColumn = StreamIdxTable + "." + name + "StreamIdxColumn";
         final String StreamIdxColumnValue = StreamIdxTable + "." + name + "StreamIdxColumnValue";
 
+        final String StreamChunkTable = name + "StreamChunkTable";
+        final String StreamChunkIdxTable = name + "StreamChunkIdxTable";
+        final String StreamChunkIdxColumn = StreamChunkIdxTable + "." + name + "StreamChunkIdxColumn";
+
         final String TableFactory = schemaName + "TableFactory";
         final String StreamId = streamIdType.getJavaObjectClassName();
 
@@ -157,6 +174,10 @@ public class StreamStoreRenderer {
                     line();
                     getInMemoryThreshold();
                     line();
+                    if (readAheadBatches > 0) {
+                        getNumberOfBatchesToReadAhead();
+                        line();
+                    }
                     storeBlock();
                     line();
                     touchMetadataWhileStoringForConflicts();
@@ -169,6 +190,8 @@ public class StreamStoreRenderer {
                     line();
                     loadSingleBlockToOutputStream();
                     line();
+                    loadNBlocksToOutputStream();
+                    line();
                     getBlock();
                     line();
                     if (clientSideCompression) {
@@ -182,7 +205,17 @@ public class StreamStoreRenderer {
                         line();
                         tryWriteStreamToFile();
                         line();
-                        makeStreamUsingTransaction();
+                    }
+                    if (deduplicateChunks) {
+                        storeBlocksAndGetFinalMetadataWithChunks();
+                        line();
+                        openStoredStreamFromChunks();
+                        line();
+                        tryWriteStreamToFileFromChunks();
+                        line();
+                        getChunkStore();
+                        line();
+                        loadChunkReferences();
                         line();
                     }
                     getMetadata();
@@ -211,6 +244,9 @@ public class StreamStoreRenderer {
             private void fields() {
                 line("public static final int BLOCK_SIZE_IN_BYTES = 1000000; // 1MB. DO NOT CHANGE THIS WITHOUT AN UPGRADE TASK");
                 line("public static final int IN_MEMORY_THRESHOLD = ", String.valueOf(inMemoryThreshold), "; // streams under this size are kept in memory when loaded");
+                if (readAheadBatches > 0) {
+                    line("public static final int READ_AHEAD_BATCHES = ", String.valueOf(readAheadBatches), "; // batches of blocks loaded ahead of stream readers");
+                }
                 line("public static final String STREAM_FILE_PREFIX = \"", name, "_stream_\";");
                 line("public static final String STREAM_FILE_SUFFIX = \".tmp\";");
                 line();
@@ -314,6 +350,13 @@ public class StreamStoreRenderer {
                 } line("}");
             }
 
+            private void getNumberOfBatchesToReadAhead() {
+                line("@Override");
+                line("protected int getNumberOfBatchesToReadAhead() {"); {
+                    line("return READ_AHEAD_BATCHES;");
+                } line("}");
+            }
+
             private void createTempFile() {
                 line("@Override");
                 line("protected File createTempFile(", StreamId, " id) throws IOException {"); {
@@ -339,6 +382,28 @@ public class StreamStoreRenderer {
                 } line("}");
             }
 
+            private void loadNBlocksToOutputStream() {
+                line("@Override");
+                line("protected void loadNBlocksToOutputStream(Transaction t, ", StreamId, " streamId, long firstBlock, long numBlocks, OutputStream os) {"); {
+                    line("List<", StreamValueRow, "> rows = Lists.newArrayListWithCapacity(Ints.saturatedCast(numBlocks));");
+                    line("for (long blockId = firstBlock; blockId < firstBlock + numBlocks; blockId++) {"); {
+                        line("rows.add(", StreamValueRow, ".of(streamId, blockId));");
+                    } line("}");
+                    line("Map<", StreamValueRow, ", byte[]> blocks = tables.get", StreamValueTable, "(t).getValues(rows);");
+                    line("for (", StreamValueRow, " row : rows) {"); {
+                        line("try {"); {
+                            line("os.write(blocks.get(row));");
+                        } line("} catch (RuntimeException e) {"); {
+                            line("log.error(\"Error storing block {} for stream id {}\", row.getBlockId(), row.getId(), e);");
+                            line("throw e;");
+                        } line("} catch (IOException e) {"); {
+                            line("log.error(\"Error writing block {} to file when getting stream id {}\", row.getBlockId(), row.getId(), e);");
+                            line("throw Throwables.rewrapAndThrowUncheckedException(\"Error writing blocks to file when creating stream.\", e);");
+                        } line("}");
+                    } line("}");
+                } line("}");
+            }
+
             private void getBlock() {
                 line("private byte[] getBlock(Transaction t, ", StreamValueRow, " row) {"); {
                     line(StreamValueTable, " valueTable = tables.get", StreamValueTable, "(t);");
@@ -462,7 +527,11 @@ public class StreamStoreRenderer {
                     line("Set<", StreamValueRow, "> streamValueToDelete = Sets.newHashSet();");
                     line("for (Entry<", StreamMetadataRow, ", StreamMetadata> e : metadatas.entrySet()) {"); {
                         line(StreamId, " streamId = e.getKey().getId();");
-                        line("long blocks = getNumberOfBlocksFromMetadata(e.getValue());");
+                        if (deduplicateChunks) {
+                            line("long blocks = deleteChunkReferences(t, streamId);");
+                        } else {
+                            line("long blocks = getNumberOfBlocksFromMetadata(e.getValue());");
+                        }
                         line("for (long i = 0; i < blocks; i++) {"); {
                             line("streamValueToDelete.add(", StreamValueRow, ".of(streamId, i));");
                         } line("}");
@@ -590,7 +659,7 @@ public class StreamStoreRenderer {
             private void tryWriteStreamToFile() {
                 line("@Override");
                 line("protected void tryWriteStreamToFile(Transaction transaction, ", StreamId, " id, StreamMetadata metadata, FileOutputStream fos) throws IOException {"); {
-                    line("try (InputStream blockStream = makeStreamUsingTransaction(transaction, id, metadata);");
+                    line("try (InputStream blockStream = makeStream(transaction, id, metadata);");
                     line("        InputStream decompressingStream = new LZ4BlockInputStream(blockStream);");
                     line("        OutputStream fileStream = fos;) {"); {
                         line("ByteStreams.copy(decompressingStream, fileStream);");
@@ -598,20 +667,53 @@ public class StreamStoreRenderer {
                 } line("}");
             }
 
-            private void makeStreamUsingTransaction() {
-                line("private InputStream makeStreamUsingTransaction(Transaction parent, ", StreamId, " id, StreamMetadata metadata) {"); {
-                    line("BiConsumer<Long, OutputStream> singleBlockLoader = (index, destination) ->");
-                    line("        loadSingleBlockToOutputStream(parent, id, index, destination);");
-                    line();
-                    line("BlockGetter pageRefresher = new BlockLoader(singleBlockLoader, BLOCK_SIZE_IN_BYTES);");
-                    line("long totalBlocks = getNumberOfBlocksFromMetadata(metadata);");
-                    line("int blocksInMemory = getNumberOfBlocksThatFitInMemory();");
-                    line();
-                    line("try {"); {
-                        line("return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);");
-                    } line("} catch(IOException e) {"); {
-                        line("throw Throwables.throwUncheckedException(e);");
+            private void storeBlocksAndGetFinalMetadataWithChunks() {
+                line("@Override");
+                line("protected StreamMetadata storeBlocksAndGetFinalMetadata(Transaction t, long id, InputStream stream) {"); {
+                    line("return storeChunksAndGetFinalMetadata(t, id, stream);");
+                } line("}");
+            }
+
+            private void openStoredStreamFromChunks() {
+                line("@Override");
+                line("protected InputStream openStoredStream(Transaction t, ", StreamId, " id, StreamMetadata metadata) {"); {
+                    line("return makeChunkedStream(t, id, metadata);");
+                } line("}");
+            }
+
+            private void tryWriteStreamToFileFromChunks() {
+                line("@Override");
+                line("protected void tryWriteStreamToFile(Transaction transaction, ", StreamId, " id, StreamMetadata metadata, FileOutputStream fos) throws IOException {"); {
+                    line("try (InputStream chunkStream = makeChunkedStream(transaction, id, metadata);");
+                    line("        OutputStream fileStream = fos;) {"); {
+                        line("ByteStreams.copy(chunkStream, fileStream);");
+                    } line("}");
+                } line("}");
+            }
+
+            private void getChunkStore() {
+                line("@Override");
+                line("protected StreamChunkStore getChunkStore(Transaction t) {"); {
+                    line("return new StreamChunkStore(");
+                    line("        tables.get", StreamChunkTable, "(t).getTableRef(),");
+                    line("        tables.get", StreamChunkIdxTable, "(t).getTableRef(),");
+                    line("        streamId -> ", StreamChunkIdxColumn, ".of(streamId).persistToBytes());");
+                } line("}");
+            }
+
+            private void loadChunkReferences() {
+                line("@Override");
+                line("protected Map<Long, byte[]> loadChunkReferences(Transaction t, long id, long firstChunk, int numChunks) {"); {
+                    line("List<", StreamValueRow, "> rows = Lists.newArrayListWithCapacity(numChunks);");
+                    line("for (long blockId = firstChunk; blockId < firstChunk + numChunks; blockId++) {"); {
+                        line("rows.add(", StreamValueRow, ".of(id, blockId));");
+                    } line("}");
+                    line("Map<", StreamValueRow, ", byte[]> blocks = tables.get", StreamValueTable, "(t).getValues(rows);");
+                    line("Map<Long, byte[]> references = Maps.newHashMapWithExpectedSize(blocks.size());");
+                    line("for (Map.Entry<", StreamValueRow, ", byte[]> e : blocks.entrySet()) {"); {
+                        line("references.put(e.getKey().getBlockId(), e.getValue());");
                     } line("}");
+                    line("return references;");
                 } line("}");
             }
 
@@ -810,6 +912,7 @@ public class StreamStoreRenderer {
         TempFileUtils.class,
         TransactionFailedRetriableException.class,
         StreamCleanedException.class,
+        StreamChunkStore.class,
         AbstractPersistentStreamStore.class,
         BlockConsumingInputStream.class,
         BlockGetter.class,
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ConcurrentLongLongCacheTest {
+    private static final long MISSING = -1L;
+
+    @Test
+    public void returnsDefaultForMissingKeys() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(100);
+        assertThat(cache.get(1L, MISSING)).isEqualTo(MISSING);
+        assertThat(cache.missCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void returnsPutValues() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(100);
+        cache.put(1L, 2L);
+        cache.put(1L, 3L);
+        assertThat(cache.get(1L, MISSING)).isEqualTo(3L);
+        assertThat(cache.estimatedSize()).isEqualTo(1L);
+        assertThat(cache.hitCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void doesNotExceedCapacity() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(ConcurrentLongLongCache.WAYS);
+        for (long i = 0; i < 10 * ConcurrentLongLongCache.WAYS; i++) {
+            cache.put(i, i + 1);
+        }
+        assertThat(cache.estimatedSize()).isEqualTo(ConcurrentLongLongCache.WAYS);
+        assertThat(cache.evictionCount()).isEqualTo(9L * ConcurrentLongLongCache.WAYS);
+    }
+
+    @Test
+    public void prefersEvictingUnreferencedEntries() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(ConcurrentLongLongCache.WAYS);
+        for (long i = 0; i < ConcurrentLongLongCache.WAYS; i++) {
+            cache.put(i, i);
+        }
+        cache.get(0L, MISSING);
+        cache.put(100L, 100L);
+        assertThat(cache.get(0L, MISSING)).isEqualTo(0L);
+        assertThat(cache.get(100L, MISSING)).isEqualTo(100L);
+    }
+
+    @Test
+    public void zeroSizedCacheStoresNothing() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(0);
+        cache.put(1L, 2L);
+        assertThat(cache.get(1L, MISSING)).isEqualTo(MISSING);
+    }
+
+    @Test
+    public void clearRemovesEntriesButKeepsStatistics() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(100);
+        cache.put(1L, 2L);
+        cache.get(1L, MISSING);
+        cache.clear();
+        assertThat(cache.get(1L, MISSING)).isEqualTo(MISSING);
+        assertThat(cache.estimatedSize()).isZero();
+        assertThat(cache.hitCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void resizeCopiesEntriesAndSharesStatistics() {
+        ConcurrentLongLongCache cache = new ConcurrentLongLongCache(100);
+        cache.put(1L, 2L);
+        cache.get(1L, MISSING);
+
+        ConcurrentLongLongCache resized = cache.withMaximumSize(1000);
+        assertThat(resized.maximumSize()).isEqualTo(1000L);
+        assertThat(resized.get(1L, MISSING)).isEqualTo(2L);
+        assertThat(resized.hitCount()).isEqualTo(2L);
+    }
+}
@@ -22,6 +22,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -29,23 +30,20 @@ import org.junit.Test;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
-import com.google.common.cache.Cache;
 import com.palantir.atlasdb.AtlasDbConstants;
-import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.atlasdb.util.MetricsRule;
 
 public class TimestampCacheTest {
-    private static final String TEST_CACHE_NAME = MetricRegistry.name(TimestampCacheTest.class, "test");
+    private static final String CACHE_METRICS_PREFIX =
+            MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp");
 
     @Rule
     public MetricsRule metricsRule = new MetricsRule();
 
     @Test
     public void cacheExposesMetrics() throws Exception {
-        Cache<Long, Long> cache = TimestampCache.createCache(AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
-        AtlasDbMetrics.registerCache(cache, TEST_CACHE_NAME);
-
-        TimestampCache timestampCache = new TimestampCache(cache);
+        TimestampCache timestampCache = new TimestampCache(() -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
 
         SortedMap<String, Gauge> gauges = metricsRule.metrics().getGauges(startsWith(TimestampCache.class.getName()));
         assertThat(gauges.keySet(), hasItems(cacheMetricName("hit.count"), cacheMetricName("miss.ratio")));
@@ -69,8 +67,42 @@ public class TimestampCacheTest {
         assertThat(gauges.get(cacheMetricName("request.count")).getValue(), equalTo(5L));
     }
 
+    @Test
+    public void primitiveLookupReturnsSentinelForAbsentTransactions() {
+        TimestampCache timestampCache = new TimestampCache(() -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
+
+        assertThat(timestampCache.getCachedCommitTimestamp(1L), is(TimestampCache.NO_COMMIT_TIMESTAMP));
+
+        timestampCache.putAlreadyCommittedTransaction(1L, 2L);
+
+        assertThat(timestampCache.getCachedCommitTimestamp(1L), is(2L));
+    }
+
+    @Test
+    public void returnsCachedRolledBackTransactions() {
+        TimestampCache timestampCache = new TimestampCache(() -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
+
+        timestampCache.putAlreadyCommittedTransaction(1L, TransactionConstants.FAILED_COMMIT_TS);
+
+        assertThat(timestampCache.getCommitTimestampIfPresent(1L), is(TransactionConstants.FAILED_COMMIT_TS));
+        assertThat(timestampCache.getCachedCommitTimestamp(1L), is(TransactionConstants.FAILED_COMMIT_TS));
+    }
+
+    @Test
+    public void resizesWhenSizeSupplierChangesAndKeepsEntries() {
+        AtomicLong size = new AtomicLong(100L);
+        TimestampCache timestampCache = new TimestampCache(size::get, TimestampCache.createCache(size.get()));
+        timestampCache.putAlreadyCommittedTransaction(1L, 2L);
+
+        size.set(1000L);
+        timestampCache.resizeIfNecessary();
+
+        assertThat(timestampCache.getMaximumSize(), is(1000L));
+        assertThat(timestampCache.getCommitTimestampIfPresent(1L), is(2L));
+    }
+
     private static String cacheMetricName(String name) {
-        return TEST_CACHE_NAME + ".cache." + name;
+        return CACHE_METRICS_PREFIX + ".cache." + name;
     }
 
     private MetricFilter startsWith(String prefix) {
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.schema.stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.Test;
 
@@ -35,4 +36,23 @@ public class StreamStoreDefinitionBuilderTest {
                 .inMemoryThreshold(StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD)
                 .build();
     }
+
+    @Test
+    public void testChunkTablesOnlyCreatedWhenDeduplicatingChunks() {
+        StreamStoreDefinition plain = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG).build();
+        StreamStoreDefinition deduplicating = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .deduplicateChunks()
+                .build();
+
+        assertThat(plain.getTables().keySet()).doesNotContain("test_stream_chunk", "test_stream_chunk_idx");
+        assertThat(deduplicating.getTables().keySet()).contains("test_stream_chunk", "test_stream_chunk_idx");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCannotDeduplicateChunksOfCompressedStreams() {
+        new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .deduplicateChunks()
+                .compressStreamInClient()
+                .build();
+    }
 }
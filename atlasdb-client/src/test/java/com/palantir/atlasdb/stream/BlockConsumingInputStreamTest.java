@@ -22,6 +22,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -29,11 +30,15 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -291,6 +296,66 @@ public class BlockConsumingInputStreamTest {
         verify(spiedGetter, times(1)).get(anyLong(), eq(1L), any());
     }
 
+    @Test
+    public void canReadAcrossBlocksWithReadAhead() throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            BlockConsumingInputStream stream = BlockConsumingInputStream.create(threeByteConsumer, 3, 1, 2, executor);
+            expectNextBytesFromStream(stream, "di");
+            expectNextBytesFromStream(stream, "vi");
+            expectNextBytesFromStream(stream, "si");
+            expectNextBytesFromStream(stream, "bl");
+
+            byte[] chunk = new byte[2];
+            int read = stream.read(chunk);
+            assertEquals(1, read);
+            assertArrayEquals("e".getBytes(StandardCharsets.UTF_8), Arrays.copyOf(chunk, 1));
+            assertEquals(-1, stream.read());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readAheadLoadsFurtherBatchesBeforeTheyAreRead() throws IOException {
+        BlockGetter spiedGetter = Mockito.spy(singleByteConsumer);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                spiedGetter, DATA_SIZE, 1, 2, MoreExecutors.directExecutor());
+
+        stream.read();
+
+        verify(spiedGetter, times(1)).get(eq(0L), eq(1L), any());
+        verify(spiedGetter, times(1)).get(eq(1L), eq(1L), any());
+        verify(spiedGetter, times(1)).get(eq(2L), eq(1L), any());
+        verify(spiedGetter, never()).get(eq(3L), anyLong(), any());
+    }
+
+    @Test
+    public void batchesThatFailToLoadInTheBackgroundAreLoadedAgainByTheReader() throws IOException {
+        AtomicBoolean failNextLoad = new AtomicBoolean(true);
+        BlockGetter flakyGetter = new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                if (failNextLoad.getAndSet(false)) {
+                    throw new IllegalStateException("transient failure");
+                }
+                singleByteConsumer.get(firstBlock, numBlocks, destination);
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return data.length;
+            }
+        };
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                flakyGetter, DATA_SIZE, 1, 1, MoreExecutors.directExecutor());
+
+        byte[] result = new byte[DATA_SIZE];
+        int read = stream.read(result);
+        assertEquals(DATA_SIZE, read);
+        assertArrayEquals(data, result);
+    }
+
     private void expectNextBytesFromStream(BlockConsumingInputStream stream, String expectedOutput) throws IOException {
         byte[] chunk = new byte[2];
         int read = stream.read(chunk);
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.util.crypto.Sha256Hash;
+
+public class ContentDefinedChunkerTest {
+    private static final int STREAM_SIZE = 8_000_000;
+
+    @Test
+    public void emptyStreamHasNoChunks() throws IOException {
+        assertThat(new ContentDefinedChunker(new ByteArrayInputStream(new byte[0])).nextChunk()).isNull();
+    }
+
+    @Test
+    public void chunksReassembleToTheStreamAndRespectSizeBounds() throws IOException {
+        byte[] bytes = randomBytes(STREAM_SIZE, 1);
+
+        List<byte[]> chunks = chunk(bytes);
+
+        ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+        for (int i = 0; i < chunks.size(); i++) {
+            byte[] chunk = chunks.get(i);
+            assertThat(chunk.length).isLessThanOrEqualTo(ContentDefinedChunker.MAX_CHUNK_SIZE);
+            if (i < chunks.size() - 1) {
+                assertThat(chunk.length).isGreaterThanOrEqualTo(ContentDefinedChunker.MIN_CHUNK_SIZE);
+            }
+            reassembled.write(chunk);
+        }
+        assertThat(reassembled.toByteArray()).isEqualTo(bytes);
+        assertThat(chunks.size()).isGreaterThan(STREAM_SIZE / ContentDefinedChunker.MAX_CHUNK_SIZE);
+    }
+
+    @Test
+    public void streamsWithoutBoundariesAreSplitIntoMaximumSizeChunks() throws IOException {
+        List<byte[]> chunks = chunk(new byte[3 * ContentDefinedChunker.MAX_CHUNK_SIZE + 1]);
+
+        assertThat(chunks).hasSize(4);
+        assertThat(chunks.get(0)).hasSize(ContentDefinedChunker.MAX_CHUNK_SIZE);
+        assertThat(chunks.get(3)).hasSize(1);
+    }
+
+    @Test
+    public void insertionOnlyChangesTheChunksAroundIt() throws IOException {
+        byte[] original = randomBytes(STREAM_SIZE, 2);
+        byte[] edited = Bytes.concat(
+                PtBytes.head(original, STREAM_SIZE / 2),
+                PtBytes.toBytes("an edit in the middle of the stream"),
+                PtBytes.tail(original, STREAM_SIZE - STREAM_SIZE / 2));
+
+        Set<Sha256Hash> originalChunks = hashes(chunk(original));
+        List<byte[]> editedChunks = chunk(edited);
+        Set<Sha256Hash> newChunks = Sets.difference(hashes(editedChunks), originalChunks);
+
+        assertThat(newChunks.size()).isBetween(1, 3);
+        assertThat(editedChunks.size()).isGreaterThan(10);
+    }
+
+    private static List<byte[]> chunk(byte[] bytes) throws IOException {
+        ContentDefinedChunker chunker = new ContentDefinedChunker(new ByteArrayInputStream(bytes));
+        List<byte[]> chunks = Lists.newArrayList();
+        for (byte[] chunk = chunker.nextChunk(); chunk != null; chunk = chunker.nextChunk()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static Set<Sha256Hash> hashes(List<byte[]> chunks) {
+        Set<Sha256Hash> hashes = Sets.newHashSet();
+        for (byte[] chunk : chunks) {
+            hashes.add(Sha256Hash.computeHash(chunk));
+        }
+        return hashes;
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
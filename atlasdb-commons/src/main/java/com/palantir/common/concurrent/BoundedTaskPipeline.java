@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Runs tasks on an executor while blocking submitters whenever too many of them are still running, so that a
+ * producer cannot get arbitrarily far ahead of the tasks it hands its work to.
+ * <p>
+ * Producers should stop submitting once {@link #hasFailed()}, and must always wait for the tasks they submitted
+ * before returning, either with {@link #awaitAll()} or, if they are already failing, with
+ * {@link #awaitAllQuietly()}; tasks commonly use resources that the producer releases when it returns.
+ *
+ * @param <V> the result of a task
+ */
+@ThreadSafe
+public final class BoundedTaskPipeline<V> {
+    private final ExecutorService executor;
+    private final Semaphore outstandingTasks;
+    private final Queue<Future<V>> futures = new ConcurrentLinkedQueue<>();
+    private volatile boolean failed = false;
+
+    public BoundedTaskPipeline(ExecutorService executor, int maxOutstandingTasks) {
+        Preconditions.checkArgument(maxOutstandingTasks > 0,
+                "maxOutstandingTasks must be positive: %s", maxOutstandingTasks);
+        this.executor = executor;
+        this.outstandingTasks = new Semaphore(maxOutstandingTasks);
+    }
+
+    /**
+     * Submits the task to the executor, first blocking until fewer than the maximum number of tasks are running.
+     */
+    public void submit(Callable<V> task) {
+        outstandingTasks.acquireUninterruptibly();
+        try {
+            futures.add(executor.submit(() -> {
+                try {
+                    return task.call();
+                } catch (Throwable t) {
+                    failed = true;
+                    throw t;
+                } finally {
+                    outstandingTasks.release();
+                }
+            }));
+        } catch (RuntimeException | Error e) {
+            outstandingTasks.release();
+            throw e;
+        }
+    }
+
+    public void submit(Runnable task) {
+        submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns whether any submitted task has failed. Once this is true, producers should stop submitting tasks.
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Waits for every submitted task, and returns their results in the order the tasks were submitted. If any task
+     * failed, the exception of the first one to have been submitted is rethrown once all tasks have finished.
+     */
+    public List<V> awaitAll() {
+        List<V> results = Lists.newArrayListWithCapacity(futures.size());
+        for (Future<V> future : futures) {
+            try {
+                results.add(Uninterruptibles.getUninterruptibly(future));
+            } catch (ExecutionException e) {
+                awaitAllQuietly();
+                throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for every submitted task, ignoring their failures. For use when the caller is already failing.
+     */
+    public void awaitAllQuietly() {
+        for (Future<V> future : futures) {
+            try {
+                Uninterruptibles.getUninterruptibly(future);
+            } catch (ExecutionException e) {
+                // The caller is already failing with another exception.
+            }
+        }
+    }
+}
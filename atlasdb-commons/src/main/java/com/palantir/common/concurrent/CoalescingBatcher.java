@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Coalesces concurrent requests into batches that are handled by a single call.
+ * <p>
+ * Requests are queued until the next batch is started. At most one batch is handled at a time; requests made while
+ * it is running accumulate and are handled together as the following batch by whichever waiting caller acquires the
+ * batch lock first, so no extra threads are involved. A request is never added to a batch that was already being
+ * handled when the request was made, so the handler of its batch observes everything that completed before it.
+ * <p>
+ * The handler must complete the result of every element of the batch it is given. If it throws, every element it
+ * has not completed fails with the same exception.
+ *
+ * @param <T> the argument of a request
+ * @param <R> the result of a request
+ */
+@ThreadSafe
+public final class CoalescingBatcher<T, R> {
+    private final Consumer<List<BatchElement<T, R>>> handler;
+    private final int maxBatchSize;
+    private final Lock batchLock = new ReentrantLock();
+
+    @GuardedBy("this")
+    private List<BatchElement<T, R>> pendingElements = Lists.newArrayList();
+
+    private CoalescingBatcher(Consumer<List<BatchElement<T, R>>> handler, int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+        this.handler = handler;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public static <T, R> CoalescingBatcher<T, R> create(Consumer<List<BatchElement<T, R>>> handler) {
+        return new CoalescingBatcher<>(handler, Integer.MAX_VALUE);
+    }
+
+    public static <T, R> CoalescingBatcher<T, R> create(
+            Consumer<List<BatchElement<T, R>>> handler,
+            int maxBatchSize) {
+        return new CoalescingBatcher<>(handler, maxBatchSize);
+    }
+
+    public R apply(T argument) {
+        return applyAll(Collections.singletonList(argument)).get(0);
+    }
+
+    /**
+     * Handles each of the arguments as a separate request, returning their results in the same order. The requests
+     * are queued together, but may be handled in different batches if there are more than fit in one.
+     */
+    public List<R> applyAll(List<T> arguments) {
+        List<BatchElement<T, R>> elements = enqueue(arguments);
+        for (BatchElement<T, R> element : elements) {
+            while (!element.result.isDone()) {
+                runNextBatch();
+            }
+        }
+
+        // Results may be null, so no immutable list here.
+        List<R> results = Lists.newArrayListWithCapacity(elements.size());
+        for (BatchElement<T, R> element : elements) {
+            results.add(getResult(element.result));
+        }
+        return results;
+    }
+
+    @VisibleForTesting
+    synchronized int pendingRequestCount() {
+        return pendingElements.size();
+    }
+
+    private synchronized List<BatchElement<T, R>> enqueue(List<T> arguments) {
+        List<BatchElement<T, R>> elements = Lists.newArrayListWithCapacity(arguments.size());
+        for (T argument : arguments) {
+            elements.add(new BatchElement<>(argument));
+        }
+        pendingElements.addAll(elements);
+        return elements;
+    }
+
+    private synchronized List<BatchElement<T, R>> drainPendingElements() {
+        if (pendingElements.size() <= maxBatchSize) {
+            List<BatchElement<T, R>> batch = pendingElements;
+            pendingElements = Lists.newArrayList();
+            return batch;
+        }
+        List<BatchElement<T, R>> batchView = pendingElements.subList(0, maxBatchSize);
+        List<BatchElement<T, R>> batch = ImmutableList.copyOf(batchView);
+        batchView.clear();
+        return batch;
+    }
+
+    private void runNextBatch() {
+        batchLock.lock();
+        try {
+            List<BatchElement<T, R>> batch = drainPendingElements();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                handler.accept(batch);
+            } catch (Throwable t) {
+                batch.forEach(element -> element.result.completeExceptionally(t));
+            }
+            for (BatchElement<T, R> element : batch) {
+                if (!element.result.isDone()) {
+                    element.result.completeExceptionally(
+                            new IllegalStateException("The batch handler did not complete a request"));
+                }
+            }
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    private static <R> R getResult(CompletableFuture<R> result) {
+        try {
+            return result.getNow(null);
+        } catch (CompletionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    public static final class BatchElement<T, R> {
+        private final T argument;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private BatchElement(T argument) {
+            this.argument = argument;
+        }
+
+        public T argument() {
+            return argument;
+        }
+
+        public CompletableFuture<R> result() {
+            return result;
+        }
+    }
+}
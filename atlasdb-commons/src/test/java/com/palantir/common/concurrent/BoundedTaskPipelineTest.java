@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BoundedTaskPipelineTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsResultsInSubmissionOrder() {
+        BoundedTaskPipeline<Integer> pipeline = new BoundedTaskPipeline<>(executor, 2);
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            pipeline.submit(() -> value * 2);
+        }
+
+        assertThat(pipeline.awaitAll()).containsExactly(0, 2, 4, 6, 8);
+        assertThat(pipeline.hasFailed()).isFalse();
+    }
+
+    @Test
+    public void blocksSubmittersWhileTooManyTasksAreRunning() throws Exception {
+        BoundedTaskPipeline<Void> pipeline = new BoundedTaskPipeline<>(executor, 1);
+        CountDownLatch releaseFirstTask = new CountDownLatch(1);
+        pipeline.submit(() -> {
+            releaseFirstTask.await();
+            return null;
+        });
+
+        CountDownLatch secondTaskSubmitted = new CountDownLatch(1);
+        Future<?> submitter = executor.submit(() -> {
+            pipeline.submit(() -> { });
+            secondTaskSubmitted.countDown();
+        });
+        assertThat(secondTaskSubmitted.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        releaseFirstTask.countDown();
+        submitter.get();
+        assertThat(pipeline.awaitAll()).hasSize(2);
+    }
+
+    @Test
+    public void rethrowsFailuresOnlyOnceEveryTaskHasFinished() {
+        BoundedTaskPipeline<Void> pipeline = new BoundedTaskPipeline<>(executor, 2);
+        AtomicBoolean slowTaskFinished = new AtomicBoolean();
+        pipeline.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        pipeline.submit(() -> {
+            Thread.sleep(50);
+            slowTaskFinished.set(true);
+            return null;
+        });
+
+        assertThatThrownBy(pipeline::awaitAll).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        assertThat(pipeline.hasFailed()).isTrue();
+        assertThat(slowTaskFinished.get()).isTrue();
+    }
+
+    @Test
+    public void awaitAllQuietlyIgnoresFailures() {
+        BoundedTaskPipeline<Void> pipeline = new BoundedTaskPipeline<>(executor, 2);
+        AtomicInteger tasksRun = new AtomicInteger();
+        pipeline.submit(() -> {
+            tasksRun.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+        pipeline.submit(tasksRun::incrementAndGet);
+
+        pipeline.awaitAllQuietly();
+        assertThat(tasksRun.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.palantir.common.concurrent.CoalescingBatcher.BatchElement;
+
+public class CoalescingBatcherTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<Integer>> batches = Lists.newCopyOnWriteArrayList();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsResultsInOrder() {
+        CoalescingBatcher<Integer, Integer> batcher = CoalescingBatcher.create(this::doubleEach);
+
+        assertThat(batcher.apply(3)).isEqualTo(6);
+        assertThat(batcher.applyAll(ImmutableList.of(1, 2, 3))).containsExactly(2, 4, 6);
+        assertThat(batches).containsExactly(ImmutableList.of(3), ImmutableList.of(1, 2, 3));
+    }
+
+    @Test
+    public void splitsRequestsIntoBatchesOfAtMostMaxBatchSize() {
+        CoalescingBatcher<Integer, Integer> batcher = CoalescingBatcher.create(this::doubleEach, 2);
+
+        assertThat(batcher.applyAll(ImmutableList.of(1, 2, 3, 4, 5))).containsExactly(2, 4, 6, 8, 10);
+        assertThat(batches).containsExactly(ImmutableList.of(1, 2), ImmutableList.of(3, 4), ImmutableList.of(5));
+    }
+
+    @Test
+    public void propagatesHandlerFailures() {
+        CoalescingBatcher<Integer, Integer> batcher = CoalescingBatcher.create(batch -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(() -> batcher.apply(1)).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    public void failsRequestsTheHandlerDidNotComplete() {
+        CoalescingBatcher<Integer, Integer> batcher = CoalescingBatcher.create(batch -> { });
+
+        assertThatThrownBy(() -> batcher.apply(1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void requestsMadeDuringABatchAreHandledTogetherInTheNextOne() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        CoalescingBatcher<Integer, Integer> batcher = CoalescingBatcher.create(batch -> {
+            if (batches.isEmpty()) {
+                firstBatchStarted.countDown();
+                awaitUninterruptibly(releaseFirstBatch);
+            }
+            doubleEach(batch);
+        });
+
+        Future<Integer> first = executor.submit(() -> batcher.apply(0));
+        firstBatchStarted.await();
+        List<Future<Integer>> followers = Lists.newArrayList();
+        for (int i = 1; i <= 10; i++) {
+            int argument = i;
+            followers.add(executor.submit(() -> batcher.apply(argument)));
+        }
+        // The followers cannot be handled before the first batch completes, so wait for all of them to queue up.
+        while (batcher.pendingRequestCount() < 10) {
+            Thread.sleep(10);
+        }
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get()).isEqualTo(0);
+        for (int i = 0; i < followers.size(); i++) {
+            assertThat(followers.get(i).get()).isEqualTo(2 * (i + 1));
+        }
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    private void doubleEach(List<BatchElement<Integer, Integer>> batch) {
+        batches.add(batch.stream().map(BatchElement::argument).collect(Collectors.toList()));
+        batch.forEach(element -> element.result().complete(2 * element.argument()));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
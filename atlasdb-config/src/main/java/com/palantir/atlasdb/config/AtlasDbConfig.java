@@ -166,6 +166,24 @@ public abstract class AtlasDbConfig {
         return AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC;
     }
 
+    /**
+     * If true, concurrent lookups of commit timestamps from the transactions table are coalesced into a single
+     * request to the key value service, instead of each transaction reading the table separately.
+     */
+    @Value.Default
+    public boolean enableTransactionServiceBatching() {
+        return AtlasDbConstants.DEFAULT_ENABLE_TRANSACTION_SERVICE_BATCHING;
+    }
+
+    /**
+     * If true, commit timestamps of transactions committing concurrently are written to the transactions table
+     * in a single request, instead of one check-and-set request per transaction.
+     */
+    @Value.Default
+    public boolean enableGroupCommit() {
+        return AtlasDbConstants.DEFAULT_ENABLE_GROUP_COMMIT;
+    }
+
     /**
      * If true, a background thread will periodically delete cells that
      * have been overwritten or deleted. This differs from scrubbing
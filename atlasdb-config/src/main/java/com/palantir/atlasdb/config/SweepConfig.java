@@ -22,6 +22,7 @@ import org.immutables.value.Value;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.AtlasDbConstants;
 
 @JsonDeserialize(as = ImmutableSweepConfig.class)
@@ -69,12 +70,35 @@ public abstract class SweepConfig {
         return AtlasDbConstants.DEFAULT_SWEEP_DELETE_BATCH_HINT;
     }
 
+    /**
+     * If set, the background sweeper shrinks its batches whenever a batch takes longer than this many milliseconds,
+     * and only grows them again while batches stay within it. Otherwise batches are only shrunk after failures.
+     */
+    public abstract Optional<Long> batchLatencyBudgetMillis();
+
+    /**
+     * The number of threads the background sweeper uses to sweep different tables concurrently. This is only read
+     * when the background sweeper starts.
+     */
+    @Value.Default
+    public Integer threads() {
+        return AtlasDbConstants.DEFAULT_SWEEP_THREADS;
+    }
+
+    @Value.Check
+    protected final void check() {
+        Preconditions.checkState(threads() > 0, "Sweep threads must be positive, but found %s", threads());
+        Preconditions.checkState(!batchLatencyBudgetMillis().isPresent() || batchLatencyBudgetMillis().get() > 0,
+                "Sweep batch latency budget must be positive, but found %s", batchLatencyBudgetMillis().orElse(null));
+    }
+
     public static SweepConfig defaultSweepConfig() {
         return ImmutableSweepConfig.builder()
                 .enabled(AtlasDbConstants.DEFAULT_ENABLE_SWEEP)
                 .pauseMillis(AtlasDbConstants.DEFAULT_SWEEP_PAUSE_MILLIS)
                 .readLimit(AtlasDbConstants.DEFAULT_SWEEP_READ_LIMIT)
                 .deleteBatchHint(AtlasDbConstants.DEFAULT_SWEEP_DELETE_BATCH_HINT)
+                .threads(AtlasDbConstants.DEFAULT_SWEEP_THREADS)
                 .build();
     }
 
@@ -31,6 +31,16 @@ public abstract class TimestampClientConfig {
         return true;
     }
 
+    /**
+     * Whether transactions are started with a single call to the TimeLock start-transactions endpoint. TimeLock
+     * servers that predate the endpoint reject it, so this should only be enabled once every TimeLock server has been
+     * upgraded; until then, transactions lock the immutable timestamp and fetch their start timestamps separately.
+     */
+    @Value.Default
+    public boolean enableStartTransactionsEndpoint() {
+        return false;
+    }
+
     // TODO (jkong): Make timestamp wait intervals configurable.
     // This should ONLY be done once the timestamp client supports nanosecond precision;
     // millisecond precision isn't too useful (realistically it's very unlikely you want to set this beyond
@@ -45,7 +45,6 @@ import com.palantir.atlasdb.cleaner.DefaultCleanerBuilder;
 import com.palantir.atlasdb.config.AtlasDbConfig;
 import com.palantir.atlasdb.config.AtlasDbRuntimeConfig;
 import com.palantir.atlasdb.config.ImmutableAtlasDbConfig;
-import com.palantir.atlasdb.config.ImmutableAtlasDbRuntimeConfig;
 import com.palantir.atlasdb.config.ImmutableServerListConfig;
 import com.palantir.atlasdb.config.LeaderConfig;
 import com.palantir.atlasdb.config.ServerListConfig;
@@ -244,7 +243,10 @@ public abstract class TransactionManagers {
                 config.initializeAsync());
 
         TransactionService transactionService = AtlasDbMetrics.instrument(TransactionService.class,
-                TransactionServices.createTransactionService(kvs));
+                TransactionServices.createTransactionService(
+                        kvs,
+                        config.enableTransactionServiceBatching(),
+                        config.enableGroupCommit()));
         ConflictDetectionManager conflictManager = ConflictDetectionManagers.create(kvs);
         SweepStrategyManager sweepStrategyManager = SweepStrategyManagers.createDefault(kvs);
 
@@ -342,18 +344,19 @@ public abstract class TransactionManagers {
                 kvs,
                 persistentLockManager,
                 ImmutableList.of(follower));
+        SweepMetrics sweepMetrics = new SweepMetrics();
         SweepTaskRunner sweepRunner = new SweepTaskRunner(
                 kvs,
                 transactionManager::getUnreadableTimestamp,
                 transactionManager::getImmutableTimestamp,
                 transactionService,
                 sweepStrategyManager,
-                cellsSweeper);
+                cellsSweeper,
+                sweepMetrics);
         BackgroundSweeperPerformanceLogger sweepPerfLogger = new NoOpBackgroundSweeperPerformanceLogger();
-        AdjustableSweepBatchConfigSource sweepBatchConfigSource = AdjustableSweepBatchConfigSource.create(() ->
-                getSweepBatchConfig(runtimeConfigSupplier.get().sweep(), config.keyValueService()));
-
-        SweepMetrics sweepMetrics = new SweepMetrics();
+        AdjustableSweepBatchConfigSource sweepBatchConfigSource = AdjustableSweepBatchConfigSource.create(
+                () -> getSweepBatchConfig(runtimeConfigSupplier.get().sweep(), config.keyValueService()),
+                () -> runtimeConfigSupplier.get().sweep().batchLatencyBudgetMillis());
 
         SpecificTableSweeper specificTableSweeper = initializeSweepEndpoint(
                 env,
@@ -370,7 +373,8 @@ public abstract class TransactionManagers {
                 () -> runtimeConfigSupplier.get().sweep().enabled(),
                 () -> runtimeConfigSupplier.get().sweep().pauseMillis(),
                 persistentLockManager,
-                specificTableSweeper);
+                specificTableSweeper,
+                runtimeConfigSupplier.get().sweep().threads());
 
         transactionManager.registerClosingCallback(backgroundSweeper::shutdown);
         backgroundSweeper.runInBackground();
@@ -432,9 +436,11 @@ public abstract class TransactionManagers {
             Consumer<Object> env,
             com.google.common.base.Supplier<LockService> lock,
             com.google.common.base.Supplier<TimestampService> time) {
+        java.util.function.Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier =
+                AtlasDbRuntimeConfig::defaultRuntimeConfig;
         LockAndTimestampServices lockAndTimestampServices =
                 createRawInstrumentedServices(config,
-                        () -> ImmutableAtlasDbRuntimeConfig.builder().build(),
+                        runtimeConfigSupplier,
                         env,
                         lock,
                         time,
@@ -443,7 +449,9 @@ public abstract class TransactionManagers {
                             return AtlasDbFactory.NO_OP_FAST_FORWARD_TIMESTAMP;
                         },
                         UserAgents.DEFAULT_USER_AGENT);
-        return withRefreshingLockService(lockAndTimestampServices);
+        return withStartTransactionsEmulation(
+                () -> runtimeConfigSupplier.get().timestampClient(),
+                withRefreshingLockService(lockAndTimestampServices));
     }
 
     @VisibleForTesting
@@ -457,9 +465,11 @@ public abstract class TransactionManagers {
             String userAgent) {
         LockAndTimestampServices lockAndTimestampServices =
                 createRawInstrumentedServices(config, runtimeConfigSupplier, env, lock, time, invalidator, userAgent);
-        return withRequestBatchingTimestampService(
+        return withStartTransactionsEmulation(
                 () -> runtimeConfigSupplier.get().timestampClient(),
-                withRefreshingLockService(lockAndTimestampServices));
+                withRequestBatchingTimestampService(
+                        () -> runtimeConfigSupplier.get().timestampClient(),
+                        withRefreshingLockService(lockAndTimestampServices)));
     }
 
     private static LockAndTimestampServices withRefreshingLockService(
@@ -486,6 +496,17 @@ public abstract class TransactionManagers {
                 .build();
     }
 
+    private static LockAndTimestampServices withStartTransactionsEmulation(
+            java.util.function.Supplier<TimestampClientConfig> timestampClientConfigSupplier,
+            LockAndTimestampServices lockAndTimestampServices) {
+        return ImmutableLockAndTimestampServices.builder()
+                .from(lockAndTimestampServices)
+                .timelock(DecoratedTimelockServices.createTimelockServiceWithStartTransactionsEmulation(
+                        lockAndTimestampServices.timelock(),
+                        timestampClientConfigSupplier))
+                .build();
+    }
+
     @VisibleForTesting
     static LockAndTimestampServices createRawInstrumentedServices(
             AtlasDbConfig config,
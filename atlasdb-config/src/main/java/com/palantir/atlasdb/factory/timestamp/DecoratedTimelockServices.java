@@ -21,8 +21,10 @@ import java.util.function.Supplier;
 import com.palantir.atlasdb.config.TimestampClientConfig;
 import com.palantir.atlasdb.factory.DynamicDecoratingProxy;
 import com.palantir.atlasdb.factory.ServiceCreator;
+import com.palantir.atlasdb.transaction.impl.StartTransactionsEmulatingTimelockService;
 import com.palantir.atlasdb.transaction.impl.TimelockTimestampServiceAdapter;
 import com.palantir.atlasdb.transaction.impl.TimestampDecoratingTimelockService;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
 import com.palantir.atlasdb.util.JavaSuppliers;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.timestamp.RequestBatchingTimestampService;
@@ -44,10 +46,20 @@ public final class DecoratedTimelockServices {
                 TimelockService.class);
     }
 
+    public static TimelockService createTimelockServiceWithStartTransactionsEmulation(
+            TimelockService timelockService,
+            Supplier<TimestampClientConfig> configSupplier) {
+        return new StartTransactionsEmulatingTimelockService(
+                timelockService,
+                () -> !configSupplier.get().enableStartTransactionsEndpoint());
+    }
+
     private static TimestampService createRequestBatchingTimestampService(
             TimelockService timelockService) {
         return ServiceCreator.createInstrumentedService(
-                new RequestBatchingTimestampService(new TimelockTimestampServiceAdapter(timelockService)),
+                new RequestBatchingTimestampService(
+                        new TimelockTimestampServiceAdapter(timelockService),
+                        AtlasDbMetrics.getMetricRegistry()),
                 TimestampService.class);
     }
 }
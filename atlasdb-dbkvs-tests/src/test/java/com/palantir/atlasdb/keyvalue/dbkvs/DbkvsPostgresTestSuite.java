@@ -40,6 +40,8 @@ import com.palantir.nexus.db.pool.config.ImmutablePostgresConnectionConfig;
 @RunWith(Suite.class)
 @SuiteClasses({
         DbkvsPostgresKeyValueServiceTest.class,
+        DbkvsPostgresArrayBindingKeyValueServiceTest.class,
+        DbkvsPostgresCopyWriteKeyValueServiceTest.class,
         DbkvsPostgresSerializableTransactionTest.class,
         DbkvsPostgresSweepTaskRunnerTest.class,
         DbkvsBackgroundSweeperIntegrationTest.class,
@@ -70,6 +72,10 @@ public final class DbkvsPostgresTestSuite {
     }
 
     public static DbKeyValueServiceConfig getKvsConfig() {
+        return getKvsConfig(ImmutablePostgresDdlConfig.builder().build());
+    }
+
+    public static DbKeyValueServiceConfig getKvsConfig(PostgresDdlConfig ddlConfig) {
         DockerPort port = docker.containers()
                 .container("postgres")
                 .port(POSTGRES_PORT_NUMBER);
@@ -86,7 +92,7 @@ public final class DbkvsPostgresTestSuite {
 
         return ImmutableDbKeyValueServiceConfig.builder()
                 .connection(connectionConfig)
-                .ddl(ImmutablePostgresDdlConfig.builder().build())
+                .ddl(ddlConfig)
                 .build();
     }
 
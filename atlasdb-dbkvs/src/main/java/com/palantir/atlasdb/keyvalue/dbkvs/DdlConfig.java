@@ -42,6 +42,16 @@ public abstract class DdlConfig {
         return 64;
     }
 
+    /**
+     * If true, parallel requests run on a work-stealing pool that adds threads while requests are blocked, rather
+     * than on a fixed pool of {@link #poolSize()} threads. Concurrency is then bounded by the connection pool rather
+     * than by the executor.
+     */
+    @Value.Default
+    public boolean useWorkStealingExecutor() {
+        return false;
+    }
+
     @Value.Default
     public int fetchBatchSize() {
         return 256;
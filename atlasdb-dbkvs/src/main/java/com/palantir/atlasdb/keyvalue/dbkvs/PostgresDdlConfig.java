@@ -15,11 +15,14 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs;
 
+import java.util.Optional;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 
@@ -36,6 +39,32 @@ public abstract class PostgresDdlConfig extends DdlConfig {
         return AtlasDbConstants.DEFAULT_METADATA_TABLE;
     }
 
+    /**
+     * If true, multi-row and multi-cell lookups pass their keys as array parameters joined with {@code unnest},
+     * rather than as lists of individual parameters. Each query then has a single statement text whatever the batch
+     * size, so the JDBC driver's per-connection statement cache and server-side prepared statements are reused
+     * instead of a new statement being parsed and planned for every batch size.
+     */
+    @Value.Default
+    public boolean bindKeysAsArrays() {
+        return false;
+    }
+
+    /**
+     * If present, write batches of at least this many cells are streamed into the table with a binary
+     * {@code COPY ... FROM STDIN} rather than sent as a JDBC batch of single-row inserts. Note that write batches are
+     * capped by {@link #mutationBatchCount()} and {@link #mutationBatchSizeBytes()}, which will usually need to be
+     * raised for this to take effect.
+     */
+    public abstract Optional<Integer> copyWriteThreshold();
+
+    @Value.Check
+    protected final void checkCopyWriteThreshold() {
+        Preconditions.checkState(
+                !copyWriteThreshold().isPresent() || copyWriteThreshold().get() > 0,
+                "'copyWriteThreshold' should be positive");
+    }
+
     @Override
     public final String type() {
         return TYPE;
@@ -35,10 +35,12 @@ import com.palantir.exception.PalantirSqlException;
 import com.palantir.nexus.db.sql.ExceptionCheck;
 
 public abstract class AbstractDbWriteTable implements DbWriteTable {
+    protected static final byte[] SENTINEL_VALUE = new byte[0];
+
     protected final DdlConfig config;
     protected final ConnectionSupplier conns;
     protected final TableReference tableRef;
-    private final PrefixedTableNames prefixedTableNames;
+    protected final PrefixedTableNames prefixedTableNames;
 
     protected AbstractDbWriteTable(
             DdlConfig config,
@@ -73,7 +75,11 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
         put(args);
     }
 
-    private void put(List<Object[]> args) {
+    /**
+     * Inserts the given {@code (row_name, col_name, ts, val)} tuples, throwing {@link KeyAlreadyExistsException}
+     * if any of them already exists.
+     */
+    protected void put(List<Object[]> args) {
         try {
             String prefixedTableName = prefixedTableNames.get(tableRef, conns);
             conns.get().insertManyUnregisteredQuery("/* INSERT_ONE (" + prefixedTableName + ") */"
@@ -90,32 +96,37 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
 
     @Override
     public void putSentinels(Iterable<Cell> cells) {
-        byte[] value = new byte[0];
-        long ts = Value.INVALID_VALUE_TIMESTAMP;
         for (List<Cell> batch : Iterables.partition(Ordering.natural().immutableSortedCopy(cells), 1000)) {
-            List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
-            for (Cell cell : batch) {
-                args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value,
-                        cell.getRowName(), cell.getColumnName(), ts});
-            }
-            while (true) {
-                try {
-                    String prefixedTableName = prefixedTableNames.get(tableRef, conns);
-                    conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + prefixedTableName + ") */"
-                            + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
-                            + " SELECT ?, ?, ?, ? FROM DUAL"
-                            + " WHERE NOT EXISTS (SELECT * FROM " + prefixedTableName + " WHERE"
-                            + " row_name = ? AND"
-                            + " col_name = ? AND"
-                            + " ts = ?)",
-                            args);
-                    break;
-                } catch (PalantirSqlException e) {
-                    // we can't do atomic put if not exists, so retry if we get constraint violations
-                    // TODO(jboreiko): Actually you can. Evaluate use of MERGE or UPSERT here.
-                    if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
-                        throw e;
-                    }
+            putSentinelBatch(prefixedTableNames.get(tableRef, conns), batch);
+        }
+    }
+
+    /**
+     * Writes a sentinel for each of the given cells that does not already have one. The default implementation can
+     * only check for existing sentinels non-atomically, so it retries the batch if a concurrent writer inserts one of
+     * them between the check and the insert; databases with an atomic insert-if-absent should override it.
+     */
+    protected void putSentinelBatch(String prefixedTableName, List<Cell> batch) {
+        List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
+        for (Cell cell : batch) {
+            args.add(new Object[] {cell.getRowName(), cell.getColumnName(), Value.INVALID_VALUE_TIMESTAMP,
+                    SENTINEL_VALUE, cell.getRowName(), cell.getColumnName(), Value.INVALID_VALUE_TIMESTAMP});
+        }
+        while (true) {
+            try {
+                conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + prefixedTableName + ") */"
+                        + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                        + " SELECT ?, ?, ?, ? FROM DUAL"
+                        + " WHERE NOT EXISTS (SELECT * FROM " + prefixedTableName + " WHERE"
+                        + " row_name = ? AND"
+                        + " col_name = ? AND"
+                        + " ts = ?)",
+                        args);
+                return;
+            } catch (PalantirSqlException e) {
+                // we can't do atomic put if not exists, so retry if we get constraint violations
+                if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
+                    throw e;
                 }
             }
         }
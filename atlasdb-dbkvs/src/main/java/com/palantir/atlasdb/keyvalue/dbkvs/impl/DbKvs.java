@@ -157,8 +157,8 @@ public final class DbKvs extends AbstractKeyValueService {
      * ConnectionManagerAwareDbKvs which will instantiate a properly initialized DbKVS using the above create method
      */
     public static DbKvs createNoInit(DdlConfig config, SqlConnectionSupplier connections) {
-        ExecutorService executor = AbstractKeyValueService.createFixedThreadPool(
-                "Atlas Relational KVS", config.poolSize());
+        ExecutorService executor = AbstractKeyValueService.createThreadPool(
+                "Atlas Relational KVS", config.poolSize(), config.useWorkStealingExecutor());
         return config.accept(new DdlConfig.Visitor<DbKvs>() {
             @Override
             public DbKvs visit(PostgresDdlConfig postgresDdlConfig) {
@@ -1138,10 +1138,15 @@ public final class DbKvs extends AbstractKeyValueService {
 
     @Override
     public void addGarbageCollectionSentinelValues(TableReference tableRef, Iterable<Cell> cells) {
-        runWrite(tableRef, (Function<DbWriteTable, Void>) table -> {
-            table.putSentinels(cells);
-            return null;
-        });
+        // Sorting first means concurrent batches insert disjoint, ordered key ranges.
+        batchingQueryRunner.runTask(
+                Ordering.natural().immutableSortedCopy(cells),
+                BatchingStrategies.forList(),
+                AccumulatorStrategies.forVoid(),
+                cellBatch -> runWrite(tableRef, (Function<DbWriteTable, Void>) table -> {
+                    table.putSentinels(cellBatch);
+                    return null;
+                }));
     }
 
     @Override
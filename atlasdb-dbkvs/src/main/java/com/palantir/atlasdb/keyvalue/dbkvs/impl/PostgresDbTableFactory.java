@@ -21,6 +21,7 @@ import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresDdlTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresPrefixedTableNames;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresQueryFactory;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresTableInitializer;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresVersionCheck;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresWriteTable;
 import com.palantir.nexus.db.DBType;
 
@@ -29,6 +30,9 @@ public class PostgresDbTableFactory implements DbTableFactory {
     private final PostgresDdlConfig config;
     private final PostgresPrefixedTableNames prefixedTableNames;
 
+    // All tables share one connection pool, so the server version only needs to be looked up once.
+    private volatile Boolean supportsInsertOnConflict;
+
     public PostgresDbTableFactory(PostgresDdlConfig config,
                                   PostgresPrefixedTableNames prefixedTableNames) {
         this.config = config;
@@ -59,7 +63,17 @@ public class PostgresDbTableFactory implements DbTableFactory {
 
     @Override
     public DbWriteTable createWrite(TableReference tableRef, ConnectionSupplier conns) {
-        return new PostgresWriteTable(config, conns, tableRef, prefixedTableNames);
+        return new PostgresWriteTable(config, conns, tableRef, prefixedTableNames,
+                () -> supportsInsertOnConflict(conns));
+    }
+
+    private boolean supportsInsertOnConflict(ConnectionSupplier conns) {
+        Boolean supported = supportsInsertOnConflict;
+        if (supported == null) {
+            supported = PostgresVersionCheck.supportsInsertOnConflict(PostgresDdlTable.getServerVersion(conns));
+            supportsInsertOnConflict = supported;
+        }
+        return supported;
     }
 
     @Override
@@ -35,6 +35,10 @@ public final class AccumulatorStrategies {
         return (ListMultimapAccumulatorStrategy<K, V>) listMultimapAccumulatorStrategy;
     }
 
+    public static BatchingTaskRunner.ResultAccumulatorStrategy<Void> forVoid() {
+        return voidAccumulatorStrategy;
+    }
+
     private static class MapAccumulatorStrategy<K, V>
                 implements BatchingTaskRunner.ResultAccumulatorStrategy<Map<K, V>> {
         @Override
@@ -66,4 +70,18 @@ public final class AccumulatorStrategies {
     private static final ListMultimapAccumulatorStrategy<?, ?> listMultimapAccumulatorStrategy
             = new ListMultimapAccumulatorStrategy<>();
 
+    private static class VoidAccumulatorStrategy implements BatchingTaskRunner.ResultAccumulatorStrategy<Void> {
+        @Override
+        public Void createEmptyResult() {
+            return null;
+        }
+
+        @Override
+        public void accumulateResult(Void result, Void toAdd) {
+            // nothing to accumulate
+        }
+    }
+
+    private static final VoidAccumulatorStrategy voidAccumulatorStrategy = new VoidAccumulatorStrategy();
+
 }
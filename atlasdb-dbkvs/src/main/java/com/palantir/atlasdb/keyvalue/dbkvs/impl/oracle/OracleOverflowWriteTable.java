@@ -154,35 +154,8 @@ public final class OracleOverflowWriteTable implements DbWriteTable {
 
     @Override
     public void putSentinels(Iterable<Cell> cells) {
-        byte[] value = new byte[0];
-        long ts = Value.INVALID_VALUE_TIMESTAMP;
         for (List<Cell> batch : Iterables.partition(Ordering.natural().immutableSortedCopy(cells), 1000)) {
-            List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
-            for (Cell cell : batch) {
-                args.add(new Object[] {cell.getRowName(), cell.getColumnName(), ts, value, null,
-                        cell.getRowName(), cell.getColumnName(), ts});
-            }
-            while (true) {
-                try {
-                    String shortTableName = oraclePrefixedTableNames.get(tableRef, conns);
-                    conns.get().insertManyUnregisteredQuery("/* INSERT_WHERE_NOT_EXISTS (" + shortTableName + ") */"
-                            + " INSERT INTO " + shortTableName
-                            + "   (row_name, col_name, ts, val, overflow)"
-                            + " SELECT ?, ?, ?, ?, ? FROM DUAL"
-                            + " WHERE NOT EXISTS ("
-                            + "   SELECT * FROM " + shortTableName
-                            + "   WHERE row_name = ?"
-                            + "     AND col_name = ?"
-                            + "     AND ts = ?)",
-                            args);
-                    break;
-                } catch (PalantirSqlException e) {
-                    // we can't do atomic put if not exists, so retry if we get constraint violations
-                    if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
-                        throw e;
-                    }
-                }
-            }
+            OracleSentinels.mergeSentinels(conns, oraclePrefixedTableNames.get(tableRef, conns), batch);
         }
     }
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.nexus.db.sql.ExceptionCheck;
+
+final class OracleSentinels {
+    private static final byte[] SENTINEL_VALUE = new byte[0];
+
+    private OracleSentinels() { }
+
+    /**
+     * Writes a sentinel for each cell that does not already have one. The statement leaves out the overflow column,
+     * so it works for both the plain and the overflow table layouts.
+     */
+    static void mergeSentinels(ConnectionSupplier conns, String shortTableName, List<Cell> cells) {
+        List<Object[]> args = Lists.newArrayListWithCapacity(cells.size());
+        for (Cell cell : cells) {
+            args.add(new Object[] {cell.getRowName(), cell.getColumnName(), Value.INVALID_VALUE_TIMESTAMP,
+                    SENTINEL_VALUE});
+        }
+        while (true) {
+            try {
+                conns.get().updateManyUnregisteredQuery("/* MERGE_SENTINELS (" + shortTableName + ") */"
+                        + " MERGE INTO " + shortTableName + " m"
+                        + " USING (SELECT ? AS row_name, ? AS col_name, ? AS ts, ? AS val FROM DUAL) s"
+                        + " ON (m.row_name = s.row_name AND m.col_name = s.col_name AND m.ts = s.ts)"
+                        + " WHEN NOT MATCHED THEN"
+                        + "   INSERT (row_name, col_name, ts, val) VALUES (s.row_name, s.col_name, s.ts, s.val)",
+                        args);
+                return;
+            } catch (PalantirSqlException e) {
+                // MERGE can still race with a concurrent insert of the same sentinel; the retry will see it.
+                if (!ExceptionCheck.isUniqueConstraintViolation(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
 
+import java.util.List;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
@@ -29,4 +32,9 @@ public class OracleWriteTable extends AbstractDbWriteTable {
             TableReference tableRef) {
         super(config, conns, tableRef, oraclePrefixedTableNames);
     }
+
+    @Override
+    protected void putSentinelBatch(String prefixedTableName, List<Cell> batch) {
+        OracleSentinels.mergeSentinels(conns, prefixedTableName, batch);
+    }
 }
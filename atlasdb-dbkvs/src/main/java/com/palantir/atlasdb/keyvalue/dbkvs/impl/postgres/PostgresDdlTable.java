@@ -111,9 +111,12 @@ public class PostgresDdlTable implements DbDdlTable {
 
     @Override
     public void checkDatabaseVersion() {
+        PostgresVersionCheck.checkDatabaseVersion(getServerVersion(conns), log);
+    }
+
+    public static String getServerVersion(ConnectionSupplier conns) {
         AgnosticResultSet result = conns.get().selectResultSetUnregisteredQuery("SHOW server_version");
-        String version = result.get(0).getString("server_version");
-        PostgresVersionCheck.checkDatabaseVersion(version, log);
+        return result.get(0).getString("server_version");
     }
 
     @Override
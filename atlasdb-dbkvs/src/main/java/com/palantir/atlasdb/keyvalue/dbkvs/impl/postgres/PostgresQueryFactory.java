@@ -20,8 +20,11 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.io.BaseEncoding;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
@@ -30,8 +33,11 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbQueryFactory;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
+import com.palantir.nexus.db.sql.SqlArray;
 
 public class PostgresQueryFactory extends AbstractDbQueryFactory {
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
     private final String tableName;
     private final PostgresDdlConfig config;
 
@@ -51,11 +57,11 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
                 + "  WHERE m.row_name = ? "
                 + "    AND m.ts < ? "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())))
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())))
                 + " GROUP BY m.row_name, m.col_name";
         query = wrapQueryWithIncludeValue("GET_LATEST_ROW", query, includeValue);
         FullQuery fullQuery = new FullQuery(query).withArgs(row, ts);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -66,14 +72,14 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_LATEST_ROWS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m "
-                + "  WHERE m.row_name IN " + numParams(Iterables.size(rows))
+                + "  WHERE " + keysIn("m.row_name", Iterables.size(rows))
                 + "    AND m.ts < ? "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())))
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())))
                 + " GROUP BY m.row_name, m.col_name ";
         query = wrapQueryWithIncludeValue("GET_LATEST_ROW", query, includeValue);
-        FullQuery fullQuery = new FullQuery(query).withArgs(rows).withArg(ts);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+        FullQuery fullQuery = new FullQuery(query).withArgs(keyArgs(rows)).withArg(ts);
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -83,15 +89,15 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_LATEST_ROWS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m,"
-                + "     (VALUES " + groupOfNumParams(2, rows.size()) + ") t(row_name, ts) "
+                + "     " + rowTsTable(rows.size())
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.ts < t.ts "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())))
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())))
                 + " GROUP BY m.row_name, m.col_name ";
         query = wrapQueryWithIncludeValue("GET_LATEST_ROW", query, includeValue);
         FullQuery fullQuery = addRowTsArgs(new FullQuery(query), rows);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -105,9 +111,9 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
                 + "  WHERE m.row_name = ? "
                 + "    AND m.ts < ? "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())));
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())));
         FullQuery fullQuery = new FullQuery(query).withArgs(row, ts);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -118,12 +124,12 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ALL_ROWS (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
                 + "   FROM " + prefixedTableName() + " m "
-                + "  WHERE m.row_name IN " + numParams(Iterables.size(rows))
+                + "  WHERE " + keysIn("m.row_name", Iterables.size(rows))
                 + "    AND m.ts < ? "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())));
-        FullQuery fullQuery = new FullQuery(query).withArgs(rows).withArg(ts);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())));
+        FullQuery fullQuery = new FullQuery(query).withArgs(keyArgs(rows)).withArg(ts);
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -133,13 +139,13 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ALL_ROWS (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
                 + "   FROM " + prefixedTableName() + " m,"
-                + "     (VALUES " + groupOfNumParams(2, rows.size()) + ") t(row_name, ts) "
+                + "     " + rowTsTable(rows.size())
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.ts < t.ts "
                 + (columns.allColumnsSelected() ? "" :
-                    "    AND m.col_name IN " + numParams(Iterables.size(columns.getSelectedColumns())));
+                    "    AND " + keysIn("m.col_name", Iterables.size(columns.getSelectedColumns())));
         FullQuery fullQuery = addRowTsArgs(new FullQuery(query), rows);
-        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(columns.getSelectedColumns());
+        return columns.allColumnsSelected() ? fullQuery : fullQuery.withArgs(keyArgs(columns.getSelectedColumns()));
     }
 
     @Override
@@ -161,7 +167,7 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_LATEST_CELLS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m,"
-                + "    (VALUES " + groupOfNumParams(2, Iterables.size(cells)) + ") t(row_name, col_name) "
+                + "    " + cellTable(Iterables.size(cells))
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.col_name = t.col_name "
                 + "    AND m.ts < ? "
@@ -175,7 +181,7 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_LATEST_CELLS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m,"
-                + "     (VALUES " + groupOfNumParams(3, Iterables.size(cells)) + ") t(row_name, col_name, ts) "
+                + "     " + cellTsTable(Iterables.size(cells))
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.col_name = t.col_name "
                 + "    AND m.ts < t.ts "
@@ -200,7 +206,7 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ALL_CELLS (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
                 + "   FROM " + prefixedTableName() + " m,"
-                + "     (VALUES " + groupOfNumParams(2, Iterables.size(cells)) + ") t(row_name, col_name) "
+                + "     " + cellTable(Iterables.size(cells))
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.col_name = t.col_name "
                 + "    AND m.ts < ? ";
@@ -212,7 +218,7 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ALL_CELLS (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
                 + "   FROM " + prefixedTableName() + " m,"
-                + "     (VALUES " + groupOfNumParams(3, Iterables.size(cells)) + ") t(row_name, col_name, ts) "
+                + "     " + cellTsTable(Iterables.size(cells))
                 + "  WHERE m.row_name = t.row_name "
                 + "    AND m.col_name = t.col_name "
                 + "    AND m.ts < t.ts ";
@@ -270,7 +276,48 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
                 + "   AND wrap.ts = i.ts ";
     }
 
-    private FullQuery addRowTsArgs(FullQuery fullQuery, Iterable<Entry<byte[], Long>> rows) {
+    private String keysIn(String column, int numKeys) {
+        if (config.bindKeysAsArrays()) {
+            return column + " = ANY (?::bytea[]) ";
+        }
+        return column + " IN " + numParams(numKeys);
+    }
+
+    private String rowTsTable(int numRows) {
+        if (config.bindKeysAsArrays()) {
+            return "(SELECT unnest(?::bytea[]) AS row_name, unnest(?::int8[]) AS ts) t ";
+        }
+        return "(VALUES " + groupOfNumParams(2, numRows) + ") t(row_name, ts) ";
+    }
+
+    private String cellTable(int numCells) {
+        if (config.bindKeysAsArrays()) {
+            return "(SELECT unnest(?::bytea[]) AS row_name, unnest(?::bytea[]) AS col_name) t ";
+        }
+        return "(VALUES " + groupOfNumParams(2, numCells) + ") t(row_name, col_name) ";
+    }
+
+    private String cellTsTable(int numCells) {
+        if (config.bindKeysAsArrays()) {
+            return "(SELECT unnest(?::bytea[]) AS row_name, unnest(?::bytea[]) AS col_name,"
+                    + " unnest(?::int8[]) AS ts) t ";
+        }
+        return "(VALUES " + groupOfNumParams(3, numCells) + ") t(row_name, col_name, ts) ";
+    }
+
+    private Iterable<?> keyArgs(Iterable<byte[]> keys) {
+        if (config.bindKeysAsArrays()) {
+            return ImmutableList.of(byteaArray(keys));
+        }
+        return keys;
+    }
+
+    private FullQuery addRowTsArgs(FullQuery fullQuery, Collection<Entry<byte[], Long>> rows) {
+        if (config.bindKeysAsArrays()) {
+            return fullQuery.withArgs(
+                    byteaArray(Collections2.transform(rows, Entry::getKey)),
+                    int8Array(Collections2.transform(rows, Entry::getValue)));
+        }
         for (Entry<byte[], Long> entry : rows) {
             fullQuery.withArgs(entry.getKey(), entry.getValue());
         }
@@ -278,6 +325,11 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
     }
 
     private FullQuery addCellArgs(FullQuery fullQuery, Iterable<Cell> cells) {
+        if (config.bindKeysAsArrays()) {
+            return fullQuery.withArgs(
+                    byteaArray(Iterables.transform(cells, Cell::getRowName)),
+                    byteaArray(Iterables.transform(cells, Cell::getColumnName)));
+        }
         for (Cell cell : cells) {
             fullQuery.withArgs(cell.getRowName(), cell.getColumnName());
         }
@@ -285,6 +337,12 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
     }
 
     private FullQuery addCellTsArgs(FullQuery fullQuery, Collection<Entry<Cell, Long>> cells) {
+        if (config.bindKeysAsArrays()) {
+            return fullQuery.withArgs(
+                    byteaArray(Collections2.transform(cells, entry -> entry.getKey().getRowName())),
+                    byteaArray(Collections2.transform(cells, entry -> entry.getKey().getColumnName())),
+                    int8Array(Collections2.transform(cells, Entry::getValue)));
+        }
         for (Entry<Cell, Long> entry : cells) {
             Cell cell = entry.getKey();
             fullQuery.withArgs(cell.getRowName(), cell.getColumnName(), entry.getValue());
@@ -292,6 +350,20 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         return fullQuery;
     }
 
+    /**
+     * The Postgres JDBC driver we use cannot encode {@code byte[]} array elements, so they are sent as hex-format
+     * {@code bytea} literals, which the server parses.
+     */
+    private static SqlArray byteaArray(Iterable<byte[]> values) {
+        Object[] elements = Iterables.toArray(
+                Iterables.transform(values, value -> "\\x" + HEX.encode(value)), Object.class);
+        return SqlArray.of("bytea", elements);
+    }
+
+    private static SqlArray int8Array(Iterable<Long> values) {
+        return SqlArray.of("int8", Iterables.toArray(values, Object.class));
+    }
+
     private String prefixedTableName() {
         return config.tablePrefix() + tableName;
     }
@@ -304,12 +376,12 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ROWS_COLUMN_RANGE_COUNT(" + tableName + ") */"
                 + " SELECT m.row_name, COUNT(m.col_name) AS column_count "
                 + "   FROM " + prefixedTableName() + " m "
-                + "  WHERE m.row_name IN " + numParams(Iterables.size(rows))
+                + "  WHERE " + keysIn("m.row_name", Iterables.size(rows))
                 + "    AND m.ts < ? "
                 + (columnRangeSelection.getStartCol().length > 0 ? " AND m.col_name >= ?" : "")
                 + (columnRangeSelection.getEndCol().length > 0 ? " AND m.col_name < ?" : "")
                 + " GROUP BY m.row_name";
-        FullQuery fullQuery = new FullQuery(query).withArgs(rows).withArg(ts);
+        FullQuery fullQuery = new FullQuery(query).withArgs(keyArgs(rows)).withArg(ts);
         if (columnRangeSelection.getStartCol().length > 0) {
             fullQuery = fullQuery.withArg(columnRangeSelection.getStartCol());
         }
@@ -353,14 +425,14 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         String query = " /* GET_ROWS_COLUMN_RANGE_FULLY_LOADED_ROW (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts"
                 + "   FROM " + prefixedTableName() + " m "
-                + "  WHERE m.row_name IN " + numParams(Iterables.size(rows))
+                + "  WHERE " + keysIn("m.row_name", Iterables.size(rows))
                 + "    AND m.ts < ? "
                 + (columnRangeSelection.getStartCol().length > 0 ? " AND m.col_name >= ?" : "")
                 + (columnRangeSelection.getEndCol().length > 0 ? " AND m.col_name < ?" : "")
                 + " GROUP BY m.row_name, m.col_name"
                 + " ORDER BY m.row_name ASC, m.col_name ASC";
         String wrappedQuery = wrapQueryWithIncludeValue("GET_ROWS_COLUMN_RANGE_FULLY_LOADED_ROW", query, true);
-        FullQuery fullQuery = new FullQuery(wrappedQuery).withArgs(rows).withArg(ts);
+        FullQuery fullQuery = new FullQuery(wrappedQuery).withArgs(keyArgs(rows)).withArg(ts);
         if (columnRangeSelection.getStartCol().length > 0) {
             fullQuery = fullQuery.withArg(columnRangeSelection.getStartCol());
         }
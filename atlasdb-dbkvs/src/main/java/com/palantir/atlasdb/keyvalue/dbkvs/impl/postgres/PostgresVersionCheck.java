@@ -21,6 +21,7 @@ import com.palantir.util.VersionStrings;
 
 public final class PostgresVersionCheck {
     private static final String MIN_POSTGRES_VERSION = "9.2";
+    private static final String MIN_INSERT_ON_CONFLICT_VERSION = "9.5";
 
     private PostgresVersionCheck() {}
 
@@ -38,4 +39,15 @@ public final class PostgresVersionCheck {
                             + "Please update your Postgres distribution.");
         }
     }
+
+    /**
+     * Returns whether the server supports {@code INSERT ... ON CONFLICT}. Distributions may append build details to
+     * the version number, as in "10.4 (Ubuntu 10.4-2)"; versions that still cannot be parsed are treated as not
+     * supporting it.
+     */
+    public static boolean supportsInsertOnConflict(String version) {
+        String versionNumber = version.trim().split("\\s", 2)[0];
+        return versionNumber.matches("^[\\.0-9]+$")
+                && VersionStrings.compareVersions(versionNumber, MIN_INSERT_ON_CONFLICT_VERSION) >= 0;
+    }
 }
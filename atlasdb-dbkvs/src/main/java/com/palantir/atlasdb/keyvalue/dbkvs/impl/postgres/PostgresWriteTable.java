@@ -15,18 +15,132 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
-import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.common.base.Throwables;
+import com.palantir.nexus.db.sql.ExceptionCheck;
 
 public class PostgresWriteTable extends AbstractDbWriteTable {
+    private static final byte[] COPY_SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0 };
+    private static final short COPY_FIELD_COUNT = 4;
+    private static final short COPY_TRAILER = -1;
+
+    private final PostgresDdlConfig postgresConfig;
+    private final Supplier<Boolean> supportsInsertOnConflict;
+
     public PostgresWriteTable(
-            DdlConfig config,
+            PostgresDdlConfig config,
             ConnectionSupplier conns,
             TableReference tableRef,
-            PrefixedTableNames prefixedTableNames) {
+            PrefixedTableNames prefixedTableNames,
+            Supplier<Boolean> supportsInsertOnConflict) {
         super(config, conns, tableRef, prefixedTableNames);
+        this.postgresConfig = config;
+        this.supportsInsertOnConflict = supportsInsertOnConflict;
+    }
+
+    @Override
+    protected void put(List<Object[]> args) {
+        Optional<Integer> copyThreshold = postgresConfig.copyWriteThreshold();
+        if (!copyThreshold.isPresent() || args.size() < copyThreshold.get()) {
+            super.put(args);
+            return;
+        }
+        try {
+            copyIn(conns.get().getUnderlyingConnection(), prefixedTableNames.get(tableRef, conns), args);
+        } catch (SQLException | IOException e) {
+            if (ExceptionCheck.isUniqueConstraintViolation(e)) {
+                throw new KeyAlreadyExistsException("primary key violation", e);
+            }
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
+    @Override
+    protected void putSentinelBatch(String prefixedTableName, List<Cell> batch) {
+        if (!supportsInsertOnConflict.get()) {
+            super.putSentinelBatch(prefixedTableName, batch);
+            return;
+        }
+        List<Object[]> args = Lists.newArrayListWithCapacity(batch.size());
+        for (Cell cell : batch) {
+            args.add(new Object[] {cell.getRowName(), cell.getColumnName(), Value.INVALID_VALUE_TIMESTAMP,
+                    SENTINEL_VALUE});
+        }
+        conns.get().insertManyUnregisteredQuery("/* INSERT_ON_CONFLICT_DO_NOTHING (" + prefixedTableName + ") */"
+                + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                + " VALUES (?, ?, ?, ?) "
+                + " ON CONFLICT DO NOTHING",
+                args);
+    }
+
+    /**
+     * COPY is a single statement, so unlike a JDBC batch either every row is inserted or none is.
+     */
+    private static void copyIn(Connection connection, String prefixedTableName, List<Object[]> args)
+            throws SQLException, IOException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(
+                connection.unwrap(PGConnection.class),
+                "/* COPY_MANY (" + prefixedTableName + ") */"
+                        + " COPY " + prefixedTableName + " (row_name, col_name, ts, val) "
+                        + " FROM STDIN (FORMAT binary)");
+        try {
+            writeCopyData(copy, args);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Writes {@code (row_name, col_name, ts, val)} tuples in the binary COPY format: a fixed header, then for each
+     * tuple its field count followed by each field's length and big-endian value, then a trailer.
+     */
+    @VisibleForTesting
+    static void writeCopyData(OutputStream out, List<Object[]> args) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(COPY_SIGNATURE);
+        data.writeInt(0); // flags
+        data.writeInt(0); // header extension length
+        for (Object[] arg : args) {
+            data.writeShort(COPY_FIELD_COUNT);
+            writeBytes(data, (byte[]) arg[0]);
+            writeBytes(data, (byte[]) arg[1]);
+            data.writeInt(Long.BYTES);
+            data.writeLong((Long) arg[2]);
+            writeBytes(data, (byte[]) arg[3]);
+        }
+        data.writeShort(COPY_TRAILER);
+    }
+
+    private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            data.writeInt(-1);
+            return;
+        }
+        data.writeInt(bytes.length);
+        data.write(bytes);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
+import com.palantir.nexus.db.sql.SqlArray;
+
+public class PostgresQueryFactoryTest {
+    private static final byte[] ROW_1 = {1};
+    private static final byte[] ROW_2 = {2, (byte) 0xff};
+    private static final byte[] COL = {3};
+
+    private final PostgresQueryFactory listQueries = new PostgresQueryFactory("table",
+            ImmutablePostgresDdlConfig.builder().build());
+    private final PostgresQueryFactory arrayQueries = new PostgresQueryFactory("table",
+            ImmutablePostgresDdlConfig.builder().bindKeysAsArrays(true).build());
+
+    @Test
+    public void listQueryTextDependsOnNumberOfRows() {
+        FullQuery oneRow = listQueries.getLatestRowsQuery(ImmutableList.of(ROW_1), 10L, ColumnSelection.all(), true);
+        FullQuery twoRows = listQueries.getLatestRowsQuery(
+                ImmutableList.of(ROW_1, ROW_2), 10L, ColumnSelection.all(), true);
+
+        assertThat(oneRow.getQuery()).isNotEqualTo(twoRows.getQuery());
+        assertThat(twoRows.getArgs()).containsExactly(ROW_1, ROW_2, 10L);
+    }
+
+    @Test
+    public void arrayQueryTextDoesNotDependOnNumberOfRows() {
+        FullQuery oneRow = arrayQueries.getLatestRowsQuery(ImmutableList.of(ROW_1), 10L, ColumnSelection.all(), true);
+        FullQuery twoRows = arrayQueries.getLatestRowsQuery(
+                ImmutableList.of(ROW_1, ROW_2), 10L, ColumnSelection.all(), true);
+
+        assertThat(oneRow.getQuery()).isEqualTo(twoRows.getQuery());
+        assertThat(twoRows.getArgs()).hasSize(2);
+        assertByteaArray(twoRows.getArgs()[0], "\\x01", "\\x02ff");
+        assertThat(twoRows.getArgs()[1]).isEqualTo(10L);
+    }
+
+    @Test
+    public void arrayQueryTextDoesNotDependOnNumberOfCells() {
+        FullQuery oneCell = arrayQueries.getLatestCellsQuery(
+                ImmutableMap.of(Cell.create(ROW_1, COL), 10L).entrySet(), true);
+        FullQuery twoCells = arrayQueries.getLatestCellsQuery(
+                ImmutableMap.of(Cell.create(ROW_1, COL), 10L, Cell.create(ROW_2, COL), 11L).entrySet(), true);
+
+        assertThat(oneCell.getQuery()).isEqualTo(twoCells.getQuery());
+        Object[] args = twoCells.getArgs();
+        assertThat(args).hasSize(3);
+        assertByteaArray(args[0], "\\x01", "\\x02ff");
+        assertByteaArray(args[1], "\\x03", "\\x03");
+        SqlArray timestamps = (SqlArray) args[2];
+        assertThat(timestamps.getElementTypeName()).isEqualTo("int8");
+        assertThat(timestamps.getElements()).containsExactly(10L, 11L);
+    }
+
+    private static void assertByteaArray(Object arg, String... hexElements) {
+        assertThat(arg).isInstanceOf(SqlArray.class);
+        SqlArray array = (SqlArray) arg;
+        assertThat(array.getElementTypeName()).isEqualTo("bytea");
+        assertThat(array.getElements()).containsExactly((Object[]) hexElements);
+    }
+}
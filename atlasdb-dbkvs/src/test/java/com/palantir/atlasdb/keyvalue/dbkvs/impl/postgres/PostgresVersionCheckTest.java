@@ -15,6 +15,8 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.contains;
 
 import org.junit.Rule;
@@ -70,4 +72,24 @@ public class PostgresVersionCheckTest {
         Mockito.verifyNoMoreInteractions(log);
     }
 
+    @Test
+    public void insertOnConflictIsNotSupportedBefore_9_5() {
+        assertFalse(PostgresVersionCheck.supportsInsertOnConflict("9.4.12"));
+    }
+
+    @Test
+    public void insertOnConflictIsSupportedFrom_9_5() {
+        assertTrue(PostgresVersionCheck.supportsInsertOnConflict("9.5.2"));
+        assertTrue(PostgresVersionCheck.supportsInsertOnConflict("10.1"));
+    }
+
+    @Test
+    public void insertOnConflictSupportIgnoresDistributionDetails() {
+        assertTrue(PostgresVersionCheck.supportsInsertOnConflict("10.4 (Ubuntu 10.4-2.pgdg16.04+1)"));
+    }
+
+    @Test
+    public void insertOnConflictIsNotSupportedForUnparseableVersions() {
+        assertFalse(PostgresVersionCheck.supportsInsertOnConflict("devel"));
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+
+public class PostgresWriteTableTest {
+    private static final String HEADER = "5047434f50590aff0d0a00" + "00000000" + "00000000";
+    private static final String TRAILER = "ffff";
+
+    @Test
+    public void writesHeaderAndTrailerForEmptyCopy() throws IOException {
+        assertThat(copyData(ImmutableList.of())).isEqualTo(HEADER + TRAILER);
+    }
+
+    @Test
+    public void writesEachTupleAsLengthPrefixedFields() throws IOException {
+        Object[] tuple = { new byte[] {1}, new byte[] {2, 3}, 5L, new byte[0] };
+
+        assertThat(copyData(ImmutableList.of(tuple))).isEqualTo(HEADER
+                + "0004"
+                + "00000001" + "01"
+                + "00000002" + "0203"
+                + "00000008" + "0000000000000005"
+                + "00000000"
+                + TRAILER);
+    }
+
+    @Test
+    public void writesNullValuesWithNegativeLength() throws IOException {
+        Object[] tuple = { new byte[] {1}, new byte[] {2}, -1L, null };
+
+        assertThat(copyData(ImmutableList.of(tuple))).isEqualTo(HEADER
+                + "0004"
+                + "00000001" + "01"
+                + "00000001" + "02"
+                + "00000008" + "ffffffffffffffff"
+                + "ffffffff"
+                + TRAILER);
+    }
+
+    private static String copyData(ImmutableList<Object[]> args) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PostgresWriteTable.writeCopyData(out, args);
+        return BaseEncoding.base16().lowerCase().encode(out.toByteArray());
+    }
+}
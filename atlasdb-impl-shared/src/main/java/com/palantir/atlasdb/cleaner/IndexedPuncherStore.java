@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+
+/**
+ * A {@link PuncherStore} over the punch table in the key value service that answers lookups in both directions from
+ * an in-memory index, replacing {@link CachingPuncherStore}.
+ * <p>
+ * The punch table is read in full on the first lookup, and from then on is tailed: a lookup made at least
+ * {@code refreshIntervalMillis} after the last read first reads the punches made since the latest one held, going
+ * back a little further to pick up punches from clients with lagging clocks. Punches are held as sorted primitive
+ * arrays, so both {@link #get(Long)} and {@link #getMillisForTimestamp(long)} are binary searches. Between refreshes
+ * lookups may miss the latest punches, and so return an earlier timestamp or time than the table would; callers use
+ * these to bound what may be cleaned up, for which earlier answers are conservative.
+ * <p>
+ * Writes go straight to the underlying store, and are picked up by the next refresh.
+ */
+@ThreadSafe
+public final class IndexedPuncherStore implements PuncherStore {
+    @VisibleForTesting
+    static final long TAIL_OVERLAP_MILLIS = 10 * 60 * 1000L;
+
+    private final KeyValueService keyValueService;
+    private final PuncherStore delegate;
+    private final long refreshIntervalMillis;
+    private final LongSupplier clock;
+    private final Lock refreshLock = new ReentrantLock();
+
+    private volatile PunchIndex index;
+    private volatile long lastRefreshMillis;
+
+    public static IndexedPuncherStore create(
+            KeyValueService keyValueService,
+            PuncherStore delegate,
+            long refreshIntervalMillis) {
+        return new IndexedPuncherStore(keyValueService, delegate, refreshIntervalMillis, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    IndexedPuncherStore(
+            KeyValueService keyValueService,
+            PuncherStore delegate,
+            long refreshIntervalMillis,
+            LongSupplier clock) {
+        this.keyValueService = keyValueService;
+        this.delegate = delegate;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public void put(long timestamp, long timeMillis) {
+        delegate.put(timestamp, timeMillis);
+    }
+
+    @Override
+    public Long get(Long timeMillis) {
+        PunchIndex current = getIndex();
+        if (current == null) {
+            return delegate.get(timeMillis);
+        }
+        return current.getTimestamp(timeMillis);
+    }
+
+    @Override
+    public long getMillisForTimestamp(long timestamp) {
+        PunchIndex current = getIndex();
+        if (current == null) {
+            return delegate.getMillisForTimestamp(timestamp);
+        }
+        return current.getMillis(timestamp);
+    }
+
+    private PunchIndex getIndex() {
+        PunchIndex current = index;
+        if (current != null && clock.getAsLong() - lastRefreshMillis < refreshIntervalMillis) {
+            return current;
+        }
+        if (current == null) {
+            if (!delegate.isInitialized()) {
+                // The punch table may not exist yet; let the delegate report that.
+                return null;
+            }
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            // Someone else is already refreshing; the index we have is good enough meanwhile.
+            return current;
+        }
+        try {
+            if (index == null || clock.getAsLong() - lastRefreshMillis >= refreshIntervalMillis) {
+                refresh();
+            }
+            return index;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @GuardedBy("refreshLock")
+    private void refresh() {
+        long now = clock.getAsLong();
+        PunchIndex current = index == null ? PunchIndex.EMPTY : index;
+        long since = current.size == 0 ? 0L : Math.max(0L, current.latestMillis() - TAIL_OVERLAP_MILLIS);
+        Punches punches = new Punches();
+        KeyValueServicePuncherStore.visitPunchesSince(keyValueService, since, punches::add);
+        index = current.withPunches(punches);
+        lastRefreshMillis = now;
+    }
+
+    /**
+     * Punches in the order they are read from the punch table, which is latest first.
+     */
+    private static final class Punches {
+        private long[] millis = new long[16];
+        private long[] timestamps = new long[16];
+        private int size = 0;
+
+        void add(long timeMillis, long timestamp) {
+            if (size == millis.length) {
+                millis = Arrays.copyOf(millis, size * 2);
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+            }
+            millis[size] = timeMillis;
+            timestamps[size] = timestamp;
+            size++;
+        }
+    }
+
+    /**
+     * A snapshot of the punch table, sorted by time. {@code minTimestampFrom[i]} is the least timestamp punched at or
+     * after {@code millis[i]}; it is non-decreasing, so it can be binary searched even if clock drift means the
+     * timestamps themselves are not sorted.
+     * <p>
+     * Snapshots may share arrays with their predecessors, but only ever write past the end of the snapshots they share
+     * with, so each snapshot's view never changes.
+     */
+    private static final class PunchIndex {
+        static final PunchIndex EMPTY = new PunchIndex(new long[0], new long[0], new long[0], 0);
+
+        private final long[] millis;
+        private final long[] timestamps;
+        private final long[] minTimestampFrom;
+        private final int size;
+
+        PunchIndex(long[] millis, long[] timestamps, long[] minTimestampFrom, int size) {
+            this.millis = millis;
+            this.timestamps = timestamps;
+            this.minTimestampFrom = minTimestampFrom;
+            this.size = size;
+        }
+
+        long latestMillis() {
+            return millis[size - 1];
+        }
+
+        /**
+         * The timestamp punched at the latest time at or before {@code timeMillis}, or {@link Long#MIN_VALUE}.
+         */
+        long getTimestamp(long timeMillis) {
+            int index = lastIndexAtOrBelow(millis, timeMillis);
+            return index < 0 ? Long.MIN_VALUE : timestamps[index];
+        }
+
+        /**
+         * The latest time at which a timestamp at or before {@code timestamp} was punched, or zero.
+         */
+        long getMillis(long timestamp) {
+            int index = lastIndexAtOrBelow(minTimestampFrom, timestamp);
+            return index < 0 ? 0L : millis[index];
+        }
+
+        private int lastIndexAtOrBelow(long[] sorted, long key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        PunchIndex withPunches(Punches punches) {
+            // Drop punches we already hold; if a time has been punched more than once the store returns the latest
+            // write, which is the one with the greatest timestamp.
+            long[] newMillis = new long[punches.size];
+            long[] newTimestamps = new long[punches.size];
+            int count = 0;
+            boolean appendOnly = true;
+            for (int i = punches.size - 1; i >= 0; i--) {
+                long timeMillis = punches.millis[i];
+                long timestamp = punches.timestamps[i];
+                int existing = lastIndexAtOrBelow(millis, timeMillis);
+                if (existing >= 0 && millis[existing] == timeMillis && timestamps[existing] >= timestamp) {
+                    continue;
+                }
+                if (size > 0 && timeMillis <= latestMillis()) {
+                    appendOnly = false;
+                }
+                newMillis[count] = timeMillis;
+                newTimestamps[count] = timestamp;
+                count++;
+            }
+            if (count == 0) {
+                return this;
+            }
+            if (appendOnly) {
+                return append(newMillis, newTimestamps, count);
+            }
+            return merge(newMillis, newTimestamps, count);
+        }
+
+        private PunchIndex append(long[] newMillis, long[] newTimestamps, int count) {
+            int newSize = size + count;
+            long minNewTimestamp = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                minNewTimestamp = Math.min(minNewTimestamp, newTimestamps[i]);
+            }
+            boolean prefixUnchanged = size == 0 || minNewTimestamp >= minTimestampFrom[size - 1];
+            if (!prefixUnchanged || newSize > millis.length) {
+                int capacity = Math.max(newSize, millis.length * 2);
+                PunchIndex copy = new PunchIndex(
+                        Arrays.copyOf(millis, capacity),
+                        Arrays.copyOf(timestamps, capacity),
+                        Arrays.copyOf(minTimestampFrom, capacity),
+                        size);
+                return copy.appendInPlace(newMillis, newTimestamps, count);
+            }
+            return appendInPlace(newMillis, newTimestamps, count);
+        }
+
+        private PunchIndex appendInPlace(long[] newMillis, long[] newTimestamps, int count) {
+            System.arraycopy(newMillis, 0, millis, size, count);
+            System.arraycopy(newTimestamps, 0, timestamps, size, count);
+            int newSize = size + count;
+            long min = Long.MAX_VALUE;
+            for (int i = newSize - 1; i >= 0; i--) {
+                min = Math.min(min, timestamps[i]);
+                if (i < size && minTimestampFrom[i] <= min) {
+                    break;
+                }
+                minTimestampFrom[i] = min;
+            }
+            return new PunchIndex(millis, timestamps, minTimestampFrom, newSize);
+        }
+
+        private PunchIndex merge(long[] newMillis, long[] newTimestamps, int count) {
+            long[] mergedMillis = new long[size + count];
+            long[] mergedTimestamps = new long[size + count];
+            int merged = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < count) {
+                if (j == count || (i < size && millis[i] < newMillis[j])) {
+                    mergedMillis[merged] = millis[i];
+                    mergedTimestamps[merged++] = timestamps[i++];
+                } else if (i == size || newMillis[j] < millis[i]) {
+                    mergedMillis[merged] = newMillis[j];
+                    mergedTimestamps[merged++] = newTimestamps[j++];
+                } else {
+                    mergedMillis[merged] = millis[i];
+                    mergedTimestamps[merged++] = Math.max(timestamps[i++], newTimestamps[j++]);
+                }
+            }
+            long[] mergedMinTimestampFrom = new long[size + count];
+            long min = Long.MAX_VALUE;
+            for (int k = merged - 1; k >= 0; k--) {
+                min = Math.min(min, mergedTimestamps[k]);
+                mergedMinTimestampFrom[k] = min;
+            }
+            return new PunchIndex(mergedMillis, mergedTimestamps, mergedMinTimestampFrom, merged);
+        }
+    }
+}
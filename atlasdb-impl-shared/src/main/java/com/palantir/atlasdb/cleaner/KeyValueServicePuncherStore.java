@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.cleaner;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -158,4 +159,32 @@ public final class KeyValueServicePuncherStore implements PuncherStore {
         }
     }
 
+    /**
+     * Visits every punch made at or after the given time, latest first.
+     */
+    static void visitPunchesSince(KeyValueService kvs, long timeMillisInclusive, PunchVisitor visitor) {
+        byte[] startRow = EncodingUtils.encodeUnsignedVarLong(Long.MAX_VALUE);
+        EncodingUtils.flipAllBitsInPlace(startRow);
+        RangeRequest.Builder rangeRequest = RangeRequest.builder().startRowInclusive(startRow).batchHint(1000);
+        if (timeMillisInclusive > 0) {
+            byte[] endRow = EncodingUtils.encodeUnsignedVarLong(timeMillisInclusive - 1);
+            EncodingUtils.flipAllBitsInPlace(endRow);
+            rangeRequest.endRowExclusive(endRow);
+        }
+        try (ClosableIterator<RowResult<Value>> result =
+                kvs.getRange(AtlasDbConstants.PUNCH_TABLE, rangeRequest.build(), Long.MAX_VALUE)) {
+            while (result.hasNext()) {
+                RowResult<Value> row = result.next();
+                byte[] encodedMillis = Arrays.copyOf(row.getRowName(), row.getRowName().length);
+                EncodingUtils.flipAllBitsInPlace(encodedMillis);
+                visitor.visit(
+                        EncodingUtils.decodeUnsignedVarLong(encodedMillis),
+                        EncodingUtils.decodeUnsignedVarLong(row.getColumns().get(COLUMN).getContents()));
+            }
+        }
+    }
+
+    interface PunchVisitor {
+        void visit(long timeMillis, long timestamp);
+    }
 }
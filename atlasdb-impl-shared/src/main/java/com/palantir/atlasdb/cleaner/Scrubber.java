@@ -17,12 +17,14 @@ package com.palantir.atlasdb.cleaner;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -36,6 +38,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
@@ -69,6 +72,7 @@ import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.common.base.BatchingVisitable;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.collect.Maps2;
+import com.palantir.common.concurrent.BoundedTaskPipeline;
 import com.palantir.common.concurrent.ExecutorInheritableThreadLocal;
 import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
@@ -88,6 +92,9 @@ public class Scrubber {
     private static final int MAX_RETRY_ATTEMPTS = 100;
     private static final int RETRY_SLEEP_INTERVAL_IN_MILLIS = 1000;
     private static final int MAX_DELETES_IN_BATCH = 10_000;
+    private static final int MIN_DELETES_IN_BATCH = 100;
+    private static final long TARGET_DELETE_MILLIS = 1_000;
+    private static final int OUTSTANDING_DELETE_TASKS_PER_THREAD = 2;
 
     private final ScheduledExecutorService service = Tracers.wrap(PTExecutors.newSingleThreadScheduledExecutor(
             new NamedThreadFactory("scrubber", true /* daemon */)));
@@ -108,6 +115,7 @@ public class Scrubber {
     private final int readThreadCount;
     private final ExecutorService readerExec;
     private final ExecutorService exec;
+    private final ConcurrentMap<TableReference, Integer> deleteBatchSizes = Maps.newConcurrentMap();
 
     private static final String SCRUBBER_THREAD_PREFIX = "AtlasScrubber";
 
@@ -249,6 +257,10 @@ public class Scrubber {
         }
         rangeBoundaries.add(PtBytes.EMPTY_BYTE_ARRAY);
 
+        // Readers hand the cells they read off to the delete threads and carry on reading; the number of delete
+        // tasks in flight is bounded so that readers cannot get arbitrarily far ahead.
+        BoundedTaskPipeline<Void> deletes = new BoundedTaskPipeline<>(
+                exec, threadCount * OUTSTANDING_DELETE_TASKS_PER_THREAD);
         List<Future<Void>> readerFutures = Lists.newArrayList();
         final AtomicInteger totalCellsRead = new AtomicInteger(0);
         for (int i = 0; i < rangeBoundaries.size() - 1; i++) {
@@ -263,7 +275,7 @@ public class Scrubber {
                         // for pulling off the scrub queue, and a single entry in the scrub queue may
                         // match multiple tables. These will get broken down into smaller batches later
                         // on when we actually do deletes.
-                        int numCellsRead = scrubSomeCells(cells, txManager, maxScrubTimestamp);
+                        int numCellsRead = scrubSomeCells(cells, txManager, maxScrubTimestamp, deletes);
                         int totalRead = totalCellsRead.addAndGet(numCellsRead);
                         log.debug("Scrub task processed {} cells in a batch, total {} processed so far.",
                                   numCellsRead, totalRead);
@@ -271,16 +283,25 @@ public class Scrubber {
                             log.debug("Stopping scrub for banned hours.");
                             break;
                         }
+                        if (deletes.hasFailed()) {
+                            break;
+                        }
                     }
-                    return isScrubEnabled.get();
+                    return isScrubEnabled.get() && !deletes.hasFailed();
                 });
                 return null;
             }));
         }
 
-        for (Future<Void> readerFuture : readerFutures) {
-            Futures.getUnchecked(readerFuture);
+        try {
+            for (Future<Void> readerFuture : readerFutures) {
+                Futures.getUnchecked(readerFuture);
+            }
+        } catch (RuntimeException | Error e) {
+            deletes.awaitAllQuietly();
+            throw e;
         }
+        deletes.awaitAll();
 
         log.debug("Scrub background task running at timestamp {} processed a total of {} cells",
                   maxScrubTimestamp, totalCellsRead.get());
@@ -364,8 +385,9 @@ public class Scrubber {
     }
 
     private long getCommitTimestampRollBackIfNecessary(long startTimestamp,
+                                                       Long knownCommitTimestamp,
                                                        Multimap<TableReference, Cell> tableNameToCell) {
-        Long commitTimestamp = transactionService.get(startTimestamp);
+        Long commitTimestamp = knownCommitTimestamp;
         if (commitTimestamp == null) {
             // Roll back this transaction (note that rolling back arbitrary transactions
             // can never cause correctness issues, only liveness issues)
@@ -393,14 +415,16 @@ public class Scrubber {
     }
 
     /**
-     * Scrubs some cells.
+     * Resolves the commit timestamps of the hard delete transactions that queued some cells for scrubbing, and hands
+     * the cells that can be scrubbed off to the delete threads.
      *
      * @return number of cells read from _scrub table
      */
     private int scrubSomeCells(
             SortedMap<Long, Multimap<TableReference, Cell>> scrubTimestampToTableNameToCell,
             TransactionManager txManager,
-            long maxScrubTimestamp) {
+            long maxScrubTimestamp,
+            BoundedTaskPipeline<Void> deletes) {
         log.trace("Attempting to scrub cells: {}", scrubTimestampToTableNameToCell);
 
         if (log.isDebugEnabled()) {
@@ -418,8 +442,8 @@ public class Scrubber {
         }
 
         int numCellsReadFromScrubTable = 0;
-        List<Future<Void>> scrubFutures = Lists.newArrayList();
         Map<TableReference, Multimap<Cell, Long>> failedWrites = Maps.newHashMap();
+        Map<Long, Long> commitTimestamps = transactionService.get(scrubTimestampToTableNameToCell.keySet());
 
         for (Map.Entry<Long, Multimap<TableReference, Cell>> entry : scrubTimestampToTableNameToCell.entrySet()) {
             final long scrubTimestamp = entry.getKey();
@@ -431,7 +455,8 @@ public class Scrubber {
             // (we still remove it from the _scrub table with the call to markCellsAsScrubbed though),
             // or else we could cause permanent data loss if the hard delete transaction failed after
             // queuing cells to scrub but before successfully committing
-            long commitTimestamp = getCommitTimestampRollBackIfNecessary(scrubTimestamp, tableNameToCell);
+            long commitTimestamp = getCommitTimestampRollBackIfNecessary(
+                    scrubTimestamp, commitTimestamps.get(scrubTimestamp), tableNameToCell);
             if (commitTimestamp == TransactionConstants.FAILED_COMMIT_TS) {
                 for (Entry<TableReference, Collection<Cell>> cells : tableNameToCell.asMap().entrySet()) {
                     Multimap<Cell, Long> failedCells = failedWrites.get(cells.getKey());
@@ -450,12 +475,9 @@ public class Scrubber {
                     for (Entry<TableReference, Cell> e : batch) {
                         batchMultimap.put(e.getKey(), e.getValue());
                     }
-                    scrubFutures.add(exec.submit(() -> {
-                        scrubCells(txManager, batchMultimap,
-                                scrubTimestamp,
-                                aggressiveScrub ? TransactionType.AGGRESSIVE_HARD_DELETE : TransactionType.HARD_DELETE);
-                        return null;
-                    }));
+                    deletes.submit(() -> scrubCells(txManager, batchMultimap,
+                            scrubTimestamp,
+                            aggressiveScrub ? TransactionType.AGGRESSIVE_HARD_DELETE : TransactionType.HARD_DELETE));
                 }
             }
             // else {
@@ -463,15 +485,11 @@ public class Scrubber {
             // }
         }
 
-        for (Future<Void> future : scrubFutures) {
-            Futures.getUnchecked(future);
-        }
-
         if (!failedWrites.isEmpty()) {
-            scrubberStore.markCellsAsScrubbed(failedWrites, batchSizeSupplier.get());
+            deletes.submit(() -> scrubberStore.markCellsAsScrubbed(failedWrites, batchSizeSupplier.get()));
         }
 
-        log.trace("Finished scrubbing cells: {}", scrubTimestampToTableNameToCell);
+        log.trace("Queued cells for scrubbing: {}", scrubTimestampToTableNameToCell);
 
         if (log.isDebugEnabled()) {
             Set<TableReference> tables = Sets.newHashSet();
@@ -480,7 +498,7 @@ public class Scrubber {
             }
             long minTimestamp = Collections.min(scrubTimestampToTableNameToCell.keySet());
             long maxTimestamp = Collections.max(scrubTimestampToTableNameToCell.keySet());
-            log.debug("Finished scrubbing {} cells at {} timestamps ({}...{}) from tables {}",
+            log.debug("Queued {} cells at {} timestamps ({}...{}) from tables {} for scrubbing",
                       numCellsReadFromScrubTable, scrubTimestampToTableNameToCell.size(),
                       minTimestamp, maxTimestamp, tables);
         }
@@ -527,14 +545,35 @@ public class Scrubber {
                 follower.run(txManager, tableRef, cellToTimestamp.keySet(), transactionType);
             }
             keyValueService.addGarbageCollectionSentinelValues(tableRef, cellToTimestamp.keySet());
-            for (List<Entry<Cell, Long>> batch : Iterables.partition(cellToTimestamp.entries(), MAX_DELETES_IN_BATCH)) {
+            Iterator<Entry<Cell, Long>> entries = cellToTimestamp.entries().iterator();
+            while (entries.hasNext()) {
+                int batchSize = deleteBatchSizes.getOrDefault(tableRef, MAX_DELETES_IN_BATCH);
                 Builder<Cell, Long> builder = ImmutableMultimap.builder();
-                batch.stream().forEach(e -> builder.put(e));
-                keyValueService.delete(tableRef, builder.build());
+                for (int i = 0; i < batchSize && entries.hasNext(); i++) {
+                    builder.put(entries.next());
+                }
+                Multimap<Cell, Long> batch = builder.build();
+                Stopwatch stopwatch = Stopwatch.createStarted();
+                keyValueService.delete(tableRef, batch);
+                recordDeleteLatency(tableRef, batch.size(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
             }
         }
     }
 
+    /**
+     * Moves the delete batch size for the table halfway towards the size that the latency just observed suggests
+     * would take {@link #TARGET_DELETE_MILLIS}, so that tables whose deletes are slow do not time out and tables whose
+     * deletes are fast are not held back.
+     */
+    private void recordDeleteLatency(TableReference tableRef, int batchSize, long elapsedMillis) {
+        double cellsAtTargetLatency = (double) batchSize * TARGET_DELETE_MILLIS / Math.max(elapsedMillis, 1L);
+        deleteBatchSizes.compute(tableRef, (table, current) -> {
+            int currentSize = current == null ? MAX_DELETES_IN_BATCH : current;
+            long newSize = Math.round((currentSize + Math.min(cellsAtTargetLatency, MAX_DELETES_IN_BATCH)) / 2);
+            return (int) Math.max(newSize, MIN_DELETES_IN_BATCH);
+        });
+    }
+
     public long getUnreadableTimestamp() {
         return unreadableTimestampSupplier.get();
     }
@@ -16,30 +16,54 @@
 
 package com.palantir.atlasdb.sweep;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Supplier;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.logsafe.SafeArg;
 
+/**
+ * Scales the configured sweep batch sizes by a multiplier in (0, 1], adjusted additively-increase,
+ * multiplicatively-decrease (AIMD) from the outcome of each batch.
+ * <p>
+ * Every successful batch grows the multiplier by {@link #ADDITIVE_INCREASE}, up to the configured sizes. A failed
+ * batch halves it. If a latency budget is configured, a successful batch that took longer than the budget halves it
+ * as well, so that sweep settles on the largest batches that still finish within the budget.
+ */
 public final class AdjustableSweepBatchConfigSource {
     private static final Logger log = LoggerFactory.getLogger(BackgroundSweeperImpl.class);
 
+    @VisibleForTesting
+    static final double ADDITIVE_INCREASE = 0.05;
+
     private final Supplier<SweepBatchConfig> rawSweepBatchConfig;
+    private final Supplier<Optional<Long>> batchLatencyBudgetMillis;
 
-    private static volatile double batchSizeMultiplier = 1.0;
-    private final AtomicInteger successiveIncreases = new AtomicInteger(0);
+    // Updated by every background sweep thread, so changes are made with compare-and-set rather than read-then-write.
+    private static final AtomicReference<Double> batchSizeMultiplier = new AtomicReference<>(1.0);
 
-    private AdjustableSweepBatchConfigSource(Supplier<SweepBatchConfig> rawSweepBatchConfig) {
+    private AdjustableSweepBatchConfigSource(
+            Supplier<SweepBatchConfig> rawSweepBatchConfig,
+            Supplier<Optional<Long>> batchLatencyBudgetMillis) {
         this.rawSweepBatchConfig = rawSweepBatchConfig;
+        this.batchLatencyBudgetMillis = batchLatencyBudgetMillis;
     }
 
     public static AdjustableSweepBatchConfigSource create(Supplier<SweepBatchConfig> rawSweepBatchConfig) {
-        AdjustableSweepBatchConfigSource configSource = new AdjustableSweepBatchConfigSource(rawSweepBatchConfig);
+        return create(rawSweepBatchConfig, Optional::empty);
+    }
+
+    public static AdjustableSweepBatchConfigSource create(
+            Supplier<SweepBatchConfig> rawSweepBatchConfig,
+            Supplier<Optional<Long>> batchLatencyBudgetMillis) {
+        AdjustableSweepBatchConfigSource configSource =
+                new AdjustableSweepBatchConfigSource(rawSweepBatchConfig, batchLatencyBudgetMillis);
 
         new MetricsManager().registerMetric(AdjustableSweepBatchConfigSource.class, "batchSizeMultiplier",
                 () -> getBatchSizeMultiplier());
@@ -52,12 +76,12 @@ public final class AdjustableSweepBatchConfigSource {
     }
 
     public static double getBatchSizeMultiplier() {
-        return batchSizeMultiplier;
+        return batchSizeMultiplier.get();
     }
 
     public SweepBatchConfig getAdjustedSweepConfig() {
         SweepBatchConfig sweepConfig = getRawSweepConfig();
-        double multiplier = batchSizeMultiplier;
+        double multiplier = batchSizeMultiplier.get();
 
         return ImmutableSweepBatchConfig.builder()
                 .maxCellTsPairsToExamine(adjust(sweepConfig.maxCellTsPairsToExamine(), multiplier))
@@ -70,22 +94,37 @@ public final class AdjustableSweepBatchConfigSource {
         return Math.max(1, (int) (multiplier * parameterValue));
     }
 
-    public void increaseMultiplier() {
-        if (batchSizeMultiplier == 1.0) {
-            return;
+    /**
+     * Feeds back a batch that completed successfully in the given time.
+     */
+    public void onSuccessfulBatch(long durationMillis) {
+        Optional<Long> budget = batchLatencyBudgetMillis.get();
+        if (budget.isPresent() && durationMillis > budget.get()) {
+            SweepBatchConfig lastBatchConfig = getAdjustedSweepConfig();
+            double newMultiplier = reduceBatchSizeMultiplier();
+            log.info("Sweep batch with candidate batch size {}, delete batch size {}"
+                            + " and {} cell+timestamp pairs to examine took {} ms, more than the budget of {} ms."
+                            + " Continuing with new batchSizeMultiplier {}",
+                    SafeArg.of("candidateBatchSize", lastBatchConfig.candidateBatchSize()),
+                    SafeArg.of("deleteBatchSize", lastBatchConfig.deleteBatchSize()),
+                    SafeArg.of("maxCellTsPairsToExamine", lastBatchConfig.maxCellTsPairsToExamine()),
+                    SafeArg.of("durationMillis", durationMillis),
+                    SafeArg.of("batchLatencyBudgetMillis", budget.get()),
+                    SafeArg.of("batchSizeMultiplier", newMultiplier));
+        } else {
+            increaseMultiplier();
         }
+    }
 
-        if (successiveIncreases.incrementAndGet() > 25) {
-            batchSizeMultiplier = Math.min(1.0, batchSizeMultiplier * 2);
-        }
+    public void increaseMultiplier() {
+        batchSizeMultiplier.updateAndGet(multiplier -> Math.min(1.0, multiplier + ADDITIVE_INCREASE));
     }
 
     public void decreaseMultiplier() {
-        successiveIncreases.set(0);
         SweepBatchConfig lastBatchConfig = getAdjustedSweepConfig();
 
         // Cut batch size in half, always sweep at least one row.
-        reduceBatchSizeMultiplier();
+        double newMultiplier = reduceBatchSizeMultiplier();
 
         log.warn("Sweep failed unexpectedly with candidate batch size {},"
                         + " delete batch size {},"
@@ -94,27 +133,27 @@ public final class AdjustableSweepBatchConfigSource {
                 SafeArg.of("candidateBatchSize", lastBatchConfig.candidateBatchSize()),
                 SafeArg.of("deleteBatchSize", lastBatchConfig.deleteBatchSize()),
                 SafeArg.of("maxCellTsPairsToExamine", lastBatchConfig.maxCellTsPairsToExamine()),
-                SafeArg.of("batchSizeMultiplier", batchSizeMultiplier));
+                SafeArg.of("batchSizeMultiplier", newMultiplier));
     }
 
-    private void reduceBatchSizeMultiplier() {
+    /**
+     * Halves the multiplier, but not below the smallest one that still sweeps one cell at a time, and returns the
+     * new multiplier.
+     */
+    private double reduceBatchSizeMultiplier() {
         SweepBatchConfig config = getRawSweepConfig();
         double smallestSensibleBatchSizeMultiplier =
                 1.0 / NumberUtils.max(
                         config.maxCellTsPairsToExamine(), config.candidateBatchSize(), config.deleteBatchSize());
 
-        if (batchSizeMultiplier == smallestSensibleBatchSizeMultiplier) {
-            return;
-        }
-
-        double newBatchSizeMultiplier = batchSizeMultiplier / 2;
-        if (newBatchSizeMultiplier < smallestSensibleBatchSizeMultiplier) {
+        double previousMultiplier = batchSizeMultiplier.getAndUpdate(
+                multiplier -> Math.max(smallestSensibleBatchSizeMultiplier, multiplier / 2));
+        if (previousMultiplier != smallestSensibleBatchSizeMultiplier
+                && previousMultiplier / 2 < smallestSensibleBatchSizeMultiplier) {
             log.info("batchSizeMultiplier reached the smallest sensible value for the current sweep config ({}), "
                             + "will not reduce further.",
                     SafeArg.of("batchSizeMultiplier", smallestSensibleBatchSizeMultiplier));
-            batchSizeMultiplier = smallestSensibleBatchSizeMultiplier;
-        } else {
-            batchSizeMultiplier = newBatchSizeMultiplier;
         }
+        return Math.max(smallestSensibleBatchSizeMultiplier, previousMultiplier / 2);
     }
 }
@@ -16,9 +16,13 @@
 package com.palantir.atlasdb.sweep;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +30,10 @@ import org.slf4j.LoggerFactory;
 import com.codahale.metrics.SlidingTimeWindowReservoir;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.keyvalue.api.InsufficientConsistencyException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.sweep.priority.NextTableToSweepProvider;
@@ -50,6 +57,11 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
     private final Supplier<Long> sweepPauseMillis;
     private final PersistentLockManager persistentLockManager;
     private final SpecificTableSweeper specificTableSweeper;
+    private final int sweepThreads;
+
+    // The table each sweep thread is working on, keyed by the shard of sweep progress the thread owns.
+    private final Map<Integer, TableReference> tablesBeingSwept = new ConcurrentHashMap<>();
+    private final Object tableSelectionLock = new Object();
 
     private final SweepOutcomeMetrics sweepOutcomeMetrics = new SweepOutcomeMetrics();
 
@@ -63,7 +75,9 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
             Supplier<Boolean> isSweepEnabled,
             Supplier<Long> sweepPauseMillis,
             PersistentLockManager persistentLockManager,
-            SpecificTableSweeper specificTableSweeper) {
+            SpecificTableSweeper specificTableSweeper,
+            int sweepThreads) {
+        Preconditions.checkArgument(sweepThreads > 0, "Sweep threads must be positive, but found %s", sweepThreads);
         this.lockService = lockService;
         this.nextTableToSweepProvider = nextTableToSweepProvider;
         this.sweepBatchConfigSource = sweepBatchConfigSource;
@@ -71,6 +85,7 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
         this.sweepPauseMillis = sweepPauseMillis;
         this.persistentLockManager = persistentLockManager;
         this.specificTableSweeper = specificTableSweeper;
+        this.sweepThreads = sweepThreads;
     }
 
     public static BackgroundSweeperImpl create(
@@ -78,7 +93,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
             Supplier<Boolean> isSweepEnabled,
             Supplier<Long> sweepPauseMillis,
             PersistentLockManager persistentLockManager,
-            SpecificTableSweeper specificTableSweeper) {
+            SpecificTableSweeper specificTableSweeper,
+            int sweepThreads) {
         NextTableToSweepProviderImpl nextTableToSweepProvider = new NextTableToSweepProviderImpl(
                 specificTableSweeper.getKvs(),
                 specificTableSweeper.getSweepPriorityStore());
@@ -92,7 +108,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
                 isSweepEnabled,
                 sweepPauseMillis,
                 persistentLockManager,
-                specificTableSweeper);
+                specificTableSweeper,
+                sweepThreads);
     }
 
     @Override
@@ -124,22 +141,68 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
             // Wait a while before starting so short lived clis don't try to sweep.
             waitUntilSpecificTableSweeperIsInitialized();
             Thread.sleep(getBackoffTimeWhenSweepHasNotRun());
-            log.info("Starting background sweeper.");
-            while (true) {
-                SweepOutcome outcome = checkConfigAndRunSweep(locks);
-
-                log.info("Sweep iteration finished with outcome: {}", SafeArg.of("sweepOutcome", outcome));
-
-                updateBatchSize(outcome);
-                updateMetrics(outcome);
-
-                sleepUntilNextRun(outcome);
+            log.info("Starting background sweeper with {} threads.", SafeArg.of("sweepThreads", sweepThreads));
+            claimTablesWithSavedProgress();
+            List<Thread> additionalThreads = startAdditionalSweepThreads(locks);
+            try {
+                runSweepThread(0, locks);
+            } finally {
+                additionalThreads.forEach(Thread::interrupt);
+                additionalThreads.forEach(Uninterruptibles::joinUninterruptibly);
             }
         } catch (InterruptedException e) {
             log.warn("Shutting down background sweeper. Please restart the service to rerun background sweep.");
         }
     }
 
+    // Otherwise a thread that starts quickly could choose a table that another thread is about to resume.
+    private void claimTablesWithSavedProgress() {
+        for (int shard = 0; shard < sweepThreads; shard++) {
+            try {
+                Optional<SweepProgress> progress = specificTableSweeper.getSweepProgressStore().loadProgress(shard);
+                if (progress.isPresent()) {
+                    tablesBeingSwept.put(shard, progress.get().tableRef());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not load the sweep progress of shard {}.", SafeArg.of("shard", shard), e);
+            }
+        }
+    }
+
+    private List<Thread> startAdditionalSweepThreads(SweepLocks locks) {
+        List<Thread> threads = Lists.newArrayList();
+        for (int shard = 1; shard < sweepThreads; shard++) {
+            int threadShard = shard;
+            Thread thread = new Thread(() -> {
+                try {
+                    runSweepThread(threadShard, locks);
+                } catch (InterruptedException e) {
+                    log.info("Shutting down background sweep thread {}.", SafeArg.of("shard", threadShard));
+                }
+            });
+            thread.setDaemon(true);
+            thread.setName("BackgroundSweeper-" + shard);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    private void runSweepThread(int shard, SweepLocks locks) throws InterruptedException {
+        while (true) {
+            SweepOutcome outcome = checkConfigAndRunSweep(shard, locks);
+
+            log.info("Sweep iteration finished with outcome: {} (shard {})",
+                    SafeArg.of("sweepOutcome", outcome),
+                    SafeArg.of("shard", shard));
+
+            updateBatchSize(outcome);
+            updateMetrics(outcome);
+
+            sleepUntilNextRun(outcome);
+        }
+    }
+
     private void waitUntilSpecificTableSweeperIsInitialized() throws InterruptedException {
         while (!specificTableSweeper.isInitialized()) {
             log.info("Sweep Priority Table and Sweep Progress Table are not initialized yet. If you have enabled "
@@ -150,9 +213,7 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
     }
 
     private void updateBatchSize(SweepOutcome outcome) {
-        if (outcome == SweepOutcome.SUCCESS) {
-            sweepBatchConfigSource.increaseMultiplier();
-        }
+        // Successful batches are fed back with their duration in runOnce.
         if (outcome == SweepOutcome.ERROR) {
             sweepBatchConfigSource.decreaseMultiplier();
         }
@@ -171,20 +232,20 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
     }
 
     @VisibleForTesting
-    SweepOutcome checkConfigAndRunSweep(SweepLocks locks) throws InterruptedException {
+    SweepOutcome checkConfigAndRunSweep(int shard, SweepLocks locks) throws InterruptedException {
         if (isSweepEnabled.get()) {
-            return grabLocksAndRun(locks);
+            return grabLocksAndRun(shard, locks);
         }
 
         log.debug("Skipping sweep because it is currently disabled.");
         return SweepOutcome.DISABLED;
     }
 
-    private SweepOutcome grabLocksAndRun(SweepLocks locks) throws InterruptedException {
+    private SweepOutcome grabLocksAndRun(int shard, SweepLocks locks) throws InterruptedException {
         try {
             locks.lockOrRefresh();
             if (locks.haveLocks()) {
-                return runOnce();
+                return runOnce(shard);
             } else {
                 log.debug("Skipping sweep because sweep is running elsewhere.");
                 return SweepOutcome.UNABLE_TO_ACQUIRE_LOCKS;
@@ -202,8 +263,8 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
     }
 
     @VisibleForTesting
-    SweepOutcome runOnce() {
-        Optional<TableToSweep> tableToSweep = getTableToSweep();
+    SweepOutcome runOnce(int shard) {
+        Optional<TableToSweep> tableToSweep = getTableToSweep(shard);
         if (!tableToSweep.isPresent()) {
             // Don't change this log statement. It's parsed by test automation code.
             log.debug("Skipping sweep because no table has enough new writes to be worth sweeping at the moment.");
@@ -212,7 +273,9 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
 
         SweepBatchConfig batchConfig = sweepBatchConfigSource.getAdjustedSweepConfig();
         try {
+            Stopwatch watch = Stopwatch.createStarted();
             specificTableSweeper.runOnceAndSaveResults(tableToSweep.get(), batchConfig);
+            sweepBatchConfigSource.onSuccessfulBatch(watch.elapsed(TimeUnit.MILLISECONDS));
             return SweepOutcome.SUCCESS;
         } catch (InsufficientConsistencyException e) {
             log.warn("Could not sweep because not all nodes of the database are online.", e);
@@ -224,21 +287,46 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
         }
     }
 
+    private Optional<TableToSweep> getTableToSweep(int shard) {
+        // Choosing and claiming a table must be atomic, or two threads could pick the same table.
+        synchronized (tableSelectionLock) {
+            Set<TableReference> tablesToExclude = tablesBeingSweptByOtherThreads(shard);
+            Optional<TableToSweep> tableToSweep = getTableToSweep(shard, tablesToExclude);
+            if (tableToSweep.isPresent()) {
+                tablesBeingSwept.put(shard, tableToSweep.get().getTableRef());
+            } else {
+                tablesBeingSwept.remove(shard);
+            }
+            return tableToSweep;
+        }
+    }
+
+    private Set<TableReference> tablesBeingSweptByOtherThreads(int shard) {
+        return tablesBeingSwept.entrySet().stream()
+                .filter(entry -> entry.getKey() != shard)
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toSet());
+    }
+
     // there's a bug in older jdk8s around type inference here, don't make the same mistake two of us made
     // and try to lambda refactor this unless you live far enough in the future that this isn't an issue
-    private Optional<TableToSweep> getTableToSweep() {
+    private Optional<TableToSweep> getTableToSweep(int shard, Set<TableReference> tablesToExclude) {
         return specificTableSweeper.getTxManager().runTaskWithRetry(
                 new TransactionTask<Optional<TableToSweep>, RuntimeException>() {
                     @Override
                     public Optional<TableToSweep> execute(Transaction tx) {
-                        Optional<SweepProgress> progress = specificTableSweeper.getSweepProgressStore().loadProgress();
-                        if (progress.isPresent()) {
-                            return Optional.of(new TableToSweep(progress.get().tableRef(), progress));
+                        Optional<SweepProgress> progress =
+                                specificTableSweeper.getSweepProgressStore().loadProgress(shard);
+                        // If another thread has already started over on our table, leave it be and move on.
+                        if (progress.isPresent() && !tablesToExclude.contains(progress.get().tableRef())) {
+                            return Optional.of(new TableToSweep(shard, progress.get().tableRef(), progress));
                         } else {
                             Optional<TableReference> nextTable = nextTableToSweepProvider.chooseNextTableToSweep(
-                                    tx, specificTableSweeper.getSweepRunner().getConservativeSweepTimestamp());
+                                    tx,
+                                    specificTableSweeper.getSweepRunner().getConservativeSweepTimestamp(),
+                                    tablesToExclude);
                             if (nextTable.isPresent()) {
-                                return Optional.of(new TableToSweep(nextTable.get(), Optional.empty()));
+                                return Optional.of(new TableToSweep(shard, nextTable.get(), Optional.empty()));
                             } else {
                                 return Optional.empty();
                             }
@@ -252,7 +340,7 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
             Set<TableReference> tables = specificTableSweeper.getKvs().getAllTableNames();
 
             if (!tables.contains(tableToSweep.getTableRef())) {
-                clearSweepProgress();
+                clearSweepProgress(tableToSweep.getShard());
                 log.info("The table being swept by the background sweeper was dropped, moving on...");
                 return SweepOutcome.TABLE_DROPPED_WHILE_SWEEPING;
             }
@@ -268,8 +356,9 @@ public final class BackgroundSweeperImpl implements BackgroundSweeper {
         }
     }
 
-    private void clearSweepProgress() {
-        specificTableSweeper.getSweepProgressStore().clearProgress();
+    private void clearSweepProgress(int shard) {
+        specificTableSweeper.getSweepProgressStore().clearProgress(shard);
+        tablesBeingSwept.remove(shard);
     }
 
     @VisibleForTesting
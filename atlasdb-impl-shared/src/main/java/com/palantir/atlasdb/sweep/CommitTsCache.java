@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.ConcurrentLongLongCache;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.common.base.ClosableIterator;
+
+import gnu.trove.TDecorators;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.set.TLongSet;
+
+/**
+ * A bounded cache of start to commit timestamps, shared by every sweep run on this node so that a transaction that
+ * wrote many cells, or to many tables, is only looked up once.
+ * <p>
+ * Misses are filled in bulk by {@link #prefetch(TLongSet)}. When a key value service is available, start timestamps
+ * that lie close to each other are read with a single range scan over the corresponding rows of the transactions
+ * table, which also caches the commit timestamps of the transactions in between; later batches are likely to need
+ * those too. The remaining start timestamps are read with one multi-get.
+ * <p>
+ * Only commit timestamps read from the transactions table are cached; an entry of that table never changes once it
+ * has been written.
+ */
+public final class CommitTsCache {
+    // Start timestamps less than this far apart are fetched by the same range scan.
+    @VisibleForTesting
+    static final long MAX_RANGE_SCAN_SPAN = 4096;
+    @VisibleForTesting
+    static final int MIN_TIMESTAMPS_PER_RANGE_SCAN = 4;
+
+    private static final int RANGE_SCAN_BATCH_HINT = 1000;
+    // All entries in the transactions table are stored at timestamp 0.
+    private static final long MAX_TIMESTAMP = 1L;
+
+    private final TransactionService transactionService;
+    private final Optional<KeyValueService> keyValueService;
+    private final ConcurrentLongLongCache commitTsByStartTs;
+
+    private CommitTsCache(
+            TransactionService transactionService,
+            Optional<KeyValueService> keyValueService,
+            long maximumSize) {
+        this.transactionService = transactionService;
+        this.keyValueService = keyValueService;
+        this.commitTsByStartTs = new ConcurrentLongLongCache(maximumSize);
+    }
+
+    /**
+     * Creates a cache that fills misses through the transaction service only.
+     */
+    public static CommitTsCache create(TransactionService transactionService) {
+        return new CommitTsCache(transactionService, Optional.empty(), AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a cache that fills clustered misses by range scans over the transactions table of the given key value
+     * service, and the rest through the transaction service.
+     */
+    public static CommitTsCache create(TransactionService transactionService, KeyValueService keyValueService) {
+        return create(transactionService, keyValueService, AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
+    }
+
+    @VisibleForTesting
+    static CommitTsCache create(
+            TransactionService transactionService,
+            KeyValueService keyValueService,
+            long maximumSize) {
+        return new CommitTsCache(transactionService, Optional.of(keyValueService), maximumSize);
+    }
+
+    /**
+     * Returns the cached commit timestamp for the given start timestamp, or {@code defaultValue} if there is none.
+     */
+    public long get(long startTs, long defaultValue) {
+        return commitTsByStartTs.get(startTs, defaultValue);
+    }
+
+    /**
+     * Caches a commit timestamp. It must already be stored in the transactions table.
+     */
+    public void put(long startTs, long commitTs) {
+        commitTsByStartTs.put(startTs, commitTs);
+    }
+
+    /**
+     * Loads the commit timestamps of all given start timestamps that are not cached yet. Start timestamps without a
+     * commit timestamp are left uncached.
+     */
+    public void prefetch(TLongSet startTss) {
+        TLongList misses = new TLongArrayList();
+        startTss.forEach(startTs -> {
+            if (commitTsByStartTs.get(startTs, Long.MIN_VALUE) == Long.MIN_VALUE) {
+                misses.add(startTs);
+            }
+            return true;
+        });
+        if (misses.isEmpty()) {
+            return;
+        }
+        misses.sort();
+
+        TLongList pointReads = new TLongArrayList();
+        int clusterStart = 0;
+        for (int i = 1; i <= misses.size(); i++) {
+            if (i == misses.size() || misses.get(i) - misses.get(clusterStart) >= MAX_RANGE_SCAN_SPAN) {
+                if (keyValueService.isPresent() && i - clusterStart >= MIN_TIMESTAMPS_PER_RANGE_SCAN) {
+                    scanTransactionsTable(keyValueService.get(), misses.get(clusterStart), misses.get(i - 1));
+                } else {
+                    pointReads.addAll(misses.subList(clusterStart, i));
+                }
+                clusterStart = i;
+            }
+        }
+        if (!pointReads.isEmpty()) {
+            // Ideally TransactionService should work with primitive collections to avoid GC overhead..
+            Map<Long, Long> commitTss = transactionService.get(TDecorators.wrap(pointReads));
+            commitTss.forEach(commitTsByStartTs::put);
+        }
+    }
+
+    private void scanTransactionsTable(KeyValueService kvs, long firstStartTs, long lastStartTs) {
+        // Start timestamps are encoded as unsigned var longs, which sort in numerical order.
+        RangeRequest range = RangeRequest.builder()
+                .startRowInclusive(TransactionConstants.getValueForTimestamp(firstStartTs))
+                .endRowExclusive(TransactionConstants.getValueForTimestamp(lastStartTs + 1))
+                .retainColumns(ImmutableList.of(TransactionConstants.COMMIT_TS_COLUMN))
+                .batchHint(RANGE_SCAN_BATCH_HINT)
+                .build();
+        try (ClosableIterator<RowResult<Value>> rows =
+                kvs.getRange(TransactionConstants.TRANSACTION_TABLE, range, MAX_TIMESTAMP)) {
+            while (rows.hasNext()) {
+                RowResult<Value> row = rows.next();
+                Value commitTs = row.getColumns().get(TransactionConstants.COMMIT_TS_COLUMN);
+                if (commitTs != null) {
+                    commitTsByStartTs.put(
+                            TransactionConstants.getTimestampForValue(row.getRowName()),
+                            TransactionConstants.getTimestampForValue(commitTs.getContents()));
+                }
+            }
+        }
+    }
+}
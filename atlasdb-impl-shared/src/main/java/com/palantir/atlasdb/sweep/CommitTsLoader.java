@@ -24,43 +24,52 @@ import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.logsafe.SafeArg;
 
-import gnu.trove.TDecorators;
-import gnu.trove.map.TLongLongMap;
-import gnu.trove.map.hash.TLongLongHashMap;
 import gnu.trove.set.TLongSet;
 
 public final class CommitTsLoader {
     private static final Logger log = LoggerFactory.getLogger(CommitTsLoader.class);
 
-    private final TLongLongMap commitTsByStartTs;
+    private static final long NOT_CACHED = Long.MIN_VALUE;
+
+    private final CommitTsCache commitTsByStartTs;
     private final TransactionService transactionService;
 
-    private CommitTsLoader(TLongLongMap commitTsByStartTs, TransactionService transactionService) {
+    private CommitTsLoader(CommitTsCache commitTsByStartTs, TransactionService transactionService) {
         this.commitTsByStartTs = commitTsByStartTs;
         this.transactionService = transactionService;
     }
 
     public static CommitTsLoader create(TransactionService transactionService, TLongSet startTssToWarmingCache) {
-        TLongLongMap cache = new TLongLongHashMap();
+        return create(CommitTsCache.create(transactionService), transactionService, startTssToWarmingCache);
+    }
+
+    public static CommitTsLoader create(
+            CommitTsCache cache,
+            TransactionService transactionService,
+            TLongSet startTssToWarmingCache) {
         if (!startTssToWarmingCache.isEmpty()) {
-            // Ideally TransactionService should work with primitive collections to avoid GC overhead..
-            cache.putAll(transactionService.get(TDecorators.wrap(startTssToWarmingCache)));
+            cache.prefetch(startTssToWarmingCache);
         }
         return new CommitTsLoader(cache, transactionService);
     }
 
     public long load(long startTs) {
-        if (!commitTsByStartTs.containsKey(startTs)) {
-            long commitTs = loadCacheMissAndPossiblyRollBack(startTs);
-            commitTsByStartTs.put(startTs, commitTs);
+        long commitTs = commitTsByStartTs.get(startTs, NOT_CACHED);
+        if (commitTs == NOT_CACHED) {
+            commitTs = loadCacheMissAndPossiblyRollBack(startTs);
         }
-        return commitTsByStartTs.get(startTs);
+        return commitTs;
     }
 
+    /**
+     * Only commit timestamps read back from the transaction service are cached, so a transaction that we could not
+     * find a commit timestamp for is looked up again next time rather than treated as rolled back for good.
+     */
     public long loadCacheMissAndPossiblyRollBack(long startTs) {
         Long commitTs = transactionService.get(startTs);
 
         if (commitTs != null) {
+            commitTsByStartTs.put(startTs, commitTs);
             return commitTs;
         }
 
@@ -79,6 +88,7 @@ public final class CommitTsLoader {
 
         Long commitTsAfterRollBack = transactionService.get(startTs);
         if (commitTsAfterRollBack != null) {
+            commitTsByStartTs.put(startTs, commitTsAfterRollBack);
             return commitTsAfterRollBack;
         } else {
             // This can happen if the clean tx table CLI has rolled-back the transaction at the start ts.
@@ -50,6 +50,10 @@ public class PersistentLockManager {
     @GuardedBy("this")
     PersistentLockId lockId;
 
+    // Sweep threads share the lock; it is only released once none of them needs it any more.
+    @GuardedBy("this")
+    private int lockHolders = 0;
+
     @GuardedBy("this")
     private boolean isShutDown = false;
 
@@ -64,6 +68,7 @@ public class PersistentLockManager {
     public synchronized void shutdown() {
         log.info("Shutting down...");
         isShutDown = true;
+        lockHolders = 0;
         if (lockId != null) {
             releasePersistentLock();
         }
@@ -83,8 +88,14 @@ public class PersistentLockManager {
         Preconditions.checkState(!isShutDown,
                 "This PersistentLockManager is shut down, and cannot be used to acquire locks.");
 
+        if (lockHolders > 0 && lockId != null) {
+            lockHolders++;
+            return true;
+        }
+
         try {
             lockId = persistentLockService.acquireBackupLock("Sweep");
+            lockHolders++;
             log.info("Successfully acquired persistent lock for sweep: {}", SafeArg.of("lockId", lockId));
             return true;
         } catch (CheckAndSetException e) {
@@ -99,6 +110,7 @@ public class PersistentLockManager {
                     // We tried to acquire while already holding the lock. Welp - but we still have the lock.
                     log.info("Attempted to acquire the a new lock when we already held a lock."
                             + " The acquire failed, but our lock is still valid, so we still hold the lock.");
+                    lockHolders++;
                     return true;
                 } else {
                     // In this case, some other process holds the lock. Therefore, we don't hold the lock.
@@ -121,6 +133,13 @@ public class PersistentLockManager {
             return;
         }
 
+        lockHolders = Math.max(0, lockHolders - 1);
+        if (lockHolders > 0) {
+            log.debug("Not releasing persistent lock {}, as another sweep thread still holds it.",
+                    SafeArg.of("lockId", lockId));
+            return;
+        }
+
         log.info("Releasing persistent lock {}", SafeArg.of("lockId", lockId));
         try {
             persistentLockService.releaseBackupLock(lockId);
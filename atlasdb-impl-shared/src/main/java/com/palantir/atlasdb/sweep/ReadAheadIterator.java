@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiConsumer;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.common.base.Throwables;
+
+/**
+ * An iterator that fetches the next element of its delegate on another thread while the caller processes the
+ * current one. At most one element is fetched ahead, and the delegate is only ever used by one thread at a time.
+ * <p>
+ * The delegate must not return null elements. {@link #close()} waits for any outstanding fetch, after which the
+ * delegate may safely be closed.
+ */
+final class ReadAheadIterator<T> extends AbstractIterator<T> implements AutoCloseable {
+    private final Iterator<T> delegate;
+    private final Executor executor;
+    private final BiConsumer<T, Long> fetchListener;
+
+    private FutureTask<Optional<T>> nextElement;
+
+    /**
+     * @param fetchListener called on the fetching thread with each element and the nanoseconds it took to fetch
+     */
+    ReadAheadIterator(Iterator<T> delegate, Executor executor, BiConsumer<T, Long> fetchListener) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.fetchListener = fetchListener;
+    }
+
+    @Override
+    protected T computeNext() {
+        if (nextElement == null) {
+            nextElement = fetchNext();
+        }
+        Optional<T> element = getResult(nextElement);
+        if (!element.isPresent()) {
+            nextElement = null;
+            return endOfData();
+        }
+        nextElement = fetchNext();
+        return element.get();
+    }
+
+    @Override
+    public void close() {
+        if (nextElement != null) {
+            try {
+                Uninterruptibles.getUninterruptibly(nextElement);
+            } catch (ExecutionException e) {
+                // Nobody is interested in the element any more.
+            }
+            nextElement = null;
+        }
+    }
+
+    private FutureTask<Optional<T>> fetchNext() {
+        FutureTask<Optional<T>> task = new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            if (!delegate.hasNext()) {
+                return Optional.empty();
+            }
+            T element = delegate.next();
+            fetchListener.accept(element, System.nanoTime() - start);
+            return Optional.of(element);
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private static <T> T getResult(FutureTask<T> future) {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+}
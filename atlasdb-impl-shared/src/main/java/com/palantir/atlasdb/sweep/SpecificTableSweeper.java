@@ -230,7 +230,7 @@ public class SpecificTableSweeper {
                     .startColumn(PtBytes.toBytes("unused"))
                     .minimumSweptTimestamp(results.getSweptTimestamp())
                     .build();
-            sweepProgressStore.saveProgress(newProgress);
+            sweepProgressStore.saveProgress(tableToSweep.getShard(), newProgress);
             return null;
         });
     }
@@ -242,7 +242,7 @@ public class SpecificTableSweeper {
                 LoggingArgs.tableRef("tableRef", tableToSweep.getTableRef()),
                 SafeArg.of("cellTs pairs examined", cumulativeResults.getCellTsPairsExamined()),
                 SafeArg.of("cellTs pairs deleted", cumulativeResults.getStaleValuesDeleted()));
-        sweepProgressStore.clearProgress();
+        sweepProgressStore.clearProgress(tableToSweep.getShard());
     }
 
     private void performInternalCompactionIfNecessary(TableReference tableRef, SweepResults results) {
@@ -27,6 +27,9 @@ import com.palantir.lock.LockRequest;
 import com.palantir.lock.LockService;
 import com.palantir.lock.StringLockDescriptor;
 
+/**
+ * The lock that ensures only one node sweeps at a time. It is shared by all the background sweep threads of a node.
+ */
 class SweepLocks implements AutoCloseable {
     private final LockService lockService;
 
@@ -36,7 +39,7 @@ class SweepLocks implements AutoCloseable {
         this.lockService = lockService;
     }
 
-    void lockOrRefresh() throws InterruptedException {
+    synchronized void lockOrRefresh() throws InterruptedException {
         if (token != null) {
             Set<LockRefreshToken> refreshedTokens = lockService.refreshLockRefreshTokens(ImmutableList.of(token));
             if (refreshedTokens.isEmpty()) {
@@ -50,14 +53,15 @@ class SweepLocks implements AutoCloseable {
         }
     }
 
-    boolean haveLocks() {
+    synchronized boolean haveLocks() {
         return token != null;
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
         if (token != null) {
             lockService.unlock(token);
+            token = null;
         }
     }
 }
@@ -15,8 +15,11 @@
  */
 package com.palantir.atlasdb.sweep;
 
+import java.util.concurrent.TimeUnit;
+
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.palantir.atlasdb.util.MetricsManager;
 
 @SuppressWarnings("checkstyle:FinalClass")
@@ -32,6 +35,11 @@ public class SweepMetrics {
     private final MeterMetric cellsDeletedMeter = new MeterMetric("cellsDeleted");
     private final MeterMetric sweepErrorMeter = new MeterMetric("sweepError");
 
+    // Throughput of the stages of a sweep batch, which run concurrently.
+    private final StageMetric candidateLoadingStage = new StageMetric("candidateLoading");
+    private final StageMetric commitTimestampResolutionStage = new StageMetric("commitTimestampResolution");
+    private final StageMetric deletionStage = new StageMetric("deletion");
+
     private class TableSpecificHistogramMetric {
         private final String name;
 
@@ -60,6 +68,33 @@ public class SweepMetrics {
         }
     }
 
+    private class StageMetric {
+        private final Timer timer;
+        private final Meter cellMeter;
+
+        StageMetric(String stageName) {
+            this.timer = metricsManager.registerOrGetTimer(SweepMetrics.class, stageName + "Time");
+            this.cellMeter = metricsManager.registerOrGetMeter(SweepMetrics.class, null, stageName + "Cells");
+        }
+
+        void update(long numCells, long elapsedNanos) {
+            timer.update(elapsedNanos, TimeUnit.NANOSECONDS);
+            cellMeter.mark(numCells);
+        }
+    }
+
+    void loadedCandidates(long numCandidates, long elapsedNanos) {
+        candidateLoadingStage.update(numCandidates, elapsedNanos);
+    }
+
+    void resolvedCommitTimestamps(long numCandidates, long elapsedNanos) {
+        commitTimestampResolutionStage.update(numCandidates, elapsedNanos);
+    }
+
+    void deletedBatch(long numDeleted, long elapsedNanos) {
+        deletionStage.update(numDeleted, elapsedNanos);
+    }
+
     void examinedCells(long numExamined) {
         cellsSweptHistogram.update(numExamined);
         cellsSweptMeter.update(numExamined);
@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
@@ -44,22 +45,41 @@ import com.palantir.atlasdb.sweep.CellsToSweepPartitioningIterator.ExaminedCellL
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.concurrent.BoundedTaskPipeline;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.logsafe.UnsafeArg;
+import com.palantir.remoting3.tracing.Tracers;
 
 import gnu.trove.TDecorators;
 
 /**
  * Sweeps one individual table.
+ * <p>
+ * A run is pipelined: the next batch of candidate cells is loaded from the key value service on another thread while
+ * the commit timestamps of the current batch are resolved, and cells that turn out to be sweepable are deleted in the
+ * background, with at most {@link #MAX_OUTSTANDING_DELETE_BATCHES} delete batches in flight at once. A run only
+ * returns once all of its deletes have completed.
+ * <p>
+ * Commit timestamps are cached across runs and tables in a {@link CommitTsCache}.
  */
 public class SweepTaskRunner {
     private static final Logger log = LoggerFactory.getLogger(SweepTaskRunner.class);
 
+    private static final int MAX_OUTSTANDING_DELETE_BATCHES = 2;
+
+    // Shared by every runner, so that creating runners (one per transaction manager) does not leak thread pools.
+    private static final ExecutorService pipelineExecutor = Tracers.wrap(PTExecutors.newCachedThreadPool(
+            new NamedThreadFactory("sweep-pipeline", true /* daemon */)));
+
     private final KeyValueService keyValueService;
     private final LongSupplier unreadableTimestampSupplier;
     private final LongSupplier immutableTimestampSupplier;
     private final TransactionService transactionService;
     private final SweepStrategyManager sweepStrategyManager;
     private final CellsSweeper cellsSweeper;
+    private final SweepMetrics sweepMetrics;
+    private final CommitTsCache commitTsCache;
 
     public SweepTaskRunner(
             KeyValueService keyValueService,
@@ -68,12 +88,26 @@ public class SweepTaskRunner {
             TransactionService transactionService,
             SweepStrategyManager sweepStrategyManager,
             CellsSweeper cellsSweeper) {
+        this(keyValueService, unreadableTimestampSupplier, immutableTimestampSupplier, transactionService,
+                sweepStrategyManager, cellsSweeper, new SweepMetrics());
+    }
+
+    public SweepTaskRunner(
+            KeyValueService keyValueService,
+            LongSupplier unreadableTimestampSupplier,
+            LongSupplier immutableTimestampSupplier,
+            TransactionService transactionService,
+            SweepStrategyManager sweepStrategyManager,
+            CellsSweeper cellsSweeper,
+            SweepMetrics sweepMetrics) {
         this.keyValueService = keyValueService;
         this.unreadableTimestampSupplier = unreadableTimestampSupplier;
         this.immutableTimestampSupplier = immutableTimestampSupplier;
         this.transactionService = transactionService;
         this.sweepStrategyManager = sweepStrategyManager;
         this.cellsSweeper = cellsSweeper;
+        this.sweepMetrics = sweepMetrics;
+        this.commitTsCache = CommitTsCache.create(transactionService, keyValueService);
     }
 
     /**
@@ -167,29 +201,43 @@ public class SweepTaskRunner {
                 .timestampsToIgnore(sweeper.getTimestampsToIgnore())
                 .build();
 
-        SweepableCellFilter sweepableCellFilter = new SweepableCellFilter(transactionService, sweeper, sweepTs);
+        SweepableCellFilter sweepableCellFilter = new SweepableCellFilter(
+                commitTsCache, transactionService, sweeper, sweepTs);
         try (ClosableIterator<List<CandidateCellForSweeping>> candidates = keyValueService.getCandidateCellsForSweeping(
-                    tableRef, request)) {
+                    tableRef, request);
+                ReadAheadIterator<List<CandidateCellForSweeping>> prefetchedCandidates = new ReadAheadIterator<>(
+                    candidates,
+                    pipelineExecutor,
+                    (batch, elapsedNanos) -> sweepMetrics.loadedCandidates(batch.size(), elapsedNanos))) {
             ExaminedCellLimit limit = new ExaminedCellLimit(startRow, batchConfig.maxCellTsPairsToExamine());
             Iterator<BatchOfCellsToSweep> batchesToSweep = getBatchesToSweep(
-                        candidates, batchConfig, sweepableCellFilter, limit);
+                        prefetchedCandidates, batchConfig, sweepableCellFilter, limit);
+            /*
+             * At this point cells were merged in batches of at least deleteBatchSize blocks per batch. Therefore we
+             * expect most batches to have slightly more than deleteBatchSize blocks. Partitioning such batches with
+             * deleteBatchSize as a limit results in a small second batch, which is bad for performance reasons.
+             * Therefore, deleteBatchSize is doubled.
+             */
+            int deleteBatchSize = 2 * batchConfig.deleteBatchSize();
+            BoundedTaskPipeline<Integer> deletes = new BoundedTaskPipeline<>(
+                    pipelineExecutor, MAX_OUTSTANDING_DELETE_BATCHES);
             long totalCellTsPairsExamined = 0;
-            long totalCellTsPairsDeleted = 0;
             byte[] lastRow = startRow;
-            while (batchesToSweep.hasNext()) {
-                BatchOfCellsToSweep batch = batchesToSweep.next();
-
-                /*
-                 * At this point cells were merged in batches of at least deleteBatchSize blocks per batch. Therefore we
-                 * expect most batches to have slightly more than deleteBatchSize blocks. Partitioning such batches with
-                 * deleteBatchSize as a limit results in a small second batch, which is bad for performance reasons.
-                 * Therefore, deleteBatchSize is doubled.
-                 */
-                totalCellTsPairsDeleted += sweepBatch(tableRef, batch.cells(), runType,
-                        2 * batchConfig.deleteBatchSize());
-
-                totalCellTsPairsExamined = batch.numCellTsPairsExaminedSoFar();
-                lastRow = batch.lastCellExamined().getRowName();
+            try {
+                while (!deletes.hasFailed() && batchesToSweep.hasNext()) {
+                    BatchOfCellsToSweep batch = batchesToSweep.next();
+                    deletes.submit(() -> sweepBatchAndRecordMetrics(tableRef, batch.cells(), runType, deleteBatchSize));
+
+                    totalCellTsPairsExamined = batch.numCellTsPairsExaminedSoFar();
+                    lastRow = batch.lastCellExamined().getRowName();
+                }
+            } catch (RuntimeException | Error e) {
+                deletes.awaitAllQuietly();
+                throw e;
+            }
+            long totalCellTsPairsDeleted = 0;
+            for (int numDeleted : deletes.awaitAll()) {
+                totalCellTsPairsDeleted += numDeleted;
             }
             return SweepResults.builder()
                     .previousStartRow(Optional.of(startRow))
@@ -210,10 +258,25 @@ public class SweepTaskRunner {
                                                             ExaminedCellLimit limit) {
         Iterator<BatchOfCellsToSweep> cellsToSweep = Iterators.transform(
                 Iterators.filter(candidates, list -> !list.isEmpty()),
-                sweepableCellFilter::getCellsToSweep);
+                list -> {
+                    long start = System.nanoTime();
+                    BatchOfCellsToSweep cells = sweepableCellFilter.getCellsToSweep(list);
+                    sweepMetrics.resolvedCommitTimestamps(list.size(), System.nanoTime() - start);
+                    return cells;
+                });
         return new CellsToSweepPartitioningIterator(cellsToSweep, batchConfig.deleteBatchSize(), limit);
     }
 
+    private int sweepBatchAndRecordMetrics(TableReference tableRef, List<CellToSweep> batch, RunType runType,
+            int deleteBatchSize) {
+        long start = System.nanoTime();
+        int numDeleted = sweepBatch(tableRef, batch, runType, deleteBatchSize);
+        if (runType == RunType.FULL) {
+            sweepMetrics.deletedBatch(numDeleted, System.nanoTime() - start);
+        }
+        return numDeleted;
+    }
+
     /**
      * Returns the number of blocks - (cell, timestamp) pairs - that were deleted.
      */
@@ -32,11 +32,21 @@ import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 
 public class SweepableCellFilter {
+    private final CommitTsCache commitTsCache;
     private final TransactionService transactionService;
     private final Sweeper sweeper;
     private final long sweepTs;
 
     public SweepableCellFilter(TransactionService transactionService, Sweeper sweeper, long sweepTs) {
+        this(CommitTsCache.create(transactionService), transactionService, sweeper, sweepTs);
+    }
+
+    public SweepableCellFilter(
+            CommitTsCache commitTsCache,
+            TransactionService transactionService,
+            Sweeper sweeper,
+            long sweepTs) {
+        this.commitTsCache = commitTsCache;
         this.transactionService = transactionService;
         this.sweeper = sweeper;
         this.sweepTs = sweepTs;
@@ -44,11 +54,13 @@ public class SweepableCellFilter {
 
     // For a given list of candidates, decide which ones we should actually sweep.
     // Here we need to load the commit timestamps, and it's important to do that in bulk
-    // to reduce the number of round trips to the database.
+    // to reduce the number of round trips to the database. Commit timestamps that an earlier
+    // batch already loaded are served from the shared cache.
     public BatchOfCellsToSweep getCellsToSweep(List<CandidateCellForSweeping> candidates) {
         Preconditions.checkArgument(!candidates.isEmpty(),
                 "Got an empty collection of candidates. This is a programming error.");
-        CommitTsLoader commitTss = CommitTsLoader.create(transactionService, getAllTimestamps(candidates));
+        CommitTsLoader commitTss = CommitTsLoader.create(
+                commitTsCache, transactionService, getAllTimestamps(candidates));
         ImmutableBatchOfCellsToSweep.Builder builder = ImmutableBatchOfCellsToSweep.builder();
         long numCellTsPairsExamined = 0;
         Cell lastCellExamined = null;
@@ -23,14 +23,20 @@ import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.sweep.progress.SweepProgress;
 
 public final class TableToSweep {
+    private final int shard;
     private final TableReference tableRef;
     private final Optional<SweepProgress> progress;
 
-    TableToSweep(TableReference tableRef, Optional<SweepProgress> progress) {
+    TableToSweep(int shard, TableReference tableRef, Optional<SweepProgress> progress) {
+        this.shard = shard;
         this.tableRef = tableRef;
         this.progress = progress;
     }
 
+    int getShard() {
+        return shard;
+    }
+
     TableReference getTableRef() {
         return tableRef;
     }
@@ -16,10 +16,18 @@
 package com.palantir.atlasdb.sweep.priority;
 
 import java.util.Optional;
+import java.util.Set;
 
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.transaction.api.Transaction;
 
 public interface NextTableToSweepProvider {
-    Optional<TableReference> chooseNextTableToSweep(Transaction tx, long conservativeSweepTs);
+    /**
+     * Chooses the table that would benefit most from being swept, ignoring the given tables, which are currently
+     * being swept by other threads.
+     */
+    Optional<TableReference> chooseNextTableToSweep(
+            Transaction tx,
+            long conservativeSweepTs,
+            Set<TableReference> tablesToExclude);
 }
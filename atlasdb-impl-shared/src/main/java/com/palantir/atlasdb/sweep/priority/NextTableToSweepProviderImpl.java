@@ -45,7 +45,10 @@ public class NextTableToSweepProviderImpl implements NextTableToSweepProvider {
     }
 
     @Override
-    public Optional<TableReference> chooseNextTableToSweep(Transaction tx, long conservativeSweepTs) {
+    public Optional<TableReference> chooseNextTableToSweep(
+            Transaction tx,
+            long conservativeSweepTs,
+            Set<TableReference> tablesToExclude) {
         Set<TableReference> allTables = Sets.difference(kvs.getAllTableNames(), AtlasDbConstants.hiddenTables);
 
         // We read priorities from the past because we should prioritize based on what the sweeper will
@@ -55,16 +58,18 @@ public class NextTableToSweepProviderImpl implements NextTableToSweepProvider {
         List<SweepPriority> newPriorities = sweepPriorityStore.loadNewPriorities(tx);
         Map<TableReference, SweepPriority> newPrioritiesByTableName = newPriorities.stream().collect(
                 Collectors.toMap(SweepPriority::tableRef, Function.identity()));
-        return getTableToSweep(tx, allTables, oldPriorities, newPrioritiesByTableName);
+        return getTableToSweep(tx, allTables, tablesToExclude, oldPriorities, newPrioritiesByTableName);
     }
 
     private Optional<TableReference> getTableToSweep(
             Transaction tx,
             Set<TableReference> allTables,
+            Set<TableReference> tablesToExclude,
             List<SweepPriority> oldPriorities,
             Map<TableReference, SweepPriority> newPrioritiesByTableName) {
         // Arbitrarily pick the first table alphabetically from the never-before-swept tables
-        List<TableReference> unsweptTables = Sets.difference(allTables, newPrioritiesByTableName.keySet())
+        Set<TableReference> candidateTables = Sets.difference(allTables, tablesToExclude);
+        List<TableReference> unsweptTables = Sets.difference(candidateTables, newPrioritiesByTableName.keySet())
                 .stream().sorted(Comparator.comparing(TableReference::getTablename)).collect(Collectors.toList());
         if (!unsweptTables.isEmpty()) {
             return Optional.of(unsweptTables.get(0));
@@ -73,6 +78,10 @@ public class NextTableToSweepProviderImpl implements NextTableToSweepProvider {
             Optional<TableReference> toSweep = Optional.empty();
             Collection<TableReference> toDelete = Lists.newArrayList();
             for (SweepPriority oldPriority : oldPriorities) {
+                if (tablesToExclude.contains(oldPriority.tableRef())) {
+                    // Another thread is sweeping this table right now.
+                    continue;
+                }
                 if (allTables.contains(oldPriority.tableRef())) {
                     SweepPriority newPriority = newPrioritiesByTableName.get(oldPriority.tableRef());
                     double priority = getSweepPriority(oldPriority, newPriority);
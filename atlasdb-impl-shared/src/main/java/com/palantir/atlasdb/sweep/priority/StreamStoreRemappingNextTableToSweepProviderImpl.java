@@ -17,7 +17,10 @@
 package com.palantir.atlasdb.sweep.priority;
 
 import java.util.Optional;
+import java.util.Set;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.schema.stream.StreamTableType;
 import com.palantir.atlasdb.transaction.api.Transaction;
@@ -32,13 +35,24 @@ public class StreamStoreRemappingNextTableToSweepProviderImpl implements NextTab
     }
 
     @Override
-    public Optional<TableReference> chooseNextTableToSweep(Transaction tx, long conservativeSweepTs) {
+    public synchronized Optional<TableReference> chooseNextTableToSweep(
+            Transaction tx,
+            long conservativeSweepTs,
+            Set<TableReference> tablesToExclude) {
+        Set<TableReference> delegateTablesToExclude = tablesToExclude;
         if (hasRemappedStreamStoreValueTable) {
-            hasRemappedStreamStoreValueTable = false;
-            return Optional.of(previousStreamStoreValueTable);
+            // Only sweep the value table once its index table has been swept, in case that is still in progress.
+            TableReference previousIndexTable =
+                    StreamTableType.getIndexTableFromValueTable(previousStreamStoreValueTable);
+            if (!tablesToExclude.contains(previousIndexTable)) {
+                hasRemappedStreamStoreValueTable = false;
+                return Optional.of(previousStreamStoreValueTable);
+            }
+            delegateTablesToExclude = Sets.union(tablesToExclude, ImmutableSet.of(previousStreamStoreValueTable));
         }
 
-        Optional<TableReference> tableReferenceOptional = delegate.chooseNextTableToSweep(tx, conservativeSweepTs);
+        Optional<TableReference> tableReferenceOptional =
+                delegate.chooseNextTableToSweep(tx, conservativeSweepTs, delegateTablesToExclude);
         if (!tableReferenceOptional.isPresent()) {
             return tableReferenceOptional;
         }
@@ -48,8 +62,15 @@ public class StreamStoreRemappingNextTableToSweepProviderImpl implements NextTab
             return Optional.of(tableReference);
         }
 
+        TableReference indexTable = StreamTableType.getIndexTableFromValueTable(tableReference);
+        if (hasRemappedStreamStoreValueTable || tablesToExclude.contains(indexTable)) {
+            // We only remember one value table at a time, and there is no point waiting for an index table that is
+            // already being swept.
+            return Optional.of(tableReference);
+        }
+
         previousStreamStoreValueTable = tableReference;
         hasRemappedStreamStoreValueTable = true;
-        return Optional.of(StreamTableType.getIndexTableFromValueTable(tableReference));
+        return Optional.of(indexTable);
     }
 }
@@ -18,10 +18,14 @@ package com.palantir.atlasdb.sweep.progress;
 
 import java.util.Optional;
 
+/**
+ * Stores the progress of partially swept tables. Progress is kept in independent shards, one for each background
+ * sweep thread, so that several tables can be swept concurrently; shard 0 is the one used by older versions.
+ */
 public interface SweepProgressStore {
-    void clearProgress();
-    void saveProgress(SweepProgress newProgress);
-    Optional<SweepProgress> loadProgress();
+    void clearProgress(int shard);
+    void saveProgress(int shard, SweepProgress newProgress);
+    Optional<SweepProgress> loadProgress(int shard);
 
     default boolean isInitialized() {
         return true;
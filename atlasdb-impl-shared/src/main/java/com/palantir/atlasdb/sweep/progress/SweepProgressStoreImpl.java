@@ -25,6 +25,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.palantir.async.initializer.AsyncInitializer;
@@ -34,6 +35,7 @@ import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
 import com.palantir.atlasdb.table.description.ColumnValueDescription;
@@ -76,7 +78,6 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
 
     private static final String ROW_AND_COLUMN_NAME = "s";
     private static final byte[] ROW_AND_COLUMN_NAME_BYTES = PtBytes.toCachedBytes(ROW_AND_COLUMN_NAME);
-    private static final Cell CELL = Cell.create(ROW_AND_COLUMN_NAME_BYTES, ROW_AND_COLUMN_NAME_BYTES);
 
     private static final TableMetadata SWEEP_PROGRESS_METADATA = new TableMetadata(
             NameMetadataDescription.create(ImmutableList.of(
@@ -102,16 +103,17 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
     }
 
     @Override
-    public Optional<SweepProgress> loadProgress()  {
-        Map<Cell, Value> entry = kvs.get(AtlasDbConstants.SWEEP_PROGRESS_TABLE, ImmutableMap.of(CELL, 1L));
-        return hydrateProgress(entry);
+    public Optional<SweepProgress> loadProgress(int shard) {
+        Cell cell = cellForShard(shard);
+        Map<Cell, Value> entry = kvs.get(AtlasDbConstants.SWEEP_PROGRESS_TABLE, ImmutableMap.of(cell, 1L));
+        return hydrateProgress(entry, cell);
     }
 
     @Override
-    public void saveProgress(SweepProgress newProgress) {
-        Optional<SweepProgress> oldProgress = loadProgress();
+    public void saveProgress(int shard, SweepProgress newProgress) {
+        Optional<SweepProgress> oldProgress = loadProgress(shard);
         try {
-            kvs.checkAndSet(casProgressRequest(oldProgress, newProgress));
+            kvs.checkAndSet(casProgressRequest(cellForShard(shard), oldProgress, newProgress));
         } catch (Exception e) {
             log.warn("Exception trying to persist sweep progress. The intermediate progress might not have been "
                     + "persisted. This should not cause sweep issues unless the problem persists.", e);
@@ -119,42 +121,58 @@ public final class SweepProgressStoreImpl implements SweepProgressStore {
     }
 
     /**
-     * Fully remove the contents of the sweep progress table.
+     * Remove the progress of the given shard from the sweep progress table.
      */
     @Override
-    public void clearProgress() {
+    public void clearProgress(int shard) {
         // Use deleteRange instead of truncate
         // 1) The table should be small, performance difference should be negligible.
         // 2) Truncate takes an exclusive lock in Postgres, which can interfere
         // with concurrently running backups.
-        kvs.deleteRange(AtlasDbConstants.SWEEP_PROGRESS_TABLE, RangeRequest.all());
+        byte[] row = rowForShard(shard);
+        kvs.deleteRange(AtlasDbConstants.SWEEP_PROGRESS_TABLE, RangeRequest.builder()
+                .startRowInclusive(row)
+                .endRowExclusive(RangeRequests.nextLexicographicName(row))
+                .build());
     }
 
-    private CheckAndSetRequest casProgressRequest(Optional<SweepProgress> oldProgress, SweepProgress progress)
-            throws JsonProcessingException {
+    private static CheckAndSetRequest casProgressRequest(
+            Cell cell,
+            Optional<SweepProgress> oldProgress,
+            SweepProgress progress) throws JsonProcessingException {
         if (!oldProgress.isPresent()) {
-            return CheckAndSetRequest.newCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE, CELL, progressToBytes(progress));
+            return CheckAndSetRequest.newCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE, cell, progressToBytes(progress));
         }
         return CheckAndSetRequest.singleCell(AtlasDbConstants.SWEEP_PROGRESS_TABLE,
-                CELL, progressToBytes(oldProgress.get()), progressToBytes(progress));
+                cell, progressToBytes(oldProgress.get()), progressToBytes(progress));
+    }
+
+    // Shard 0 keeps the single cell used before progress was sharded, so existing progress is picked up again.
+    private static byte[] rowForShard(int shard) {
+        Preconditions.checkArgument(shard >= 0, "Sweep progress shard must not be negative, but was %s", shard);
+        return shard == 0 ? ROW_AND_COLUMN_NAME_BYTES : PtBytes.toBytes(ROW_AND_COLUMN_NAME + shard);
+    }
+
+    private static Cell cellForShard(int shard) {
+        return Cell.create(rowForShard(shard), ROW_AND_COLUMN_NAME_BYTES);
     }
 
     private void tryInitialize() {
         kvs.createTable(AtlasDbConstants.SWEEP_PROGRESS_TABLE, SWEEP_PROGRESS_METADATA.persistToBytes());
     }
 
-    private byte[] progressToBytes(SweepProgress value) throws JsonProcessingException {
+    private static byte[] progressToBytes(SweepProgress value) throws JsonProcessingException {
         return OBJECT_MAPPER.writeValueAsBytes(value);
     }
 
-    private static Optional<SweepProgress> hydrateProgress(Map<Cell, Value> result) {
+    private static Optional<SweepProgress> hydrateProgress(Map<Cell, Value> result, Cell cell) {
         if (result.isEmpty()) {
             log.info("No persisted intermittent SweepProgress information found. "
                     + "Sweep will choose a new table to sweep.");
             return Optional.empty();
         }
         try {
-            return Optional.of(OBJECT_MAPPER.readValue(result.get(CELL).getContents(), SweepProgress.class));
+            return Optional.of(OBJECT_MAPPER.readValue(result.get(cell).getContents(), SweepProgress.class));
         } catch (Exception e) {
             log.warn("Error deserializing SweepProgress object while attempting to load intermediate result. "
                     + "Sweep will choose a new table to sweep.", e);
@@ -1834,8 +1834,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Map<Long, Long> result = Maps.newHashMap();
         Set<Long> gets = Sets.newHashSet();
         for (long startTs : startTimestamps) {
-            Long cached = timestampValidationReadCache.getCommitTimestampIfPresent(startTs);
-            if (cached != null) {
+            long cached = timestampValidationReadCache.getCachedCommitTimestamp(startTs);
+            if (cached != TimestampCache.NO_COMMIT_TIMESTAMP) {
                 result.put(startTs, cached);
             } else {
                 gets.add(startTs);
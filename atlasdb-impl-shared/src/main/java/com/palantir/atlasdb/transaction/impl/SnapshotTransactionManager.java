@@ -49,7 +49,6 @@ import com.palantir.common.base.Throwables;
 import com.palantir.lock.HeldLocksToken;
 import com.palantir.lock.LockRefreshToken;
 import com.palantir.lock.LockService;
-import com.palantir.lock.v2.LockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.TimelockService;
@@ -61,6 +60,7 @@ import com.palantir.timestamp.TimestampService;
     final KeyValueService keyValueService;
     final TransactionService transactionService;
     final TimelockService timelockService;
+    final TransactionStarter transactionStarter;
     final LockService lockService;
     final ConflictDetectionManager conflictDetectionManager;
     final SweepStrategyManager sweepStrategyManager;
@@ -95,6 +95,7 @@ import com.palantir.timestamp.TimestampService;
 
         this.keyValueService = keyValueService;
         this.timelockService = timelockService;
+        this.transactionStarter = new TransactionStarter(timelockService);
         this.lockService = lockService;
         this.transactionService = transactionService;
         this.conflictDetectionManager = conflictDetectionManager;
@@ -134,13 +135,15 @@ import com.palantir.timestamp.TimestampService;
     }
 
     public RawTransaction setupRunTaskWithLocksThrowOnConflict(Iterable<LockRefreshToken> lockTokens) {
-        LockImmutableTimestampResponse immutableTsResponse = timelockService.lockImmutableTimestamp(
-                LockImmutableTimestampRequest.create());
+        TransactionStarter.StartedTransaction startedTransaction = transactionStarter.startTransaction();
+        LockImmutableTimestampResponse immutableTsResponse = startedTransaction.getImmutableTimestampLock();
         try {
             LockToken immutableTsLock = immutableTsResponse.getLock();
             long immutableTs = immutableTsResponse.getImmutableTimestamp();
             recordImmutableTimestamp(immutableTs);
-            Supplier<Long> startTimestampSupplier = getStartTimestampSupplier();
+            long startTimestamp = startedTransaction.getStartTimestamp();
+            cleaner.punch(startTimestamp);
+            Supplier<Long> startTimestampSupplier = Suppliers.ofInstance(startTimestamp);
 
             AdvisoryLockPreCommitCheck advisoryLockCheck =
                     AdvisoryLockPreCommitCheck.forLockServiceLocks(lockTokens, getLockService());
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.common.base.Throwables;
+import com.palantir.lock.v2.LockImmutableTimestampRequest;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockRequest;
+import com.palantir.lock.v2.LockResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.lock.v2.WaitForLocksRequest;
+import com.palantir.lock.v2.WaitForLocksResponse;
+import com.palantir.timestamp.TimestampRange;
+
+/**
+ * Implements {@link TimelockService#startTransactions} with the calls that it replaces, for TimeLock servers that
+ * predate the start-transactions endpoint, whenever the supplied flag says so.
+ * <p>
+ * A batch takes a single immutable timestamp lock, which is shared by its transactions: each of them is handed its
+ * own token, named after its request id, and the shared lock is released once all of those tokens are unlocked.
+ * Tokens handed out here are translated whenever they are refreshed or unlocked, so this service must stay in front
+ * of the delegate for as long as any of them are held, even after the flag is switched off.
+ */
+public class StartTransactionsEmulatingTimelockService implements TimelockService {
+    private final TimelockService delegate;
+    private final Supplier<Boolean> emulateStartTransactions;
+    private final ConcurrentMap<LockToken, SharedLock> sharedLocks = Maps.newConcurrentMap();
+
+    public StartTransactionsEmulatingTimelockService(
+            TimelockService delegate,
+            Supplier<Boolean> emulateStartTransactions) {
+        this.delegate = delegate;
+        this.emulateStartTransactions = emulateStartTransactions;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public long getFreshTimestamp() {
+        return delegate.getFreshTimestamp();
+    }
+
+    @Override
+    public TimestampRange getFreshTimestamps(int numTimestampsRequested) {
+        return delegate.getFreshTimestamps(numTimestampsRequested);
+    }
+
+    @Override
+    public LockImmutableTimestampResponse lockImmutableTimestamp(LockImmutableTimestampRequest request) {
+        return delegate.lockImmutableTimestamp(request);
+    }
+
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        if (!emulateStartTransactions.get()) {
+            return delegate.startTransactions(request);
+        }
+
+        List<UUID> requestIds = request.getRequestIds();
+        LockImmutableTimestampResponse immutableTsLock =
+                delegate.lockImmutableTimestamp(LockImmutableTimestampRequest.create());
+        SharedLock sharedLock = new SharedLock(immutableTsLock.getLock(), requestIds.size());
+        List<LockImmutableTimestampResponse> immutableTsLocks = Lists.newArrayListWithCapacity(requestIds.size());
+        for (UUID requestId : requestIds) {
+            LockToken token = LockToken.of(requestId);
+            sharedLocks.put(token, sharedLock);
+            immutableTsLocks.add(LockImmutableTimestampResponse.of(immutableTsLock.getImmutableTimestamp(), token));
+        }
+
+        try {
+            return StartTransactionsResponse.of(immutableTsLocks, delegate.getFreshTimestamps(requestIds.size()));
+        } catch (Throwable e) {
+            unlock(immutableTsLocks.stream()
+                    .map(LockImmutableTimestampResponse::getLock)
+                    .collect(Collectors.toSet()));
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
+    @Override
+    public long getImmutableTimestamp() {
+        return delegate.getImmutableTimestamp();
+    }
+
+    @Override
+    public LockResponse lock(LockRequest request) {
+        return delegate.lock(request);
+    }
+
+    @Override
+    public List<LockResponse> lockBatch(List<LockRequest> requests) {
+        return delegate.lockBatch(requests);
+    }
+
+    @Override
+    public WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
+        return delegate.waitForLocks(request);
+    }
+
+    @Override
+    public Set<LockToken> refreshLockLeases(Set<LockToken> tokens) {
+        Map<LockToken, LockToken> delegateTokens = Maps.newHashMapWithExpectedSize(tokens.size());
+        for (LockToken token : tokens) {
+            SharedLock sharedLock = sharedLocks.get(token);
+            delegateTokens.put(token, sharedLock == null ? token : sharedLock.token);
+        }
+
+        Set<LockToken> refreshed = delegate.refreshLockLeases(ImmutableSet.copyOf(delegateTokens.values()));
+        return delegateTokens.entrySet().stream()
+                .filter(entry -> refreshed.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<LockToken> unlock(Set<LockToken> tokens) {
+        Set<LockToken> unlocked = Sets.newHashSet();
+        Set<LockToken> delegateTokens = Sets.newHashSet();
+        for (LockToken token : tokens) {
+            SharedLock sharedLock = sharedLocks.remove(token);
+            if (sharedLock == null) {
+                delegateTokens.add(token);
+            } else {
+                unlocked.add(token);
+                if (sharedLock.release()) {
+                    delegateTokens.add(sharedLock.token);
+                }
+            }
+        }
+
+        if (!delegateTokens.isEmpty()) {
+            unlocked.addAll(Sets.intersection(delegate.unlock(delegateTokens), tokens));
+        }
+        return unlocked;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return delegate.currentTimeMillis();
+    }
+
+    @VisibleForTesting
+    int sharedLockHolderCount() {
+        return sharedLocks.size();
+    }
+
+    private static final class SharedLock {
+        private final LockToken token;
+        private final AtomicInteger holders;
+
+        private SharedLock(LockToken token, int holders) {
+            this.token = token;
+            this.holders = new AtomicInteger(holders);
+        }
+
+        /**
+         * Returns true if the last holder released the lock.
+         */
+        boolean release() {
+            return holders.decrementAndGet() == 0;
+        }
+    }
+}
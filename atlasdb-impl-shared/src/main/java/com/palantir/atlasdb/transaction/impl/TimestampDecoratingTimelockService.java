@@ -16,6 +16,7 @@
 
 package com.palantir.atlasdb.transaction.impl;
 
+import java.util.List;
 import java.util.Set;
 
 import com.palantir.lock.v2.LockImmutableTimestampRequest;
@@ -23,6 +24,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -58,6 +61,11 @@ public class TimestampDecoratingTimelockService implements TimelockService {
         return delegate.lockImmutableTimestamp(request);
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        return delegate.startTransactions(request);
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return delegate.getImmutableTimestamp();
@@ -68,6 +76,11 @@ public class TimestampDecoratingTimelockService implements TimelockService {
         return delegate.lock(request);
     }
 
+    @Override
+    public List<LockResponse> lockBatch(List<LockRequest> requests) {
+        return delegate.lockBatch(requests);
+    }
+
     @Override
     public WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
         return delegate.waitForLocks(request);
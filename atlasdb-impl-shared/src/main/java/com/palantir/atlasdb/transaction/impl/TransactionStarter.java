@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.common.concurrent.CoalescingBatcher;
+import com.palantir.common.concurrent.CoalescingBatcher.BatchElement;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+
+/**
+ * Coalesces concurrent transaction starts into a single {@link TimelockService#startTransactions} call, which
+ * returns an immutable timestamp lock per transaction along with the start timestamps in one round trip.
+ * <p>
+ * Batching is done by a {@link CoalescingBatcher}, so a caller never joins a call that was already in flight when it
+ * arrived, and its start timestamp is always fresh with respect to the time it asked for it.
+ */
+@ThreadSafe
+final class TransactionStarter {
+    private static final Logger log = LoggerFactory.getLogger(TransactionStarter.class);
+
+    @VisibleForTesting
+    static final int MAX_BATCH_SIZE = 1_000;
+
+    private final TimelockService timelockService;
+    private final CoalescingBatcher<Void, StartedTransaction> batcher =
+            CoalescingBatcher.create(this::startBatch, MAX_BATCH_SIZE);
+
+    TransactionStarter(TimelockService timelockService) {
+        this.timelockService = timelockService;
+    }
+
+    StartedTransaction startTransaction() {
+        return batcher.apply(null);
+    }
+
+    private void startBatch(List<BatchElement<Void, StartedTransaction>> batch) {
+        StartTransactionsResponse response =
+                timelockService.startTransactions(StartTransactionsRequest.create(batch.size()));
+        for (int i = 0; i < batch.size(); i++) {
+            completeStart(batch.get(i).result(), response, i);
+        }
+    }
+
+    private void completeStart(CompletableFuture<StartedTransaction> start, StartTransactionsResponse response,
+            int index) {
+        LockImmutableTimestampResponse immutableTsLock = response.getImmutableTimestampLocks().get(index);
+        try {
+            // The timestamp service may have handed out fewer timestamps than we asked for.
+            long startTimestamp = index < response.getStartTimestamps().size()
+                    ? response.getStartTimestamps().getLowerBound() + index
+                    : timelockService.getFreshTimestamp();
+            start.complete(new StartedTransaction(immutableTsLock, startTimestamp));
+        } catch (Throwable t) {
+            start.completeExceptionally(t);
+            unlockQuietly(immutableTsLock);
+        }
+    }
+
+    private void unlockQuietly(LockImmutableTimestampResponse immutableTsLock) {
+        try {
+            timelockService.unlock(ImmutableSet.of(immutableTsLock.getLock()));
+        } catch (Throwable t) {
+            log.warn("Failed to release the immutable timestamp lock of a transaction that could not be started;"
+                    + " it will be released when its lease expires", t);
+        }
+    }
+
+    static final class StartedTransaction {
+        private final LockImmutableTimestampResponse immutableTimestampLock;
+        private final long startTimestamp;
+
+        StartedTransaction(LockImmutableTimestampResponse immutableTimestampLock, long startTimestamp) {
+            this.immutableTimestampLock = immutableTimestampLock;
+            this.startTimestamp = startTimestamp;
+        }
+
+        LockImmutableTimestampResponse getImmutableTimestampLock() {
+            return immutableTimestampLock;
+        }
+
+        long getStartTimestamp() {
+            return startTimestamp;
+        }
+    }
+}
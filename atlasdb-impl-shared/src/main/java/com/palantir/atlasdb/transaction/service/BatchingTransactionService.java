@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.common.concurrent.CoalescingBatcher;
+import com.palantir.common.concurrent.CoalescingBatcher.BatchElement;
+
+/**
+ * A {@link TransactionService} that coalesces concurrent lookups of commit timestamps into a single call to the
+ * delegate.
+ * <p>
+ * Batching is done by a {@link CoalescingBatcher}, so at most one lookup is outstanding at a time. Requests for the
+ * same start timestamp that are queued together share a single lookup. A request never receives the result of a
+ * lookup that started before it was made, so a commit that completed before the request is always visible to it.
+ * <p>
+ * Writes are passed straight through to the delegate.
+ */
+@ThreadSafe
+public final class BatchingTransactionService implements TransactionService {
+    private final TransactionService delegate;
+    private final CoalescingBatcher<Long, Long> batcher = CoalescingBatcher.create(this::getBatch);
+
+    public BatchingTransactionService(TransactionService delegate) {
+        this.delegate = delegate;
+    }
+
+    @CheckForNull
+    @Override
+    public Long get(long startTimestamp) {
+        return batcher.apply(startTimestamp);
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        List<Long> requestedTimestamps = ImmutableList.copyOf(Sets.newLinkedHashSet(startTimestamps));
+        List<Long> commitTimestamps = batcher.applyAll(requestedTimestamps);
+
+        Map<Long, Long> result = Maps.newHashMapWithExpectedSize(requestedTimestamps.size());
+        for (int i = 0; i < requestedTimestamps.size(); i++) {
+            Long commitTimestamp = commitTimestamps.get(i);
+            if (commitTimestamp != null) {
+                result.put(requestedTimestamps.get(i), commitTimestamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) throws KeyAlreadyExistsException {
+        delegate.putUnlessExists(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public void putUnlessExists(Map<Long, Long> startTimestampToCommitTimestamp) throws KeyAlreadyExistsException {
+        delegate.putUnlessExists(startTimestampToCommitTimestamp);
+    }
+
+    private void getBatch(List<BatchElement<Long, Long>> batch) {
+        Set<Long> startTimestamps = Sets.newHashSetWithExpectedSize(batch.size());
+        batch.forEach(element -> startTimestamps.add(element.argument()));
+        Map<Long, Long> commitTimestamps = delegate.get(startTimestamps);
+        batch.forEach(element -> element.result().complete(commitTimestamps.get(element.argument())));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.common.concurrent.CoalescingBatcher;
+import com.palantir.common.concurrent.CoalescingBatcher.BatchElement;
+
+/**
+ * A {@link TransactionService} that groups concurrent commits into a single multi-cell
+ * {@link TransactionService#putUnlessExists(Map)} on the delegate.
+ * <p>
+ * Committers queue their (start, commit) pair in a {@link CoalescingBatcher}, so at most one group is written at a time
+ * and everything queued while it is outstanding is written together as the next group. If several committers of the
+ * same start timestamp are queued together, only the first joins the group write and the others are written
+ * individually afterwards, letting the store decide between them.
+ * <p>
+ * Multi-cell writes are not atomic, so if a group fails with a {@link KeyAlreadyExistsException} each of its entries
+ * is retried individually. That way only the transactions whose cells actually already existed see the exception;
+ * transactions whose cell was written by the group write see it too, but the usual check of the stored value after a
+ * {@link KeyAlreadyExistsException} will find their own commit timestamp.
+ * <p>
+ * Reads are passed straight through to the delegate.
+ */
+@ThreadSafe
+public final class GroupCommittingTransactionService implements TransactionService {
+    private final TransactionService delegate;
+    private final CoalescingBatcher<Map.Entry<Long, Long>, Void> batcher = CoalescingBatcher.create(this::writeGroup);
+
+    public GroupCommittingTransactionService(TransactionService delegate) {
+        this.delegate = delegate;
+    }
+
+    @CheckForNull
+    @Override
+    public Long get(long startTimestamp) {
+        return delegate.get(startTimestamp);
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        return delegate.get(startTimestamps);
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) throws KeyAlreadyExistsException {
+        batcher.apply(Maps.immutableEntry(startTimestamp, commitTimestamp));
+    }
+
+    private void writeGroup(List<BatchElement<Map.Entry<Long, Long>, Void>> batch) {
+        Map<Long, BatchElement<Map.Entry<Long, Long>, Void>> group = Maps.newLinkedHashMap();
+        List<BatchElement<Map.Entry<Long, Long>, Void>> duplicates = Lists.newArrayList();
+        for (BatchElement<Map.Entry<Long, Long>, Void> commit : batch) {
+            if (group.putIfAbsent(commit.argument().getKey(), commit) != null) {
+                duplicates.add(commit);
+            }
+        }
+
+        try {
+            delegate.putUnlessExists(Maps.transformValues(group, commit -> commit.argument().getValue()));
+            group.values().forEach(commit -> commit.result().complete(null));
+        } catch (KeyAlreadyExistsException e) {
+            group.values().forEach(this::writeIndividually);
+        } catch (Throwable t) {
+            group.values().forEach(commit -> commit.result().completeExceptionally(t));
+        }
+        duplicates.forEach(this::writeIndividually);
+    }
+
+    private void writeIndividually(BatchElement<Map.Entry<Long, Long>, Void> commit) {
+        try {
+            delegate.putUnlessExists(commit.argument().getKey(), commit.argument().getValue());
+            commit.result().complete(null);
+        } catch (Throwable t) {
+            commit.result().completeExceptionally(t);
+        }
+    }
+}
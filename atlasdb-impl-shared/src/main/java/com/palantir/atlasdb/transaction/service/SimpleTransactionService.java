@@ -82,6 +82,15 @@ public final class SimpleTransactionService implements TransactionService {
                 ImmutableMap.of(key, value));
     }
 
+    @Override
+    public void putUnlessExists(Map<Long, Long> startTimestampToCommitTimestamp) {
+        Map<Cell, byte[]> values = Maps.newHashMapWithExpectedSize(startTimestampToCommitTimestamp.size());
+        for (Map.Entry<Long, Long> e : startTimestampToCommitTimestamp.entrySet()) {
+            values.put(getTransactionCell(e.getKey()), TransactionConstants.getValueForTimestamp(e.getValue()));
+        }
+        keyValueService.putUnlessExists(TransactionConstants.TRANSACTION_TABLE, values);
+    }
+
     private Cell getTransactionCell(long startTimestamp) {
         return Cell.create(
                 TransactionConstants.getValueForTimestamp(startTimestamp),
@@ -26,4 +26,22 @@ public final class TransactionServices {
             KeyValueService keyValueService) {
         return new SimpleTransactionService(keyValueService);
     }
+
+    /**
+     * Creates a transaction service backed by the key value service, optionally coalescing concurrent reads
+     * (see {@link BatchingTransactionService}) and concurrent commits (see {@link GroupCommittingTransactionService}).
+     */
+    public static TransactionService createTransactionService(
+            KeyValueService keyValueService,
+            boolean batchReads,
+            boolean groupCommits) {
+        TransactionService transactionService = createTransactionService(keyValueService);
+        if (batchReads) {
+            transactionService = new BatchingTransactionService(transactionService);
+        }
+        if (groupCommits) {
+            transactionService = new GroupCommittingTransactionService(transactionService);
+        }
+        return transactionService;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cleaner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class IndexedPuncherStoreTest {
+    private static final long REFRESH_INTERVAL_MILLIS = 1000L;
+
+    private final KeyValueService kvs = spy(new InMemoryKeyValueService(false));
+    private final PuncherStore kvsPuncherStore = KeyValueServicePuncherStore.create(kvs);
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final PuncherStore indexedPuncherStore =
+            new IndexedPuncherStore(kvs, kvsPuncherStore, REFRESH_INTERVAL_MILLIS, clock::get);
+
+    @Test
+    public void answersLikeTheKeyValueServiceStore() {
+        kvsPuncherStore.put(10L, 100L);
+        kvsPuncherStore.put(30L, 200L);
+        kvsPuncherStore.put(20L, 300L); // clock drift
+        kvsPuncherStore.put(40L, 400L);
+
+        for (long timeMillis = 0; timeMillis <= 500; timeMillis += 10) {
+            assertThat(indexedPuncherStore.get(timeMillis)).isEqualTo(kvsPuncherStore.get(timeMillis));
+        }
+        for (long timestamp = 0; timestamp <= 50; timestamp++) {
+            assertThat(indexedPuncherStore.getMillisForTimestamp(timestamp))
+                    .isEqualTo(kvsPuncherStore.getMillisForTimestamp(timestamp));
+        }
+    }
+
+    @Test
+    public void answersLikeTheKeyValueServiceStoreWhenEmpty() {
+        assertThat(indexedPuncherStore.get(100L)).isEqualTo(Long.MIN_VALUE);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(100L)).isEqualTo(0L);
+    }
+
+    @Test
+    public void readsThePunchTableOnlyOncePerRefreshInterval() {
+        kvsPuncherStore.put(10L, 100L);
+
+        indexedPuncherStore.get(100L);
+        indexedPuncherStore.get(200L);
+        indexedPuncherStore.getMillisForTimestamp(10L);
+
+        verify(kvs, times(1)).getRange(eq(AtlasDbConstants.PUNCH_TABLE), any(RangeRequest.class), anyLong());
+    }
+
+    @Test
+    public void picksUpNewPunchesAfterRefreshInterval() {
+        kvsPuncherStore.put(10L, 100L);
+        assertThat(indexedPuncherStore.get(200L)).isEqualTo(10L);
+
+        kvsPuncherStore.put(20L, 200L);
+        assertThat(indexedPuncherStore.get(200L)).isEqualTo(10L);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(20L)).isEqualTo(100L);
+
+        clock.addAndGet(REFRESH_INTERVAL_MILLIS);
+        assertThat(indexedPuncherStore.get(200L)).isEqualTo(20L);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(20L)).isEqualTo(200L);
+    }
+
+    @Test
+    public void picksUpLatePunchesWithinTheTailOverlap() {
+        long latest = 2 * IndexedPuncherStore.TAIL_OVERLAP_MILLIS;
+        kvsPuncherStore.put(10L, 100L);
+        kvsPuncherStore.put(30L, latest);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(25L)).isEqualTo(100L);
+
+        kvsPuncherStore.put(20L, latest - 1);
+        kvsPuncherStore.put(40L, latest + 1);
+        clock.addAndGet(REFRESH_INTERVAL_MILLIS);
+
+        assertThat(indexedPuncherStore.getMillisForTimestamp(25L)).isEqualTo(latest - 1);
+        assertThat(indexedPuncherStore.get(latest - 1)).isEqualTo(20L);
+        assertThat(indexedPuncherStore.get(latest + 1)).isEqualTo(40L);
+    }
+
+    @Test
+    public void keepsEarlierTimestampsVisibleAfterAppendingPunchesWithDriftedClocks() {
+        kvsPuncherStore.put(30L, 100L);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(25L)).isEqualTo(0L);
+
+        kvsPuncherStore.put(20L, 200L);
+        clock.addAndGet(REFRESH_INTERVAL_MILLIS);
+
+        assertThat(indexedPuncherStore.getMillisForTimestamp(25L)).isEqualTo(200L);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(30L)).isEqualTo(200L);
+        assertThat(indexedPuncherStore.getMillisForTimestamp(15L)).isEqualTo(0L);
+    }
+}
@@ -18,6 +18,9 @@ package com.palantir.atlasdb.cleaner;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -29,8 +32,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -41,6 +46,8 @@ import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.atlasdb.transaction.service.SimpleTransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.common.base.AbortingVisitor;
+import com.palantir.common.base.BatchingVisitable;
 import com.palantir.common.base.BatchingVisitables;
 
 public class ScrubberTest {
@@ -132,6 +139,68 @@ public class ScrubberTest {
         Assert.assertEquals(ImmutableList.of(), scrubQueue);
     }
 
+    @Test
+    public void testScrubsEveryQueuedCellWhenReadingAheadOfDeletes() {
+        TableReference tableRef = TableReference.createFromFullyQualifiedName("foo.bar");
+        kvs.createTable(tableRef, new byte[] {});
+        ImmutableMultimap.Builder<Cell, Value> values = ImmutableMultimap.builder();
+        ImmutableMultimap.Builder<Cell, TableReference> cellsToScrub = ImmutableMultimap.builder();
+        for (int i = 0; i < 1000; i++) {
+            Cell cell = Cell.create(new byte[] {(byte) (i / 256), (byte) i}, new byte[] {1});
+            values.put(cell, Value.create(new byte[] {1}, 10));
+            values.put(cell, Value.create(new byte[] {2}, 20));
+            cellsToScrub.put(cell, tableRef);
+        }
+        kvs.putWithTimestamps(tableRef, values.build());
+        transactions.putUnlessExists(10, 15);
+        transactions.putUnlessExists(20, 25);
+        scrubStore.queueCellsForScrubbing(cellsToScrub.build(), 20, 100);
+
+        scrubber.runBackgroundScrubTask(null);
+
+        List<SortedMap<Long, Multimap<TableReference, Cell>>> scrubQueue = BatchingVisitables.copyToList(
+                scrubStore.getBatchingVisitableScrubQueue(Long.MAX_VALUE, null, null));
+        Assert.assertEquals(ImmutableList.of(), scrubQueue);
+        Multimap<Cell, Long> remainingTimestamps = kvs.getAllTimestamps(
+                tableRef, cellsToScrub.build().keySet(), Long.MAX_VALUE);
+        Assert.assertEquals(2000, remainingTimestamps.size());
+        Assert.assertFalse(remainingTimestamps.containsValue(10L));
+    }
+
+    @Test
+    public void testReadFailureIsNotReplacedByDeleteFailure() {
+        TableReference tableRef = TableReference.createFromFullyQualifiedName("foo.bar");
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+        transactions.putUnlessExists(20, 25);
+
+        KeyValueService failingKvs = mock(KeyValueService.class);
+        when(failingKvs.getAllTimestamps(any(TableReference.class), anySetOf(Cell.class), anyLong()))
+                .thenThrow(new IllegalStateException("delete failed"));
+        ScrubberStore failingStore = mock(ScrubberStore.class);
+        SortedMap<Long, Multimap<TableReference, Cell>> queuedCells =
+                ImmutableSortedMap.of(20L, ImmutableMultimap.of(tableRef, cell));
+        when(failingStore.getBatchingVisitableScrubQueue(anyLong(), any(byte[].class), any(byte[].class)))
+                .thenReturn(new BatchingVisitable<SortedMap<Long, Multimap<TableReference, Cell>>>() {
+                    @Override
+                    public <K extends Exception> boolean batchAccept(int batchSize,
+                            AbortingVisitor<? super List<SortedMap<Long, Multimap<TableReference, Cell>>>, K> v)
+                            throws K {
+                        v.visit(ImmutableList.of(queuedCells));
+                        throw new IllegalStateException("read failed");
+                    }
+                });
+        Scrubber failingScrubber = getScrubber(failingKvs, failingStore, transactions);
+
+        try {
+            failingScrubber.runBackgroundScrubTask(null);
+            Assert.fail("Expected the scrub task to fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("read failed", Throwables.getRootCause(e).getMessage());
+        } finally {
+            failingScrubber.shutdown();
+        }
+    }
+
     private Scrubber getScrubber(KeyValueService keyValueService, ScrubberStore scrubberStore,
             TransactionService transactionService) {
         return Scrubber.create(keyValueService, scrubberStore,
@@ -25,10 +25,18 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * Created by tboam on 03/11/2017.
  */
@@ -50,6 +58,47 @@ public class AdjustableSweepBatchConfigSourceTest {
         assertThat(adjustableConfig.getBatchSizeMultiplier(), is(lessThan(previousMultiplier)));
     }
 
+    @Test
+    public void batchSizeMultiplierDecreasesWhenBatchExceedsLatencyBudget() {
+        // Given
+        configWithValuesAndLatencyBudget(1000, 1000, 1000, 100L);
+
+        // When
+        adjustableConfig.onSuccessfulBatch(101L);
+
+        // Then
+        assertThat(adjustableConfig.getBatchSizeMultiplier(), is(lessThan(previousMultiplier)));
+    }
+
+    @Test
+    public void batchSizeMultiplierIncreasesAdditivelyWhenBatchIsWithinLatencyBudget() {
+        // Given
+        configWithValuesAndLatencyBudget(1000, 1000, 1000, 100L);
+        adjustableConfig.decreaseMultiplier();
+        updatePreviousValues();
+
+        // When
+        adjustableConfig.onSuccessfulBatch(100L);
+
+        // Then
+        assertThat(adjustableConfig.getBatchSizeMultiplier(),
+                is(Math.min(1.0, previousMultiplier + AdjustableSweepBatchConfigSource.ADDITIVE_INCREASE)));
+    }
+
+    @Test
+    public void slowBatchesDoNotDecreaseBatchSizeMultiplierWithoutLatencyBudget() {
+        // Given
+        configWithValues(1000, 1000, 1000);
+        adjustableConfig.decreaseMultiplier();
+        updatePreviousValues();
+
+        // When
+        adjustableConfig.onSuccessfulBatch(Long.MAX_VALUE);
+
+        // Then
+        assertThat(adjustableConfig.getBatchSizeMultiplier(), is(greaterThan(previousMultiplier)));
+    }
+
     @Test
     public void canDecreaseAndIncreaseConfigWithAllSmallValues() {
         //Given
@@ -86,6 +135,42 @@ public class AdjustableSweepBatchConfigSourceTest {
         assertThat(adjustableConfig.getBatchSizeMultiplier(), is(1.0));
     }
 
+    @Test
+    public void concurrentIncreasesAreNotLost() throws Exception {
+        // Given
+        configWithValues(1000, 1000, 1000);
+        for (int i = 0; i < 100; i++) {
+            adjustableConfig.decreaseMultiplier();
+        }
+        double expectedMultiplier = adjustableConfig.getBatchSizeMultiplier();
+        for (int i = 0; i < 10; i++) {
+            expectedMultiplier = Math.min(1.0, expectedMultiplier + AdjustableSweepBatchConfigSource.ADDITIVE_INCREASE);
+        }
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> increases = Lists.newArrayList();
+            for (int i = 0; i < 10; i++) {
+                increases.add(executor.submit(() -> {
+                    start.await();
+                    adjustableConfig.increaseMultiplier();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> increase : increases) {
+                increase.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(adjustableConfig.getBatchSizeMultiplier(), is(expectedMultiplier));
+    }
+
     private void whenDecreasingTheMultiplier_thenAdjustedConfigValuesDecrease() {
         for (int i = 0; i < 10_000; i++) {
             // When
@@ -130,6 +215,20 @@ public class AdjustableSweepBatchConfigSourceTest {
         updatePreviousValues();
     }
 
+    private void configWithValuesAndLatencyBudget(int maxCellTsPairsToExamine, int candidateBatchSize,
+            int deleteBatchSize, long batchLatencyBudgetMillis) {
+        adjustableConfig = AdjustableSweepBatchConfigSource.create(() ->
+                ImmutableSweepBatchConfig.builder()
+                        .maxCellTsPairsToExamine(maxCellTsPairsToExamine)
+                        .candidateBatchSize(candidateBatchSize)
+                        .deleteBatchSize(deleteBatchSize)
+                        .build(),
+                () -> Optional.of(batchLatencyBudgetMillis)
+        );
+
+        updatePreviousValues();
+    }
+
     private void batchSizeMultiplierDecreases() {
         assertThat(adjustableConfig.getBatchSizeMultiplier(), is(lessThanOrEqualTo(previousMultiplier)));
     }
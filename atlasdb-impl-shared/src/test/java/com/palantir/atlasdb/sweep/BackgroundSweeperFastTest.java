@@ -20,6 +20,7 @@ import java.util.Optional;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.ImmutableSweepResults;
 import com.palantir.atlasdb.sweep.priority.ImmutableUpdateSweepPriority;
@@ -36,7 +37,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .cellTsPairsExamined(10)
                 .sweptTimestamp(12345L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(priorityStore).update(
                 Mockito.any(),
                 Mockito.eq(TABLE_REF),
@@ -65,7 +66,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .sweptTimestamp(9999L)
                 .previousStartRow(Optional.of(new byte[] {1, 2, 3}))
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(priorityStore).update(
                 Mockito.any(),
                 Mockito.eq(TABLE_REF),
@@ -87,8 +88,9 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .sweptTimestamp(12345L)
                 .nextStartRow(Optional.of(new byte[] {1, 2, 3}))
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(progressStore).saveProgress(
+                Mockito.eq(0),
                 Mockito.eq(ImmutableSweepProgress.builder()
                         .tableRef(TABLE_REF)
                         .staleValuesDeleted(2)
@@ -109,7 +111,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .sweptTimestamp(12345L)
                 .nextStartRow(Optional.of(new byte[] {1, 2, 3}))
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(priorityStore).update(
                 Mockito.any(),
                 Mockito.eq(TABLE_REF),
@@ -128,7 +130,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .sweptTimestamp(12345L)
                 .nextStartRow(Optional.of(new byte[] {1, 2, 3}))
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(sweepMetrics).deletedCells(2);
         Mockito.verify(sweepMetrics).examinedCells(10);
     }
@@ -149,7 +151,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .cellTsPairsExamined(10)
                 .sweptTimestamp(12345L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(sweepMetrics).deletedCells(2);
         Mockito.verify(sweepMetrics).examinedCells(10);
     }
@@ -163,7 +165,7 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .cellTsPairsExamined(10)
                 .sweptTimestamp(12345L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(kvs).compactInternally(TABLE_REF);
     }
 
@@ -176,7 +178,25 @@ public class BackgroundSweeperFastTest extends SweeperTestSetup {
                 .cellTsPairsExamined(10)
                 .sweptTimestamp(12345L)
                 .build());
-        backgroundSweeper.runOnce();
+        backgroundSweeper.runOnce(0);
         Mockito.verify(kvs, Mockito.never()).compactInternally(TABLE_REF);
     }
+
+    @Test
+    public void testShardsDoNotChooseTablesBeingSweptByOtherShards() {
+        setNoProgress();
+        setNextTableToSweep(TABLE_REF);
+        setupTaskRunner(ImmutableSweepResults.builder()
+                .staleValuesDeleted(2)
+                .cellTsPairsExamined(10)
+                .sweptTimestamp(12345L)
+                .nextStartRow(Optional.of(new byte[] {1, 2, 3}))
+                .build());
+        backgroundSweeper.runOnce(0);
+        backgroundSweeper.runOnce(1);
+        Mockito.verify(nextTableToSweepProvider).chooseNextTableToSweep(
+                Mockito.any(), Mockito.anyLong(), Mockito.eq(ImmutableSet.of()));
+        Mockito.verify(nextTableToSweepProvider).chooseNextTableToSweep(
+                Mockito.any(), Mockito.anyLong(), Mockito.eq(ImmutableSet.of(TABLE_REF)));
+    }
 }
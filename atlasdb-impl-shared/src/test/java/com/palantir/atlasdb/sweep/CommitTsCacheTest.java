@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.atlasdb.transaction.service.TransactionServices;
+
+import gnu.trove.set.hash.TLongHashSet;
+
+public class CommitTsCacheTest {
+    private static final long NOT_CACHED = Long.MIN_VALUE;
+
+    private final KeyValueService kvs = new InMemoryKeyValueService(true);
+    private final TransactionService kvsTransactionService = TransactionServices.createTransactionService(kvs);
+
+    @Test
+    public void rangeScanAlsoCachesTransactionsInBetween() {
+        for (long startTs = 10; startTs <= 50; startTs++) {
+            kvsTransactionService.putUnlessExists(startTs, startTs + 1000);
+        }
+        TransactionService mockTransactionService = mock(TransactionService.class);
+        CommitTsCache cache = CommitTsCache.create(mockTransactionService, kvs, 1000);
+
+        cache.prefetch(new TLongHashSet(new long[] {10, 20, 30, 40, 50}));
+
+        assertThat(cache.get(10, NOT_CACHED)).isEqualTo(1010);
+        assertThat(cache.get(35, NOT_CACHED)).isEqualTo(1035);
+        assertThat(cache.get(50, NOT_CACHED)).isEqualTo(1050);
+        verify(mockTransactionService, never()).get(any(Iterable.class));
+    }
+
+    @Test
+    public void isolatedTimestampsAreReadWithOneMultiGet() {
+        TransactionService mockTransactionService = mock(TransactionService.class);
+        when(mockTransactionService.get(any(Iterable.class))).thenReturn(ImmutableMap.of(1L, 2L, 100_000L, 100_001L));
+        CommitTsCache cache = CommitTsCache.create(mockTransactionService, kvs, 1000);
+
+        cache.prefetch(new TLongHashSet(new long[] {1, 100_000}));
+
+        assertThat(cache.get(1, NOT_CACHED)).isEqualTo(2);
+        assertThat(cache.get(100_000, NOT_CACHED)).isEqualTo(100_001);
+        verify(mockTransactionService, times(1)).get(any(Iterable.class));
+    }
+
+    @Test
+    public void cachedTimestampsAreNotReadAgain() {
+        TransactionService mockTransactionService = mock(TransactionService.class);
+        when(mockTransactionService.get(any(Iterable.class))).thenReturn(ImmutableMap.of(1L, 2L));
+        CommitTsCache cache = CommitTsCache.create(mockTransactionService);
+
+        cache.prefetch(new TLongHashSet(new long[] {1}));
+        cache.prefetch(new TLongHashSet(new long[] {1}));
+
+        verify(mockTransactionService, times(1)).get(any(Iterable.class));
+    }
+
+    @Test
+    public void missingCommitTimestampsAreNotCached() {
+        kvsTransactionService.putUnlessExists(2, 1002);
+        CommitTsCache cache = CommitTsCache.create(kvsTransactionService, kvs, 1000);
+
+        cache.prefetch(new TLongHashSet(new long[] {1, 2, 3, 4, 5}));
+
+        assertThat(cache.get(2, NOT_CACHED)).isEqualTo(1002);
+        assertThat(cache.get(3, NOT_CACHED)).isEqualTo(NOT_CACHED);
+    }
+}
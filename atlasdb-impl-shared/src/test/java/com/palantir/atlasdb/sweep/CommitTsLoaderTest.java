@@ -18,6 +18,7 @@ package com.palantir.atlasdb.sweep;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -88,4 +89,30 @@ public class CommitTsLoaderTest {
 
         assertThat(loader.load(VALID_START_TIMESTAMP)).isEqualTo(ROLLBACK_TIMESTAMP);
     }
+
+    @Test
+    public void loadShouldNotCacheTheFallbackForMissingCommitTimestamps() throws Exception {
+        CommitTsCache cache = CommitTsCache.create(mockTransactionService);
+        CommitTsLoader sharedLoader = CommitTsLoader.create(cache, mockTransactionService, new TLongHashSet());
+        doAnswer((invocation) -> NO_TIMESTAMP)
+                .when(mockTransactionService).get(VALID_START_TIMESTAMP);
+
+        assertThat(sharedLoader.load(VALID_START_TIMESTAMP)).isEqualTo(ROLLBACK_TIMESTAMP);
+        assertThat(cache.get(VALID_START_TIMESTAMP, VALID_COMMIT_TIMESTAMP)).isEqualTo(VALID_COMMIT_TIMESTAMP);
+
+        when(mockTransactionService.get(VALID_START_TIMESTAMP)).thenReturn(VALID_COMMIT_TIMESTAMP);
+        assertThat(sharedLoader.load(VALID_START_TIMESTAMP)).isEqualTo(VALID_COMMIT_TIMESTAMP);
+        assertThat(cache.get(VALID_START_TIMESTAMP, ROLLBACK_TIMESTAMP)).isEqualTo(VALID_COMMIT_TIMESTAMP);
+    }
+
+    @Test
+    public void loadShouldUseTheSharedCache() throws Exception {
+        CommitTsCache cache = CommitTsCache.create(mockTransactionService);
+        cache.put(VALID_START_TIMESTAMP, VALID_COMMIT_TIMESTAMP);
+
+        CommitTsLoader sharedLoader = CommitTsLoader.create(cache, mockTransactionService, new TLongHashSet());
+
+        assertThat(sharedLoader.load(VALID_START_TIMESTAMP)).isEqualTo(VALID_COMMIT_TIMESTAMP);
+        verify(mockTransactionService, never()).get(VALID_START_TIMESTAMP);
+    }
 }
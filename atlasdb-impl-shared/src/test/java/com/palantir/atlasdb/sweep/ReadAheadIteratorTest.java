@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class ReadAheadIteratorTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsTheSameElements() {
+        List<Integer> fetched = Lists.newCopyOnWriteArrayList();
+        try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(
+                ImmutableList.of(1, 2, 3).iterator(), executor, (element, nanos) -> fetched.add(element))) {
+            assertThat(ImmutableList.copyOf(iterator)).containsExactly(1, 2, 3);
+        }
+        assertThat(fetched).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void fetchesTheNextElementWhileTheCurrentOneIsProcessed() throws InterruptedException {
+        CountDownLatch secondElementFetched = new CountDownLatch(1);
+        Iterator<Integer> delegate = ImmutableList.of(1, 2).iterator();
+        try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(delegate, executor, (element, nanos) -> {
+            if (element == 2) {
+                secondElementFetched.countDown();
+            }
+        })) {
+            assertThat(iterator.next()).isEqualTo(1);
+            assertThat(secondElementFetched.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(iterator.next()).isEqualTo(2);
+            assertThat(iterator.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void propagatesFailuresOfTheDelegate() {
+        Iterator<Integer> delegate = new AbstractIterator<Integer>() {
+            @Override
+            protected Integer computeNext() {
+                throw new IllegalStateException("boom");
+            }
+        };
+        List<Integer> fetched = Lists.newCopyOnWriteArrayList();
+        try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(
+                delegate, executor, (element, nanos) -> fetched.add(element))) {
+            assertThatThrownBy(iterator::hasNext)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("boom");
+        }
+        assertThat(fetched).isEmpty();
+    }
+}
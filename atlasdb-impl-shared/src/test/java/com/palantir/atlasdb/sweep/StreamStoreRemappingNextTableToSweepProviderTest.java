@@ -19,13 +19,16 @@ package com.palantir.atlasdb.sweep;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.schema.stream.StreamTableType;
 import com.palantir.atlasdb.sweep.priority.NextTableToSweepProviderImpl;
@@ -50,16 +53,17 @@ public class StreamStoreRemappingNextTableToSweepProviderTest {
     @Test
     public void notValueTableReturnsSameTable() {
         Optional<TableReference> selectedTable = Optional.of(NOT_SS_VALUE_TABLE);
-        when(delegate.chooseNextTableToSweep(any(), anyLong())).thenReturn(selectedTable);
+        when(delegate.chooseNextTableToSweep(any(), anyLong(), any())).thenReturn(selectedTable);
 
-        Optional<TableReference> returnedTable = provider.chooseNextTableToSweep(mockedTransaction, 1L);
+        Optional<TableReference> returnedTable =
+                provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of());
         assertThat(returnedTable).isEqualTo(selectedTable);
     }
 
     @Test
     public void valueTableReturnsIndexThenValueTables() {
         Optional<TableReference> selectedTable = Optional.of(SS_VALUE_TABLE);
-        when(delegate.chooseNextTableToSweep(any(), anyLong())).thenReturn(selectedTable);
+        when(delegate.chooseNextTableToSweep(any(), anyLong(), any())).thenReturn(selectedTable);
 
         assertReturnsIndexThenValueTable();
     }
@@ -69,19 +73,47 @@ public class StreamStoreRemappingNextTableToSweepProviderTest {
     public void notValueTableAfterValueTableIsReturnedCorrectly() {
         Optional<TableReference> selectedTable = Optional.of(SS_VALUE_TABLE);
         Optional<TableReference> nextSelectedTable = Optional.of(NOT_SS_VALUE_TABLE);
-        when(delegate.chooseNextTableToSweep(any(), anyLong())).thenReturn(selectedTable, nextSelectedTable);
+        when(delegate.chooseNextTableToSweep(any(), anyLong(), any())).thenReturn(selectedTable, nextSelectedTable);
 
         assertReturnsIndexThenValueTable();
 
-        Optional<TableReference> followupReturnedTable = provider.chooseNextTableToSweep(mockedTransaction, 1L);
+        Optional<TableReference> followupReturnedTable =
+                provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of());
         assertThat(followupReturnedTable).isEqualTo(Optional.of(NOT_SS_VALUE_TABLE));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void valueTableIsDeferredWhileItsIndexTableIsBeingSwept() {
+        when(delegate.chooseNextTableToSweep(any(), anyLong(), any()))
+                .thenReturn(Optional.of(SS_VALUE_TABLE), Optional.of(NOT_SS_VALUE_TABLE));
+
+        assertThat(provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of()))
+                .isEqualTo(Optional.of(SS_INDEX_TABLE));
+        assertThat(provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of(SS_INDEX_TABLE)))
+                .isEqualTo(Optional.of(NOT_SS_VALUE_TABLE));
+        verify(delegate).chooseNextTableToSweep(
+                any(), anyLong(), eq(ImmutableSet.of(SS_INDEX_TABLE, SS_VALUE_TABLE)));
+
+        assertThat(provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of(NOT_SS_VALUE_TABLE)))
+                .isEqualTo(Optional.of(SS_VALUE_TABLE));
+    }
+
+    @Test
+    public void valueTableIsReturnedDirectlyIfItsIndexTableIsBeingSwept() {
+        when(delegate.chooseNextTableToSweep(any(), anyLong(), any())).thenReturn(Optional.of(SS_VALUE_TABLE));
+
+        assertThat(provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of(SS_INDEX_TABLE)))
+                .isEqualTo(Optional.of(SS_VALUE_TABLE));
+    }
+
     private void assertReturnsIndexThenValueTable() {
-        Optional<TableReference> returnedTable = provider.chooseNextTableToSweep(mockedTransaction, 1L);
+        Optional<TableReference> returnedTable =
+                provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of());
         assertThat(returnedTable).isEqualTo(Optional.of(SS_INDEX_TABLE));
 
-        Optional<TableReference> followupReturnedTable = provider.chooseNextTableToSweep(mockedTransaction, 1L);
+        Optional<TableReference> followupReturnedTable =
+                provider.chooseNextTableToSweep(mockedTransaction, 1L, ImmutableSet.of());
         assertThat(followupReturnedTable).isEqualTo(Optional.of(SS_VALUE_TABLE));
     }
 }
@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.sweep;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 import org.junit.After;
@@ -86,6 +87,25 @@ public class SweepMetricsTest {
         assertValuesRecorded("cellTimestampPairsExamined", EXAMINED, OTHER_EXAMINED);
     }
 
+    @Test
+    public void pipelineStagesAreRecorded() {
+        sweepMetrics.loadedCandidates(EXAMINED, 1_000_000L);
+        sweepMetrics.resolvedCommitTimestamps(EXAMINED, 2_000_000L);
+        sweepMetrics.deletedBatch(DELETED, 3_000_000L);
+        sweepMetrics.deletedBatch(OTHER_DELETED, 4_000_000L);
+
+        assertStageRecorded("candidateLoading", 1, EXAMINED);
+        assertStageRecorded("commitTimestampResolution", 1, EXAMINED);
+        assertStageRecorded("deletion", 2, DELETED + OTHER_DELETED);
+    }
+
+    private void assertStageRecorded(String stage, long batches, long cells) {
+        assertThat(METRIC_REGISTRY.timer(MetricRegistry.name(SweepMetrics.class, stage + "Time")).getCount(),
+                is(batches));
+        assertThat(METRIC_REGISTRY.meter(MetricRegistry.name(SweepMetrics.class, stage + "Cells")).getCount(),
+                is(cells));
+    }
+
     private void assertValuesRecorded(String aggregateMetric, Long... values) {
         Histogram histogram = METRIC_REGISTRY.histogram(MetricRegistry.name(SweepMetrics.class, aggregateMetric));
         assertThat(Longs.asList(histogram.getSnapshot().getValues()), containsInAnyOrder(values));
@@ -47,7 +47,7 @@ public class SweeperTestSetup {
     protected KeyValueService kvs = Mockito.mock(KeyValueService.class);
     protected SweepProgressStore progressStore = Mockito.mock(SweepProgressStore.class);
     protected SweepPriorityStore priorityStore = Mockito.mock(SweepPriorityStore.class);
-    private NextTableToSweepProvider nextTableToSweepProvider = Mockito.mock(NextTableToSweepProvider.class);
+    protected NextTableToSweepProvider nextTableToSweepProvider = Mockito.mock(NextTableToSweepProvider.class);
     protected SweepTaskRunner sweepTaskRunner = Mockito.mock(SweepTaskRunner.class);
     private boolean sweepEnabled = true;
     protected SweepMetrics sweepMetrics = Mockito.mock(SweepMetrics.class);
@@ -75,7 +75,8 @@ public class SweeperTestSetup {
                 () -> sweepEnabled,
                 () -> 0L, // pauseMillis
                 Mockito.mock(PersistentLockManager.class),
-                specificTableSweeper);
+                specificTableSweeper,
+                1);
     }
 
     protected SpecificTableSweeper getSpecificTableSweeperService() {
@@ -103,16 +104,16 @@ public class SweeperTestSetup {
     }
 
     protected void setNoProgress() {
-        Mockito.doReturn(Optional.empty()).when(progressStore).loadProgress();
+        Mockito.doReturn(Optional.empty()).when(progressStore).loadProgress(Mockito.anyInt());
     }
 
     protected void setProgress(SweepProgress progress) {
-        Mockito.doReturn(Optional.of(progress)).when(progressStore).loadProgress();
+        Mockito.doReturn(Optional.of(progress)).when(progressStore).loadProgress(Mockito.anyInt());
     }
 
     protected void setNextTableToSweep(TableReference tableRef) {
         Mockito.doReturn(Optional.of(tableRef)).when(nextTableToSweepProvider)
-                .chooseNextTableToSweep(Mockito.any(), Mockito.anyLong());
+                .chooseNextTableToSweep(Mockito.any(), Mockito.anyLong(), Mockito.any());
     }
 
     protected void setupTaskRunner(SweepResults results) {
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class StartTransactionsEmulatingTimelockServiceTest {
+    private static final LockImmutableTimestampResponse IMMUTABLE_TS_LOCK =
+            LockImmutableTimestampResponse.of(3L, LockToken.of(UUID.randomUUID()));
+    private static final TimestampRange START_TIMESTAMPS = TimestampRange.createInclusiveRange(6L, 7L);
+
+    private final TimelockService delegate = mock(TimelockService.class);
+    private final AtomicBoolean emulate = new AtomicBoolean(true);
+    private final StartTransactionsEmulatingTimelockService timelock =
+            new StartTransactionsEmulatingTimelockService(delegate, emulate::get);
+
+    @Before
+    public void setUp() {
+        when(delegate.lockImmutableTimestamp(any())).thenReturn(IMMUTABLE_TS_LOCK);
+        when(delegate.getFreshTimestamps(2)).thenReturn(START_TIMESTAMPS);
+    }
+
+    @Test
+    public void startsTransactionsWithOneImmutableTimestampLock() {
+        StartTransactionsRequest request = StartTransactionsRequest.create(2);
+
+        StartTransactionsResponse response = timelock.startTransactions(request);
+
+        assertThat(response.getImmutableTimestampLocks())
+                .extracting(LockImmutableTimestampResponse::getImmutableTimestamp)
+                .containsExactly(3L, 3L);
+        assertThat(response.getImmutableTimestampLocks())
+                .extracting(LockImmutableTimestampResponse::getLock)
+                .extracting(LockToken::getRequestId)
+                .containsExactlyElementsOf(request.getRequestIds());
+        assertThat(response.getStartTimestamps()).isEqualTo(START_TIMESTAMPS);
+        verify(delegate, times(1)).lockImmutableTimestamp(any());
+        verify(delegate, never()).startTransactions(any());
+    }
+
+    @Test
+    public void callsTheStartTransactionsEndpointWhenNotEmulating() {
+        StartTransactionsRequest request = StartTransactionsRequest.create(2);
+        emulate.set(false);
+
+        timelock.startTransactions(request);
+
+        verify(delegate).startTransactions(request);
+        verify(delegate, never()).lockImmutableTimestamp(any());
+    }
+
+    @Test
+    public void releasesSharedLockOnlyOnceEveryTransactionHasUnlocked() {
+        List<LockToken> tokens = startTwoTransactions();
+
+        assertThat(timelock.unlock(ImmutableSet.of(tokens.get(0)))).containsExactly(tokens.get(0));
+        verify(delegate, never()).unlock(any());
+
+        when(delegate.unlock(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock())))
+                .thenReturn(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+        assertThat(timelock.unlock(ImmutableSet.of(tokens.get(1)))).containsExactly(tokens.get(1));
+        verify(delegate).unlock(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+        assertThat(timelock.sharedLockHolderCount()).isZero();
+    }
+
+    @Test
+    public void unlockingATokenTwiceDoesNotReleaseTheSharedLock() {
+        List<LockToken> tokens = startTwoTransactions();
+
+        timelock.unlock(ImmutableSet.of(tokens.get(0)));
+        timelock.unlock(ImmutableSet.of(tokens.get(0)));
+
+        verify(delegate, never()).unlock(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+    }
+
+    @Test
+    public void refreshesTheSharedLockOnBehalfOfItsTransactions() {
+        List<LockToken> tokens = startTwoTransactions();
+        LockToken otherToken = LockToken.of(UUID.randomUUID());
+        when(delegate.refreshLockLeases(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock(), otherToken)))
+                .thenReturn(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+
+        assertThat(timelock.refreshLockLeases(ImmutableSet.of(tokens.get(0), tokens.get(1), otherToken)))
+                .containsExactlyInAnyOrder(tokens.get(0), tokens.get(1));
+    }
+
+    @Test
+    public void sharedLocksAreTranslatedAfterEmulationIsSwitchedOff() {
+        List<LockToken> tokens = startTwoTransactions();
+        emulate.set(false);
+
+        timelock.unlock(ImmutableSet.copyOf(tokens));
+
+        verify(delegate).unlock(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+    }
+
+    @Test
+    public void releasesImmutableTimestampLockIfStartTimestampsCannotBeFetched() {
+        when(delegate.getFreshTimestamps(2)).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> timelock.startTransactions(StartTransactionsRequest.create(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+        verify(delegate).unlock(ImmutableSet.of(IMMUTABLE_TS_LOCK.getLock()));
+        assertThat(timelock.sharedLockHolderCount()).isZero();
+    }
+
+    private List<LockToken> startTwoTransactions() {
+        StartTransactionsResponse response = timelock.startTransactions(StartTransactionsRequest.create(2));
+        return response.getImmutableTimestampLocks().stream()
+                .map(LockImmutableTimestampResponse::getLock)
+                .collect(Collectors.toList());
+    }
+}
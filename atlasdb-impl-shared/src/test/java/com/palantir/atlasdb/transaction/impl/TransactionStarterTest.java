@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class TransactionStarterTest {
+    private static final long IMMUTABLE_TS = 10L;
+
+    private final TimelockService timelockService = mock(TimelockService.class);
+    private final TransactionStarter starter = new TransactionStarter(timelockService);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Integer> batchSizes = Lists.newCopyOnWriteArrayList();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void startsTransactionWithLockAndStartTimestamp() {
+        when(timelockService.startTransactions(any())).thenAnswer(
+                invocation -> response(invocation.getArgumentAt(0, StartTransactionsRequest.class), 100L));
+
+        TransactionStarter.StartedTransaction started = starter.startTransaction();
+
+        assertThat(started.getImmutableTimestampLock().getImmutableTimestamp()).isEqualTo(IMMUTABLE_TS);
+        assertThat(started.getStartTimestamp()).isEqualTo(100L);
+    }
+
+    @Test
+    public void propagatesFailures() {
+        when(timelockService.startTransactions(any())).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(starter::startTransaction).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    public void coalescesConcurrentStartsWhileACallIsOutstanding() throws Exception {
+        List<Future<TransactionStarter.StartedTransaction>> followers =
+                startBehindOutstandingCall(5, request -> response(request, 200L));
+
+        assertThat(getStartTimestamps(followers)).containsExactlyInAnyOrder(200L, 201L, 202L, 203L, 204L);
+        assertThat(batchSizes).containsExactly(1, 5);
+    }
+
+    @Test
+    public void fetchesMissingStartTimestampsIndividually() throws Exception {
+        when(timelockService.getFreshTimestamp()).thenReturn(300L);
+        List<Future<TransactionStarter.StartedTransaction>> followers =
+                startBehindOutstandingCall(2, request -> withSingleStartTimestamp(request, 200L));
+
+        assertThat(getStartTimestamps(followers)).containsExactlyInAnyOrder(200L, 300L);
+    }
+
+    @Test
+    public void releasesLockIfStartTimestampCannotBeObtained() throws Exception {
+        when(timelockService.getFreshTimestamp()).thenThrow(new IllegalStateException("boom"));
+        List<Future<TransactionStarter.StartedTransaction>> followers =
+                startBehindOutstandingCall(2, request -> withSingleStartTimestamp(request, 200L));
+
+        List<LockToken> startedLocks = Lists.newArrayList();
+        int failures = 0;
+        for (Future<TransactionStarter.StartedTransaction> follower : followers) {
+            try {
+                startedLocks.add(follower.get(10, TimeUnit.SECONDS).getImmutableTimestampLock().getLock());
+            } catch (ExecutionException e) {
+                assertThat(e).hasCauseInstanceOf(IllegalStateException.class);
+                failures++;
+            }
+        }
+        assertThat(startedLocks).hasSize(1);
+        assertThat(failures).isEqualTo(1);
+        verify(timelockService).unlock(any());
+        verify(timelockService, never()).unlock(ImmutableSet.of(startedLocks.get(0)));
+    }
+
+    private List<Future<TransactionStarter.StartedTransaction>> startBehindOutstandingCall(
+            int numFollowers,
+            Function<StartTransactionsRequest, StartTransactionsResponse> followerResponse) throws Exception {
+        CountDownLatch firstCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCall = new CountDownLatch(1);
+        when(timelockService.startTransactions(any())).thenAnswer(invocation -> {
+            StartTransactionsRequest request = invocation.getArgumentAt(0, StartTransactionsRequest.class);
+            batchSizes.add(request.getRequestIds().size());
+            if (batchSizes.size() == 1) {
+                firstCallStarted.countDown();
+                releaseFirstCall.await();
+                return response(request, 100L);
+            }
+            return followerResponse.apply(request);
+        });
+
+        Future<TransactionStarter.StartedTransaction> first = executor.submit(starter::startTransaction);
+        firstCallStarted.await();
+        List<Future<TransactionStarter.StartedTransaction>> followers = Lists.newArrayList();
+        for (int i = 0; i < numFollowers; i++) {
+            followers.add(executor.submit(starter::startTransaction));
+        }
+        Thread.sleep(100);
+        releaseFirstCall.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getStartTimestamp()).isEqualTo(100L);
+        return followers;
+    }
+
+    private static Set<Long> getStartTimestamps(List<Future<TransactionStarter.StartedTransaction>> futures)
+            throws Exception {
+        Set<Long> startTimestamps = Sets.newHashSet();
+        for (Future<TransactionStarter.StartedTransaction> future : futures) {
+            startTimestamps.add(future.get(10, TimeUnit.SECONDS).getStartTimestamp());
+        }
+        return startTimestamps;
+    }
+
+    private static StartTransactionsResponse response(StartTransactionsRequest request, long firstStartTimestamp) {
+        int numTransactions = request.getRequestIds().size();
+        return StartTransactionsResponse.of(
+                locksFor(request),
+                TimestampRange.createInclusiveRange(firstStartTimestamp, firstStartTimestamp + numTransactions - 1));
+    }
+
+    private static StartTransactionsResponse withSingleStartTimestamp(StartTransactionsRequest request,
+            long startTimestamp) {
+        return StartTransactionsResponse.of(
+                locksFor(request),
+                TimestampRange.createInclusiveRange(startTimestamp, startTimestamp));
+    }
+
+    private static List<LockImmutableTimestampResponse> locksFor(StartTransactionsRequest request) {
+        return request.getRequestIds().stream()
+                .map(requestId -> LockImmutableTimestampResponse.of(IMMUTABLE_TS, LockToken.of(requestId)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class BatchingTransactionServiceTest {
+    private final TransactionService kvsTransactionService =
+            TransactionServices.createTransactionService(new InMemoryKeyValueService(true));
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsCommittedTimestampsOnly() {
+        TransactionService batching = new BatchingTransactionService(kvsTransactionService);
+        batching.putUnlessExists(1L, 2L);
+
+        assertThat(batching.get(1L)).isEqualTo(2L);
+        assertThat(batching.get(3L)).isNull();
+        assertThat(batching.get(ImmutableList.of(1L, 3L))).isEqualTo(ImmutableMap.of(1L, 2L));
+    }
+
+    @Test
+    public void propagatesDelegateFailures() {
+        TransactionService delegate = mock(TransactionService.class);
+        when(delegate.get(any(Iterable.class))).thenThrow(new IllegalStateException("boom"));
+        TransactionService batching = new BatchingTransactionService(delegate);
+
+        assertThatThrownBy(() -> batching.get(1L)).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    public void coalescesConcurrentRequestsWhileABatchIsOutstanding() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicInteger delegateCalls = new AtomicInteger();
+        List<Iterable<Long>> batches = Lists.newCopyOnWriteArrayList();
+        TransactionService blockingDelegate = new TransactionService() {
+            @Override
+            public Long get(long startTimestamp) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+                batches.add(ImmutableList.copyOf(startTimestamps));
+                if (delegateCalls.getAndIncrement() == 0) {
+                    firstBatchStarted.countDown();
+                    awaitUninterruptibly(releaseFirstBatch);
+                }
+                return kvsTransactionService.get(startTimestamps);
+            }
+
+            @Override
+            public void putUnlessExists(long startTimestamp, long commitTimestamp) {
+                kvsTransactionService.putUnlessExists(startTimestamp, commitTimestamp);
+            }
+        };
+        TransactionService batching = new BatchingTransactionService(blockingDelegate);
+        for (long ts = 1; ts <= 10; ts++) {
+            batching.putUnlessExists(ts, ts + 100);
+        }
+
+        Future<Long> first = executor.submit(() -> batching.get(1L));
+        firstBatchStarted.await();
+
+        List<Future<Map<Long, Long>>> followers = Lists.newArrayList();
+        for (long ts = 2; ts <= 10; ts++) {
+            List<Long> request = ImmutableList.of(ts, 10L);
+            followers.add(executor.submit(() -> batching.get(request)));
+        }
+        Thread.sleep(100);
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(101L);
+        for (int i = 0; i < followers.size(); i++) {
+            long ts = i + 2;
+            assertThat(followers.get(i).get(10, TimeUnit.SECONDS))
+                    .containsEntry(ts, ts + 100)
+                    .containsEntry(10L, 110L);
+        }
+        assertThat(delegateCalls.get()).isEqualTo(2);
+        assertThat(batches.get(1)).containsOnlyElementsOf(Sets.newHashSet(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+    }
+
+    @Test
+    public void doesNotBatchWrites() {
+        TransactionService delegate = mock(TransactionService.class);
+        TransactionService batching = new BatchingTransactionService(delegate);
+
+        batching.putUnlessExists(1L, 2L);
+        batching.putUnlessExists(3L, 4L);
+
+        verify(delegate, times(1)).putUnlessExists(1L, 2L);
+        verify(delegate, times(1)).putUnlessExists(3L, 4L);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+
+public class GroupCommittingTransactionServiceTest {
+    private final TransactionService kvsTransactionService =
+            TransactionServices.createTransactionService(new InMemoryKeyValueService(true));
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void writesCommitTimestamps() {
+        TransactionService groupCommitting = new GroupCommittingTransactionService(kvsTransactionService);
+        groupCommitting.putUnlessExists(1L, 2L);
+
+        assertThat(groupCommitting.get(1L)).isEqualTo(2L);
+        assertThat(kvsTransactionService.get(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void throwsIfAlreadyCommitted() {
+        TransactionService groupCommitting = new GroupCommittingTransactionService(kvsTransactionService);
+        groupCommitting.putUnlessExists(1L, 2L);
+
+        assertThatThrownBy(() -> groupCommitting.putUnlessExists(1L, 3L))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+        assertThat(groupCommitting.get(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void groupsConcurrentCommitsAndOnlyFailsConflictingOnes() throws Exception {
+        CountDownLatch firstGroupStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstGroup = new CountDownLatch(1);
+        List<Map<Long, Long>> groups = Lists.newCopyOnWriteArrayList();
+        TransactionService blockingDelegate = new TransactionService() {
+            @Override
+            public Long get(long startTimestamp) {
+                return kvsTransactionService.get(startTimestamp);
+            }
+
+            @Override
+            public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+                return kvsTransactionService.get(startTimestamps);
+            }
+
+            @Override
+            public void putUnlessExists(long startTimestamp, long commitTimestamp) {
+                kvsTransactionService.putUnlessExists(startTimestamp, commitTimestamp);
+            }
+
+            @Override
+            public void putUnlessExists(Map<Long, Long> startTimestampToCommitTimestamp) {
+                groups.add(ImmutableMap.copyOf(startTimestampToCommitTimestamp));
+                if (groups.size() == 1) {
+                    firstGroupStarted.countDown();
+                    try {
+                        releaseFirstGroup.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                kvsTransactionService.putUnlessExists(startTimestampToCommitTimestamp);
+            }
+        };
+        kvsTransactionService.putUnlessExists(5L, 6L);
+        TransactionService groupCommitting = new GroupCommittingTransactionService(blockingDelegate);
+
+        Future<?> first = executor.submit(() -> groupCommitting.putUnlessExists(1L, 2L));
+        firstGroupStarted.await();
+        List<Future<?>> followers = ImmutableList.of(
+                executor.submit(() -> groupCommitting.putUnlessExists(3L, 4L)),
+                executor.submit(() -> groupCommitting.putUnlessExists(5L, 7L)));
+        Thread.sleep(100);
+        releaseFirstGroup.countDown();
+
+        first.get(10, TimeUnit.SECONDS);
+        try {
+            followers.get(0).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // The group write may have stored this commit before failing; the retry then reports it as existing.
+            assertThat(e).hasCauseInstanceOf(KeyAlreadyExistsException.class);
+        }
+        assertThatThrownBy(() -> followers.get(1).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(KeyAlreadyExistsException.class);
+        assertThat(groups).hasSize(2);
+        assertThat(groups.get(1)).isEqualTo(ImmutableMap.of(3L, 4L, 5L, 7L));
+        assertThat(kvsTransactionService.get(ImmutableList.of(1L, 3L, 5L)))
+                .isEqualTo(ImmutableMap.of(1L, 2L, 3L, 4L, 5L, 6L));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.timelock.lock.ImmutableTimestampTracker;
+
+/**
+ * Simulates the immutable timestamp traffic of a TimeLock node: every operation locks a fresh timestamp, reads the
+ * immutable timestamp and unlocks again, as a transaction start and end would. A small number of long-running
+ * transactions hold older timestamps so the minimum is never the timestamp being locked.
+ *
+ * These benchmarks do not use the backend, so any backend may be passed on the command line.
+ */
+public class ImmutableTimestampTrackerBenchmarks {
+    private static final int LONG_RUNNING_TRANSACTIONS = 16;
+
+    @State(Scope.Benchmark)
+    public static class Tracker {
+        private final ImmutableTimestampTracker tracker = new ImmutableTimestampTracker();
+        private final AtomicLong timestamps = new AtomicLong();
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < LONG_RUNNING_TRANSACTIONS; i++) {
+                tracker.lock(timestamps.incrementAndGet(), UUID.randomUUID());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+        private final UUID requestId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    @Threads(1)
+    public Optional<Long> singleThreadLockAndUnlock(Tracker tracker, Request request) {
+        return lockAndUnlock(tracker, request);
+    }
+
+    @Benchmark
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    @Threads(64)
+    public Optional<Long> manyThreadsLockAndUnlock(Tracker tracker, Request request) {
+        return lockAndUnlock(tracker, request);
+    }
+
+    @Benchmark
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    @Threads(128)
+    public Optional<Long> veryManyThreadsLockAndUnlock(Tracker tracker, Request request) {
+        return lockAndUnlock(tracker, request);
+    }
+
+    @Benchmark
+    @Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 10, timeUnit = TimeUnit.SECONDS)
+    @Threads(64)
+    public Optional<Long> manyThreadsGetImmutableTimestamp(Tracker tracker) {
+        return tracker.tracker.getImmutableTimestamp();
+    }
+
+    private static Optional<Long> lockAndUnlock(Tracker tracker, Request request) {
+        long timestamp = tracker.timestamps.incrementAndGet();
+        tracker.tracker.lock(timestamp, request.requestId);
+        Optional<Long> immutableTimestamp = tracker.tracker.getImmutableTimestamp();
+        tracker.tracker.unlock(timestamp, request.requestId);
+        return immutableTimestamp;
+    }
+}
@@ -1303,6 +1303,24 @@ public abstract class AbstractKeyValueServiceTest {
         assertTrue(timestampsAfter2.containsEntry(TEST_CELL, Value.INVALID_VALUE_TIMESTAMP));
     }
 
+    @Test
+    public void testAddGcSentinelValuesForManyCellsSomeOfWhichHaveSentinels() {
+        ImmutableSet.Builder<Cell> builder = ImmutableSet.builder();
+        for (int i = 0; i < 2500; i++) {
+            builder.add(Cell.create(PtBytes.toBytes("row" + i), column0));
+        }
+        Set<Cell> cells = builder.build();
+        keyValueService.addGarbageCollectionSentinelValues(TEST_TABLE, Iterables.limit(cells, 1000));
+
+        keyValueService.addGarbageCollectionSentinelValues(TEST_TABLE, cells);
+
+        Multimap<Cell, Long> timestamps = keyValueService.getAllTimestamps(TEST_TABLE, cells, AtlasDbConstants.MAX_TS);
+        assertEquals(cells.size(), timestamps.size());
+        for (Cell cell : cells) {
+            assertTrue(timestamps.containsEntry(cell, Value.INVALID_VALUE_TIMESTAMP));
+        }
+    }
+
     private Multimap<Cell, Long> getTestTimestamps() {
         return keyValueService.getAllTimestamps(TEST_TABLE, ImmutableSet.of(TEST_CELL), AtlasDbConstants.MAX_TS);
     }
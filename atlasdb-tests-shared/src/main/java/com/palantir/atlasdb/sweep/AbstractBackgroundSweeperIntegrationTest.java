@@ -100,7 +100,8 @@ public abstract class AbstractBackgroundSweeperIntegrationTest {
                 () -> true, // sweepEnabled
                 () -> 10L, // sweepPauseMillis
                 persistentLockManager,
-                specificTableSweeper);
+                specificTableSweeper,
+                2); // sweepThreads
     }
 
     @Test
@@ -117,7 +118,7 @@ public abstract class AbstractBackgroundSweeperIntegrationTest {
         sweepTimestamp.set(150);
         try (SweepLocks sweepLocks = backgroundSweeper.createSweepLocks()) {
             for (int i = 0; i < 50; ++i) {
-                backgroundSweeper.checkConfigAndRunSweep(sweepLocks);
+                backgroundSweeper.checkConfigAndRunSweep(0, sweepLocks);
             }
         }
         verifyTableSwept(TABLE_1, 75, true);
@@ -128,6 +129,26 @@ public abstract class AbstractBackgroundSweeperIntegrationTest {
         Assert.assertTrue(priorities.stream().anyMatch(p -> p.tableRef().equals(TABLE_2)));
     }
 
+    @Test
+    public void smokeTestWithTwoShards() throws Exception {
+        createTable(TABLE_1, SweepStrategy.CONSERVATIVE);
+        createTable(TABLE_2, SweepStrategy.THOROUGH);
+        putManyCells(TABLE_1, 100, 110);
+        putManyCells(TABLE_1, 103, 113);
+        putManyCells(TABLE_1, 105, 115);
+        putManyCells(TABLE_2, 101, 111);
+        putManyCells(TABLE_2, 104, 114);
+        sweepTimestamp.set(150);
+        try (SweepLocks sweepLocks = backgroundSweeper.createSweepLocks()) {
+            for (int i = 0; i < 25; ++i) {
+                backgroundSweeper.checkConfigAndRunSweep(0, sweepLocks);
+                backgroundSweeper.checkConfigAndRunSweep(1, sweepLocks);
+            }
+        }
+        verifyTableSwept(TABLE_1, 75, true);
+        verifyTableSwept(TABLE_2, 58, false);
+    }
+
     protected abstract KeyValueService getKeyValueService();
 
     protected void verifyTableSwept(TableReference tableRef, int expectedCells, boolean conservative) {
@@ -34,6 +34,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
@@ -978,6 +979,41 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
         });
     }
 
+    @Test
+    public void testRunTaskWithRetryAsync() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            String value = getManager().runTaskWithRetryAsync((TransactionTask<String, RuntimeException>) t -> {
+                put(t, "row1", "col1", "v1");
+                return get(t, "row1", "col1");
+            }, executor).get();
+            assertEquals("v1", value);
+
+            assertThatThrownBy(() -> getManager().runTaskWithRetryAsync((TxTask) t -> {
+                throw new IllegalStateException("task failed");
+            }, executor).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdown();
+        }
+
+        getManager().runTaskWithRetry((TxTask) t -> {
+            assertEquals("v1", get(t, "row1", "col1"));
+            return null;
+        });
+    }
+
+    @Test
+    public void testRunTaskWithRetryAsyncFailsFutureWhenExecutorRejects() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        assertThatThrownBy(() -> getManager().runTaskWithRetryAsync((TxTask) t -> null, executor).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
     @Test
     public void testWriteFailsOnReadOnly() {
         try {
@@ -27,6 +27,7 @@ import java.util.UUID;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
@@ -41,8 +42,10 @@ import com.palantir.lock.LockClient;
 import com.palantir.lock.LockService;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.remoting2.tracing.Tracers;
+import com.palantir.timestamp.TimestampRange;
 import com.palantir.timestamp.TimestampService;
 
 public class TransactionManagerTest extends TransactionTestSetup {
@@ -133,8 +136,9 @@ public class TransactionManagerTest extends TransactionTestSetup {
                 AbstractTransactionTest.DEFAULT_GET_RANGES_CONCURRENCY);
 
         when(timelock.getFreshTimestamp()).thenReturn(1L);
-        when(timelock.lockImmutableTimestamp(any())).thenReturn(
-                LockImmutableTimestampResponse.of(2L, LockToken.of(UUID.randomUUID())));
+        when(timelock.startTransactions(any())).thenReturn(StartTransactionsResponse.of(
+                ImmutableList.of(LockImmutableTimestampResponse.of(2L, LockToken.of(UUID.randomUUID()))),
+                TimestampRange.createInclusiveRange(1L, 1L)));
 
         assertThatThrownBy(() -> txnManagerWithMocks.runTaskThrowOnConflict(txn -> null))
                 .isInstanceOf(TransactionFailedRetriableException.class);
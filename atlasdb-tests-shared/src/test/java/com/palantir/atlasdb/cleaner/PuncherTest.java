@@ -40,6 +40,7 @@ public class PuncherTest {
     public static Collection<Object[]> parameters() {
         InMemoryKeyValueService kvsPuncherStoreKvs = new InMemoryKeyValueService(false);
         InMemoryKeyValueService cachingKvsPuncherStoreKvs = new InMemoryKeyValueService(false);
+        InMemoryKeyValueService indexedKvsPuncherStoreKvs = new InMemoryKeyValueService(false);
 
         InMemoryPuncherStore inMemoryPuncherStore = InMemoryPuncherStore.create();
         PuncherStore puncherStore =
@@ -49,10 +50,15 @@ public class PuncherTest {
         CachingPuncherStore cachingKeyValueServicePuncherStore = CachingPuncherStore.create(
                 KeyValueServicePuncherStore.create(cachingKvsPuncherStoreKvs),
                 GRANULARITY_MILLIS);
+        IndexedPuncherStore indexedKeyValueServicePuncherStore = IndexedPuncherStore.create(
+                indexedKvsPuncherStoreKvs,
+                KeyValueServicePuncherStore.create(indexedKvsPuncherStoreKvs),
+                0L);
         Object[][] parameters = new Object[][] { { inMemoryPuncherStore, null },
                 { puncherStore, kvsPuncherStoreKvs },
                 { cachingInMemoryPuncherStore, null },
-                { cachingKeyValueServicePuncherStore, cachingKvsPuncherStoreKvs } };
+                { cachingKeyValueServicePuncherStore, cachingKvsPuncherStoreKvs },
+                { indexedKeyValueServicePuncherStore, indexedKvsPuncherStoreKvs } };
         return ImmutableList.copyOf(parameters);
     }
 
@@ -15,8 +15,11 @@
  */
 package com.palantir.atlasdb.schema.stream;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -33,6 +36,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
@@ -40,6 +44,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -57,16 +62,26 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
 import com.palantir.atlasdb.AtlasDbTestCase;
 import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.protos.generated.StreamPersistence;
 import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
 import com.palantir.atlasdb.schema.stream.generated.DeletingStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.KeyValueTable;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestDedupIndexCleanupTask;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxColumn;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestDedupStreamIdxTable;
+import com.palantir.atlasdb.schema.stream.generated.StreamTestDedupStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestMaxMemStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestStreamHashAidxTable;
 import com.palantir.atlasdb.schema.stream.generated.StreamTestStreamMetadataTable;
@@ -85,10 +100,12 @@ import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamMeta
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamValueTable.TestHashComponentsStreamValueRow;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamChunkIndexCleanupTask;
 import com.palantir.atlasdb.table.description.Schemas;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionConflictException;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
+import com.palantir.common.base.BatchingVisitableView;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.remoting2.tracing.Tracers;
 import com.palantir.util.Pair;
@@ -102,6 +119,7 @@ public class StreamTest extends AtlasDbTestCase {
     private boolean useStoreWithHashedComponents;
     private PersistentStreamStore compressedStore;
     private PersistentStreamStore maxMemStore;
+    private StreamTestDedupStreamStore dedupStore;
 
     @Parameters
     public static Collection<Object[]> data() {
@@ -129,6 +147,7 @@ public class StreamTest extends AtlasDbTestCase {
 
         compressedStore = StreamTestWithHashStreamStore.of(txManager, StreamTestTableFactory.of());
         maxMemStore = StreamTestMaxMemStreamStore.of(txManager, StreamTestTableFactory.of());
+        dedupStore = StreamTestDedupStreamStore.of(txManager, StreamTestTableFactory.of());
     }
 
     @Test
@@ -585,6 +604,46 @@ public class StreamTest extends AtlasDbTestCase {
         assertNull(sha256HashLongMap.get(hash3));
     }
 
+    @Test
+    public void testStoreMoreStreamsThanAreStoredConcurrently() throws IOException {
+        Map<Long, byte[]> idsToBytes = Maps.newLinkedHashMap();
+        for (int i = 0; i < 6; i++) {
+            idsToBytes.put(timestampService.getFreshTimestamp(),
+                    getIncompressibleBytes(2 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES + i));
+        }
+        Map<Long, InputStream> streams = Maps.transformValues(idsToBytes, ByteArrayInputStream::new);
+
+        Map<Long, Sha256Hash> hashes = txManager.runTaskWithRetry(t -> defaultStore.storeStreams(t, streams));
+
+        for (Map.Entry<Long, byte[]> entry : idsToBytes.entrySet()) {
+            assertEquals(Sha256Hash.computeHash(entry.getValue()), hashes.get(entry.getKey()));
+            verifyLoadStreams(defaultStore, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testStoreStreamWithMoreBlocksThanAreWrittenConcurrently() throws IOException {
+        byte[] bytes = getIncompressibleBytes(10 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES + 1);
+
+        Pair<Long, Sha256Hash> idAndHash = defaultStore.storeStream(new ByteArrayInputStream(bytes));
+
+        assertEquals(Sha256Hash.computeHash(bytes), idAndHash.getRhSide());
+        verifyLoadStreams(defaultStore, idAndHash.getLhSide(), bytes);
+    }
+
+    @Test
+    public void testLoadStreamAsFileInTheTransactionThatStoredIt() throws IOException {
+        byte[] bytes = getIncompressibleBytes(10 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES + 1);
+        long id = timestampService.getFreshTimestamp();
+
+        File file = txManager.runTaskWithRetry(t -> {
+            defaultStore.storeStreams(t, ImmutableMap.of(id, new ByteArrayInputStream(bytes)));
+            return defaultStore.loadStreamAsFile(t, id);
+        });
+
+        assertArrayEquals(bytes, FileUtils.readFileToByteArray(file));
+    }
+
     @Test
     public void testStoreCopy() {
         final byte[] bytes = new byte[2 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES];
@@ -607,6 +666,100 @@ public class StreamTest extends AtlasDbTestCase {
         assertThat(idAndHash1.getLhSide(), not(equalTo(idAndHash2.getLhSide())));   //verify ids are different
     }
 
+    @Test
+    public void testStoreAndLoadDeduplicatedStream() throws IOException {
+        byte[] bytes = getIncompressibleBytes(3 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES + 17);
+        storeAndCheckByteStreams(dedupStore, bytes);
+    }
+
+    @Test
+    public void testSimilarDeduplicatedStreamsShareChunks() throws IOException {
+        byte[] original = getIncompressibleBytes(5 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES);
+        byte[] edited = withEditInTheMiddle(original);
+        byte[] reference = PtBytes.toBytes("ref");
+
+        long originalId = storeStream(dedupStore, original, reference);
+        int chunksOfOriginal = getDedupChunkRows().size();
+        long editedId = storeStream(dedupStore, edited, reference);
+        int newChunksOfEdited = getDedupChunkRows().size() - chunksOfOriginal;
+
+        assertThat(newChunksOfEdited, is(greaterThan(0)));
+        assertThat(newChunksOfEdited, is(lessThan(chunksOfOriginal / 2)));
+        verifyLoadingStreams(dedupStore, originalId, original);
+        verifyLoadingStreams(dedupStore, editedId, edited);
+    }
+
+    @Test
+    public void testDeletingDeduplicatedStreamKeepsChunksSharedWithOtherStreams() throws IOException {
+        byte[] original = getIncompressibleBytes(5 * StreamTestStreamStore.BLOCK_SIZE_IN_BYTES);
+        byte[] edited = withEditInTheMiddle(original);
+        byte[] reference = PtBytes.toBytes("ref");
+        long originalId = storeStream(dedupStore, original, reference);
+        long editedId = storeStream(dedupStore, edited, reference);
+        int chunksOfBoth = getDedupChunkRows().size();
+
+        unmarkAndCleanUpDedupStream(originalId, reference);
+
+        int chunksOfEdited = getDedupChunkRows().size();
+        assertThat(chunksOfEdited, is(lessThan(chunksOfBoth)));
+        assertThat(chunksOfEdited, is(greaterThan(chunksOfBoth / 2)));
+        assertStreamDoesNotExist(dedupStore, originalId);
+        verifyLoadingStreams(dedupStore, editedId, edited);
+
+        unmarkAndCleanUpDedupStream(editedId, reference);
+
+        assertThat(getDedupChunkRows(), is(empty()));
+        assertStreamDoesNotExist(dedupStore, editedId);
+    }
+
+    private static byte[] withEditInTheMiddle(byte[] bytes) {
+        byte[] edited = bytes.clone();
+        edited[edited.length / 2] ^= 1;
+        return edited;
+    }
+
+    private List<byte[]> getDedupChunkRows() {
+        return txManager.runTaskReadOnly(t -> getRowNames(t,
+                StreamTestTableFactory.of().getStreamTestDedupStreamChunkTable(t).getTableRef()));
+    }
+
+    private static List<byte[]> getRowNames(Transaction t, TableReference tableRef) {
+        return BatchingVisitableView.of(t.getRange(tableRef, RangeRequest.all()))
+                .transform(RowResult::getRowName)
+                .immutableCopy();
+    }
+
+    /**
+     * Removes the stream's only reference, then runs the cleanup tasks that the cleaner would run for the cells
+     * deleted along the way: first the one that deletes the unreferenced stream, then the one that deletes the chunks
+     * that no stream refers to any more.
+     */
+    private void unmarkAndCleanUpDedupStream(long streamId, byte[] reference) {
+        StreamTestTableFactory tables = StreamTestTableFactory.of();
+        List<byte[]> chunkIndexRows = txManager.runTaskReadOnly(t -> getRowNames(t,
+                tables.getStreamTestDedupStreamChunkIdxTable(t).getTableRef()));
+        txManager.runTaskWithRetry(t -> {
+            dedupStore.unmarkStreamAsUsed(t, streamId, reference);
+            return null;
+        });
+        txManager.runTaskWithRetry(t -> {
+            byte[] indexRow = StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow.of(streamId).persistToBytes();
+            new StreamTestDedupIndexCleanupTask(Namespace.DEFAULT_NAMESPACE).cellsCleanedUp(
+                    t, ImmutableSet.of(Cell.create(indexRow, reference)));
+            return null;
+        });
+        txManager.runTaskWithRetry(t -> {
+            Set<Cell> chunkIndexCells = chunkIndexRows.stream()
+                    .map(row -> Cell.create(row, StreamTestDedupStreamChunkIdxColumn.of(streamId).persistToBytes()))
+                    .collect(Collectors.toSet());
+            new StreamChunkIndexCleanupTask(
+                    tables.getStreamTestDedupStreamChunkTable(t).getTableRef(),
+                    tables.getStreamTestDedupStreamChunkIdxTable(t).getTableRef())
+                    .cellsCleanedUp(t, chunkIndexCells);
+            return null;
+        });
+    }
+
     @Test
     public void testStreamMetadataConflictDeleteFirst() throws Exception {
         long streamId = timestampService.getFreshTimestamp();
@@ -690,6 +843,11 @@ public class StreamTest extends AtlasDbTestCase {
         assertFalse("This element should have been deleted", getStream(streamId).isPresent());
     }
 
+    private void assertStreamDoesNotExist(PersistentStreamStore store, long streamId) {
+        Optional<InputStream> stream = txManager.runTaskThrowOnConflict(t -> store.loadSingleStream(t, streamId));
+        assertFalse("This element should have been deleted", stream.isPresent());
+    }
+
     private void runConflictingTasksConcurrently(long streamId, TwoConflictingTasks tasks) throws InterruptedException {
         final CountDownLatch firstLatch = new CountDownLatch(1);
         final CountDownLatch secondLatch = new CountDownLatch(1);
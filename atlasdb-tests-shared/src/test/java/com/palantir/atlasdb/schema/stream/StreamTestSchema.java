@@ -77,6 +77,11 @@ public class StreamTestSchema implements AtlasSchema {
                     .inMemoryThreshold(StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD)
                     .build());
 
+        schema.addStreamStoreDefinition(
+                new StreamStoreDefinitionBuilder("stream_test_dedup", "stream_test_dedup", ValueType.VAR_LONG)
+                    .deduplicateChunks()
+                    .build());
+
         return schema;
     }
 
@@ -0,0 +1,36 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.util.Set;
+
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.cleaner.api.OnCleanupTask;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.transaction.api.Transaction;
+
+public class StreamTestDedupIndexCleanupTask implements OnCleanupTask {
+
+    private final StreamTestTableFactory tables;
+
+    public StreamTestDedupIndexCleanupTask(Namespace namespace) {
+        tables = StreamTestTableFactory.of(namespace);
+    }
+
+    @Override
+    public boolean cellsCleanedUp(Transaction t, Set<Cell> cells) {
+        StreamTestDedupStreamIdxTable usersIndex = tables.getStreamTestDedupStreamIdxTable(t);
+        Set<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow> rows = Sets.newHashSetWithExpectedSize(cells.size());
+        for (Cell cell : cells) {
+            rows.add(StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(cell.getRowName()));
+        }
+        Multimap<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue> rowsInDb = usersIndex.getRowsMultimap(rows);
+        Set<Long> toDelete = Sets.newHashSetWithExpectedSize(rows.size() - rowsInDb.keySet().size());
+        for (StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow rowToDelete : Sets.difference(rows, rowsInDb.keySet())) {
+            toDelete.add(rowToDelete.getId());
+        }
+        StreamTestDedupStreamStore.of(tables).deleteStreams(t, toDelete);
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.cleaner.api.OnCleanupTask;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.transaction.api.Transaction;
+
+public class StreamTestDedupMetadataCleanupTask implements OnCleanupTask {
+
+    private final StreamTestTableFactory tables;
+
+    public StreamTestDedupMetadataCleanupTask(Namespace namespace) {
+        tables = StreamTestTableFactory.of(namespace);
+    }
+
+    @Override
+    public boolean cellsCleanedUp(Transaction t, Set<Cell> cells) {
+        StreamTestDedupStreamMetadataTable metaTable = tables.getStreamTestDedupStreamMetadataTable(t);
+        Collection<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> rows = Lists.newArrayListWithCapacity(cells.size());
+        for (Cell cell : cells) {
+            rows.add(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.BYTES_HYDRATOR.hydrateFromBytes(cell.getRowName()));
+        }
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> currentMetadata = metaTable.getMetadatas(rows);
+        Set<Long> toDelete = Sets.newHashSet();
+        for (Map.Entry<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> e : currentMetadata.entrySet()) {
+            if (e.getValue().getStatus() != Status.STORED) {
+                toDelete.add(e.getKey().getId());
+            }
+        }
+        StreamTestDedupStreamStore.of(tables).deleteStreams(t, toDelete);
+        return false;
+    }
+}
\ No newline at end of file
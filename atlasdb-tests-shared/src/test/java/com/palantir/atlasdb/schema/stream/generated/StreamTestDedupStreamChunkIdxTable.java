@@ -0,0 +1,752 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import javax.annotation.Generated;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelections;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.Prefix;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedExpiringSet;
+import com.palantir.atlasdb.table.api.AtlasDbNamedMutableTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedPersistentSet;
+import com.palantir.atlasdb.table.api.ColumnValue;
+import com.palantir.atlasdb.table.api.TypedRowResult;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.table.generation.ColumnValues;
+import com.palantir.atlasdb.table.generation.Descending;
+import com.palantir.atlasdb.table.generation.NamedColumnValue;
+import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
+import com.palantir.atlasdb.transaction.api.ConstraintCheckingTransaction;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.AbortingVisitor;
+import com.palantir.common.base.AbortingVisitors;
+import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.BatchingVisitableView;
+import com.palantir.common.base.BatchingVisitables;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.collect.IterableView;
+import com.palantir.common.persist.Persistable;
+import com.palantir.common.persist.Persistable.Hydrator;
+import com.palantir.common.persist.Persistables;
+import com.palantir.util.AssertUtils;
+import com.palantir.util.crypto.Sha256Hash;
+
+@Generated("com.palantir.atlasdb.table.description.render.TableRenderer")
+@SuppressWarnings("all")
+public final class StreamTestDedupStreamChunkIdxTable implements
+        AtlasDbDynamicMutablePersistentTable<StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxRow,
+                                                StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxColumn,
+                                                StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxColumnValue,
+                                                StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxRowResult> {
+    private final Transaction t;
+    private final List<StreamTestDedupStreamChunkIdxTrigger> triggers;
+    private final static String rawTableName = "stream_test_dedup_stream_chunk_idx";
+    private final TableReference tableRef;
+    private final static ColumnSelection allColumns = ColumnSelection.all();
+
+    static StreamTestDedupStreamChunkIdxTable of(Transaction t, Namespace namespace) {
+        return new StreamTestDedupStreamChunkIdxTable(t, namespace, ImmutableList.<StreamTestDedupStreamChunkIdxTrigger>of());
+    }
+
+    static StreamTestDedupStreamChunkIdxTable of(Transaction t, Namespace namespace, StreamTestDedupStreamChunkIdxTrigger trigger, StreamTestDedupStreamChunkIdxTrigger... triggers) {
+        return new StreamTestDedupStreamChunkIdxTable(t, namespace, ImmutableList.<StreamTestDedupStreamChunkIdxTrigger>builder().add(trigger).add(triggers).build());
+    }
+
+    static StreamTestDedupStreamChunkIdxTable of(Transaction t, Namespace namespace, List<StreamTestDedupStreamChunkIdxTrigger> triggers) {
+        return new StreamTestDedupStreamChunkIdxTable(t, namespace, triggers);
+    }
+
+    private StreamTestDedupStreamChunkIdxTable(Transaction t, Namespace namespace, List<StreamTestDedupStreamChunkIdxTrigger> triggers) {
+        this.t = t;
+        this.tableRef = TableReference.create(namespace, rawTableName);
+        this.triggers = triggers;
+    }
+
+    public static String getRawTableName() {
+        return rawTableName;
+    }
+
+    public TableReference getTableRef() {
+        return tableRef;
+    }
+
+    public String getTableName() {
+        return tableRef.getQualifiedName();
+    }
+
+    public Namespace getNamespace() {
+        return tableRef.getNamespace();
+    }
+
+    /**
+     * <pre>
+     * StreamTestDedupStreamChunkIdxRow {
+     *   {@literal Sha256Hash hash};
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamChunkIdxRow implements Persistable, Comparable<StreamTestDedupStreamChunkIdxRow> {
+        private final Sha256Hash hash;
+
+        public static StreamTestDedupStreamChunkIdxRow of(Sha256Hash hash) {
+            return new StreamTestDedupStreamChunkIdxRow(hash);
+        }
+
+        private StreamTestDedupStreamChunkIdxRow(Sha256Hash hash) {
+            this.hash = hash;
+        }
+
+        public Sha256Hash getHash() {
+            return hash;
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxRow, Sha256Hash> getHashFun() {
+            return new Function<StreamTestDedupStreamChunkIdxRow, Sha256Hash>() {
+                @Override
+                public Sha256Hash apply(StreamTestDedupStreamChunkIdxRow row) {
+                    return row.hash;
+                }
+            };
+        }
+
+        public static Function<Sha256Hash, StreamTestDedupStreamChunkIdxRow> fromHashFun() {
+            return new Function<Sha256Hash, StreamTestDedupStreamChunkIdxRow>() {
+                @Override
+                public StreamTestDedupStreamChunkIdxRow apply(Sha256Hash row) {
+                    return StreamTestDedupStreamChunkIdxRow.of(row);
+                }
+            };
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            byte[] hashBytes = hash.getBytes();
+            return EncodingUtils.add(hashBytes);
+        }
+
+        public static final Hydrator<StreamTestDedupStreamChunkIdxRow> BYTES_HYDRATOR = new Hydrator<StreamTestDedupStreamChunkIdxRow>() {
+            @Override
+            public StreamTestDedupStreamChunkIdxRow hydrateFromBytes(byte[] __input) {
+                int __index = 0;
+                Sha256Hash hash = new Sha256Hash(EncodingUtils.get32Bytes(__input, __index));
+                __index += 32;
+                return new StreamTestDedupStreamChunkIdxRow(hash);
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("hash", hash)
+                .toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            StreamTestDedupStreamChunkIdxRow other = (StreamTestDedupStreamChunkIdxRow) obj;
+            return Objects.equal(hash, other.hash);
+        }
+
+        @SuppressWarnings("ArrayHashCode")
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(hash);
+        }
+
+        @Override
+        public int compareTo(StreamTestDedupStreamChunkIdxRow o) {
+            return ComparisonChain.start()
+                .compare(this.hash, o.hash)
+                .result();
+        }
+    }
+
+    /**
+     * <pre>
+     * StreamTestDedupStreamChunkIdxColumn {
+     *   {@literal Long streamId};
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamChunkIdxColumn implements Persistable, Comparable<StreamTestDedupStreamChunkIdxColumn> {
+        private final long streamId;
+
+        public static StreamTestDedupStreamChunkIdxColumn of(long streamId) {
+            return new StreamTestDedupStreamChunkIdxColumn(streamId);
+        }
+
+        private StreamTestDedupStreamChunkIdxColumn(long streamId) {
+            this.streamId = streamId;
+        }
+
+        public long getStreamId() {
+            return streamId;
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxColumn, Long> getStreamIdFun() {
+            return new Function<StreamTestDedupStreamChunkIdxColumn, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamChunkIdxColumn row) {
+                    return row.streamId;
+                }
+            };
+        }
+
+        public static Function<Long, StreamTestDedupStreamChunkIdxColumn> fromStreamIdFun() {
+            return new Function<Long, StreamTestDedupStreamChunkIdxColumn>() {
+                @Override
+                public StreamTestDedupStreamChunkIdxColumn apply(Long row) {
+                    return StreamTestDedupStreamChunkIdxColumn.of(row);
+                }
+            };
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            byte[] streamIdBytes = EncodingUtils.encodeUnsignedVarLong(streamId);
+            return EncodingUtils.add(streamIdBytes);
+        }
+
+        public static final Hydrator<StreamTestDedupStreamChunkIdxColumn> BYTES_HYDRATOR = new Hydrator<StreamTestDedupStreamChunkIdxColumn>() {
+            @Override
+            public StreamTestDedupStreamChunkIdxColumn hydrateFromBytes(byte[] __input) {
+                int __index = 0;
+                Long streamId = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                __index += EncodingUtils.sizeOfUnsignedVarLong(streamId);
+                return new StreamTestDedupStreamChunkIdxColumn(streamId);
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("streamId", streamId)
+                .toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            StreamTestDedupStreamChunkIdxColumn other = (StreamTestDedupStreamChunkIdxColumn) obj;
+            return Objects.equal(streamId, other.streamId);
+        }
+
+        @SuppressWarnings("ArrayHashCode")
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(streamId);
+        }
+
+        @Override
+        public int compareTo(StreamTestDedupStreamChunkIdxColumn o) {
+            return ComparisonChain.start()
+                .compare(this.streamId, o.streamId)
+                .result();
+        }
+    }
+
+    public interface StreamTestDedupStreamChunkIdxTrigger {
+        public void putStreamTestDedupStreamChunkIdx(Multimap<StreamTestDedupStreamChunkIdxRow, ? extends StreamTestDedupStreamChunkIdxColumnValue> newRows);
+    }
+
+    /**
+     * <pre>
+     * Column name description {
+     *   {@literal Long streamId};
+     * }
+     * Column value description {
+     *   type: Long;
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamChunkIdxColumnValue implements ColumnValue<Long> {
+        private final StreamTestDedupStreamChunkIdxColumn columnName;
+        private final Long value;
+
+        public static StreamTestDedupStreamChunkIdxColumnValue of(StreamTestDedupStreamChunkIdxColumn columnName, Long value) {
+            return new StreamTestDedupStreamChunkIdxColumnValue(columnName, value);
+        }
+
+        private StreamTestDedupStreamChunkIdxColumnValue(StreamTestDedupStreamChunkIdxColumn columnName, Long value) {
+            this.columnName = columnName;
+            this.value = value;
+        }
+
+        public StreamTestDedupStreamChunkIdxColumn getColumnName() {
+            return columnName;
+        }
+
+        @Override
+        public Long getValue() {
+            return value;
+        }
+
+        @Override
+        public byte[] persistColumnName() {
+            return columnName.persistToBytes();
+        }
+
+        @Override
+        public byte[] persistValue() {
+            byte[] bytes = EncodingUtils.encodeUnsignedVarLong(value);
+            return CompressionUtils.compress(bytes, Compression.NONE);
+        }
+
+        public static Long hydrateValue(byte[] bytes) {
+            bytes = CompressionUtils.decompress(bytes, Compression.NONE);
+            return EncodingUtils.decodeUnsignedVarLong(bytes, 0);
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxColumnValue, StreamTestDedupStreamChunkIdxColumn> getColumnNameFun() {
+            return new Function<StreamTestDedupStreamChunkIdxColumnValue, StreamTestDedupStreamChunkIdxColumn>() {
+                @Override
+                public StreamTestDedupStreamChunkIdxColumn apply(StreamTestDedupStreamChunkIdxColumnValue columnValue) {
+                    return columnValue.getColumnName();
+                }
+            };
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxColumnValue, Long> getValueFun() {
+            return new Function<StreamTestDedupStreamChunkIdxColumnValue, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamChunkIdxColumnValue columnValue) {
+                    return columnValue.getValue();
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("ColumnName", this.columnName)
+                .add("Value", this.value)
+                .toString();
+        }
+    }
+
+    public static final class StreamTestDedupStreamChunkIdxRowResult implements TypedRowResult {
+        private final StreamTestDedupStreamChunkIdxRow rowName;
+        private final ImmutableSet<StreamTestDedupStreamChunkIdxColumnValue> columnValues;
+
+        public static StreamTestDedupStreamChunkIdxRowResult of(RowResult<byte[]> rowResult) {
+            StreamTestDedupStreamChunkIdxRow rowName = StreamTestDedupStreamChunkIdxRow.BYTES_HYDRATOR.hydrateFromBytes(rowResult.getRowName());
+            Set<StreamTestDedupStreamChunkIdxColumnValue> columnValues = Sets.newHashSetWithExpectedSize(rowResult.getColumns().size());
+            for (Entry<byte[], byte[]> e : rowResult.getColumns().entrySet()) {
+                StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long value = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(e.getValue());
+                columnValues.add(StreamTestDedupStreamChunkIdxColumnValue.of(col, value));
+            }
+            return new StreamTestDedupStreamChunkIdxRowResult(rowName, ImmutableSet.copyOf(columnValues));
+        }
+
+        private StreamTestDedupStreamChunkIdxRowResult(StreamTestDedupStreamChunkIdxRow rowName, ImmutableSet<StreamTestDedupStreamChunkIdxColumnValue> columnValues) {
+            this.rowName = rowName;
+            this.columnValues = columnValues;
+        }
+
+        @Override
+        public StreamTestDedupStreamChunkIdxRow getRowName() {
+            return rowName;
+        }
+
+        public Set<StreamTestDedupStreamChunkIdxColumnValue> getColumnValues() {
+            return columnValues;
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxRowResult, StreamTestDedupStreamChunkIdxRow> getRowNameFun() {
+            return new Function<StreamTestDedupStreamChunkIdxRowResult, StreamTestDedupStreamChunkIdxRow>() {
+                @Override
+                public StreamTestDedupStreamChunkIdxRow apply(StreamTestDedupStreamChunkIdxRowResult rowResult) {
+                    return rowResult.rowName;
+                }
+            };
+        }
+
+        public static Function<StreamTestDedupStreamChunkIdxRowResult, ImmutableSet<StreamTestDedupStreamChunkIdxColumnValue>> getColumnValuesFun() {
+            return new Function<StreamTestDedupStreamChunkIdxRowResult, ImmutableSet<StreamTestDedupStreamChunkIdxColumnValue>>() {
+                @Override
+                public ImmutableSet<StreamTestDedupStreamChunkIdxColumnValue> apply(StreamTestDedupStreamChunkIdxRowResult rowResult) {
+                    return rowResult.columnValues;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("RowName", getRowName())
+                .add("ColumnValues", getColumnValues())
+                .toString();
+        }
+    }
+
+    @Override
+    public void delete(StreamTestDedupStreamChunkIdxRow row, StreamTestDedupStreamChunkIdxColumn column) {
+        delete(ImmutableMultimap.of(row, column));
+    }
+
+    @Override
+    public void delete(Iterable<StreamTestDedupStreamChunkIdxRow> rows) {
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> toRemove = HashMultimap.create();
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> result = getRowsMultimap(rows);
+        for (Entry<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> e : result.entries()) {
+            toRemove.put(e.getKey(), e.getValue().getColumnName());
+        }
+        delete(toRemove);
+    }
+
+    @Override
+    public void delete(Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> values) {
+        t.delete(tableRef, ColumnValues.toCells(values));
+    }
+
+    @Override
+    public void put(StreamTestDedupStreamChunkIdxRow rowName, Iterable<StreamTestDedupStreamChunkIdxColumnValue> values) {
+        put(ImmutableMultimap.<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    @Override
+    public void put(StreamTestDedupStreamChunkIdxRow rowName, StreamTestDedupStreamChunkIdxColumnValue... values) {
+        put(ImmutableMultimap.<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    @Override
+    public void put(Multimap<StreamTestDedupStreamChunkIdxRow, ? extends StreamTestDedupStreamChunkIdxColumnValue> values) {
+        t.useTable(tableRef, this);
+        t.put(tableRef, ColumnValues.toCellValues(values));
+        for (StreamTestDedupStreamChunkIdxTrigger trigger : triggers) {
+            trigger.putStreamTestDedupStreamChunkIdx(values);
+        }
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(StreamTestDedupStreamChunkIdxRow rowName, Iterable<StreamTestDedupStreamChunkIdxColumnValue> values) {
+        putUnlessExists(ImmutableMultimap.<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(StreamTestDedupStreamChunkIdxRow rowName, StreamTestDedupStreamChunkIdxColumnValue... values) {
+        putUnlessExists(ImmutableMultimap.<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(Multimap<StreamTestDedupStreamChunkIdxRow, ? extends StreamTestDedupStreamChunkIdxColumnValue> rows) {
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> toGet = Multimaps.transformValues(rows, StreamTestDedupStreamChunkIdxColumnValue.getColumnNameFun());
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> existing = get(toGet);
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> toPut = HashMultimap.create();
+        for (Entry<StreamTestDedupStreamChunkIdxRow, ? extends StreamTestDedupStreamChunkIdxColumnValue> entry : rows.entries()) {
+            if (!existing.containsEntry(entry.getKey(), entry.getValue())) {
+                toPut.put(entry.getKey(), entry.getValue());
+            }
+        }
+        put(toPut);
+    }
+
+    @Override
+    public void touch(Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> values) {
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> currentValues = get(values);
+        put(currentValues);
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> toDelete = HashMultimap.create(values);
+        for (Map.Entry<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> e : currentValues.entries()) {
+            toDelete.remove(e.getKey(), e.getValue().getColumnName());
+        }
+        delete(toDelete);
+    }
+
+    public static ColumnSelection getColumnSelection(Collection<StreamTestDedupStreamChunkIdxColumn> cols) {
+        return ColumnSelection.create(Collections2.transform(cols, Persistables.persistToBytesFunction()));
+    }
+
+    public static ColumnSelection getColumnSelection(StreamTestDedupStreamChunkIdxColumn... cols) {
+        return getColumnSelection(Arrays.asList(cols));
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> get(Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumn> cells) {
+        Set<Cell> rawCells = ColumnValues.toCells(cells);
+        Map<Cell, byte[]> rawResults = t.get(tableRef, rawCells);
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> rowMap = HashMultimap.create();
+        for (Entry<Cell, byte[]> e : rawResults.entrySet()) {
+            if (e.getValue().length > 0) {
+                StreamTestDedupStreamChunkIdxRow row = StreamTestDedupStreamChunkIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getRowName());
+                StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getColumnName());
+                Long val = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(e.getValue());
+                rowMap.put(row, StreamTestDedupStreamChunkIdxColumnValue.of(col, val));
+            }
+        }
+        return rowMap;
+    }
+
+    @Override
+    public List<StreamTestDedupStreamChunkIdxColumnValue> getRowColumns(StreamTestDedupStreamChunkIdxRow row) {
+        return getRowColumns(row, allColumns);
+    }
+
+    @Override
+    public List<StreamTestDedupStreamChunkIdxColumnValue> getRowColumns(StreamTestDedupStreamChunkIdxRow row, ColumnSelection columns) {
+        byte[] bytes = row.persistToBytes();
+        RowResult<byte[]> rowResult = t.getRows(tableRef, ImmutableSet.of(bytes), columns).get(bytes);
+        if (rowResult == null) {
+            return ImmutableList.of();
+        } else {
+            List<StreamTestDedupStreamChunkIdxColumnValue> ret = Lists.newArrayListWithCapacity(rowResult.getColumns().size());
+            for (Entry<byte[], byte[]> e : rowResult.getColumns().entrySet()) {
+                StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long val = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(e.getValue());
+                ret.add(StreamTestDedupStreamChunkIdxColumnValue.of(col, val));
+            }
+            return ret;
+        }
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> getRowsMultimap(Iterable<StreamTestDedupStreamChunkIdxRow> rows) {
+        return getRowsMultimapInternal(rows, allColumns);
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> getRowsMultimap(Iterable<StreamTestDedupStreamChunkIdxRow> rows, ColumnSelection columns) {
+        return getRowsMultimapInternal(rows, columns);
+    }
+
+    private Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> getRowsMultimapInternal(Iterable<StreamTestDedupStreamChunkIdxRow> rows, ColumnSelection columns) {
+        SortedMap<byte[], RowResult<byte[]>> results = t.getRows(tableRef, Persistables.persistAll(rows), columns);
+        return getRowMapFromRowResults(results.values());
+    }
+
+    private static Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> getRowMapFromRowResults(Collection<RowResult<byte[]>> rowResults) {
+        Multimap<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue> rowMap = HashMultimap.create();
+        for (RowResult<byte[]> result : rowResults) {
+            StreamTestDedupStreamChunkIdxRow row = StreamTestDedupStreamChunkIdxRow.BYTES_HYDRATOR.hydrateFromBytes(result.getRowName());
+            for (Entry<byte[], byte[]> e : result.getColumns().entrySet()) {
+                StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long val = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(e.getValue());
+                rowMap.put(row, StreamTestDedupStreamChunkIdxColumnValue.of(col, val));
+            }
+        }
+        return rowMap;
+    }
+
+    @Override
+    public Map<StreamTestDedupStreamChunkIdxRow, BatchingVisitable<StreamTestDedupStreamChunkIdxColumnValue>> getRowsColumnRange(Iterable<StreamTestDedupStreamChunkIdxRow> rows, BatchColumnRangeSelection columnRangeSelection) {
+        Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> results = t.getRowsColumnRange(tableRef, Persistables.persistAll(rows), columnRangeSelection);
+        Map<StreamTestDedupStreamChunkIdxRow, BatchingVisitable<StreamTestDedupStreamChunkIdxColumnValue>> transformed = Maps.newHashMapWithExpectedSize(results.size());
+        for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> e : results.entrySet()) {
+            StreamTestDedupStreamChunkIdxRow row = StreamTestDedupStreamChunkIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+            BatchingVisitable<StreamTestDedupStreamChunkIdxColumnValue> bv = BatchingVisitables.transform(e.getValue(), result -> {
+                StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(result.getKey().getColumnName());
+                Long val = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(result.getValue());
+                return StreamTestDedupStreamChunkIdxColumnValue.of(col, val);
+            });
+            transformed.put(row, bv);
+        }
+        return transformed;
+    }
+
+    @Override
+    public Iterator<Map.Entry<StreamTestDedupStreamChunkIdxRow, StreamTestDedupStreamChunkIdxColumnValue>> getRowsColumnRange(Iterable<StreamTestDedupStreamChunkIdxRow> rows, ColumnRangeSelection columnRangeSelection, int batchHint) {
+        Iterator<Map.Entry<Cell, byte[]>> results = t.getRowsColumnRange(getTableRef(), Persistables.persistAll(rows), columnRangeSelection, batchHint);
+        return Iterators.transform(results, e -> {
+            StreamTestDedupStreamChunkIdxRow row = StreamTestDedupStreamChunkIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getRowName());
+            StreamTestDedupStreamChunkIdxColumn col = StreamTestDedupStreamChunkIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getColumnName());
+            Long val = StreamTestDedupStreamChunkIdxColumnValue.hydrateValue(e.getValue());
+            StreamTestDedupStreamChunkIdxColumnValue colValue = StreamTestDedupStreamChunkIdxColumnValue.of(col, val);
+            return Maps.immutableEntry(row, colValue);
+        });
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamChunkIdxRowResult> getAllRowsUnordered() {
+        return getAllRowsUnordered(allColumns);
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamChunkIdxRowResult> getAllRowsUnordered(ColumnSelection columns) {
+        return BatchingVisitables.transform(t.getRange(tableRef, RangeRequest.builder().retainColumns(columns).build()),
+                new Function<RowResult<byte[]>, StreamTestDedupStreamChunkIdxRowResult>() {
+            @Override
+            public StreamTestDedupStreamChunkIdxRowResult apply(RowResult<byte[]> input) {
+                return StreamTestDedupStreamChunkIdxRowResult.of(input);
+            }
+        });
+    }
+
+    @Override
+    public List<String> findConstraintFailures(Map<Cell, byte[]> writes,
+                                               ConstraintCheckingTransaction transaction,
+                                               AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public List<String> findConstraintFailuresNoRead(Map<Cell, byte[]> writes,
+                                                     AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    /**
+     * This exists to avoid unused import warnings
+     * {@link AbortingVisitor}
+     * {@link AbortingVisitors}
+     * {@link ArrayListMultimap}
+     * {@link Arrays}
+     * {@link AssertUtils}
+     * {@link AtlasDbConstraintCheckingMode}
+     * {@link AtlasDbDynamicMutableExpiringTable}
+     * {@link AtlasDbDynamicMutablePersistentTable}
+     * {@link AtlasDbMutableExpiringTable}
+     * {@link AtlasDbMutablePersistentTable}
+     * {@link AtlasDbNamedExpiringSet}
+     * {@link AtlasDbNamedMutableTable}
+     * {@link AtlasDbNamedPersistentSet}
+     * {@link BatchColumnRangeSelection}
+     * {@link BatchingVisitable}
+     * {@link BatchingVisitableView}
+     * {@link BatchingVisitables}
+     * {@link BiFunction}
+     * {@link Bytes}
+     * {@link Callable}
+     * {@link Cell}
+     * {@link Cells}
+     * {@link Collection}
+     * {@link Collections2}
+     * {@link ColumnRangeSelection}
+     * {@link ColumnRangeSelections}
+     * {@link ColumnSelection}
+     * {@link ColumnValue}
+     * {@link ColumnValues}
+     * {@link ComparisonChain}
+     * {@link Compression}
+     * {@link CompressionUtils}
+     * {@link ConstraintCheckingTransaction}
+     * {@link Descending}
+     * {@link EncodingUtils}
+     * {@link Entry}
+     * {@link EnumSet}
+     * {@link Function}
+     * {@link Generated}
+     * {@link HashMultimap}
+     * {@link HashSet}
+     * {@link Hashing}
+     * {@link Hydrator}
+     * {@link ImmutableList}
+     * {@link ImmutableMap}
+     * {@link ImmutableMultimap}
+     * {@link ImmutableSet}
+     * {@link InvalidProtocolBufferException}
+     * {@link IterableView}
+     * {@link Iterables}
+     * {@link Iterator}
+     * {@link Iterators}
+     * {@link Joiner}
+     * {@link List}
+     * {@link Lists}
+     * {@link Map}
+     * {@link Maps}
+     * {@link MoreObjects}
+     * {@link Multimap}
+     * {@link Multimaps}
+     * {@link NamedColumnValue}
+     * {@link Namespace}
+     * {@link Objects}
+     * {@link Optional}
+     * {@link Persistable}
+     * {@link Persistables}
+     * {@link Prefix}
+     * {@link PtBytes}
+     * {@link RangeRequest}
+     * {@link RowResult}
+     * {@link Set}
+     * {@link Sets}
+     * {@link Sha256Hash}
+     * {@link SortedMap}
+     * {@link Stream}
+     * {@link Supplier}
+     * {@link TableReference}
+     * {@link Throwables}
+     * {@link TimeUnit}
+     * {@link Transaction}
+     * {@link TypedRowResult}
+     * {@link UUID}
+     * {@link UnsignedBytes}
+     * {@link ValueType}
+     */
+    static String __CLASS_HASH = "ipWv83JxAuyVr9SlBPcCMw==";
+}
@@ -0,0 +1,752 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import javax.annotation.Generated;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelections;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.Prefix;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedExpiringSet;
+import com.palantir.atlasdb.table.api.AtlasDbNamedMutableTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedPersistentSet;
+import com.palantir.atlasdb.table.api.ColumnValue;
+import com.palantir.atlasdb.table.api.TypedRowResult;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.table.generation.ColumnValues;
+import com.palantir.atlasdb.table.generation.Descending;
+import com.palantir.atlasdb.table.generation.NamedColumnValue;
+import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
+import com.palantir.atlasdb.transaction.api.ConstraintCheckingTransaction;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.AbortingVisitor;
+import com.palantir.common.base.AbortingVisitors;
+import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.BatchingVisitableView;
+import com.palantir.common.base.BatchingVisitables;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.collect.IterableView;
+import com.palantir.common.persist.Persistable;
+import com.palantir.common.persist.Persistable.Hydrator;
+import com.palantir.common.persist.Persistables;
+import com.palantir.util.AssertUtils;
+import com.palantir.util.crypto.Sha256Hash;
+
+@Generated("com.palantir.atlasdb.table.description.render.TableRenderer")
+@SuppressWarnings("all")
+public final class StreamTestDedupStreamIdxTable implements
+        AtlasDbDynamicMutablePersistentTable<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow,
+                                                StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn,
+                                                StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue,
+                                                StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRowResult> {
+    private final Transaction t;
+    private final List<StreamTestDedupStreamIdxTrigger> triggers;
+    private final static String rawTableName = "stream_test_dedup_stream_idx";
+    private final TableReference tableRef;
+    private final static ColumnSelection allColumns = ColumnSelection.all();
+
+    static StreamTestDedupStreamIdxTable of(Transaction t, Namespace namespace) {
+        return new StreamTestDedupStreamIdxTable(t, namespace, ImmutableList.<StreamTestDedupStreamIdxTrigger>of());
+    }
+
+    static StreamTestDedupStreamIdxTable of(Transaction t, Namespace namespace, StreamTestDedupStreamIdxTrigger trigger, StreamTestDedupStreamIdxTrigger... triggers) {
+        return new StreamTestDedupStreamIdxTable(t, namespace, ImmutableList.<StreamTestDedupStreamIdxTrigger>builder().add(trigger).add(triggers).build());
+    }
+
+    static StreamTestDedupStreamIdxTable of(Transaction t, Namespace namespace, List<StreamTestDedupStreamIdxTrigger> triggers) {
+        return new StreamTestDedupStreamIdxTable(t, namespace, triggers);
+    }
+
+    private StreamTestDedupStreamIdxTable(Transaction t, Namespace namespace, List<StreamTestDedupStreamIdxTrigger> triggers) {
+        this.t = t;
+        this.tableRef = TableReference.create(namespace, rawTableName);
+        this.triggers = triggers;
+    }
+
+    public static String getRawTableName() {
+        return rawTableName;
+    }
+
+    public TableReference getTableRef() {
+        return tableRef;
+    }
+
+    public String getTableName() {
+        return tableRef.getQualifiedName();
+    }
+
+    public Namespace getNamespace() {
+        return tableRef.getNamespace();
+    }
+
+    /**
+     * <pre>
+     * StreamTestDedupStreamIdxRow {
+     *   {@literal Long id};
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamIdxRow implements Persistable, Comparable<StreamTestDedupStreamIdxRow> {
+        private final long id;
+
+        public static StreamTestDedupStreamIdxRow of(long id) {
+            return new StreamTestDedupStreamIdxRow(id);
+        }
+
+        private StreamTestDedupStreamIdxRow(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public static Function<StreamTestDedupStreamIdxRow, Long> getIdFun() {
+            return new Function<StreamTestDedupStreamIdxRow, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamIdxRow row) {
+                    return row.id;
+                }
+            };
+        }
+
+        public static Function<Long, StreamTestDedupStreamIdxRow> fromIdFun() {
+            return new Function<Long, StreamTestDedupStreamIdxRow>() {
+                @Override
+                public StreamTestDedupStreamIdxRow apply(Long row) {
+                    return StreamTestDedupStreamIdxRow.of(row);
+                }
+            };
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
+            return EncodingUtils.add(idBytes);
+        }
+
+        public static final Hydrator<StreamTestDedupStreamIdxRow> BYTES_HYDRATOR = new Hydrator<StreamTestDedupStreamIdxRow>() {
+            @Override
+            public StreamTestDedupStreamIdxRow hydrateFromBytes(byte[] __input) {
+                int __index = 0;
+                Long id = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                __index += EncodingUtils.sizeOfUnsignedVarLong(id);
+                return new StreamTestDedupStreamIdxRow(id);
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("id", id)
+                .toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            StreamTestDedupStreamIdxRow other = (StreamTestDedupStreamIdxRow) obj;
+            return Objects.equal(id, other.id);
+        }
+
+        @SuppressWarnings("ArrayHashCode")
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(id);
+        }
+
+        @Override
+        public int compareTo(StreamTestDedupStreamIdxRow o) {
+            return ComparisonChain.start()
+                .compare(this.id, o.id)
+                .result();
+        }
+    }
+
+    /**
+     * <pre>
+     * StreamTestDedupStreamIdxColumn {
+     *   {@literal byte[] reference};
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamIdxColumn implements Persistable, Comparable<StreamTestDedupStreamIdxColumn> {
+        private final byte[] reference;
+
+        public static StreamTestDedupStreamIdxColumn of(byte[] reference) {
+            return new StreamTestDedupStreamIdxColumn(reference);
+        }
+
+        private StreamTestDedupStreamIdxColumn(byte[] reference) {
+            this.reference = reference;
+        }
+
+        public byte[] getReference() {
+            return reference;
+        }
+
+        public static Function<StreamTestDedupStreamIdxColumn, byte[]> getReferenceFun() {
+            return new Function<StreamTestDedupStreamIdxColumn, byte[]>() {
+                @Override
+                public byte[] apply(StreamTestDedupStreamIdxColumn row) {
+                    return row.reference;
+                }
+            };
+        }
+
+        public static Function<byte[], StreamTestDedupStreamIdxColumn> fromReferenceFun() {
+            return new Function<byte[], StreamTestDedupStreamIdxColumn>() {
+                @Override
+                public StreamTestDedupStreamIdxColumn apply(byte[] row) {
+                    return StreamTestDedupStreamIdxColumn.of(row);
+                }
+            };
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            byte[] referenceBytes = EncodingUtils.encodeSizedBytes(reference);
+            return EncodingUtils.add(referenceBytes);
+        }
+
+        public static final Hydrator<StreamTestDedupStreamIdxColumn> BYTES_HYDRATOR = new Hydrator<StreamTestDedupStreamIdxColumn>() {
+            @Override
+            public StreamTestDedupStreamIdxColumn hydrateFromBytes(byte[] __input) {
+                int __index = 0;
+                byte[] reference = EncodingUtils.decodeSizedBytes(__input, __index);
+                __index += EncodingUtils.sizeOfSizedBytes(reference);
+                return new StreamTestDedupStreamIdxColumn(reference);
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("reference", reference)
+                .toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            StreamTestDedupStreamIdxColumn other = (StreamTestDedupStreamIdxColumn) obj;
+            return Arrays.equals(reference, other.reference);
+        }
+
+        @SuppressWarnings("ArrayHashCode")
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(reference);
+        }
+
+        @Override
+        public int compareTo(StreamTestDedupStreamIdxColumn o) {
+            return ComparisonChain.start()
+                .compare(this.reference, o.reference, UnsignedBytes.lexicographicalComparator())
+                .result();
+        }
+    }
+
+    public interface StreamTestDedupStreamIdxTrigger {
+        public void putStreamTestDedupStreamIdx(Multimap<StreamTestDedupStreamIdxRow, ? extends StreamTestDedupStreamIdxColumnValue> newRows);
+    }
+
+    /**
+     * <pre>
+     * Column name description {
+     *   {@literal byte[] reference};
+     * }
+     * Column value description {
+     *   type: Long;
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamIdxColumnValue implements ColumnValue<Long> {
+        private final StreamTestDedupStreamIdxColumn columnName;
+        private final Long value;
+
+        public static StreamTestDedupStreamIdxColumnValue of(StreamTestDedupStreamIdxColumn columnName, Long value) {
+            return new StreamTestDedupStreamIdxColumnValue(columnName, value);
+        }
+
+        private StreamTestDedupStreamIdxColumnValue(StreamTestDedupStreamIdxColumn columnName, Long value) {
+            this.columnName = columnName;
+            this.value = value;
+        }
+
+        public StreamTestDedupStreamIdxColumn getColumnName() {
+            return columnName;
+        }
+
+        @Override
+        public Long getValue() {
+            return value;
+        }
+
+        @Override
+        public byte[] persistColumnName() {
+            return columnName.persistToBytes();
+        }
+
+        @Override
+        public byte[] persistValue() {
+            byte[] bytes = EncodingUtils.encodeUnsignedVarLong(value);
+            return CompressionUtils.compress(bytes, Compression.NONE);
+        }
+
+        public static Long hydrateValue(byte[] bytes) {
+            bytes = CompressionUtils.decompress(bytes, Compression.NONE);
+            return EncodingUtils.decodeUnsignedVarLong(bytes, 0);
+        }
+
+        public static Function<StreamTestDedupStreamIdxColumnValue, StreamTestDedupStreamIdxColumn> getColumnNameFun() {
+            return new Function<StreamTestDedupStreamIdxColumnValue, StreamTestDedupStreamIdxColumn>() {
+                @Override
+                public StreamTestDedupStreamIdxColumn apply(StreamTestDedupStreamIdxColumnValue columnValue) {
+                    return columnValue.getColumnName();
+                }
+            };
+        }
+
+        public static Function<StreamTestDedupStreamIdxColumnValue, Long> getValueFun() {
+            return new Function<StreamTestDedupStreamIdxColumnValue, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamIdxColumnValue columnValue) {
+                    return columnValue.getValue();
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("ColumnName", this.columnName)
+                .add("Value", this.value)
+                .toString();
+        }
+    }
+
+    public static final class StreamTestDedupStreamIdxRowResult implements TypedRowResult {
+        private final StreamTestDedupStreamIdxRow rowName;
+        private final ImmutableSet<StreamTestDedupStreamIdxColumnValue> columnValues;
+
+        public static StreamTestDedupStreamIdxRowResult of(RowResult<byte[]> rowResult) {
+            StreamTestDedupStreamIdxRow rowName = StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(rowResult.getRowName());
+            Set<StreamTestDedupStreamIdxColumnValue> columnValues = Sets.newHashSetWithExpectedSize(rowResult.getColumns().size());
+            for (Entry<byte[], byte[]> e : rowResult.getColumns().entrySet()) {
+                StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long value = StreamTestDedupStreamIdxColumnValue.hydrateValue(e.getValue());
+                columnValues.add(StreamTestDedupStreamIdxColumnValue.of(col, value));
+            }
+            return new StreamTestDedupStreamIdxRowResult(rowName, ImmutableSet.copyOf(columnValues));
+        }
+
+        private StreamTestDedupStreamIdxRowResult(StreamTestDedupStreamIdxRow rowName, ImmutableSet<StreamTestDedupStreamIdxColumnValue> columnValues) {
+            this.rowName = rowName;
+            this.columnValues = columnValues;
+        }
+
+        @Override
+        public StreamTestDedupStreamIdxRow getRowName() {
+            return rowName;
+        }
+
+        public Set<StreamTestDedupStreamIdxColumnValue> getColumnValues() {
+            return columnValues;
+        }
+
+        public static Function<StreamTestDedupStreamIdxRowResult, StreamTestDedupStreamIdxRow> getRowNameFun() {
+            return new Function<StreamTestDedupStreamIdxRowResult, StreamTestDedupStreamIdxRow>() {
+                @Override
+                public StreamTestDedupStreamIdxRow apply(StreamTestDedupStreamIdxRowResult rowResult) {
+                    return rowResult.rowName;
+                }
+            };
+        }
+
+        public static Function<StreamTestDedupStreamIdxRowResult, ImmutableSet<StreamTestDedupStreamIdxColumnValue>> getColumnValuesFun() {
+            return new Function<StreamTestDedupStreamIdxRowResult, ImmutableSet<StreamTestDedupStreamIdxColumnValue>>() {
+                @Override
+                public ImmutableSet<StreamTestDedupStreamIdxColumnValue> apply(StreamTestDedupStreamIdxRowResult rowResult) {
+                    return rowResult.columnValues;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("RowName", getRowName())
+                .add("ColumnValues", getColumnValues())
+                .toString();
+        }
+    }
+
+    @Override
+    public void delete(StreamTestDedupStreamIdxRow row, StreamTestDedupStreamIdxColumn column) {
+        delete(ImmutableMultimap.of(row, column));
+    }
+
+    @Override
+    public void delete(Iterable<StreamTestDedupStreamIdxRow> rows) {
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> toRemove = HashMultimap.create();
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> result = getRowsMultimap(rows);
+        for (Entry<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> e : result.entries()) {
+            toRemove.put(e.getKey(), e.getValue().getColumnName());
+        }
+        delete(toRemove);
+    }
+
+    @Override
+    public void delete(Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> values) {
+        t.delete(tableRef, ColumnValues.toCells(values));
+    }
+
+    @Override
+    public void put(StreamTestDedupStreamIdxRow rowName, Iterable<StreamTestDedupStreamIdxColumnValue> values) {
+        put(ImmutableMultimap.<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    @Override
+    public void put(StreamTestDedupStreamIdxRow rowName, StreamTestDedupStreamIdxColumnValue... values) {
+        put(ImmutableMultimap.<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    @Override
+    public void put(Multimap<StreamTestDedupStreamIdxRow, ? extends StreamTestDedupStreamIdxColumnValue> values) {
+        t.useTable(tableRef, this);
+        t.put(tableRef, ColumnValues.toCellValues(values));
+        for (StreamTestDedupStreamIdxTrigger trigger : triggers) {
+            trigger.putStreamTestDedupStreamIdx(values);
+        }
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(StreamTestDedupStreamIdxRow rowName, Iterable<StreamTestDedupStreamIdxColumnValue> values) {
+        putUnlessExists(ImmutableMultimap.<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(StreamTestDedupStreamIdxRow rowName, StreamTestDedupStreamIdxColumnValue... values) {
+        putUnlessExists(ImmutableMultimap.<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue>builder().putAll(rowName, values).build());
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(Multimap<StreamTestDedupStreamIdxRow, ? extends StreamTestDedupStreamIdxColumnValue> rows) {
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> toGet = Multimaps.transformValues(rows, StreamTestDedupStreamIdxColumnValue.getColumnNameFun());
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> existing = get(toGet);
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> toPut = HashMultimap.create();
+        for (Entry<StreamTestDedupStreamIdxRow, ? extends StreamTestDedupStreamIdxColumnValue> entry : rows.entries()) {
+            if (!existing.containsEntry(entry.getKey(), entry.getValue())) {
+                toPut.put(entry.getKey(), entry.getValue());
+            }
+        }
+        put(toPut);
+    }
+
+    @Override
+    public void touch(Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> values) {
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> currentValues = get(values);
+        put(currentValues);
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> toDelete = HashMultimap.create(values);
+        for (Map.Entry<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> e : currentValues.entries()) {
+            toDelete.remove(e.getKey(), e.getValue().getColumnName());
+        }
+        delete(toDelete);
+    }
+
+    public static ColumnSelection getColumnSelection(Collection<StreamTestDedupStreamIdxColumn> cols) {
+        return ColumnSelection.create(Collections2.transform(cols, Persistables.persistToBytesFunction()));
+    }
+
+    public static ColumnSelection getColumnSelection(StreamTestDedupStreamIdxColumn... cols) {
+        return getColumnSelection(Arrays.asList(cols));
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> get(Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumn> cells) {
+        Set<Cell> rawCells = ColumnValues.toCells(cells);
+        Map<Cell, byte[]> rawResults = t.get(tableRef, rawCells);
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> rowMap = HashMultimap.create();
+        for (Entry<Cell, byte[]> e : rawResults.entrySet()) {
+            if (e.getValue().length > 0) {
+                StreamTestDedupStreamIdxRow row = StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getRowName());
+                StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getColumnName());
+                Long val = StreamTestDedupStreamIdxColumnValue.hydrateValue(e.getValue());
+                rowMap.put(row, StreamTestDedupStreamIdxColumnValue.of(col, val));
+            }
+        }
+        return rowMap;
+    }
+
+    @Override
+    public List<StreamTestDedupStreamIdxColumnValue> getRowColumns(StreamTestDedupStreamIdxRow row) {
+        return getRowColumns(row, allColumns);
+    }
+
+    @Override
+    public List<StreamTestDedupStreamIdxColumnValue> getRowColumns(StreamTestDedupStreamIdxRow row, ColumnSelection columns) {
+        byte[] bytes = row.persistToBytes();
+        RowResult<byte[]> rowResult = t.getRows(tableRef, ImmutableSet.of(bytes), columns).get(bytes);
+        if (rowResult == null) {
+            return ImmutableList.of();
+        } else {
+            List<StreamTestDedupStreamIdxColumnValue> ret = Lists.newArrayListWithCapacity(rowResult.getColumns().size());
+            for (Entry<byte[], byte[]> e : rowResult.getColumns().entrySet()) {
+                StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long val = StreamTestDedupStreamIdxColumnValue.hydrateValue(e.getValue());
+                ret.add(StreamTestDedupStreamIdxColumnValue.of(col, val));
+            }
+            return ret;
+        }
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> getRowsMultimap(Iterable<StreamTestDedupStreamIdxRow> rows) {
+        return getRowsMultimapInternal(rows, allColumns);
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> getRowsMultimap(Iterable<StreamTestDedupStreamIdxRow> rows, ColumnSelection columns) {
+        return getRowsMultimapInternal(rows, columns);
+    }
+
+    private Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> getRowsMultimapInternal(Iterable<StreamTestDedupStreamIdxRow> rows, ColumnSelection columns) {
+        SortedMap<byte[], RowResult<byte[]>> results = t.getRows(tableRef, Persistables.persistAll(rows), columns);
+        return getRowMapFromRowResults(results.values());
+    }
+
+    private static Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> getRowMapFromRowResults(Collection<RowResult<byte[]>> rowResults) {
+        Multimap<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue> rowMap = HashMultimap.create();
+        for (RowResult<byte[]> result : rowResults) {
+            StreamTestDedupStreamIdxRow row = StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(result.getRowName());
+            for (Entry<byte[], byte[]> e : result.getColumns().entrySet()) {
+                StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+                Long val = StreamTestDedupStreamIdxColumnValue.hydrateValue(e.getValue());
+                rowMap.put(row, StreamTestDedupStreamIdxColumnValue.of(col, val));
+            }
+        }
+        return rowMap;
+    }
+
+    @Override
+    public Map<StreamTestDedupStreamIdxRow, BatchingVisitable<StreamTestDedupStreamIdxColumnValue>> getRowsColumnRange(Iterable<StreamTestDedupStreamIdxRow> rows, BatchColumnRangeSelection columnRangeSelection) {
+        Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> results = t.getRowsColumnRange(tableRef, Persistables.persistAll(rows), columnRangeSelection);
+        Map<StreamTestDedupStreamIdxRow, BatchingVisitable<StreamTestDedupStreamIdxColumnValue>> transformed = Maps.newHashMapWithExpectedSize(results.size());
+        for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> e : results.entrySet()) {
+            StreamTestDedupStreamIdxRow row = StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+            BatchingVisitable<StreamTestDedupStreamIdxColumnValue> bv = BatchingVisitables.transform(e.getValue(), result -> {
+                StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(result.getKey().getColumnName());
+                Long val = StreamTestDedupStreamIdxColumnValue.hydrateValue(result.getValue());
+                return StreamTestDedupStreamIdxColumnValue.of(col, val);
+            });
+            transformed.put(row, bv);
+        }
+        return transformed;
+    }
+
+    @Override
+    public Iterator<Map.Entry<StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxColumnValue>> getRowsColumnRange(Iterable<StreamTestDedupStreamIdxRow> rows, ColumnRangeSelection columnRangeSelection, int batchHint) {
+        Iterator<Map.Entry<Cell, byte[]>> results = t.getRowsColumnRange(getTableRef(), Persistables.persistAll(rows), columnRangeSelection, batchHint);
+        return Iterators.transform(results, e -> {
+            StreamTestDedupStreamIdxRow row = StreamTestDedupStreamIdxRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getRowName());
+            StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxColumn.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getColumnName());
+            Long val = StreamTestDedupStreamIdxColumnValue.hydrateValue(e.getValue());
+            StreamTestDedupStreamIdxColumnValue colValue = StreamTestDedupStreamIdxColumnValue.of(col, val);
+            return Maps.immutableEntry(row, colValue);
+        });
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamIdxRowResult> getAllRowsUnordered() {
+        return getAllRowsUnordered(allColumns);
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamIdxRowResult> getAllRowsUnordered(ColumnSelection columns) {
+        return BatchingVisitables.transform(t.getRange(tableRef, RangeRequest.builder().retainColumns(columns).build()),
+                new Function<RowResult<byte[]>, StreamTestDedupStreamIdxRowResult>() {
+            @Override
+            public StreamTestDedupStreamIdxRowResult apply(RowResult<byte[]> input) {
+                return StreamTestDedupStreamIdxRowResult.of(input);
+            }
+        });
+    }
+
+    @Override
+    public List<String> findConstraintFailures(Map<Cell, byte[]> writes,
+                                               ConstraintCheckingTransaction transaction,
+                                               AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public List<String> findConstraintFailuresNoRead(Map<Cell, byte[]> writes,
+                                                     AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    /**
+     * This exists to avoid unused import warnings
+     * {@link AbortingVisitor}
+     * {@link AbortingVisitors}
+     * {@link ArrayListMultimap}
+     * {@link Arrays}
+     * {@link AssertUtils}
+     * {@link AtlasDbConstraintCheckingMode}
+     * {@link AtlasDbDynamicMutableExpiringTable}
+     * {@link AtlasDbDynamicMutablePersistentTable}
+     * {@link AtlasDbMutableExpiringTable}
+     * {@link AtlasDbMutablePersistentTable}
+     * {@link AtlasDbNamedExpiringSet}
+     * {@link AtlasDbNamedMutableTable}
+     * {@link AtlasDbNamedPersistentSet}
+     * {@link BatchColumnRangeSelection}
+     * {@link BatchingVisitable}
+     * {@link BatchingVisitableView}
+     * {@link BatchingVisitables}
+     * {@link BiFunction}
+     * {@link Bytes}
+     * {@link Callable}
+     * {@link Cell}
+     * {@link Cells}
+     * {@link Collection}
+     * {@link Collections2}
+     * {@link ColumnRangeSelection}
+     * {@link ColumnRangeSelections}
+     * {@link ColumnSelection}
+     * {@link ColumnValue}
+     * {@link ColumnValues}
+     * {@link ComparisonChain}
+     * {@link Compression}
+     * {@link CompressionUtils}
+     * {@link ConstraintCheckingTransaction}
+     * {@link Descending}
+     * {@link EncodingUtils}
+     * {@link Entry}
+     * {@link EnumSet}
+     * {@link Function}
+     * {@link Generated}
+     * {@link HashMultimap}
+     * {@link HashSet}
+     * {@link Hashing}
+     * {@link Hydrator}
+     * {@link ImmutableList}
+     * {@link ImmutableMap}
+     * {@link ImmutableMultimap}
+     * {@link ImmutableSet}
+     * {@link InvalidProtocolBufferException}
+     * {@link IterableView}
+     * {@link Iterables}
+     * {@link Iterator}
+     * {@link Iterators}
+     * {@link Joiner}
+     * {@link List}
+     * {@link Lists}
+     * {@link Map}
+     * {@link Maps}
+     * {@link MoreObjects}
+     * {@link Multimap}
+     * {@link Multimaps}
+     * {@link NamedColumnValue}
+     * {@link Namespace}
+     * {@link Objects}
+     * {@link Optional}
+     * {@link Persistable}
+     * {@link Persistables}
+     * {@link Prefix}
+     * {@link PtBytes}
+     * {@link RangeRequest}
+     * {@link RowResult}
+     * {@link Set}
+     * {@link Sets}
+     * {@link Sha256Hash}
+     * {@link SortedMap}
+     * {@link Stream}
+     * {@link Supplier}
+     * {@link TableReference}
+     * {@link Throwables}
+     * {@link TimeUnit}
+     * {@link Transaction}
+     * {@link TypedRowResult}
+     * {@link UUID}
+     * {@link UnsignedBytes}
+     * {@link ValueType}
+     */
+    static String __CLASS_HASH = "d/bvwFDV3QJ4liNJV3X6gQ==";
+}
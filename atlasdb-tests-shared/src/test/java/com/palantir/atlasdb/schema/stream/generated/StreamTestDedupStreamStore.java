@@ -0,0 +1,501 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Generated;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Functions;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Sets.SetView;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.common.primitives.Ints;
+import com.google.protobuf.ByteString;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.Status;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
+import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata.Builder;
+import com.palantir.atlasdb.stream.AbstractPersistentStreamStore;
+import com.palantir.atlasdb.stream.BlockConsumingInputStream;
+import com.palantir.atlasdb.stream.BlockGetter;
+import com.palantir.atlasdb.stream.BlockLoader;
+import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamChunkStore;
+import com.palantir.atlasdb.stream.StreamCleanedException;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.transaction.api.TransactionTask;
+import com.palantir.atlasdb.transaction.impl.TxTask;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.compression.LZ4CompressingInputStream;
+import com.palantir.common.io.ConcatenatedInputStream;
+import com.palantir.util.AssertUtils;
+import com.palantir.util.ByteArrayIOStream;
+import com.palantir.util.Pair;
+import com.palantir.util.crypto.Sha256Hash;
+import com.palantir.util.file.DeleteOnCloseFileInputStream;
+import com.palantir.util.file.TempFileUtils;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+
+@Generated("com.palantir.atlasdb.table.description.render.StreamStoreRenderer")
+@SuppressWarnings("all")
+public final class StreamTestDedupStreamStore extends AbstractPersistentStreamStore {
+    public static final int BLOCK_SIZE_IN_BYTES = 1000000; // 1MB. DO NOT CHANGE THIS WITHOUT AN UPGRADE TASK
+    public static final int IN_MEMORY_THRESHOLD = 4194304; // streams under this size are kept in memory when loaded
+    public static final String STREAM_FILE_PREFIX = "StreamTestDedup_stream_";
+    public static final String STREAM_FILE_SUFFIX = ".tmp";
+
+    private static final Logger log = LoggerFactory.getLogger(StreamTestDedupStreamStore.class);
+
+    private final StreamTestTableFactory tables;
+
+    private StreamTestDedupStreamStore(TransactionManager txManager, StreamTestTableFactory tables) {
+        super(txManager);
+        this.tables = tables;
+    }
+
+    public static StreamTestDedupStreamStore of(TransactionManager txManager, StreamTestTableFactory tables) {
+        return new StreamTestDedupStreamStore(txManager, tables);
+    }
+
+    /**
+     * This should only be used by test code or as a performance optimization.
+     */
+    static StreamTestDedupStreamStore of(StreamTestTableFactory tables) {
+        return new StreamTestDedupStreamStore(null, tables);
+    }
+
+    @Override
+    protected long getInMemoryThreshold() {
+        return IN_MEMORY_THRESHOLD;
+    }
+
+    @Override
+    protected void storeBlock(Transaction t, long id, long blockNumber, final byte[] block) {
+        Preconditions.checkArgument(block.length <= BLOCK_SIZE_IN_BYTES, "Block to store in DB must be less than BLOCK_SIZE_IN_BYTES");
+        final StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow row = StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow.of(id, blockNumber);
+        try {
+            // Do a touch operation on this table to ensure we get a conflict if someone cleans it up.
+            touchMetadataWhileStoringForConflicts(t, row.getId(), row.getBlockId());
+            tables.getStreamTestDedupStreamValueTable(t).putValue(row, block);
+        } catch (RuntimeException e) {
+            log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+            throw e;
+        }
+    }
+
+    private void touchMetadataWhileStoringForConflicts(Transaction t, Long id, long blockNumber) {
+        StreamTestDedupStreamMetadataTable metaTable = tables.getStreamTestDedupStreamMetadataTable(t);
+        StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow row = StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(id);
+        StreamMetadata metadata = metaTable.getMetadatas(ImmutableSet.of(row)).values().iterator().next();
+        Preconditions.checkState(metadata.getStatus() == Status.STORING, "This stream is being cleaned up while storing blocks: %s", id);
+        Builder builder = StreamMetadata.newBuilder(metadata);
+        builder.setLength(blockNumber * BLOCK_SIZE_IN_BYTES + 1);
+        metaTable.putMetadata(row, builder.build());
+    }
+
+    @Override
+    protected void putMetadataAndHashIndexTask(Transaction t, Map<Long, StreamMetadata> streamIdsToMetadata) {
+        StreamTestDedupStreamMetadataTable mdTable = tables.getStreamTestDedupStreamMetadataTable(t);
+        Map<Long, StreamMetadata> prevMetadatas = getMetadata(t, streamIdsToMetadata.keySet());
+
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> rowsToStoredMetadata = Maps.newHashMap();
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> rowsToUnstoredMetadata = Maps.newHashMap();
+        for (Entry<Long, StreamMetadata> e : streamIdsToMetadata.entrySet()) {
+            long streamId = e.getKey();
+            StreamMetadata metadata = e.getValue();
+            StreamMetadata prevMetadata = prevMetadatas.get(streamId);
+            if (metadata.getStatus() == Status.STORED) {
+                if (prevMetadata == null || prevMetadata.getStatus() != Status.STORING) {
+                    // This can happen if we cleanup old streams.
+                    throw new TransactionFailedRetriableException("Cannot mark a stream as stored that isn't currently storing: " + prevMetadata);
+                }
+                rowsToStoredMetadata.put(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(streamId), metadata);
+            } else if (metadata.getStatus() == Status.STORING) {
+                // This will prevent two users trying to store the same id.
+                if (prevMetadata != null) {
+                    throw new TransactionFailedRetriableException("Cannot reuse the same stream id: " + streamId);
+                }
+                rowsToUnstoredMetadata.put(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(streamId), metadata);
+            }
+        }
+        putHashIndexTask(t, rowsToStoredMetadata);
+
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> rowsToMetadata = Maps.newHashMap();
+        rowsToMetadata.putAll(rowsToStoredMetadata);
+        rowsToMetadata.putAll(rowsToUnstoredMetadata);
+        mdTable.putMetadata(rowsToMetadata);
+    }
+
+    private long getNumberOfBlocksFromMetadata(StreamMetadata metadata) {
+        return (metadata.getLength() + BLOCK_SIZE_IN_BYTES - 1) / BLOCK_SIZE_IN_BYTES;
+    }
+
+    @Override
+    protected File createTempFile(Long id) throws IOException {
+        File file = TempFileUtils.createTempFile(STREAM_FILE_PREFIX + id, STREAM_FILE_SUFFIX);
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Override
+    protected void loadSingleBlockToOutputStream(Transaction t, Long streamId, long blockId, OutputStream os) {
+        StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow row = StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow.of(streamId, blockId);
+        try {
+            os.write(getBlock(t, row));
+        } catch (RuntimeException e) {
+            log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+            throw e;
+        } catch (IOException e) {
+            log.error("Error writing block {} to file when getting stream id {}", row.getBlockId(), row.getId(), e);
+            throw Throwables.rewrapAndThrowUncheckedException("Error writing blocks to file when creating stream.", e);
+        }
+    }
+
+    @Override
+    protected void loadNBlocksToOutputStream(Transaction t, Long streamId, long firstBlock, long numBlocks, OutputStream os) {
+        List<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow> rows = Lists.newArrayListWithCapacity(Ints.saturatedCast(numBlocks));
+        for (long blockId = firstBlock; blockId < firstBlock + numBlocks; blockId++) {
+            rows.add(StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow.of(streamId, blockId));
+        }
+        Map<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow, byte[]> blocks = tables.getStreamTestDedupStreamValueTable(t).getValues(rows);
+        for (StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow row : rows) {
+            try {
+                os.write(blocks.get(row));
+            } catch (RuntimeException e) {
+                log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+                throw e;
+            } catch (IOException e) {
+                log.error("Error writing block {} to file when getting stream id {}", row.getBlockId(), row.getId(), e);
+                throw Throwables.rewrapAndThrowUncheckedException("Error writing blocks to file when creating stream.", e);
+            }
+        }
+    }
+
+    private byte[] getBlock(Transaction t, StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow row) {
+        StreamTestDedupStreamValueTable valueTable = tables.getStreamTestDedupStreamValueTable(t);
+        return valueTable.getValues(ImmutableSet.of(row)).get(row);
+    }
+
+    @Override
+    protected StreamMetadata storeBlocksAndGetFinalMetadata(Transaction t, long id, InputStream stream) {
+        return storeChunksAndGetFinalMetadata(t, id, stream);
+    }
+
+    @Override
+    protected InputStream openStoredStream(Transaction t, Long id, StreamMetadata metadata) {
+        return makeChunkedStream(t, id, metadata);
+    }
+
+    @Override
+    protected void tryWriteStreamToFile(Transaction transaction, Long id, StreamMetadata metadata, FileOutputStream fos) throws IOException {
+        try (InputStream chunkStream = makeChunkedStream(transaction, id, metadata);
+                OutputStream fileStream = fos;) {
+            ByteStreams.copy(chunkStream, fileStream);
+        }
+    }
+
+    @Override
+    protected StreamChunkStore getChunkStore(Transaction t) {
+        return new StreamChunkStore(
+                tables.getStreamTestDedupStreamChunkTable(t).getTableRef(),
+                tables.getStreamTestDedupStreamChunkIdxTable(t).getTableRef(),
+                streamId -> StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxColumn.of(streamId).persistToBytes());
+    }
+
+    @Override
+    protected Map<Long, byte[]> loadChunkReferences(Transaction t, long id, long firstChunk, int numChunks) {
+        List<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow> rows = Lists.newArrayListWithCapacity(numChunks);
+        for (long blockId = firstChunk; blockId < firstChunk + numChunks; blockId++) {
+            rows.add(StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow.of(id, blockId));
+        }
+        Map<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow, byte[]> blocks = tables.getStreamTestDedupStreamValueTable(t).getValues(rows);
+        Map<Long, byte[]> references = Maps.newHashMapWithExpectedSize(blocks.size());
+        for (Map.Entry<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow, byte[]> e : blocks.entrySet()) {
+            references.put(e.getKey().getBlockId(), e.getValue());
+        }
+        return references;
+    }
+
+    @Override
+    protected Map<Long, StreamMetadata> getMetadata(Transaction t, Set<Long> streamIds) {
+        if (streamIds.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        StreamTestDedupStreamMetadataTable table = tables.getStreamTestDedupStreamMetadataTable(t);
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> metadatas = table.getMetadatas(getMetadataRowsForIds(streamIds));
+        Map<Long, StreamMetadata> ret = Maps.newHashMap();
+        for (Map.Entry<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> e : metadatas.entrySet()) {
+            ret.put(e.getKey().getId(), e.getValue());
+        }
+        return ret;
+    }
+
+    @Override
+    public Map<Sha256Hash, Long> lookupStreamIdsByHash(Transaction t, final Set<Sha256Hash> hashes) {
+        if (hashes.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        StreamTestDedupStreamHashAidxTable idx = tables.getStreamTestDedupStreamHashAidxTable(t);
+        Set<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow> rows = getHashIndexRowsForHashes(hashes);
+
+        Multimap<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow, StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue> m = idx.getRowsMultimap(rows);
+        Map<Long, Sha256Hash> hashForStreams = Maps.newHashMap();
+        for (StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow r : m.keySet()) {
+            for (StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue v : m.get(r)) {
+                Long streamId = v.getColumnName().getStreamId();
+                Sha256Hash hash = r.getHash();
+                if (hashForStreams.containsKey(streamId)) {
+                    AssertUtils.assertAndLog(log, hashForStreams.get(streamId).equals(hash), "(BUG) Stream ID has 2 different hashes: " + streamId);
+                }
+                hashForStreams.put(streamId, hash);
+            }
+        }
+        Map<Long, StreamMetadata> metadata = getMetadata(t, hashForStreams.keySet());
+
+        Map<Sha256Hash, Long> ret = Maps.newHashMap();
+        for (Map.Entry<Long, StreamMetadata> e : metadata.entrySet()) {
+            if (e.getValue().getStatus() != Status.STORED) {
+                continue;
+            }
+            Sha256Hash hash = hashForStreams.get(e.getKey());
+            ret.put(hash, e.getKey());
+        }
+
+        return ret;
+    }
+
+    private Set<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow> getHashIndexRowsForHashes(final Set<Sha256Hash> hashes) {
+        Set<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow> rows = Sets.newHashSet();
+        for (Sha256Hash h : hashes) {
+            rows.add(StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow.of(h));
+        }
+        return rows;
+    }
+
+    private Set<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> getMetadataRowsForIds(final Iterable<Long> ids) {
+        Set<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> rows = Sets.newHashSet();
+        for (Long id : ids) {
+            rows.add(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(id));
+        }
+        return rows;
+    }
+
+    private void putHashIndexTask(Transaction t, Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> rowsToMetadata) {
+        Multimap<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow, StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue> indexMap = HashMultimap.create();
+        for (Entry<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> e : rowsToMetadata.entrySet()) {
+            StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow row = e.getKey();
+            StreamMetadata metadata = e.getValue();
+            Preconditions.checkArgument(
+                    metadata.getStatus() == Status.STORED,
+                    "Should only index successfully stored streams.");
+
+            Sha256Hash hash = Sha256Hash.EMPTY;
+            if (metadata.getHash() != com.google.protobuf.ByteString.EMPTY) {
+                hash = new Sha256Hash(metadata.getHash().toByteArray());
+            }
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow hashRow = StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow.of(hash);
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumn column = StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumn.of(row.getId());
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue columnValue = StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue.of(column, 0L);
+            indexMap.put(hashRow, columnValue);
+        }
+        StreamTestDedupStreamHashAidxTable hiTable = tables.getStreamTestDedupStreamHashAidxTable(t);
+        hiTable.put(indexMap);
+    }
+
+    /**
+     * This should only be used from the cleanup tasks.
+     */
+    void deleteStreams(Transaction t, final Set<Long> streamIds) {
+        if (streamIds.isEmpty()) {
+            return;
+        }
+        Set<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> smRows = Sets.newHashSet();
+        Multimap<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow, StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumn> shToDelete = HashMultimap.create();
+        for (Long streamId : streamIds) {
+            smRows.add(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(streamId));
+        }
+        StreamTestDedupStreamMetadataTable table = tables.getStreamTestDedupStreamMetadataTable(t);
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> metadatas = table.getMetadatas(smRows);
+        Set<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow> streamValueToDelete = Sets.newHashSet();
+        for (Entry<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> e : metadatas.entrySet()) {
+            Long streamId = e.getKey().getId();
+            long blocks = deleteChunkReferences(t, streamId);
+            for (long i = 0; i < blocks; i++) {
+                streamValueToDelete.add(StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow.of(streamId, i));
+            }
+            ByteString streamHash = e.getValue().getHash();
+            Sha256Hash hash = Sha256Hash.EMPTY;
+            if (streamHash != com.google.protobuf.ByteString.EMPTY) {
+                hash = new Sha256Hash(streamHash.toByteArray());
+            } else {
+                log.error("Empty hash for stream {}", streamId);
+            }
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow hashRow = StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow.of(hash);
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumn column = StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumn.of(streamId);
+            shToDelete.put(hashRow, column);
+        }
+        tables.getStreamTestDedupStreamHashAidxTable(t).delete(shToDelete);
+        tables.getStreamTestDedupStreamValueTable(t).delete(streamValueToDelete);
+        table.delete(smRows);
+    }
+
+    @Override
+    protected void markStreamsAsUsedInternal(Transaction t, final Map<Long, byte[]> streamIdsToReference) {
+        if (streamIdsToReference.isEmpty()) {
+            return;
+        }
+        StreamTestDedupStreamIdxTable index = tables.getStreamTestDedupStreamIdxTable(t);
+        Multimap<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue> rowsToValues = HashMultimap.create();
+        for (Map.Entry<Long, byte[]> entry : streamIdsToReference.entrySet()) {
+            Long streamId = entry.getKey();
+            byte[] reference = entry.getValue();
+            StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn.of(reference);
+            StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue value = StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue.of(col, 0L);
+            rowsToValues.put(StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow.of(streamId), value);
+        }
+        index.put(rowsToValues);
+    }
+
+    @Override
+    public void unmarkStreamsAsUsed(Transaction t, final Map<Long, byte[]> streamIdsToReference) {
+        if (streamIdsToReference.isEmpty()) {
+            return;
+        }
+        StreamTestDedupStreamIdxTable index = tables.getStreamTestDedupStreamIdxTable(t);
+        Multimap<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow, StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn> toDelete = ArrayListMultimap.create(streamIdsToReference.size(), 1);
+        for (Map.Entry<Long, byte[]> entry : streamIdsToReference.entrySet()) {
+            Long streamId = entry.getKey();
+            byte[] reference = entry.getValue();
+            StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn col = StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumn.of(reference);
+            toDelete.put(StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow.of(streamId), col);
+        }
+        index.delete(toDelete);
+    }
+
+    @Override
+    protected void touchMetadataWhileMarkingUsedForConflicts(Transaction t, Iterable<Long> ids) {
+        StreamTestDedupStreamMetadataTable metaTable = tables.getStreamTestDedupStreamMetadataTable(t);
+        Set<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> rows = Sets.newHashSet();
+        for (Long id : ids) {
+            rows.add(StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow.of(id));
+        }
+        Map<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> metadatas = metaTable.getMetadatas(rows);
+        for (Map.Entry<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, StreamMetadata> e : metadatas.entrySet()) {
+            StreamMetadata metadata = e.getValue();
+            Preconditions.checkState(metadata.getStatus() == Status.STORED,
+            "Stream: %s has status: %s", e.getKey().getId(), metadata.getStatus());
+            metaTable.putMetadata(e.getKey(), metadata);
+        }
+        SetView<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow> missingRows = Sets.difference(rows, metadatas.keySet());
+        if (!missingRows.isEmpty()) {
+            throw new IllegalStateException("Missing metadata rows for:" + missingRows
+            + " rows: " + rows + " metadata: " + metadatas + " txn timestamp: " + t.getTimestamp());
+        }
+    }
+
+    /**
+     * This exists to avoid unused import warnings
+     * {@link AbstractPersistentStreamStore}
+     * {@link ArrayListMultimap}
+     * {@link Arrays}
+     * {@link AssertUtils}
+     * {@link BiConsumer}
+     * {@link BlockConsumingInputStream}
+     * {@link BlockGetter}
+     * {@link BlockLoader}
+     * {@link BufferedInputStream}
+     * {@link Builder}
+     * {@link ByteArrayIOStream}
+     * {@link ByteArrayInputStream}
+     * {@link ByteStreams}
+     * {@link ByteString}
+     * {@link Cell}
+     * {@link CheckForNull}
+     * {@link Collection}
+     * {@link Collections2}
+     * {@link ConcatenatedInputStream}
+     * {@link CountingInputStream}
+     * {@link DeleteOnCloseFileInputStream}
+     * {@link DigestInputStream}
+     * {@link Entry}
+     * {@link File}
+     * {@link FileNotFoundException}
+     * {@link FileOutputStream}
+     * {@link Functions}
+     * {@link Generated}
+     * {@link HashMultimap}
+     * {@link IOException}
+     * {@link ImmutableMap}
+     * {@link ImmutableSet}
+     * {@link InputStream}
+     * {@link Ints}
+     * {@link LZ4BlockInputStream}
+     * {@link LZ4CompressingInputStream}
+     * {@link List}
+     * {@link Lists}
+     * {@link Logger}
+     * {@link LoggerFactory}
+     * {@link Map}
+     * {@link Maps}
+     * {@link MessageDigest}
+     * {@link Multimap}
+     * {@link Multimaps}
+     * {@link Optional}
+     * {@link OutputStream}
+     * {@link Pair}
+     * {@link PersistentStreamStore}
+     * {@link Preconditions}
+     * {@link Set}
+     * {@link SetView}
+     * {@link Sets}
+     * {@link Sha256Hash}
+     * {@link Status}
+     * {@link StreamChunkStore}
+     * {@link StreamCleanedException}
+     * {@link StreamMetadata}
+     * {@link TempFileUtils}
+     * {@link Throwables}
+     * {@link TimeUnit}
+     * {@link Transaction}
+     * {@link TransactionFailedRetriableException}
+     * {@link TransactionManager}
+     * {@link TransactionTask}
+     * {@link TxTask}
+     */
+    static final int dummy = 0;
+}
\ No newline at end of file
@@ -0,0 +1,705 @@
+package com.palantir.atlasdb.schema.stream.generated;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import javax.annotation.Generated;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelections;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.Prefix;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbDynamicMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutableExpiringTable;
+import com.palantir.atlasdb.table.api.AtlasDbMutablePersistentTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedExpiringSet;
+import com.palantir.atlasdb.table.api.AtlasDbNamedMutableTable;
+import com.palantir.atlasdb.table.api.AtlasDbNamedPersistentSet;
+import com.palantir.atlasdb.table.api.ColumnValue;
+import com.palantir.atlasdb.table.api.TypedRowResult;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.table.generation.ColumnValues;
+import com.palantir.atlasdb.table.generation.Descending;
+import com.palantir.atlasdb.table.generation.NamedColumnValue;
+import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
+import com.palantir.atlasdb.transaction.api.ConstraintCheckingTransaction;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.AbortingVisitor;
+import com.palantir.common.base.AbortingVisitors;
+import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.BatchingVisitableView;
+import com.palantir.common.base.BatchingVisitables;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.collect.IterableView;
+import com.palantir.common.persist.Persistable;
+import com.palantir.common.persist.Persistable.Hydrator;
+import com.palantir.common.persist.Persistables;
+import com.palantir.util.AssertUtils;
+import com.palantir.util.crypto.Sha256Hash;
+
+@Generated("com.palantir.atlasdb.table.description.render.TableRenderer")
+@SuppressWarnings("all")
+public final class StreamTestDedupStreamValueTable implements
+        AtlasDbMutablePersistentTable<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow,
+                                         StreamTestDedupStreamValueTable.StreamTestDedupStreamValueNamedColumnValue<?>,
+                                         StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRowResult>,
+        AtlasDbNamedMutableTable<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow,
+                                    StreamTestDedupStreamValueTable.StreamTestDedupStreamValueNamedColumnValue<?>,
+                                    StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRowResult> {
+    private final Transaction t;
+    private final List<StreamTestDedupStreamValueTrigger> triggers;
+    private final static String rawTableName = "stream_test_dedup_stream_value";
+    private final TableReference tableRef;
+    private final static ColumnSelection allColumns = getColumnSelection(StreamTestDedupStreamValueNamedColumn.values());
+
+    static StreamTestDedupStreamValueTable of(Transaction t, Namespace namespace) {
+        return new StreamTestDedupStreamValueTable(t, namespace, ImmutableList.<StreamTestDedupStreamValueTrigger>of());
+    }
+
+    static StreamTestDedupStreamValueTable of(Transaction t, Namespace namespace, StreamTestDedupStreamValueTrigger trigger, StreamTestDedupStreamValueTrigger... triggers) {
+        return new StreamTestDedupStreamValueTable(t, namespace, ImmutableList.<StreamTestDedupStreamValueTrigger>builder().add(trigger).add(triggers).build());
+    }
+
+    static StreamTestDedupStreamValueTable of(Transaction t, Namespace namespace, List<StreamTestDedupStreamValueTrigger> triggers) {
+        return new StreamTestDedupStreamValueTable(t, namespace, triggers);
+    }
+
+    private StreamTestDedupStreamValueTable(Transaction t, Namespace namespace, List<StreamTestDedupStreamValueTrigger> triggers) {
+        this.t = t;
+        this.tableRef = TableReference.create(namespace, rawTableName);
+        this.triggers = triggers;
+    }
+
+    public static String getRawTableName() {
+        return rawTableName;
+    }
+
+    public TableReference getTableRef() {
+        return tableRef;
+    }
+
+    public String getTableName() {
+        return tableRef.getQualifiedName();
+    }
+
+    public Namespace getNamespace() {
+        return tableRef.getNamespace();
+    }
+
+    /**
+     * <pre>
+     * StreamTestDedupStreamValueRow {
+     *   {@literal Long id};
+     *   {@literal Long blockId};
+     * }
+     * </pre>
+     */
+    public static final class StreamTestDedupStreamValueRow implements Persistable, Comparable<StreamTestDedupStreamValueRow> {
+        private final long id;
+        private final long blockId;
+
+        public static StreamTestDedupStreamValueRow of(long id, long blockId) {
+            return new StreamTestDedupStreamValueRow(id, blockId);
+        }
+
+        private StreamTestDedupStreamValueRow(long id, long blockId) {
+            this.id = id;
+            this.blockId = blockId;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getBlockId() {
+            return blockId;
+        }
+
+        public static Function<StreamTestDedupStreamValueRow, Long> getIdFun() {
+            return new Function<StreamTestDedupStreamValueRow, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamValueRow row) {
+                    return row.id;
+                }
+            };
+        }
+
+        public static Function<StreamTestDedupStreamValueRow, Long> getBlockIdFun() {
+            return new Function<StreamTestDedupStreamValueRow, Long>() {
+                @Override
+                public Long apply(StreamTestDedupStreamValueRow row) {
+                    return row.blockId;
+                }
+            };
+        }
+
+        @Override
+        public byte[] persistToBytes() {
+            byte[] idBytes = EncodingUtils.encodeUnsignedVarLong(id);
+            byte[] blockIdBytes = EncodingUtils.encodeUnsignedVarLong(blockId);
+            return EncodingUtils.add(idBytes, blockIdBytes);
+        }
+
+        public static final Hydrator<StreamTestDedupStreamValueRow> BYTES_HYDRATOR = new Hydrator<StreamTestDedupStreamValueRow>() {
+            @Override
+            public StreamTestDedupStreamValueRow hydrateFromBytes(byte[] __input) {
+                int __index = 0;
+                Long id = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                __index += EncodingUtils.sizeOfUnsignedVarLong(id);
+                Long blockId = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                __index += EncodingUtils.sizeOfUnsignedVarLong(blockId);
+                return new StreamTestDedupStreamValueRow(id, blockId);
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("id", id)
+                .add("blockId", blockId)
+                .toString();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            StreamTestDedupStreamValueRow other = (StreamTestDedupStreamValueRow) obj;
+            return Objects.equal(id, other.id) && Objects.equal(blockId, other.blockId);
+        }
+
+        @SuppressWarnings("ArrayHashCode")
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(new Object[]{ id, blockId });
+        }
+
+        @Override
+        public int compareTo(StreamTestDedupStreamValueRow o) {
+            return ComparisonChain.start()
+                .compare(this.id, o.id)
+                .compare(this.blockId, o.blockId)
+                .result();
+        }
+    }
+
+    public interface StreamTestDedupStreamValueNamedColumnValue<T> extends NamedColumnValue<T> { /* */ }
+
+    /**
+     * <pre>
+     * Column value description {
+     *   type: byte[];
+     * }
+     * </pre>
+     */
+    public static final class Value implements StreamTestDedupStreamValueNamedColumnValue<byte[]> {
+        private final byte[] value;
+
+        public static Value of(byte[] value) {
+            return new Value(value);
+        }
+
+        private Value(byte[] value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getColumnName() {
+            return "value";
+        }
+
+        @Override
+        public String getShortColumnName() {
+            return "v";
+        }
+
+        @Override
+        public byte[] getValue() {
+            return value;
+        }
+
+        @Override
+        public byte[] persistValue() {
+            byte[] bytes = value;
+            return CompressionUtils.compress(bytes, Compression.NONE);
+        }
+
+        @Override
+        public byte[] persistColumnName() {
+            return PtBytes.toCachedBytes("v");
+        }
+
+        public static final Hydrator<Value> BYTES_HYDRATOR = new Hydrator<Value>() {
+            @Override
+            public Value hydrateFromBytes(byte[] bytes) {
+                bytes = CompressionUtils.decompress(bytes, Compression.NONE);
+                return of(EncodingUtils.getBytesFromOffsetToEnd(bytes, 0));
+            }
+        };
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("Value", this.value)
+                .toString();
+        }
+    }
+
+    public interface StreamTestDedupStreamValueTrigger {
+        public void putStreamTestDedupStreamValue(Multimap<StreamTestDedupStreamValueRow, ? extends StreamTestDedupStreamValueNamedColumnValue<?>> newRows);
+    }
+
+    public static final class StreamTestDedupStreamValueRowResult implements TypedRowResult {
+        private final RowResult<byte[]> row;
+
+        public static StreamTestDedupStreamValueRowResult of(RowResult<byte[]> row) {
+            return new StreamTestDedupStreamValueRowResult(row);
+        }
+
+        private StreamTestDedupStreamValueRowResult(RowResult<byte[]> row) {
+            this.row = row;
+        }
+
+        @Override
+        public StreamTestDedupStreamValueRow getRowName() {
+            return StreamTestDedupStreamValueRow.BYTES_HYDRATOR.hydrateFromBytes(row.getRowName());
+        }
+
+        public static Function<StreamTestDedupStreamValueRowResult, StreamTestDedupStreamValueRow> getRowNameFun() {
+            return new Function<StreamTestDedupStreamValueRowResult, StreamTestDedupStreamValueRow>() {
+                @Override
+                public StreamTestDedupStreamValueRow apply(StreamTestDedupStreamValueRowResult rowResult) {
+                    return rowResult.getRowName();
+                }
+            };
+        }
+
+        public static Function<RowResult<byte[]>, StreamTestDedupStreamValueRowResult> fromRawRowResultFun() {
+            return new Function<RowResult<byte[]>, StreamTestDedupStreamValueRowResult>() {
+                @Override
+                public StreamTestDedupStreamValueRowResult apply(RowResult<byte[]> rowResult) {
+                    return new StreamTestDedupStreamValueRowResult(rowResult);
+                }
+            };
+        }
+
+        public boolean hasValue() {
+            return row.getColumns().containsKey(PtBytes.toCachedBytes("v"));
+        }
+
+        public byte[] getValue() {
+            byte[] bytes = row.getColumns().get(PtBytes.toCachedBytes("v"));
+            if (bytes == null) {
+                return null;
+            }
+            Value value = Value.BYTES_HYDRATOR.hydrateFromBytes(bytes);
+            return value.getValue();
+        }
+
+        public static Function<StreamTestDedupStreamValueRowResult, byte[]> getValueFun() {
+            return new Function<StreamTestDedupStreamValueRowResult, byte[]>() {
+                @Override
+                public byte[] apply(StreamTestDedupStreamValueRowResult rowResult) {
+                    return rowResult.getValue();
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(getClass().getSimpleName())
+                .add("RowName", getRowName())
+                .add("Value", getValue())
+                .toString();
+        }
+    }
+
+    public enum StreamTestDedupStreamValueNamedColumn {
+        VALUE {
+            @Override
+            public byte[] getShortName() {
+                return PtBytes.toCachedBytes("v");
+            }
+        };
+
+        public abstract byte[] getShortName();
+
+        public static Function<StreamTestDedupStreamValueNamedColumn, byte[]> toShortName() {
+            return new Function<StreamTestDedupStreamValueNamedColumn, byte[]>() {
+                @Override
+                public byte[] apply(StreamTestDedupStreamValueNamedColumn namedColumn) {
+                    return namedColumn.getShortName();
+                }
+            };
+        }
+    }
+
+    public static ColumnSelection getColumnSelection(Collection<StreamTestDedupStreamValueNamedColumn> cols) {
+        return ColumnSelection.create(Collections2.transform(cols, StreamTestDedupStreamValueNamedColumn.toShortName()));
+    }
+
+    public static ColumnSelection getColumnSelection(StreamTestDedupStreamValueNamedColumn... cols) {
+        return getColumnSelection(Arrays.asList(cols));
+    }
+
+    private static final Map<String, Hydrator<? extends StreamTestDedupStreamValueNamedColumnValue<?>>> shortNameToHydrator =
+            ImmutableMap.<String, Hydrator<? extends StreamTestDedupStreamValueNamedColumnValue<?>>>builder()
+                .put("v", Value.BYTES_HYDRATOR)
+                .build();
+
+    public Map<StreamTestDedupStreamValueRow, byte[]> getValues(Collection<StreamTestDedupStreamValueRow> rows) {
+        Map<Cell, StreamTestDedupStreamValueRow> cells = Maps.newHashMapWithExpectedSize(rows.size());
+        for (StreamTestDedupStreamValueRow row : rows) {
+            cells.put(Cell.create(row.persistToBytes(), PtBytes.toCachedBytes("v")), row);
+        }
+        Map<Cell, byte[]> results = t.get(tableRef, cells.keySet());
+        Map<StreamTestDedupStreamValueRow, byte[]> ret = Maps.newHashMapWithExpectedSize(results.size());
+        for (Entry<Cell, byte[]> e : results.entrySet()) {
+            byte[] val = Value.BYTES_HYDRATOR.hydrateFromBytes(e.getValue()).getValue();
+            ret.put(cells.get(e.getKey()), val);
+        }
+        return ret;
+    }
+
+    public void putValue(StreamTestDedupStreamValueRow row, byte[] value) {
+        put(ImmutableMultimap.of(row, Value.of(value)));
+    }
+
+    public void putValue(Map<StreamTestDedupStreamValueRow, byte[]> map) {
+        Map<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> toPut = Maps.newHashMapWithExpectedSize(map.size());
+        for (Entry<StreamTestDedupStreamValueRow, byte[]> e : map.entrySet()) {
+            toPut.put(e.getKey(), Value.of(e.getValue()));
+        }
+        put(Multimaps.forMap(toPut));
+    }
+
+    public void putValueUnlessExists(StreamTestDedupStreamValueRow row, byte[] value) {
+        putUnlessExists(ImmutableMultimap.of(row, Value.of(value)));
+    }
+
+    public void putValueUnlessExists(Map<StreamTestDedupStreamValueRow, byte[]> map) {
+        Map<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> toPut = Maps.newHashMapWithExpectedSize(map.size());
+        for (Entry<StreamTestDedupStreamValueRow, byte[]> e : map.entrySet()) {
+            toPut.put(e.getKey(), Value.of(e.getValue()));
+        }
+        putUnlessExists(Multimaps.forMap(toPut));
+    }
+
+    @Override
+    public void put(Multimap<StreamTestDedupStreamValueRow, ? extends StreamTestDedupStreamValueNamedColumnValue<?>> rows) {
+        t.useTable(tableRef, this);
+        t.put(tableRef, ColumnValues.toCellValues(rows));
+        for (StreamTestDedupStreamValueTrigger trigger : triggers) {
+            trigger.putStreamTestDedupStreamValue(rows);
+        }
+    }
+
+    /** @deprecated Use separate read and write in a single transaction instead. */
+    @Deprecated
+    @Override
+    public void putUnlessExists(Multimap<StreamTestDedupStreamValueRow, ? extends StreamTestDedupStreamValueNamedColumnValue<?>> rows) {
+        Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> existing = getRowsMultimap(rows.keySet());
+        Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> toPut = HashMultimap.create();
+        for (Entry<StreamTestDedupStreamValueRow, ? extends StreamTestDedupStreamValueNamedColumnValue<?>> entry : rows.entries()) {
+            if (!existing.containsEntry(entry.getKey(), entry.getValue())) {
+                toPut.put(entry.getKey(), entry.getValue());
+            }
+        }
+        put(toPut);
+    }
+
+    public void deleteValue(StreamTestDedupStreamValueRow row) {
+        deleteValue(ImmutableSet.of(row));
+    }
+
+    public void deleteValue(Iterable<StreamTestDedupStreamValueRow> rows) {
+        byte[] col = PtBytes.toCachedBytes("v");
+        Set<Cell> cells = Cells.cellsWithConstantColumn(Persistables.persistAll(rows), col);
+        t.delete(tableRef, cells);
+    }
+
+    @Override
+    public void delete(StreamTestDedupStreamValueRow row) {
+        delete(ImmutableSet.of(row));
+    }
+
+    @Override
+    public void delete(Iterable<StreamTestDedupStreamValueRow> rows) {
+        List<byte[]> rowBytes = Persistables.persistAll(rows);
+        Set<Cell> cells = Sets.newHashSetWithExpectedSize(rowBytes.size());
+        cells.addAll(Cells.cellsWithConstantColumn(rowBytes, PtBytes.toCachedBytes("v")));
+        t.delete(tableRef, cells);
+    }
+
+    public Optional<StreamTestDedupStreamValueRowResult> getRow(StreamTestDedupStreamValueRow row) {
+        return getRow(row, allColumns);
+    }
+
+    public Optional<StreamTestDedupStreamValueRowResult> getRow(StreamTestDedupStreamValueRow row, ColumnSelection columns) {
+        byte[] bytes = row.persistToBytes();
+        RowResult<byte[]> rowResult = t.getRows(tableRef, ImmutableSet.of(bytes), columns).get(bytes);
+        if (rowResult == null) {
+            return Optional.empty();
+        } else {
+            return Optional.of(StreamTestDedupStreamValueRowResult.of(rowResult));
+        }
+    }
+
+    @Override
+    public List<StreamTestDedupStreamValueRowResult> getRows(Iterable<StreamTestDedupStreamValueRow> rows) {
+        return getRows(rows, allColumns);
+    }
+
+    @Override
+    public List<StreamTestDedupStreamValueRowResult> getRows(Iterable<StreamTestDedupStreamValueRow> rows, ColumnSelection columns) {
+        SortedMap<byte[], RowResult<byte[]>> results = t.getRows(tableRef, Persistables.persistAll(rows), columns);
+        List<StreamTestDedupStreamValueRowResult> rowResults = Lists.newArrayListWithCapacity(results.size());
+        for (RowResult<byte[]> row : results.values()) {
+            rowResults.add(StreamTestDedupStreamValueRowResult.of(row));
+        }
+        return rowResults;
+    }
+
+    @Override
+    public List<StreamTestDedupStreamValueNamedColumnValue<?>> getRowColumns(StreamTestDedupStreamValueRow row) {
+        return getRowColumns(row, allColumns);
+    }
+
+    @Override
+    public List<StreamTestDedupStreamValueNamedColumnValue<?>> getRowColumns(StreamTestDedupStreamValueRow row, ColumnSelection columns) {
+        byte[] bytes = row.persistToBytes();
+        RowResult<byte[]> rowResult = t.getRows(tableRef, ImmutableSet.of(bytes), columns).get(bytes);
+        if (rowResult == null) {
+            return ImmutableList.of();
+        } else {
+            List<StreamTestDedupStreamValueNamedColumnValue<?>> ret = Lists.newArrayListWithCapacity(rowResult.getColumns().size());
+            for (Entry<byte[], byte[]> e : rowResult.getColumns().entrySet()) {
+                ret.add(shortNameToHydrator.get(PtBytes.toString(e.getKey())).hydrateFromBytes(e.getValue()));
+            }
+            return ret;
+        }
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> getRowsMultimap(Iterable<StreamTestDedupStreamValueRow> rows) {
+        return getRowsMultimapInternal(rows, allColumns);
+    }
+
+    @Override
+    public Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> getRowsMultimap(Iterable<StreamTestDedupStreamValueRow> rows, ColumnSelection columns) {
+        return getRowsMultimapInternal(rows, columns);
+    }
+
+    private Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> getRowsMultimapInternal(Iterable<StreamTestDedupStreamValueRow> rows, ColumnSelection columns) {
+        SortedMap<byte[], RowResult<byte[]>> results = t.getRows(tableRef, Persistables.persistAll(rows), columns);
+        return getRowMapFromRowResults(results.values());
+    }
+
+    private static Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> getRowMapFromRowResults(Collection<RowResult<byte[]>> rowResults) {
+        Multimap<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>> rowMap = HashMultimap.create();
+        for (RowResult<byte[]> result : rowResults) {
+            StreamTestDedupStreamValueRow row = StreamTestDedupStreamValueRow.BYTES_HYDRATOR.hydrateFromBytes(result.getRowName());
+            for (Entry<byte[], byte[]> e : result.getColumns().entrySet()) {
+                rowMap.put(row, shortNameToHydrator.get(PtBytes.toString(e.getKey())).hydrateFromBytes(e.getValue()));
+            }
+        }
+        return rowMap;
+    }
+
+    @Override
+    public Map<StreamTestDedupStreamValueRow, BatchingVisitable<StreamTestDedupStreamValueNamedColumnValue<?>>> getRowsColumnRange(Iterable<StreamTestDedupStreamValueRow> rows, BatchColumnRangeSelection columnRangeSelection) {
+        Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> results = t.getRowsColumnRange(tableRef, Persistables.persistAll(rows), columnRangeSelection);
+        Map<StreamTestDedupStreamValueRow, BatchingVisitable<StreamTestDedupStreamValueNamedColumnValue<?>>> transformed = Maps.newHashMapWithExpectedSize(results.size());
+        for (Entry<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> e : results.entrySet()) {
+            StreamTestDedupStreamValueRow row = StreamTestDedupStreamValueRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey());
+            BatchingVisitable<StreamTestDedupStreamValueNamedColumnValue<?>> bv = BatchingVisitables.transform(e.getValue(), result -> {
+                return shortNameToHydrator.get(PtBytes.toString(result.getKey().getColumnName())).hydrateFromBytes(result.getValue());
+            });
+            transformed.put(row, bv);
+        }
+        return transformed;
+    }
+
+    @Override
+    public Iterator<Map.Entry<StreamTestDedupStreamValueRow, StreamTestDedupStreamValueNamedColumnValue<?>>> getRowsColumnRange(Iterable<StreamTestDedupStreamValueRow> rows, ColumnRangeSelection columnRangeSelection, int batchHint) {
+        Iterator<Map.Entry<Cell, byte[]>> results = t.getRowsColumnRange(getTableRef(), Persistables.persistAll(rows), columnRangeSelection, batchHint);
+        return Iterators.transform(results, e -> {
+            StreamTestDedupStreamValueRow row = StreamTestDedupStreamValueRow.BYTES_HYDRATOR.hydrateFromBytes(e.getKey().getRowName());
+            StreamTestDedupStreamValueNamedColumnValue<?> colValue = shortNameToHydrator.get(PtBytes.toString(e.getKey().getColumnName())).hydrateFromBytes(e.getValue());
+            return Maps.immutableEntry(row, colValue);
+        });
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamValueRowResult> getAllRowsUnordered() {
+        return getAllRowsUnordered(allColumns);
+    }
+
+    public BatchingVisitableView<StreamTestDedupStreamValueRowResult> getAllRowsUnordered(ColumnSelection columns) {
+        return BatchingVisitables.transform(t.getRange(tableRef, RangeRequest.builder().retainColumns(columns).build()),
+                new Function<RowResult<byte[]>, StreamTestDedupStreamValueRowResult>() {
+            @Override
+            public StreamTestDedupStreamValueRowResult apply(RowResult<byte[]> input) {
+                return StreamTestDedupStreamValueRowResult.of(input);
+            }
+        });
+    }
+
+    @Override
+    public List<String> findConstraintFailures(Map<Cell, byte[]> writes,
+                                               ConstraintCheckingTransaction transaction,
+                                               AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public List<String> findConstraintFailuresNoRead(Map<Cell, byte[]> writes,
+                                                     AtlasDbConstraintCheckingMode constraintCheckingMode) {
+        return ImmutableList.of();
+    }
+
+    /**
+     * This exists to avoid unused import warnings
+     * {@link AbortingVisitor}
+     * {@link AbortingVisitors}
+     * {@link ArrayListMultimap}
+     * {@link Arrays}
+     * {@link AssertUtils}
+     * {@link AtlasDbConstraintCheckingMode}
+     * {@link AtlasDbDynamicMutableExpiringTable}
+     * {@link AtlasDbDynamicMutablePersistentTable}
+     * {@link AtlasDbMutableExpiringTable}
+     * {@link AtlasDbMutablePersistentTable}
+     * {@link AtlasDbNamedExpiringSet}
+     * {@link AtlasDbNamedMutableTable}
+     * {@link AtlasDbNamedPersistentSet}
+     * {@link BatchColumnRangeSelection}
+     * {@link BatchingVisitable}
+     * {@link BatchingVisitableView}
+     * {@link BatchingVisitables}
+     * {@link BiFunction}
+     * {@link Bytes}
+     * {@link Callable}
+     * {@link Cell}
+     * {@link Cells}
+     * {@link Collection}
+     * {@link Collections2}
+     * {@link ColumnRangeSelection}
+     * {@link ColumnRangeSelections}
+     * {@link ColumnSelection}
+     * {@link ColumnValue}
+     * {@link ColumnValues}
+     * {@link ComparisonChain}
+     * {@link Compression}
+     * {@link CompressionUtils}
+     * {@link ConstraintCheckingTransaction}
+     * {@link Descending}
+     * {@link EncodingUtils}
+     * {@link Entry}
+     * {@link EnumSet}
+     * {@link Function}
+     * {@link Generated}
+     * {@link HashMultimap}
+     * {@link HashSet}
+     * {@link Hashing}
+     * {@link Hydrator}
+     * {@link ImmutableList}
+     * {@link ImmutableMap}
+     * {@link ImmutableMultimap}
+     * {@link ImmutableSet}
+     * {@link InvalidProtocolBufferException}
+     * {@link IterableView}
+     * {@link Iterables}
+     * {@link Iterator}
+     * {@link Iterators}
+     * {@link Joiner}
+     * {@link List}
+     * {@link Lists}
+     * {@link Map}
+     * {@link Maps}
+     * {@link MoreObjects}
+     * {@link Multimap}
+     * {@link Multimaps}
+     * {@link NamedColumnValue}
+     * {@link Namespace}
+     * {@link Objects}
+     * {@link Optional}
+     * {@link Persistable}
+     * {@link Persistables}
+     * {@link Prefix}
+     * {@link PtBytes}
+     * {@link RangeRequest}
+     * {@link RowResult}
+     * {@link Set}
+     * {@link Sets}
+     * {@link Sha256Hash}
+     * {@link SortedMap}
+     * {@link Stream}
+     * {@link Supplier}
+     * {@link TableReference}
+     * {@link Throwables}
+     * {@link TimeUnit}
+     * {@link Transaction}
+     * {@link TypedRowResult}
+     * {@link UUID}
+     * {@link UnsignedBytes}
+     * {@link ValueType}
+     */
+    static String __CLASS_HASH = "0K2t09VkLLhxTljJF7M6vA==";
+}
@@ -52,6 +52,7 @@ import com.palantir.atlasdb.stream.BlockConsumingInputStream;
 import com.palantir.atlasdb.stream.BlockGetter;
 import com.palantir.atlasdb.stream.BlockLoader;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamChunkStore;
 import com.palantir.atlasdb.stream.StreamCleanedException;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
@@ -185,6 +186,26 @@ public final class StreamTestMaxMemStreamStore extends AbstractPersistentStreamS
         }
     }
 
+    @Override
+    protected void loadNBlocksToOutputStream(Transaction t, Long streamId, long firstBlock, long numBlocks, OutputStream os) {
+        List<StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueRow> rows = Lists.newArrayListWithCapacity(Ints.saturatedCast(numBlocks));
+        for (long blockId = firstBlock; blockId < firstBlock + numBlocks; blockId++) {
+            rows.add(StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueRow.of(streamId, blockId));
+        }
+        Map<StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueRow, byte[]> blocks = tables.getStreamTestMaxMemStreamValueTable(t).getValues(rows);
+        for (StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueRow row : rows) {
+            try {
+                os.write(blocks.get(row));
+            } catch (RuntimeException e) {
+                log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+                throw e;
+            } catch (IOException e) {
+                log.error("Error writing block {} to file when getting stream id {}", row.getBlockId(), row.getId(), e);
+                throw Throwables.rewrapAndThrowUncheckedException("Error writing blocks to file when creating stream.", e);
+            }
+        }
+    }
+
     private byte[] getBlock(Transaction t, StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueRow row) {
         StreamTestMaxMemStreamValueTable valueTable = tables.getStreamTestMaxMemStreamValueTable(t);
         return valueTable.getValues(ImmutableSet.of(row)).get(row);
@@ -424,6 +445,7 @@ public final class StreamTestMaxMemStreamStore extends AbstractPersistentStreamS
      * {@link Sets}
      * {@link Sha256Hash}
      * {@link Status}
+     * {@link StreamChunkStore}
      * {@link StreamCleanedException}
      * {@link StreamMetadata}
      * {@link TempFileUtils}
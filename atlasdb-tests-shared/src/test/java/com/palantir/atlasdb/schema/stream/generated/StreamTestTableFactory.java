@@ -46,6 +46,36 @@ public final class StreamTestTableFactory {
         return KeyValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
     }
 
+    public StreamTestDedupStreamChunkTable getStreamTestDedupStreamChunkTable(Transaction t,
+            StreamTestDedupStreamChunkTable.StreamTestDedupStreamChunkTrigger... triggers) {
+        return StreamTestDedupStreamChunkTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestDedupStreamChunkIdxTable getStreamTestDedupStreamChunkIdxTable(Transaction t,
+            StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxTrigger... triggers) {
+        return StreamTestDedupStreamChunkIdxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestDedupStreamHashAidxTable getStreamTestDedupStreamHashAidxTable(Transaction t,
+            StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxTrigger... triggers) {
+        return StreamTestDedupStreamHashAidxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestDedupStreamIdxTable getStreamTestDedupStreamIdxTable(Transaction t,
+            StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxTrigger... triggers) {
+        return StreamTestDedupStreamIdxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestDedupStreamMetadataTable getStreamTestDedupStreamMetadataTable(Transaction t,
+            StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataTrigger... triggers) {
+        return StreamTestDedupStreamMetadataTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
+    public StreamTestDedupStreamValueTable getStreamTestDedupStreamValueTable(Transaction t,
+            StreamTestDedupStreamValueTable.StreamTestDedupStreamValueTrigger... triggers) {
+        return StreamTestDedupStreamValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
+    }
+
     public StreamTestMaxMemStreamHashAidxTable getStreamTestMaxMemStreamHashAidxTable(Transaction t,
             StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger... triggers) {
         return StreamTestMaxMemStreamHashAidxTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
@@ -126,7 +156,7 @@ public final class StreamTestTableFactory {
         return TestHashComponentsStreamValueTable.of(t, namespace, Triggers.getAllTriggers(t, sharedTriggers, triggers));
     }
 
-    public interface SharedTriggers extends KeyValueTable.KeyValueTrigger, StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger, StreamTestMaxMemStreamIdxTable.StreamTestMaxMemStreamIdxTrigger, StreamTestMaxMemStreamMetadataTable.StreamTestMaxMemStreamMetadataTrigger, StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueTrigger, StreamTestStreamHashAidxTable.StreamTestStreamHashAidxTrigger, StreamTestStreamIdxTable.StreamTestStreamIdxTrigger, StreamTestStreamMetadataTable.StreamTestStreamMetadataTrigger, StreamTestStreamValueTable.StreamTestStreamValueTrigger, StreamTestWithHashStreamHashAidxTable.StreamTestWithHashStreamHashAidxTrigger, StreamTestWithHashStreamIdxTable.StreamTestWithHashStreamIdxTrigger, StreamTestWithHashStreamMetadataTable.StreamTestWithHashStreamMetadataTrigger, StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueTrigger, TestHashComponentsStreamHashAidxTable.TestHashComponentsStreamHashAidxTrigger, TestHashComponentsStreamIdxTable.TestHashComponentsStreamIdxTrigger, TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataTrigger, TestHashComponentsStreamValueTable.TestHashComponentsStreamValueTrigger {
+    public interface SharedTriggers extends KeyValueTable.KeyValueTrigger, StreamTestDedupStreamChunkTable.StreamTestDedupStreamChunkTrigger, StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxTrigger, StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxTrigger, StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxTrigger, StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataTrigger, StreamTestDedupStreamValueTable.StreamTestDedupStreamValueTrigger, StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxTrigger, StreamTestMaxMemStreamIdxTable.StreamTestMaxMemStreamIdxTrigger, StreamTestMaxMemStreamMetadataTable.StreamTestMaxMemStreamMetadataTrigger, StreamTestMaxMemStreamValueTable.StreamTestMaxMemStreamValueTrigger, StreamTestStreamHashAidxTable.StreamTestStreamHashAidxTrigger, StreamTestStreamIdxTable.StreamTestStreamIdxTrigger, StreamTestStreamMetadataTable.StreamTestStreamMetadataTrigger, StreamTestStreamValueTable.StreamTestStreamValueTrigger, StreamTestWithHashStreamHashAidxTable.StreamTestWithHashStreamHashAidxTrigger, StreamTestWithHashStreamIdxTable.StreamTestWithHashStreamIdxTrigger, StreamTestWithHashStreamMetadataTable.StreamTestWithHashStreamMetadataTrigger, StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueTrigger, TestHashComponentsStreamHashAidxTable.TestHashComponentsStreamHashAidxTrigger, TestHashComponentsStreamIdxTable.TestHashComponentsStreamIdxTrigger, TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataTrigger, TestHashComponentsStreamValueTable.TestHashComponentsStreamValueTrigger {
     }
 
     public abstract static class NullSharedTriggers implements SharedTriggers {
@@ -135,6 +165,36 @@ public final class StreamTestTableFactory {
             // do nothing
         }
 
+        @Override
+        public void putStreamTestDedupStreamChunk(Multimap<StreamTestDedupStreamChunkTable.StreamTestDedupStreamChunkRow, ? extends StreamTestDedupStreamChunkTable.StreamTestDedupStreamChunkNamedColumnValue<?>> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestDedupStreamChunkIdx(Multimap<StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxRow, ? extends StreamTestDedupStreamChunkIdxTable.StreamTestDedupStreamChunkIdxColumnValue> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestDedupStreamHashAidx(Multimap<StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxRow, ? extends StreamTestDedupStreamHashAidxTable.StreamTestDedupStreamHashAidxColumnValue> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestDedupStreamIdx(Multimap<StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxRow, ? extends StreamTestDedupStreamIdxTable.StreamTestDedupStreamIdxColumnValue> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestDedupStreamMetadata(Multimap<StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataRow, ? extends StreamTestDedupStreamMetadataTable.StreamTestDedupStreamMetadataNamedColumnValue<?>> newRows) {
+            // do nothing
+        }
+
+        @Override
+        public void putStreamTestDedupStreamValue(Multimap<StreamTestDedupStreamValueTable.StreamTestDedupStreamValueRow, ? extends StreamTestDedupStreamValueTable.StreamTestDedupStreamValueNamedColumnValue<?>> newRows) {
+            // do nothing
+        }
+
         @Override
         public void putStreamTestMaxMemStreamHashAidx(Multimap<StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxRow, ? extends StreamTestMaxMemStreamHashAidxTable.StreamTestMaxMemStreamHashAidxColumnValue> newRows) {
             // do nothing
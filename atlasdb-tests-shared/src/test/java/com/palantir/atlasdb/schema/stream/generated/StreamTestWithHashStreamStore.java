@@ -52,6 +52,7 @@ import com.palantir.atlasdb.stream.BlockConsumingInputStream;
 import com.palantir.atlasdb.stream.BlockGetter;
 import com.palantir.atlasdb.stream.BlockLoader;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamChunkStore;
 import com.palantir.atlasdb.stream.StreamCleanedException;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionFailedRetriableException;
@@ -185,6 +186,26 @@ public final class StreamTestWithHashStreamStore extends AbstractPersistentStrea
         }
     }
 
+    @Override
+    protected void loadNBlocksToOutputStream(Transaction t, Long streamId, long firstBlock, long numBlocks, OutputStream os) {
+        List<StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueRow> rows = Lists.newArrayListWithCapacity(Ints.saturatedCast(numBlocks));
+        for (long blockId = firstBlock; blockId < firstBlock + numBlocks; blockId++) {
+            rows.add(StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueRow.of(streamId, blockId));
+        }
+        Map<StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueRow, byte[]> blocks = tables.getStreamTestWithHashStreamValueTable(t).getValues(rows);
+        for (StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueRow row : rows) {
+            try {
+                os.write(blocks.get(row));
+            } catch (RuntimeException e) {
+                log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+                throw e;
+            } catch (IOException e) {
+                log.error("Error writing block {} to file when getting stream id {}", row.getBlockId(), row.getId(), e);
+                throw Throwables.rewrapAndThrowUncheckedException("Error writing blocks to file when creating stream.", e);
+            }
+        }
+    }
+
     private byte[] getBlock(Transaction t, StreamTestWithHashStreamValueTable.StreamTestWithHashStreamValueRow row) {
         StreamTestWithHashStreamValueTable valueTable = tables.getStreamTestWithHashStreamValueTable(t);
         return valueTable.getValues(ImmutableSet.of(row)).get(row);
@@ -226,28 +247,13 @@ public final class StreamTestWithHashStreamStore extends AbstractPersistentStrea
 
     @Override
     protected void tryWriteStreamToFile(Transaction transaction, Long id, StreamMetadata metadata, FileOutputStream fos) throws IOException {
-        try (InputStream blockStream = makeStreamUsingTransaction(transaction, id, metadata);
+        try (InputStream blockStream = makeStream(transaction, id, metadata);
                 InputStream decompressingStream = new LZ4BlockInputStream(blockStream);
                 OutputStream fileStream = fos;) {
             ByteStreams.copy(decompressingStream, fileStream);
         }
     }
 
-    private InputStream makeStreamUsingTransaction(Transaction parent, Long id, StreamMetadata metadata) {
-        BiConsumer<Long, OutputStream> singleBlockLoader = (index, destination) ->
-                loadSingleBlockToOutputStream(parent, id, index, destination);
-
-        BlockGetter pageRefresher = new BlockLoader(singleBlockLoader, BLOCK_SIZE_IN_BYTES);
-        long totalBlocks = getNumberOfBlocksFromMetadata(metadata);
-        int blocksInMemory = getNumberOfBlocksThatFitInMemory();
-
-        try {
-            return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
-        } catch(IOException e) {
-            throw Throwables.throwUncheckedException(e);
-        }
-    }
-
     @Override
     protected Map<Long, StreamMetadata> getMetadata(Transaction t, Set<Long> streamIds) {
         if (streamIds.isEmpty()) {
@@ -482,6 +488,7 @@ public final class StreamTestWithHashStreamStore extends AbstractPersistentStrea
      * {@link Sets}
      * {@link Sha256Hash}
      * {@link Status}
+     * {@link StreamChunkStore}
      * {@link StreamCleanedException}
      * {@link StreamMetadata}
      * {@link TempFileUtils}
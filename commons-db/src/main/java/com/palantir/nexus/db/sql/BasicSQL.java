@@ -179,6 +179,10 @@ public abstract class BasicSQL {
             PreparedStatements.setObject(ps, i, converted);
         } else if (obj instanceof Number) {
             setNumber(ps, i, obj);
+        } else if (obj instanceof SqlArray) {
+            SqlArray array = (SqlArray) obj;
+            PreparedStatements.setArray(ps, i,
+                    Connections.createArrayOf(c, array.getElementTypeName(), array.getElements()));
         } else {
             assert !(obj instanceof InputStream) : "InputStreams must be passed as PTInputStreams so we know the length"; //$NON-NLS-1$
             PreparedStatements.setObject(ps, i, obj);
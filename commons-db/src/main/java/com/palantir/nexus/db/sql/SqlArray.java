@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.nexus.db.sql;
+
+import java.util.Arrays;
+
+/**
+ * A query argument that is bound as a single SQL array parameter, created with
+ * {@link java.sql.Connection#createArrayOf(String, Object[])} on the connection the query runs on.
+ * <p>
+ * Passing a variable number of values as one array, rather than as an {@code IN (?, ?, ...)} list, keeps the
+ * statement text the same whatever the number of values, so that the driver and the database can reuse the prepared
+ * statement and its plan.
+ */
+public final class SqlArray {
+    private final String elementTypeName;
+    private final Object[] elements;
+
+    private SqlArray(String elementTypeName, Object[] elements) {
+        this.elementTypeName = elementTypeName;
+        this.elements = elements;
+    }
+
+    /**
+     * @param elementTypeName the database-specific name of the element type, e.g. {@code bytea} or {@code int8}
+     */
+    public static SqlArray of(String elementTypeName, Object[] elements) {
+        return new SqlArray(elementTypeName, elements);
+    }
+
+    public String getElementTypeName() {
+        return elementTypeName;
+    }
+
+    public Object[] getElements() {
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return elementTypeName + Arrays.deepToString(elements);
+    }
+}
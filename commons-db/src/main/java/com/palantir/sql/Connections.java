@@ -15,6 +15,7 @@
  */
 package com.palantir.sql;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -44,6 +45,15 @@ public class Connections  {
         }
     }
 
+    public static Array createArrayOf(Connection c, String typeName, Object[] elements)
+            throws PalantirSqlException {
+        try {
+            return c.createArrayOf(typeName, elements);
+        } catch (SQLException e) {
+            throw BasicSQL.handleInterruptions(0, e);
+        }
+    }
+
     public static Statement createStatement(Connection c)
             throws PalantirSqlException {
         try {
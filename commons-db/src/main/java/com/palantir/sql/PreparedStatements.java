@@ -16,6 +16,7 @@
 package com.palantir.sql;
 
 import java.io.InputStream;
+import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -58,6 +59,14 @@ public class PreparedStatements {
         }
     }
 
+    public static void setArray(PreparedStatement ps, int index, Array array) throws PalantirSqlException {
+        try {
+            ps.setArray(index, array);
+        } catch (SQLException e) {
+            throw BasicSQL.handleInterruptions(0, e);
+        }
+    }
+
     public static void setBytes(PreparedStatement ps, int index, byte[] bytes) throws PalantirSqlException {
         try {
             ps.setBytes(index, bytes);
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A work-stealing executor for tasks that block, such as remote calls.
+ * <p>
+ * Each task runs as a {@link ForkJoinPool.ManagedBlocker}, so the pool starts compensating threads while tasks are
+ * blocked instead of queueing behind them. The number of concurrently running tasks is therefore not capped by
+ * the parallelism; the parallelism is only the number of threads the pool tries to keep busy. Idle compensating
+ * threads are retired by the pool.
+ * <p>
+ * This class references {@link ForkJoinPool} and so requires Java 7 or later at runtime.
+ */
+final class ManagedBlockingForkJoinExecutorService extends AbstractForwardingExecutorService {
+    private final ForkJoinPool pool;
+
+    ManagedBlockingForkJoinExecutorService(int parallelism, String threadNamePrefix) {
+        this.pool = new ForkJoinPool(
+                parallelism,
+                new NamedForkJoinWorkerThreadFactory(threadNamePrefix),
+                null,
+                true);
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return pool;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final Runnable wrapped = PTExecutors.wrap(command);
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                runManaged(wrapped);
+            }
+        });
+    }
+
+    private static void runManaged(final Runnable task) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean done = false;
+
+                @Override
+                public boolean block() {
+                    try {
+                        task.run();
+                    } finally {
+                        done = true;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return done;
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class NamedForkJoinWorkerThreadFactory
+            implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final String prefix;
+        private final AtomicInteger nextThreadId = new AtomicInteger();
+
+        NamedForkJoinWorkerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool forkJoinPool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(prefix + "-" + nextThreadId.getAndIncrement());
+            return thread;
+        }
+    }
+}
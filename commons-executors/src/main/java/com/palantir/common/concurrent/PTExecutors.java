@@ -166,6 +166,23 @@ public final class PTExecutors {
                 new LinkedBlockingQueue<Runnable>(), threadFactory);
     }
 
+    /**
+     * Creates a work-stealing thread pool for tasks that spend most of their time blocked, such as
+     * fanned-out remote calls. The pool keeps about <tt>parallelism</tt> threads busy, and starts
+     * additional threads while tasks are blocked, so the number of tasks running at once is not
+     * capped by <tt>parallelism</tt>. Threads that are no longer needed are retired when idle.
+     * <p>
+     * Unlike the other pools handed out by this class, this requires Java 7 or later at runtime.
+     *
+     * @param parallelism the number of threads the pool tries to keep active
+     * @param threadNamePrefix prefix for the names of the pool's threads
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if <tt>parallelism &lt;= 0</tt>
+     */
+    public static ExecutorService newWorkStealingBlockingPool(int parallelism, String threadNamePrefix) {
+        return new ManagedBlockingForkJoinExecutorService(parallelism, threadNamePrefix);
+    }
+
     /**
      * Creates a thread pool that can schedule commands to run after a given delay, or to execute
      * periodically.  @param corePoolSize the number of threads to keep in the pool, even if they
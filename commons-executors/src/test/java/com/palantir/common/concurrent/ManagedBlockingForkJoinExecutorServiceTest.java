@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.common.concurrent;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class ManagedBlockingForkJoinExecutorServiceTest extends Assert {
+    private static final int PARALLELISM = 2;
+    private static final int NUM_TASKS = 20;
+
+    private final ExecutorService exec = PTExecutors.newWorkStealingBlockingPool(PARALLELISM, "test");
+    private final ExecutorInheritableThreadLocal<String> local = new ExecutorInheritableThreadLocal<String>();
+
+    @After
+    public void tearDown() {
+        exec.shutdownNow();
+    }
+
+    @Test
+    public void runsMoreBlockedTasksThanParallelismConcurrently() throws Exception {
+        final CountDownLatch allStarted = new CountDownLatch(NUM_TASKS);
+        List<Future<Boolean>> futures = Lists.newArrayList();
+        for (int i = 0; i < NUM_TASKS; i++) {
+            futures.add(exec.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    allStarted.countDown();
+                    return allStarted.await(10, TimeUnit.SECONDS);
+                }
+            }));
+        }
+        for (Future<Boolean> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void propagatesExecutorInheritableThreadLocals() throws Exception {
+        local.set("value");
+        Future<String> future = exec.submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return local.get();
+            }
+        });
+        assertEquals("value", future.get(10, TimeUnit.SECONDS));
+    }
+}
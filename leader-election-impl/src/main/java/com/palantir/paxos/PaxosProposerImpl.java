@@ -19,9 +19,14 @@ import static com.google.common.collect.ImmutableList.copyOf;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nullable;
 
@@ -37,6 +42,11 @@ import com.palantir.logsafe.UnsafeArg;
 /**
  * Implementation of a paxos proposer than can be a designated proposer (leader) and designated
  * learner (informer).
+ * <p>
+ * Proposers created with {@link #newStableLeaderProposer} run phase one for the next sequence number in the
+ * background as soon as their own value has been agreed on, reusing the proposal id that just succeeded. If they are
+ * next asked to propose at that sequence number, only phase two remains; if another proposer has prepared the
+ * sequence number in the meantime, phase two fails and they fall back to a full round with a new proposal id.
  *
  * @author rullman
  */
@@ -76,7 +86,33 @@ public class PaxosProposerImpl implements PaxosProposer {
                 allLearners,
                 quorumSize,
                 leaderUUID.toString(),
-                executor);
+                executor,
+                false);
+    }
+
+    /**
+     * Creates a proposer for a log that a single leader extends one sequence number at a time, such as a timestamp
+     * bound store. Such a proposer usually only needs one round trip to the acceptors per sequence number; see
+     * {@link PaxosProposerImpl}.
+     * <p>
+     * Acceptors report the next sequence number as prepared before anything is proposed at it, so this must not be
+     * used for logs that are checked with a {@link PaxosLatestRoundVerifier}.
+     */
+    public static PaxosProposer newStableLeaderProposer(
+            PaxosLearner localLearner,
+            List<PaxosAcceptor> allAcceptors,
+            List<PaxosLearner> allLearners,
+            int quorumSize,
+            UUID leaderUUID,
+            ExecutorService executor) {
+        return new PaxosProposerImpl(
+                localLearner,
+                allAcceptors,
+                allLearners,
+                quorumSize,
+                leaderUUID.toString(),
+                executor,
+                true);
     }
 
     final ImmutableList<PaxosAcceptor> allAcceptors;
@@ -87,13 +123,16 @@ public class PaxosProposerImpl implements PaxosProposer {
     final AtomicLong proposalNum;
 
     private final ExecutorService executor;
+    private final boolean prepareNextSequence;
+    private final AtomicReference<PreparedSequence> preparedSequence = new AtomicReference<>();
 
     private PaxosProposerImpl(PaxosLearner localLearner,
                               List<PaxosAcceptor> acceptors,
                               List<PaxosLearner> learners,
                               int quorumSize,
                               String uuid,
-                              ExecutorService executor) {
+                              ExecutorService executor,
+                              boolean prepareNextSequence) {
         Preconditions.checkState(
                 quorumSize > acceptors.size() / 2,
                 "quorum size needs to be at least the majority of acceptors");
@@ -104,18 +143,21 @@ public class PaxosProposerImpl implements PaxosProposer {
         this.uuid = uuid;
         this.proposalNum = new AtomicLong();
         this.executor = executor;
+        this.prepareNextSequence = prepareNextSequence;
     }
 
     @Override
     public byte[] propose(final long seq, @Nullable byte[] bytes) throws PaxosRoundFailureException {
-        final PaxosProposalId proposalID = new PaxosProposalId(proposalNum.incrementAndGet(), uuid);
         PaxosValue toPropose = new PaxosValue(uuid, seq, bytes);
+        Optional<PaxosProposal> preparedProposal = proposeWithPreparedSequence(seq, toPropose);
+        final PaxosProposal agreedProposal = preparedProposal.isPresent()
+                ? preparedProposal.get()
+                : proposeWithFullRound(seq, toPropose);
+        final PaxosValue finalValue = agreedProposal.val;
 
-        // paxos phase one (prepare and promise)
-        final PaxosValue finalValue = phaseOne(seq, proposalID, toPropose);
-
-        // paxos phase two (accept request and accepted)
-        phaseTwo(seq, proposalID, finalValue);
+        if (prepareNextSequence && uuid.equals(finalValue.getLeaderUUID())) {
+            prepareInBackground(seq + 1, agreedProposal.id);
+        }
 
         // broadcast learned value
         for (final PaxosLearner learner : allLearners) {
@@ -142,18 +184,71 @@ public class PaxosProposerImpl implements PaxosProposer {
         return finalValue.getData();
     }
 
+    private PaxosProposal proposeWithFullRound(long seq, PaxosValue toPropose) throws PaxosRoundFailureException {
+        final PaxosProposalId proposalID = new PaxosProposalId(proposalNum.incrementAndGet(), uuid);
+
+        // paxos phase one (prepare and promise)
+        final PaxosValue finalValue = chooseValue(phaseOne(seq, proposalID), toPropose);
+
+        // paxos phase two (accept request and accepted)
+        phaseTwo(seq, proposalID, finalValue);
+        return new PaxosProposal(proposalID, finalValue);
+    }
+
+    /**
+     * Runs phase two with the promises collected by {@link #prepareInBackground}, if phase one has been run for this
+     * sequence number.
+     *
+     * @return the agreed proposal, or empty if a full round is needed
+     */
+    private Optional<PaxosProposal> proposeWithPreparedSequence(long seq, PaxosValue toPropose) {
+        PreparedSequence prepared = preparedSequence.getAndSet(null);
+        if (prepared == null || prepared.seq != seq) {
+            return Optional.empty();
+        }
+        List<PaxosPromise> promises;
+        try {
+            promises = prepared.promises.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+
+        PaxosValue finalValue = chooseValue(promises, toPropose);
+        try {
+            phaseTwo(seq, prepared.pid, finalValue);
+            return Optional.of(new PaxosProposal(prepared.pid, finalValue));
+        } catch (PaxosRoundFailureException e) {
+            log.info("Failed to reach quorum in paxos phase two at sequence {} with the proposal id we prepared"
+                    + " ahead, probably because another proposer has since prepared it. Running a full round instead.",
+                    SafeArg.of("sequence", seq));
+            return Optional.empty();
+        }
+    }
+
+    private void prepareInBackground(long seq, PaxosProposalId pid) {
+        CompletableFuture<List<PaxosPromise>> promises = CompletableFuture.supplyAsync(() -> {
+            try {
+                return phaseOne(seq, pid);
+            } catch (PaxosRoundFailureException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        preparedSequence.set(new PreparedSequence(seq, pid, promises));
+    }
+
     /**
      * Executes phase one of paxos (see
      * http://en.wikipedia.org/wiki/Paxos_(computer_science)#Basic_Paxos)
      *
      * @param seq the number identifying this instance of paxos
-     * @param proposalID the id of the proposal currently being considered
-     * @param proposalValue the default proposal value if no member of the quorum has already
-     *        accepted an offer
-     * @return the value accepted by the quorum
+     * @param pid the id of the proposal currently being considered
+     * @return the promises received from a quorum of acceptors
      * @throws PaxosRoundFailureException if quorum cannot be reached in this phase
      */
-    private PaxosValue phaseOne(final long seq, final PaxosProposalId pid, PaxosValue value)
+    private List<PaxosPromise> phaseOne(final long seq, final PaxosProposalId pid)
             throws PaxosRoundFailureException {
         List<PaxosPromise> receivedPromises = PaxosQuorumChecker.<PaxosAcceptor, PaxosPromise> collectQuorumResponses(
                 allAcceptors,
@@ -183,8 +278,16 @@ public class PaxosProposerImpl implements PaxosProposer {
             }
             throw new PaxosRoundFailureException("failed to acquire quorum in paxos phase one");
         }
+        return receivedPromises;
+    }
 
-        PaxosPromise greatestPromise = Collections.max(receivedPromises);
+    /**
+     * @param promises the promises received in phase one
+     * @param value the default proposal value if no member of the quorum has already accepted an offer
+     * @return the value to propose in phase two
+     */
+    private static PaxosValue chooseValue(List<PaxosPromise> promises, PaxosValue value) {
+        PaxosPromise greatestPromise = Collections.max(promises);
         if (greatestPromise.lastAcceptedValue != null) {
             return greatestPromise.lastAcceptedValue;
         }
@@ -231,4 +334,15 @@ public class PaxosProposerImpl implements PaxosProposer {
         return uuid;
     }
 
+    private static final class PreparedSequence {
+        private final long seq;
+        private final PaxosProposalId pid;
+        private final CompletableFuture<List<PaxosPromise>> promises;
+
+        PreparedSequence(long seq, PaxosProposalId pid, CompletableFuture<List<PaxosPromise>> promises) {
+            this.seq = seq;
+            this.pid = pid;
+            this.promises = promises;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.palantir.common.concurrent.CoalescingBatcher;
+import com.palantir.common.concurrent.CoalescingBatcher.BatchElement;
+import com.palantir.lock.v2.LockToken;
+
+/**
+ * Coalesces concurrent calls of a bulk operation on lock tokens, such as unlock or refresh, into a single call.
+ * <p>
+ * Batching is done by a {@link CoalescingBatcher}, so at most one batch is outstanding at a time. Each caller gets
+ * back the subset of its own tokens for which the operation succeeded. A token submitted by several callers that are
+ * queued together is sent once, and its result is reported to all of them.
+ */
+@ThreadSafe
+final class CoalescingLockTokenOperation {
+    private final Function<Set<LockToken>, Set<LockToken>> operation;
+    private final CoalescingBatcher<LockToken, Boolean> batcher = CoalescingBatcher.create(this::applyToBatch);
+
+    CoalescingLockTokenOperation(Function<Set<LockToken>, Set<LockToken>> operation) {
+        this.operation = operation;
+    }
+
+    Set<LockToken> apply(Set<LockToken> tokens) {
+        if (tokens.isEmpty()) {
+            return operation.apply(tokens);
+        }
+        List<LockToken> requestedTokens = ImmutableList.copyOf(tokens);
+        List<Boolean> results = batcher.applyAll(requestedTokens);
+
+        Set<LockToken> succeeded = Sets.newHashSetWithExpectedSize(requestedTokens.size());
+        for (int i = 0; i < requestedTokens.size(); i++) {
+            if (results.get(i)) {
+                succeeded.add(requestedTokens.get(i));
+            }
+        }
+        return succeeded;
+    }
+
+    private void applyToBatch(List<BatchElement<LockToken, Boolean>> batch) {
+        Set<LockToken> tokens = Sets.newHashSetWithExpectedSize(batch.size());
+        batch.forEach(element -> tokens.add(element.argument()));
+        Set<LockToken> succeeded = operation.apply(tokens);
+        batch.forEach(element -> element.result().complete(succeeded.contains(element.argument())));
+    }
+}
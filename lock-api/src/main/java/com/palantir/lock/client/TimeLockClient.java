@@ -18,6 +18,7 @@ package com.palantir.lock.client;
 
 import java.net.ConnectException;
 import java.net.UnknownHostException;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
@@ -31,6 +32,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -42,6 +45,8 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
 
     private final TimelockService delegate;
     private final LockRefresher lockRefresher;
+    private final CoalescingLockTokenOperation unlocker;
+    private final CoalescingLockTokenOperation refresher;
 
     public static TimeLockClient createDefault(TimelockService timelockService) {
         ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
@@ -55,6 +60,9 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
     public TimeLockClient(TimelockService delegate, LockRefresher lockRefresher) {
         this.delegate = delegate;
         this.lockRefresher = lockRefresher;
+        this.unlocker = new CoalescingLockTokenOperation(tokens -> executeOnTimeLock(() -> delegate.unlock(tokens)));
+        this.refresher = new CoalescingLockTokenOperation(
+                tokens -> executeOnTimeLock(() -> delegate.refreshLockLeases(tokens)));
     }
 
     @Override
@@ -79,6 +87,15 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return response;
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        StartTransactionsResponse response = executeOnTimeLock(() -> delegate.startTransactions(request));
+        for (LockImmutableTimestampResponse immutableTsLock : response.getImmutableTimestampLocks()) {
+            lockRefresher.registerLock(immutableTsLock.getLock());
+        }
+        return response;
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return executeOnTimeLock(delegate::getImmutableTimestamp);
@@ -93,6 +110,17 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return response;
     }
 
+    @Override
+    public List<LockResponse> lockBatch(List<LockRequest> requests) {
+        List<LockResponse> responses = executeOnTimeLock(() -> delegate.lockBatch(requests));
+        for (LockResponse response : responses) {
+            if (response.wasSuccessful()) {
+                lockRefresher.registerLock(response.getToken());
+            }
+        }
+        return responses;
+    }
+
     @Override
     public WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
         return executeOnTimeLock(() -> delegate.waitForLocks(request));
@@ -100,13 +128,13 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
 
     @Override
     public Set<LockToken> refreshLockLeases(Set<LockToken> tokens) {
-        return executeOnTimeLock(() -> delegate.refreshLockLeases(tokens));
+        return refresher.apply(tokens);
     }
 
     @Override
     public Set<LockToken> unlock(Set<LockToken> tokens) {
         lockRefresher.unregisterLocks(tokens);
-        return executeOnTimeLock(() -> delegate.unlock(tokens));
+        return unlocker.apply(tokens);
     }
 
     @Override
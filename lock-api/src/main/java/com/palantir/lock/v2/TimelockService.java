@@ -16,6 +16,7 @@
 
 package com.palantir.lock.v2;
 
+import java.util.List;
 import java.util.Set;
 
 import javax.ws.rs.Consumes;
@@ -55,6 +56,14 @@ public interface TimelockService {
     @Path("lock-immutable-timestamp")
     LockImmutableTimestampResponse lockImmutableTimestamp(LockImmutableTimestampRequest request);
 
+    /**
+     * Equivalent to calling {@link #lockImmutableTimestamp(LockImmutableTimestampRequest)} once per request id and
+     * then {@link #getFreshTimestamps(int)} for the start timestamps, but in a single round trip.
+     */
+    @POST
+    @Path("start-transactions")
+    StartTransactionsResponse startTransactions(StartTransactionsRequest request);
+
     @POST
     @Path("immutable-timestamp")
     long getImmutableTimestamp();
@@ -63,6 +72,17 @@ public interface TimelockService {
     @Path("lock")
     LockResponse lock(LockRequest request);
 
+    /**
+     * Equivalent to calling {@link #lock(LockRequest)} for each request, but in a single round trip. The requests are
+     * processed concurrently and independently, each subject to its own acquire timeout, and the responses are
+     * returned in request order once all of them have completed. Requests in a batch should not contend with each
+     * other: a request waiting for a lock held by another request in the same batch can only time out, as the holder
+     * does not see its token until the whole batch has completed.
+     */
+    @POST
+    @Path("lock-batch")
+    List<LockResponse> lockBatch(List<LockRequest> requests);
+
     @POST
     @Path("await-locks")
     WaitForLocksResponse waitForLocks(WaitForLocksRequest request);
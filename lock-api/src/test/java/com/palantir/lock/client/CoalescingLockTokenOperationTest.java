@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.palantir.lock.v2.LockToken;
+
+public class CoalescingLockTokenOperationTest {
+    private static final LockToken TOKEN_1 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_2 = LockToken.of(UUID.randomUUID());
+    private static final LockToken TOKEN_3 = LockToken.of(UUID.randomUUID());
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsOnlyTokensTheOperationSucceededFor() {
+        CoalescingLockTokenOperation operation = new CoalescingLockTokenOperation(
+                tokens -> Sets.filter(tokens, token -> !token.equals(TOKEN_2)));
+
+        assertThat(operation.apply(ImmutableSet.of(TOKEN_1, TOKEN_2))).containsExactly(TOKEN_1);
+    }
+
+    @Test
+    public void propagatesFailures() {
+        CoalescingLockTokenOperation operation = new CoalescingLockTokenOperation(tokens -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(() -> operation.apply(ImmutableSet.of(TOKEN_1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    public void coalescesConcurrentCallsWhileABatchIsOutstanding() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<Set<LockToken>> batches = Lists.newCopyOnWriteArrayList();
+        CoalescingLockTokenOperation operation = new CoalescingLockTokenOperation(tokens -> {
+            batches.add(ImmutableSet.copyOf(tokens));
+            if (batches.size() == 1) {
+                firstBatchStarted.countDown();
+                awaitUninterruptibly(releaseFirstBatch);
+            }
+            return ImmutableSet.copyOf(tokens);
+        });
+
+        Future<Set<LockToken>> first = executor.submit(() -> operation.apply(ImmutableSet.of(TOKEN_1)));
+        firstBatchStarted.await();
+        Future<Set<LockToken>> second = executor.submit(() -> operation.apply(ImmutableSet.of(TOKEN_2)));
+        Future<Set<LockToken>> third = executor.submit(() -> operation.apply(ImmutableSet.of(TOKEN_3)));
+        Thread.sleep(100);
+        releaseFirstBatch.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).containsExactly(TOKEN_1);
+        assertThat(second.get(10, TimeUnit.SECONDS)).containsExactly(TOKEN_2);
+        assertThat(third.get(10, TimeUnit.SECONDS)).containsExactly(TOKEN_3);
+        assertThat(batches).containsExactly(ImmutableSet.of(TOKEN_1), ImmutableSet.of(TOKEN_2, TOKEN_3));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
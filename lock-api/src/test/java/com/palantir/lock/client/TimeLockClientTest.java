@@ -34,6 +34,7 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.common.exception.AtlasDbDependencyException;
 import com.palantir.leader.NotCurrentLeaderException;
@@ -44,6 +45,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
@@ -81,6 +84,19 @@ public class TimeLockClientTest {
         verify(refresher).registerLock(TOKEN_1);
     }
 
+    @Test
+    public void registersAllImmutableTimestampLocksOfStartedTransactions() {
+        when(delegate.startTransactions(any())).thenReturn(StartTransactionsResponse.of(
+                ImmutableList.of(
+                        LockImmutableTimestampResponse.of(123L, TOKEN_1),
+                        LockImmutableTimestampResponse.of(123L, TOKEN_2)),
+                TimestampRange.createInclusiveRange(124L, 125L)));
+        timelock.startTransactions(StartTransactionsRequest.create(2));
+
+        verify(refresher).registerLock(TOKEN_1);
+        verify(refresher).registerLock(TOKEN_2);
+    }
+
     @Test
     public void registersLocks() {
         LockRequest request = LockRequest.of(LOCKS, TIMEOUT);
@@ -91,6 +107,19 @@ public class TimeLockClientTest {
         verify(refresher).registerLock(TOKEN_1);
     }
 
+    @Test
+    public void registersSuccessfulLocksOfBatch() {
+        LockRequest request = LockRequest.of(LOCKS, TIMEOUT);
+        when(delegate.lockBatch(ImmutableList.of(request, request)))
+                .thenReturn(ImmutableList.of(LockResponse.successful(TOKEN_1), LockResponse.timedOut()));
+
+        assertThat(timelock.lockBatch(ImmutableList.of(request, request)))
+                .containsExactly(LockResponse.successful(TOKEN_1), LockResponse.timedOut());
+
+        verify(refresher).registerLock(TOKEN_1);
+        verifyNoMoreInteractions(refresher);
+    }
+
     @Test
     public void unregistersLockBeforeUnlocking() {
         InOrder inOrder = Mockito.inOrder(refresher, delegate);
@@ -101,6 +130,13 @@ public class TimeLockClientTest {
         inOrder.verify(delegate).unlock(TOKENS);
     }
 
+    @Test
+    public void unlockReturnsOnlyTokensThatWereUnlocked() {
+        when(delegate.unlock(TOKENS)).thenReturn(ImmutableSet.of(TOKEN_2));
+
+        assertThat(timelock.unlock(TOKENS)).containsExactly(TOKEN_2);
+    }
+
     @Test
     public void refreshDelegates() {
         timelock.refreshLockLeases(TOKENS);
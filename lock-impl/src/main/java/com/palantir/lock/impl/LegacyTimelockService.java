@@ -16,12 +16,15 @@
 
 package com.palantir.lock.impl;
 
+import java.util.List;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.palantir.common.base.Throwables;
@@ -32,11 +35,14 @@ import com.palantir.lock.LockMode;
 import com.palantir.lock.LockRefreshToken;
 import com.palantir.lock.LockService;
 import com.palantir.lock.SimpleTimeDuration;
+import com.palantir.lock.v2.ImmutableLockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -101,6 +107,24 @@ public class LegacyTimelockService implements TimelockService {
         }
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        List<LockImmutableTimestampResponse> immutableTsLocks = Lists.newArrayList();
+        try {
+            for (UUID requestId : request.getRequestIds()) {
+                immutableTsLocks.add(lockImmutableTimestamp(ImmutableLockImmutableTimestampRequest.of(requestId)));
+            }
+            return StartTransactionsResponse.of(
+                    immutableTsLocks,
+                    timestampService.getFreshTimestamps(immutableTsLocks.size()));
+        } catch (Throwable e) {
+            unlock(immutableTsLocks.stream()
+                    .map(LockImmutableTimestampResponse::getLock)
+                    .collect(Collectors.toSet()));
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
     @Override
     public long getImmutableTimestamp() {
         long ts = timestampService.getFreshTimestamp();
@@ -117,6 +141,11 @@ public class LegacyTimelockService implements TimelockService {
         }
     }
 
+    @Override
+    public List<LockResponse> lockBatch(List<LockRequest> requests) {
+        return requests.stream().map(this::lock).collect(Collectors.toList());
+    }
+
     @Override
     public WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
         com.palantir.lock.LockRequest legacyRequest = toLegacyWaitForLocksRequest(request.getLockDescriptors());
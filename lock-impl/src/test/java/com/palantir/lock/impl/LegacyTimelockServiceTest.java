@@ -32,6 +32,7 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
@@ -48,6 +49,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
 import com.palantir.timestamp.TimestampService;
@@ -102,6 +105,26 @@ public class LegacyTimelockServiceTest {
         assertEquals(expectedResponse, timelock.lockImmutableTimestamp(LockImmutableTimestampRequest.create()));
     }
 
+    @Test
+    public void startTransactionsLocksImmutableTimestampBeforeIssuingStartTimestamps() throws InterruptedException {
+        long immutableTs = 3L;
+        TimestampRange startTimestamps = TimestampRange.createInclusiveRange(6L, 7L);
+
+        LockRefreshToken expectedToken = mockImmutableTsLockResponse();
+        mockMinLockedInVersionIdResponse(immutableTs);
+        when(timestampService.getFreshTimestamps(2)).thenReturn(startTimestamps);
+
+        InOrder inOrder = Mockito.inOrder(timestampService, lockService);
+        StartTransactionsResponse response = timelock.startTransactions(StartTransactionsRequest.create(2));
+
+        LockImmutableTimestampResponse expectedLock = LockImmutableTimestampResponse.of(immutableTs,
+                toTokenV2(expectedToken));
+        assertEquals(ImmutableList.of(expectedLock, expectedLock), response.getImmutableTimestampLocks());
+        assertEquals(startTimestamps, response.getStartTimestamps());
+        inOrder.verify(lockService, Mockito.times(2)).lock(Mockito.eq(LOCK_CLIENT.getClientId()), Mockito.any());
+        inOrder.verify(timestampService).getFreshTimestamps(2);
+    }
+
     @Test
     public void getImmutableTimestampDelegatesInProperOrder() throws InterruptedException {
         long immutableTs = 3L;
@@ -135,6 +158,21 @@ public class LegacyTimelockServiceTest {
         verify(lockService).lock(LockClient.ANONYMOUS.getClientId(), legacyRequest);
     }
 
+    @Test
+    public void lockBatchLocksEachRequest() throws InterruptedException {
+        com.palantir.lock.LockRequest legacyRequest = com.palantir.lock.LockRequest.builder(buildLockMap(LockMode.WRITE))
+                .blockForAtMost(SimpleTimeDuration.of(TIMEOUT, TimeUnit.MILLISECONDS))
+                .build();
+
+        when(lockService.lock(LockClient.ANONYMOUS.getClientId(), legacyRequest))
+                .thenReturn(LOCK_REFRESH_TOKEN)
+                .thenReturn(null);
+
+        LockRequest request = LockRequest.of(ImmutableSet.of(LOCK_A, LOCK_B), TIMEOUT);
+        assertEquals(ImmutableList.of(LockResponse.successful(LOCK_TOKEN_V2), LockResponse.timedOut()),
+                timelock.lockBatch(ImmutableList.of(request, request)));
+    }
+
     @Test
     public void waitForLocksDelegatesToLockService() throws InterruptedException {
         com.palantir.lock.LockRequest legacyRequest = com.palantir.lock.LockRequest.builder(buildLockMap(LockMode.READ)).lockAndRelease().build();
@@ -87,7 +87,7 @@ public class PaxosTimestampCreator implements TimestampCreator {
                 "timestamp-bound-store." + client);
 
         PaxosProposer proposer = instrument(PaxosProposer.class,
-                PaxosProposerImpl.newProposer(
+                PaxosProposerImpl.newStableLeaderProposer(
                         ourLearner,
                         ImmutableList.copyOf(acceptors),
                         ImmutableList.copyOf(learners),
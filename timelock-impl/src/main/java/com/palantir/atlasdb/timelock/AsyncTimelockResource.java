@@ -16,7 +16,10 @@
 
 package com.palantir.atlasdb.timelock;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
@@ -27,6 +30,7 @@ import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 
+import com.google.common.collect.Lists;
 import com.palantir.atlasdb.timelock.lock.AsyncResult;
 import com.palantir.atlasdb.timelock.lock.LockLog;
 import com.palantir.lock.v2.LockImmutableTimestampRequest;
@@ -34,6 +38,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.logsafe.Safe;
@@ -68,6 +74,12 @@ public class AsyncTimelockResource {
         return timelock.lockImmutableTimestamp(request);
     }
 
+    @POST
+    @Path("start-transactions")
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        return timelock.startTransactions(request);
+    }
+
     @POST
     @Path("immutable-timestamp")
     public long getImmutableTimestamp() {
@@ -90,6 +102,52 @@ public class AsyncTimelockResource {
         });
     }
 
+    /**
+     * Starts all requests at once and responds when the last of them completes. If any request fails, the locks
+     * acquired by the others are released and the error is returned for the whole batch.
+     */
+    @POST
+    @Path("lock-batch")
+    public void lockBatch(@Suspended final AsyncResponse response, List<LockRequest> requests) {
+        if (requests.isEmpty()) {
+            response.resume(Lists.newArrayList());
+            return;
+        }
+        List<AsyncResult<LockToken>> results = Lists.newArrayListWithCapacity(requests.size());
+        for (LockRequest request : requests) {
+            AsyncResult<LockToken> result = timelock.lock(request);
+            LockLog.registerRequest(request, result);
+            results.add(result);
+        }
+        AtomicInteger remaining = new AtomicInteger(results.size());
+        for (AsyncResult<LockToken> result : results) {
+            result.onComplete(() -> {
+                if (remaining.decrementAndGet() == 0) {
+                    resumeLockBatch(response, results);
+                }
+            });
+        }
+    }
+
+    private void resumeLockBatch(AsyncResponse response, List<AsyncResult<LockToken>> results) {
+        for (AsyncResult<LockToken> result : results) {
+            if (result.isFailed()) {
+                Set<LockToken> acquired = results.stream()
+                        .filter(AsyncResult::isCompletedSuccessfully)
+                        .map(AsyncResult::get)
+                        .collect(Collectors.toSet());
+                timelock.unlock(acquired);
+                response.resume(result.getError());
+                return;
+            }
+        }
+        response.resume(results.stream()
+                .map(result -> result.isTimedOut()
+                        ? LockResponse.timedOut()
+                        : LockResponse.successful(result.get()))
+                .collect(Collectors.toList()));
+    }
+
     @POST
     @Path("await-locks")
     public void waitForLocks(@Suspended final AsyncResponse response, WaitForLocksRequest request) {
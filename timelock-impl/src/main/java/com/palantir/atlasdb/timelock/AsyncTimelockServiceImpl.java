@@ -17,16 +17,23 @@
 package com.palantir.atlasdb.timelock;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.AsyncResult;
 import com.palantir.atlasdb.timelock.lock.TimeLimit;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
+import com.palantir.common.base.Throwables;
 import com.palantir.lock.v2.LockImmutableTimestampRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
 
@@ -66,6 +73,35 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return LockImmutableTimestampResponse.of(immutableTs, token);
     }
 
+    @Override
+    public StartTransactionsResponse startTransactions(StartTransactionsRequest request) {
+        List<UUID> requestIds = request.getRequestIds();
+        // every transaction needs its own timestamp to lock, as the tracker allows one holder per timestamp
+        TimestampRange lockTimestamps = timestampService.getFreshTimestamps(requestIds.size());
+
+        // these will always return synchronously
+        List<LockToken> tokens = Lists.newArrayListWithCapacity(requestIds.size());
+        long minLockedTimestamp = lockTimestamps.getLowerBound();
+        try {
+            for (int i = 0; i < requestIds.size(); i++) {
+                long timestamp = i < lockTimestamps.size()
+                        ? lockTimestamps.getLowerBound() + i
+                        : timestampService.getFreshTimestamp();
+                tokens.add(lockService.lockImmutableTimestamp(requestIds.get(i), timestamp).get());
+            }
+            long immutableTs = lockService.getImmutableTimestamp().orElse(minLockedTimestamp);
+
+            List<LockImmutableTimestampResponse> immutableTsLocks = Lists.transform(
+                    tokens, token -> LockImmutableTimestampResponse.of(immutableTs, token));
+            return StartTransactionsResponse.of(
+                    immutableTsLocks,
+                    timestampService.getFreshTimestamps(tokens.size()));
+        } catch (Throwable e) {
+            lockService.unlock(ImmutableSet.copyOf(tokens));
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+    }
+
     @Override
     public long getImmutableTimestamp() {
         long timestamp = timestampService.getFreshTimestamp();
@@ -105,13 +105,34 @@ public class AsyncLockService implements Closeable {
     private AsyncResult<HeldLocks> acquireLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
             TimeLimit timeout) {
         OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
-        return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout);
+        AsyncResult<HeldLocks> result;
+        try {
+            result = lockAcquirer.acquireLocks(requestId, orderedLocks, timeout, () -> locks.release(orderedLocks));
+        } catch (Throwable t) {
+            locks.release(orderedLocks);
+            throw t;
+        }
+        // if the locks were acquired, they are released when they are unlocked instead
+        result.onComplete(() -> {
+            if (!result.isCompletedSuccessfully()) {
+                locks.release(orderedLocks);
+            }
+        });
+        return result;
     }
 
     private AsyncResult<Void> awaitLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
             TimeLimit timeout) {
         OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
-        return lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
+        AsyncResult<Void> result;
+        try {
+            result = lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
+        } catch (Throwable t) {
+            locks.release(orderedLocks);
+            throw t;
+        }
+        result.onComplete(() -> locks.release(orderedLocks));
+        return result;
     }
 
     private AsyncResult<HeldLocks> acquireImmutableTimestampLock(UUID requestId, long timestamp) {
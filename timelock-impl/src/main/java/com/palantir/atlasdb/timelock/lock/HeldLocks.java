@@ -28,22 +28,38 @@ import com.palantir.lock.v2.LockToken;
 
 public class HeldLocks {
 
+    static final Runnable NO_OP_CALLBACK = () -> { };
+
     private final Collection<AsyncLock> acquiredLocks;
     private final LockToken token;
     private final LeaseExpirationTimer expirationTimer;
+    private final Runnable afterUnlock;
 
     @GuardedBy("this")
     private boolean isUnlocked = false;
 
     public HeldLocks(Collection<AsyncLock> acquiredLocks, UUID requestId) {
-        this(acquiredLocks, requestId, new LeaseExpirationTimer(System::currentTimeMillis));
+        this(acquiredLocks, requestId, NO_OP_CALLBACK);
+    }
+
+    public HeldLocks(Collection<AsyncLock> acquiredLocks, UUID requestId, Runnable afterUnlock) {
+        this(acquiredLocks, requestId, new LeaseExpirationTimer(System::currentTimeMillis), afterUnlock);
     }
 
     @VisibleForTesting
     HeldLocks(Collection<AsyncLock> acquiredLocks, UUID requestId, LeaseExpirationTimer expirationTimer) {
+        this(acquiredLocks, requestId, expirationTimer, NO_OP_CALLBACK);
+    }
+
+    private HeldLocks(
+            Collection<AsyncLock> acquiredLocks,
+            UUID requestId,
+            LeaseExpirationTimer expirationTimer,
+            Runnable afterUnlock) {
         this.acquiredLocks = acquiredLocks;
         this.token = LockToken.of(requestId);
         this.expirationTimer = expirationTimer;
+        this.afterUnlock = afterUnlock;
     }
 
     /**
@@ -77,6 +93,7 @@ public class HeldLocks {
         for (AsyncLock lock : acquiredLocks) {
             lock.unlock(token.getRequestId());
         }
+        afterUnlock.run();
 
         return true;
     }
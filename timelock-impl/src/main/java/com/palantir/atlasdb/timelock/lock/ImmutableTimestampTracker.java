@@ -16,33 +16,37 @@
 
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.SortedMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
 
-import com.google.common.collect.Maps;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.logsafe.SafeArg;
 
-import net.jcip.annotations.GuardedBy;
-
+/**
+ * Tracks the timestamps locked by running transactions; the smallest of them is the immutable timestamp.
+ * <p>
+ * Every transaction start and end goes through here, so this is backed by a {@link ConcurrentSkipListMap} rather
+ * than a monitor-guarded map: locks and unlocks of different timestamps proceed in parallel, and reading the
+ * minimum only looks at the head of the map.
+ */
 public class ImmutableTimestampTracker {
 
-    @GuardedBy("this")
-    private final SortedMap<Long, UUID> holdersByTimestamp = Maps.newTreeMap();
+    private final ConcurrentSkipListMap<Long, UUID> holdersByTimestamp = new ConcurrentSkipListMap<>();
 
-    public synchronized void lock(long timestamp, UUID requestId) {
-        boolean wasAdded = holdersByTimestamp.putIfAbsent(timestamp, requestId) == null;
-        if (!wasAdded) {
+    public void lock(long timestamp, UUID requestId) {
+        UUID currentHolder = holdersByTimestamp.putIfAbsent(timestamp, requestId);
+        if (currentHolder != null) {
             throw new LoggableIllegalStateException(
                     "A request attempted to lock a timestamp that was already locked",
                     SafeArg.of("timestamp", timestamp),
                     SafeArg.of("requestId", requestId),
-                    SafeArg.of("currentHolder", holdersByTimestamp.get(timestamp)));
+                    SafeArg.of("currentHolder", currentHolder));
         }
     }
 
-    public synchronized void unlock(long timestamp, UUID requestId) {
+    public void unlock(long timestamp, UUID requestId) {
         boolean wasRemoved = holdersByTimestamp.remove(timestamp, requestId);
         if (!wasRemoved) {
             throw new LoggableIllegalStateException(
@@ -53,11 +57,9 @@ public class ImmutableTimestampTracker {
         }
     }
 
-    public synchronized Optional<Long> getImmutableTimestamp() {
-        if (holdersByTimestamp.isEmpty()) {
-            return Optional.empty();
-        }
-        return Optional.of(holdersByTimestamp.firstKey());
+    public Optional<Long> getImmutableTimestamp() {
+        Map.Entry<Long, UUID> oldestHolder = holdersByTimestamp.firstEntry();
+        return oldestHolder == null ? Optional.empty() : Optional.of(oldestHolder.getKey());
     }
 
     // TODO(nziebart): should these locks should be created by LockCollection for consistency?
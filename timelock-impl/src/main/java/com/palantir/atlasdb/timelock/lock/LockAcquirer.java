@@ -38,9 +38,20 @@ public class LockAcquirer {
     }
 
     public AsyncResult<HeldLocks> acquireLocks(UUID requestId, OrderedLocks locks, TimeLimit timeout) {
-        return new Acquisition(requestId, locks, timeout, lock -> lock.lock(requestId)).execute()
-                .map(ignored -> new HeldLocks(locks.get(), requestId));
+        return acquireLocks(requestId, locks, timeout, HeldLocks.NO_OP_CALLBACK);
+    }
 
+    /**
+     * Like {@link #acquireLocks(UUID, OrderedLocks, TimeLimit)}, but runs {@code afterUnlock} once the acquired locks
+     * have been unlocked.
+     */
+    public AsyncResult<HeldLocks> acquireLocks(
+            UUID requestId,
+            OrderedLocks locks,
+            TimeLimit timeout,
+            Runnable afterUnlock) {
+        return new Acquisition(requestId, locks, timeout, lock -> lock.lock(requestId)).execute()
+                .map(ignored -> new HeldLocks(locks.get(), requestId, afterUnlock));
     }
 
     public AsyncResult<Void> waitForLocks(UUID requestId, OrderedLocks locks, TimeLimit timeout) {
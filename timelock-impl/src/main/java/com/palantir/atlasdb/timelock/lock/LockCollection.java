@@ -20,46 +20,81 @@ package com.palantir.atlasdb.timelock.lock;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.palantir.lock.LockDescriptor;
 
+/**
+ * The table of row locks, keyed by descriptor.
+ * <p>
+ * Entries are reference counted: {@link #getAll} takes a reference to each lock it returns, and the caller must hand
+ * the same {@link OrderedLocks} to {@link #release} once its request no longer holds or waits for them. A lock is
+ * removed from the table as soon as its last reference is released, so every request that can observe a lock sees
+ * the same instance, and idle locks are cleaned up without relying on the garbage collector. Reference counts are
+ * only changed inside {@link ConcurrentMap#compute}, so updates to different descriptors do not contend.
+ */
 public class LockCollection {
 
-    private final LoadingCache<LockDescriptor, ExclusiveLock> locksById;
-
-    public LockCollection() {
-        locksById = CacheBuilder.newBuilder()
-                .weakValues()
-                .build(new CacheLoader<LockDescriptor, ExclusiveLock>() {
-                    @Override
-                    public ExclusiveLock load(LockDescriptor descriptor) throws Exception {
-                        return new ExclusiveLock(descriptor);
-                    }
-                });
-    }
+    private final ConcurrentMap<LockDescriptor, ReferenceCountedLock> locksById = new ConcurrentHashMap<>();
 
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
         List<LockDescriptor> orderedDescriptors = sort(descriptors);
 
         List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
         for (LockDescriptor descriptor : orderedDescriptors) {
-            locks.add(getLock(descriptor));
+            locks.add(acquireReference(descriptor));
         }
         return OrderedLocks.fromOrderedList(locks);
     }
 
+    public void release(OrderedLocks locks) {
+        for (AsyncLock lock : locks.get()) {
+            releaseReference(lock);
+        }
+    }
+
+    @VisibleForTesting
+    int size() {
+        return locksById.size();
+    }
+
     private List<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
         List<LockDescriptor> orderedDescriptors = Lists.newArrayList(descriptors);
         orderedDescriptors.sort(Comparator.naturalOrder());
         return orderedDescriptors;
     }
 
-    private AsyncLock getLock(LockDescriptor descriptor) {
-        return locksById.getUnchecked(descriptor);
+    private AsyncLock acquireReference(LockDescriptor descriptor) {
+        return locksById.compute(descriptor, (ignored, existing) -> {
+            ReferenceCountedLock entry = existing == null
+                    ? new ReferenceCountedLock(new ExclusiveLock(descriptor))
+                    : existing;
+            entry.references++;
+            return entry;
+        }).lock;
+    }
+
+    private void releaseReference(AsyncLock lock) {
+        locksById.computeIfPresent(lock.getDescriptor(), (ignored, entry) -> {
+            if (entry.lock != lock) {
+                return entry;
+            }
+            entry.references--;
+            return entry.references == 0 ? null : entry;
+        });
+    }
+
+    private static final class ReferenceCountedLock {
+        private final ExclusiveLock lock;
+        // only read or written inside ConcurrentMap#compute for this lock's descriptor
+        private int references = 0;
+
+        ReferenceCountedLock(ExclusiveLock lock) {
+            this.lock = lock;
+        }
     }
 
 }
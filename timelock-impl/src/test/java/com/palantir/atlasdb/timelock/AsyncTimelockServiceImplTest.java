@@ -16,15 +16,23 @@
 
 package com.palantir.atlasdb.timelock;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.Executors;
+
 import org.junit.Test;
 
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
+import com.palantir.timestamp.TimestampRange;
 
 public class AsyncTimelockServiceImplTest {
     @Test
@@ -38,4 +46,48 @@ public class AsyncTimelockServiceImplTest {
         assertFalse(service.isInitialized());
         assertTrue(service.isInitialized());
     }
+
+    @Test
+    public void startTransactionsLocksADistinctTimestampPerTransaction() {
+        ManagedTimestampService mockMts = mock(ManagedTimestampService.class);
+        TimestampRange startTimestamps = TimestampRange.createInclusiveRange(13L, 15L);
+        when(mockMts.getFreshTimestamps(3))
+                .thenReturn(TimestampRange.createInclusiveRange(10L, 12L))
+                .thenReturn(startTimestamps);
+        AsyncTimelockServiceImpl service = new AsyncTimelockServiceImpl(
+                AsyncLockService.createDefault(
+                        Executors.newSingleThreadScheduledExecutor(),
+                        Executors.newSingleThreadScheduledExecutor()),
+                mockMts);
+
+        StartTransactionsResponse response = service.startTransactions(StartTransactionsRequest.create(3));
+
+        assertThat(response.getImmutableTimestampLocks())
+                .extracting(LockImmutableTimestampResponse::getImmutableTimestamp)
+                .containsExactly(10L, 10L, 10L);
+        assertThat(response.getImmutableTimestampLocks())
+                .extracting(LockImmutableTimestampResponse::getLock)
+                .doesNotHaveDuplicates();
+        assertThat(response.getStartTimestamps()).isSameAs(startTimestamps);
+        assertThat(service.getImmutableTimestamp()).isEqualTo(10L);
+    }
+
+    @Test
+    public void startTransactionsReleasesAcquiredLocksIfALaterLockFails() {
+        ManagedTimestampService mockMts = mock(ManagedTimestampService.class);
+        when(mockMts.getFreshTimestamps(3)).thenReturn(TimestampRange.createInclusiveRange(10L, 10L));
+        when(mockMts.getFreshTimestamp())
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(20L);
+        AsyncTimelockServiceImpl service = new AsyncTimelockServiceImpl(
+                AsyncLockService.createDefault(
+                        Executors.newSingleThreadScheduledExecutor(),
+                        Executors.newSingleThreadScheduledExecutor()),
+                mockMts);
+
+        assertThatThrownBy(() -> service.startTransactions(StartTransactionsRequest.create(3)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+        assertThat(service.getImmutableTimestamp()).isEqualTo(20L);
+    }
 }
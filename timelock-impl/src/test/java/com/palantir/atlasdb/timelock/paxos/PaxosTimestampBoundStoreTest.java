@@ -34,20 +34,28 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 
 import org.apache.commons.io.FileUtils;
+import org.awaitility.Awaitility;
+import org.awaitility.Duration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.remoting.ServiceNotAvailableException;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.leader.proxy.ToggleableExceptionProxy;
+import com.palantir.paxos.BooleanPaxosResponse;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptorImpl;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosLearnerImpl;
+import com.palantir.paxos.PaxosPromise;
+import com.palantir.paxos.PaxosProposal;
+import com.palantir.paxos.PaxosProposalId;
 import com.palantir.paxos.PaxosProposer;
 import com.palantir.paxos.PaxosProposerImpl;
 import com.palantir.paxos.PaxosRoundFailureException;
@@ -272,6 +280,38 @@ public class PaxosTimestampBoundStoreTest {
         verify(wrapper, times(2)).propose(anyLong(), anyObject());
     }
 
+    @Test(timeout = 30_000) // storeUpperLimit retries forever if it needs to prepare
+    public void doesNotPrepareSequenceThatWasPreparedAhead() {
+        Multiset<Long> preparedSequences = ConcurrentHashMultiset.create();
+        AtomicBoolean failPrepares = new AtomicBoolean(false);
+        List<PaxosAcceptor> preparingAcceptors = Lists.transform(acceptors,
+                acceptor -> new PrepareTrackingAcceptor(acceptor, preparedSequences, failPrepares));
+        store = createPaxosTimestampBoundStore(0, createPaxosProposer(0, preparingAcceptors));
+
+        store.storeUpperLimit(TIMESTAMP_1);
+        Awaitility.await()
+                .atMost(Duration.FIVE_SECONDS)
+                .until(() -> preparedSequences.count(1L) == NUM_NODES);
+        failPrepares.set(true);
+
+        store.storeUpperLimit(TIMESTAMP_2);
+        failPrepares.set(false);
+        assertThat(store.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_2);
+    }
+
+    @Test
+    public void throwsIfAnotherNodeTookOverTheSequenceWePreparedAhead() {
+        store.storeUpperLimit(TIMESTAMP_1);
+
+        PaxosTimestampBoundStore additionalStore = createPaxosTimestampBoundStore(1);
+        assertThat(additionalStore.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_1);
+        additionalStore.storeUpperLimit(TIMESTAMP_2);
+
+        assertThatThrownBy(() -> store.storeUpperLimit(TIMESTAMP_3))
+                .isInstanceOf(NotCurrentLeaderException.class);
+        assertThat(additionalStore.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_2);
+    }
+
     private PaxosTimestampBoundStore createPaxosTimestampBoundStore(int nodeIndex) {
         PaxosProposer proposer = createPaxosProposer(nodeIndex);
         return createPaxosTimestampBoundStore(nodeIndex, proposer);
@@ -287,15 +327,51 @@ public class PaxosTimestampBoundStoreTest {
     }
 
     private PaxosProposer createPaxosProposer(int nodeIndex) {
-        return PaxosProposerImpl.newProposer(
+        return createPaxosProposer(nodeIndex, acceptors);
+    }
+
+    private PaxosProposer createPaxosProposer(int nodeIndex, List<PaxosAcceptor> proposerAcceptors) {
+        return PaxosProposerImpl.newStableLeaderProposer(
                 learners.get(nodeIndex),
-                ImmutableList.copyOf(acceptors),
+                ImmutableList.copyOf(proposerAcceptors),
                 ImmutableList.copyOf(learners),
                 NUM_NODES / 2 + 1,
                 UUID.randomUUID(),
                 executor);
     }
 
+    private static class PrepareTrackingAcceptor implements PaxosAcceptor {
+        private final PaxosAcceptor delegate;
+        private final Multiset<Long> preparedSequences;
+        private final AtomicBoolean failPrepares;
+
+        PrepareTrackingAcceptor(PaxosAcceptor delegate, Multiset<Long> preparedSequences, AtomicBoolean failPrepares) {
+            this.delegate = delegate;
+            this.preparedSequences = preparedSequences;
+            this.failPrepares = failPrepares;
+        }
+
+        @Override
+        public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+            if (failPrepares.get()) {
+                throw EXCEPTION;
+            }
+            PaxosPromise promise = delegate.prepare(seq, pid);
+            preparedSequences.add(seq);
+            return promise;
+        }
+
+        @Override
+        public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+            return delegate.accept(seq, proposal);
+        }
+
+        @Override
+        public long getLatestSequencePreparedOrAccepted() {
+            return delegate.getLatestSequencePreparedOrAccepted();
+        }
+    }
+
     private static class OnceFailingPaxosProposer implements PaxosProposer {
         private final PaxosProposer delegate;
         private boolean hasFailed = false;
@@ -55,6 +55,8 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartTransactionsRequest;
+import com.palantir.lock.v2.StartTransactionsResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.timestamp.TimestampRange;
@@ -97,6 +99,15 @@ public class AsyncTimelockServiceIntegrationTest extends AbstractAsyncTimelockSe
         assertLockedAndUnlock(futureToken);
     }
 
+    @Test
+    public void canLockBatch() {
+        List<LockResponse> responses = cluster.timelockService()
+                .lockBatch(ImmutableList.of(requestFor(LOCK_A), requestFor(LOCK_B)));
+
+        assertThat(responses).hasSize(2);
+        responses.forEach(response -> assertTrue(cluster.unlock(response.getToken())));
+    }
+
     @Test
     public void canLockImmutableTimestamp() {
         LockImmutableTimestampResponse response1 = cluster.timelockService()
@@ -114,6 +125,22 @@ public class AsyncTimelockServiceIntegrationTest extends AbstractAsyncTimelockSe
         cluster.unlock(response2.getLock());
     }
 
+    @Test
+    public void canStartTransactions() {
+        StartTransactionsResponse response = cluster.timelockService()
+                .startTransactions(StartTransactionsRequest.create(3));
+
+        assertThat(response.getImmutableTimestampLocks()).hasSize(3);
+        long immutableTs = cluster.timelockService().getImmutableTimestamp();
+        for (LockImmutableTimestampResponse lock : response.getImmutableTimestampLocks()) {
+            assertThat(lock.getImmutableTimestamp()).isEqualTo(immutableTs);
+            assertThat(response.getStartTimestamps().getLowerBound()).isGreaterThan(lock.getImmutableTimestamp());
+        }
+        assertThat(response.getStartTimestamps().size()).isEqualTo(3L);
+
+        response.getImmutableTimestampLocks().forEach(lock -> cluster.unlock(lock.getLock()));
+    }
+
     @Test
     public void immutableTimestampIsGreaterThanFreshTimestampWhenNotLocked() {
         long freshTs = cluster.getFreshTimestamp();
@@ -19,8 +19,10 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,6 +43,7 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableList;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockToken;
 
 public class AsyncLockServiceTest {
 
@@ -66,6 +69,7 @@ public class AsyncLockServiceTest {
     @Before
     public void before() {
         when(acquirer.acquireLocks(any(), any(), any())).thenReturn(new AsyncResult<>());
+        when(acquirer.acquireLocks(any(), any(), any(), any())).thenReturn(new AsyncResult<>());
         when(acquirer.waitForLocks(any(), any(), any())).thenReturn(new AsyncResult<>());
         when(locks.getAll(any())).thenReturn(OrderedLocks.fromSingleLock(newLock()));
         when(immutableTimestampTracker.getImmutableTimestamp()).thenReturn(Optional.empty());
@@ -80,7 +84,7 @@ public class AsyncLockServiceTest {
 
         lockService.lock(REQUEST_ID, descriptors, DEADLINE);
 
-        verify(acquirer).acquireLocks(REQUEST_ID, expected, DEADLINE);
+        verify(acquirer).acquireLocks(eq(REQUEST_ID), eq(expected), eq(DEADLINE), any());
     }
 
     @Test
@@ -100,7 +104,7 @@ public class AsyncLockServiceTest {
         lockService.lock(REQUEST_ID, descriptors, DEADLINE);
         lockService.lock(REQUEST_ID, descriptors, DEADLINE);
 
-        verify(acquirer, times(1)).acquireLocks(any(), any(), any());
+        verify(acquirer, times(1)).acquireLocks(any(), any(), any(), any());
         verifyNoMoreInteractions(acquirer);
     }
 
@@ -148,13 +152,59 @@ public class AsyncLockServiceTest {
     public void propagatesTimeoutExceptionIfRequestTimesOut() {
         AsyncResult<HeldLocks> timedOutResult = new AsyncResult<>();
         timedOutResult.timeout();
-        when(acquirer.acquireLocks(any(), any(), any())).thenReturn(timedOutResult);
+        when(acquirer.acquireLocks(any(), any(), any(), any())).thenReturn(timedOutResult);
 
         AsyncResult<?> result = lockService.lock(REQUEST_ID, descriptors(LOCK_A), DEADLINE);
 
         assertThat(result.isTimedOut()).isTrue();
     }
 
+    @Test
+    public void releasesLocksIfAcquisitionDoesNotSucceed() {
+        OrderedLocks orderedLocks = orderedLocks(newLock());
+        when(locks.getAll(any())).thenReturn(orderedLocks);
+        AsyncResult<HeldLocks> acquisition = new AsyncResult<>();
+        when(acquirer.acquireLocks(any(), any(), any(), any())).thenReturn(acquisition);
+
+        lockService.lock(REQUEST_ID, descriptors(LOCK_A), DEADLINE);
+        verify(locks, never()).release(any());
+
+        acquisition.timeout();
+        verify(locks).release(orderedLocks);
+    }
+
+    @Test
+    public void releasesLocksWhenTheyAreUnlocked() {
+        OrderedLocks orderedLocks = orderedLocks(newLock());
+        when(locks.getAll(any())).thenReturn(orderedLocks);
+        AsyncResult<HeldLocks> acquisition = new AsyncResult<>();
+        when(acquirer.acquireLocks(eq(REQUEST_ID), eq(orderedLocks), eq(DEADLINE), any())).thenAnswer(invocation -> {
+            Runnable afterUnlock = invocation.getArgumentAt(3, Runnable.class);
+            acquisition.complete(new HeldLocks(orderedLocks.get(), REQUEST_ID, afterUnlock));
+            return acquisition;
+        });
+
+        LockToken token = lockService.lock(REQUEST_ID, descriptors(LOCK_A), DEADLINE).get();
+        verify(locks, never()).release(any());
+
+        lockService.unlock(token);
+        verify(locks).release(orderedLocks);
+    }
+
+    @Test
+    public void releasesLocksOnceWaitingCompletes() {
+        OrderedLocks orderedLocks = orderedLocks(newLock());
+        when(locks.getAll(any())).thenReturn(orderedLocks);
+        AsyncResult<Void> wait = new AsyncResult<>();
+        when(acquirer.waitForLocks(any(), any(), any())).thenReturn(wait);
+
+        lockService.waitForLocks(REQUEST_ID, descriptors(LOCK_A), DEADLINE);
+        verify(locks, never()).release(any());
+
+        wait.complete(null);
+        verify(locks).release(orderedLocks);
+    }
+
     private ExclusiveLock newLock() {
         return new ExclusiveLock(LOCK_DESCRIPTOR);
     }
@@ -19,11 +19,18 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 public class ImmutableTimestampTrackerTest {
 
     private static final UUID REQUEST_1 = UUID.randomUUID();
@@ -81,6 +88,36 @@ public class ImmutableTimestampTrackerTest {
         assertThatThrownBy(() -> unlock(TIMESTAMP_1, REQUEST_1)).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void concurrentLocksAndUnlocksLeaveOnlyHeldTimestamps() throws Exception {
+        lock(TIMESTAMP_1, REQUEST_1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = Lists.newArrayList();
+            for (int thread = 0; thread < 8; thread++) {
+                long firstTimestamp = 1_000L * (thread + 1);
+                futures.add(executor.submit(() -> {
+                    for (long timestamp = firstTimestamp; timestamp < firstTimestamp + 1_000; timestamp++) {
+                        UUID requestId = UUID.randomUUID();
+                        lock(timestamp, requestId);
+                        assertThat(tracker.getImmutableTimestamp().get()).isEqualTo(TIMESTAMP_1);
+                        unlock(timestamp, requestId);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(tracker.getImmutableTimestamp().get()).isEqualTo(TIMESTAMP_1);
+        unlock(TIMESTAMP_1, REQUEST_1);
+        assertThat(tracker.getImmutableTimestamp()).isEqualTo(Optional.empty());
+    }
+
     private AsyncResult<Void> lock(long timestamp, UUID requestId) {
         return tracker.getLockFor(timestamp).lock(requestId);
     }
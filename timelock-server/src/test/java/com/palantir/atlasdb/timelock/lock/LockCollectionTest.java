@@ -71,6 +71,36 @@ public class LockCollectionTest {
         assertThat(actualOrder).isEqualTo(expectedOrder);
     }
 
+    @Test
+    public void removesLockOnceLastReferenceIsReleased() {
+        Set<LockDescriptor> descriptors = descriptors("foo", "bar");
+
+        OrderedLocks locks1 = lockCollection.getAll(descriptors);
+        OrderedLocks locks2 = lockCollection.getAll(descriptors("foo"));
+        assertThat(lockCollection.size()).isEqualTo(2);
+
+        lockCollection.release(locks1);
+        assertThat(lockCollection.size()).isEqualTo(1);
+        assertThat(lockCollection.getAll(descriptors("foo")).get()).isEqualTo(locks2.get());
+
+        lockCollection.release(locks2);
+        assertThat(lockCollection.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void createsNewLockAfterPreviousOneWasRemoved() {
+        OrderedLocks locks1 = lockCollection.getAll(descriptors("foo"));
+        lockCollection.release(locks1);
+        assertThat(lockCollection.size()).isEqualTo(0);
+
+        OrderedLocks locks2 = lockCollection.getAll(descriptors("foo"));
+        assertThat(locks2.get().get(0)).isNotSameAs(locks1.get().get(0));
+
+        // releasing a stale reference must not affect the new lock
+        lockCollection.release(locks1);
+        assertThat(lockCollection.size()).isEqualTo(1);
+    }
+
     private Set<LockDescriptor> descriptors(String... names) {
         return Arrays.stream(names)
                 .map(StringLockDescriptor::of)
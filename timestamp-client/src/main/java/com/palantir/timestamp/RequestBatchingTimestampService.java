@@ -28,6 +28,9 @@ import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.proxy.TimingProxy;
@@ -36,6 +39,15 @@ import com.palantir.util.timer.LoggingOperationTimer;
 
 /**
  * This uses smart batching to queue up requests and send them all as one larger batch.
+ * <p>
+ * Calls are pipelined: at most one {@link TimestampService#getFreshTimestamps(int)} call is outstanding at a time,
+ * and while it is in flight the next batch stays open and callers join it without taking any lock. Each batch asks
+ * for exactly as many timestamps as it has callers. Handing timestamps left over from an earlier call to a later
+ * caller would break the guarantee that a fresh timestamp is greater than any timestamp issued before the request
+ * started, so batches are never over-sized and leftovers are never reused.
+ * <p>
+ * The size of each batch and the time its callers waited before it was sent are recorded in the
+ * {@code batchSize} histogram and the {@code batchWaitTime} timer.
  * @author carrino
  */
 @ThreadSafe
@@ -50,6 +62,8 @@ public class RequestBatchingTimestampService implements TimestampService {
     private final long minTimeBetweenRequestsMillis;
 
     private final TimestampService delegate;
+    private final Histogram batchSize;
+    private final Timer batchWaitTime;
 
     /* The currently outstanding remote call, if any. If it exists, it should be used,
      * thus batching remote calls. If there is none, one should be created and installed.
@@ -63,8 +77,23 @@ public class RequestBatchingTimestampService implements TimestampService {
     }
 
     public RequestBatchingTimestampService(TimestampService delegate, long minTimeBetweenRequestsMillis) {
+        this(delegate, minTimeBetweenRequestsMillis, new MetricRegistry());
+    }
+
+    public RequestBatchingTimestampService(TimestampService delegate, MetricRegistry metricRegistry) {
+        this(delegate, DEFAULT_MIN_TIME_BETWEEN_REQUESTS, metricRegistry);
+    }
+
+    public RequestBatchingTimestampService(
+            TimestampService delegate,
+            long minTimeBetweenRequestsMillis,
+            MetricRegistry metricRegistry) {
         this.delegate = TimingProxy.newProxyInstance(TimestampService.class, delegate, timer);
         this.minTimeBetweenRequestsMillis = minTimeBetweenRequestsMillis;
+        this.batchSize = metricRegistry.histogram(
+                MetricRegistry.name(RequestBatchingTimestampService.class, "batchSize"));
+        this.batchWaitTime = metricRegistry.timer(
+                MetricRegistry.name(RequestBatchingTimestampService.class, "batchWaitTime"));
     }
 
     @Override
@@ -177,6 +206,8 @@ public class RequestBatchingTimestampService implements TimestampService {
             // NOTE: At this point, we are sure no new requests for fresh timestamps
             // for "batch" can come in. We can now safely populate the batch
             // with fresh timestamps without violating any freshness guarantees.
+            batchSize.update(numTimestampsToGet);
+            batchWaitTime.update(System.nanoTime() - batch.getCreationTimeNanos(), TimeUnit.NANOSECONDS);
             // TODO(jkong): probably need to adjust this formula
             TimestampRange freshTimestamps = delegate.getFreshTimestamps(numTimestampsToGet);
 
@@ -218,6 +249,7 @@ public class RequestBatchingTimestampService implements TimestampService {
         private volatile boolean failed;
         private volatile long endInclusive;
         private final AtomicLong valueToReturnNext;
+        private final long creationTimeNanos = System.nanoTime();
 
         TimestampHolder() {
             requestCount = new AtomicInteger(1); // 1 because the current thread wants to make a request.
@@ -243,6 +275,9 @@ public class RequestBatchingTimestampService implements TimestampService {
         public void becomeReadable() {
             populationLatch.countDown();
         }
+        public long getCreationTimeNanos() {
+            return creationTimeNanos;
+        }
         // End creator-only threads.
 
         public boolean isFailed() {
@@ -27,6 +27,8 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.remoting2.tracing.Tracers;
 
@@ -44,6 +46,23 @@ public class RequestBatchingTimestampServiceTest {
         assertTrue(service.isInitialized());
     }
 
+    @Test
+    public void recordsBatchSizeAndWaitTime() {
+        MetricRegistry metricRegistry = new MetricRegistry();
+        RequestBatchingTimestampService service =
+                new RequestBatchingTimestampService(new InMemoryTimestampService(), metricRegistry);
+
+        service.getFreshTimestamp();
+        service.getFreshTimestamp();
+
+        Histogram batchSize = metricRegistry.histogram(
+                MetricRegistry.name(RequestBatchingTimestampService.class, "batchSize"));
+        assertEquals(2, batchSize.getCount());
+        assertEquals(1, batchSize.getSnapshot().getMax());
+        assertEquals(2, metricRegistry.timer(
+                MetricRegistry.name(RequestBatchingTimestampService.class, "batchWaitTime")).getCount());
+    }
+
     @Test
     public void testRateLimiting() throws Exception {
         final long minRequestMillis = 100L;